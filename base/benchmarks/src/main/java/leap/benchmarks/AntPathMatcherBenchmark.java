@@ -0,0 +1,55 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package leap.benchmarks;
+
+import leap.lang.path.AntPathMatcher;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AntPathMatcherBenchmark {
+
+    private final AntPathMatcher matcher = AntPathMatcher.DEFAULT_INSTANCE;
+
+    @Benchmark
+    public boolean matchLiteral() {
+        return matcher.match("/static/css/site.css", "/static/css/site.css");
+    }
+
+    @Benchmark
+    public boolean matchWildcard() {
+        return matcher.match("/static/**/*.css", "/static/css/themes/default/site.css");
+    }
+
+    @Benchmark
+    public boolean matchNotMatched() {
+        return matcher.match("/static/**/*.js", "/static/css/themes/default/site.css");
+    }
+
+    @Benchmark
+    public Map<String, String> extractVariables() {
+        return matcher.extractUriTemplateVariables("/users/{id}/roles/{roleId}", "/users/100/roles/200");
+    }
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package leap.benchmarks;
+
+import leap.benchmarks.app.models.BenchUser;
+import leap.lang.beans.BeanProperty;
+import leap.lang.beans.BeanType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeanTypeBenchmark {
+
+    private final BenchUser    user = new BenchUser();
+    private final BeanType     type = BeanType.of(BenchUser.class);
+    private final BeanProperty name = type.getProperty("name");
+
+    @Setup
+    public void setup() {
+        user.setName("leap");
+    }
+
+    @Benchmark
+    public BeanType lookupType() {
+        return BeanType.of(BenchUser.class);
+    }
+
+    @Benchmark
+    public BeanProperty lookupProperty() {
+        return type.getProperty("email");
+    }
+
+    @Benchmark
+    public Object getValue() {
+        return name.getValue(user);
+    }
+
+    @Benchmark
+    public void setValue() {
+        name.setValue(user, "leap");
+    }
+
+    @Benchmark
+    public void setPropertyByName() {
+        type.setProperty(user, "age", 18);
+    }
+
+}
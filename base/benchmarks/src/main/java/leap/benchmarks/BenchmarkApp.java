@@ -0,0 +1,141 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package leap.benchmarks;
+
+import leap.benchmarks.app.models.BenchUser;
+import leap.core.AppContext;
+import leap.lang.io.IO;
+import leap.lang.resource.Resources;
+import leap.orm.dao.Dao;
+import leap.web.App;
+import leap.web.AppBootstrap;
+import leap.webunit.client.THttpClient;
+import leap.webunit.client.THttpClientImpl;
+import leap.webunit.server.TWebServer;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * The web app of the benchmarks, runs in the embedded jetty server of {@link TWebServer} with the in-memory h2 database
+ * configured in <code>conf/beans.xml</code>, so the benchmarks can be run offline.
+ *
+ * <p>
+ * The server is started once in the forked jvm of benchmark and stopped at shutdown.
+ */
+public final class BenchmarkApp {
+
+    public static final String PORT_PROPERTY = "benchmarks.port";
+    public static final int    DEFAULT_PORT  = 18080;
+
+    /**
+     * The number of rows in the table of {@link BenchUser}.
+     */
+    public static final int USERS = 100;
+
+    private static final String WEB_XML = "leap/benchmarks/webapp/WEB-INF/web.xml";
+
+    private static TWebServer server;
+    private static AppContext context;
+    private static Dao        dao;
+
+    /**
+     * Starts the server if not started, binds and returns the {@link AppContext} of the web app in current thread.
+     */
+    public static synchronized AppContext start() {
+        if(null == context) {
+            int port = Integer.getInteger(PORT_PROPERTY, DEFAULT_PORT);
+
+            //http binds the port and port + 1.
+            server = new TWebServer(port, port + 2, false);
+            server.addContext(TWebServer.ROOT_CONTEXT_PATH, createWebappDir().getAbsolutePath());
+            server.start();
+
+            if(!server.isStarted()) {
+                throw new IllegalStateException("Failed to start the web app of benchmarks at port " + port);
+            }
+
+            context = AppContext.get(server.getServletContext());
+        }
+
+        AppContext.setCurrent(context);
+        return context;
+    }
+
+    /**
+     * Returns the started {@link App}.
+     */
+    public static App app() {
+        return AppBootstrap.getApp(start().getServletContext());
+    }
+
+    /**
+     * Returns the {@link Dao} of the h2 database, the table of {@link BenchUser} contains {@link #USERS} rows.
+     */
+    public static synchronized Dao dao() {
+        start();
+
+        if(null == dao) {
+            dao = Dao.get();
+            dao.deleteAll(BenchUser.class);
+
+            List<BenchUser> users = new ArrayList<>();
+            for(int i=1;i<=USERS;i++) {
+                BenchUser user = new BenchUser();
+                user.setId(i);
+                user.setName("user" + i);
+                user.setEmail("user" + i + "@example.com");
+                user.setAge(20 + i % 40);
+                user.setEnabled(i % 2 == 0);
+                user.setCreatedAt(new Date());
+                users.add(user);
+            }
+            dao.batchInsert(users);
+        }
+
+        return dao;
+    }
+
+    /**
+     * Returns a new http client of the started server.
+     */
+    public static THttpClient client() {
+        start();
+        return new THttpClientImpl(server.getHttpPort());
+    }
+
+    private static File createWebappDir() {
+        File dir = new File(IO.tmpdir(), "leap-benchmarks-" + System.nanoTime());
+        File xml = new File(dir, "WEB-INF/web.xml");
+
+        xml.getParentFile().mkdirs();
+        IO.writeString(xml, Resources.getResource("classpath:" + WEB_XML).getContent());
+
+        //deletes in reverse order of registration.
+        dir.deleteOnExit();
+        xml.getParentFile().deleteOnExit();
+        xml.deleteOnExit();
+
+        return dir;
+    }
+
+    private BenchmarkApp() {
+
+    }
+}
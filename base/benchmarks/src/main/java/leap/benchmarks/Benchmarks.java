@@ -0,0 +1,64 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package leap.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Runs the benchmarks and writes the results as json, so the results of releases can be compared.
+ *
+ * <p>
+ * The arguments are the options of jmh, i.e. <code>Json -f 1 -wi 3 -i 5</code>.
+ *
+ * <p>
+ * The result file is specified by the system property {@link #RESULT_PROPERTY}, default is {@link #DEFAULT_RESULT}.
+ */
+public class Benchmarks {
+
+    public static final String RESULT_PROPERTY = "benchmarks.result";
+    public static final String DEFAULT_RESULT  = "target/jmh-result.json";
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cmd);
+
+        if(!cmd.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+
+        if(!cmd.getResult().hasValue()) {
+            File file = new File(System.getProperty(RESULT_PROPERTY, DEFAULT_RESULT));
+            if(null != file.getParentFile()) {
+                file.getParentFile().mkdirs();
+            }
+            options.result(file.getAbsolutePath());
+        }
+
+        new Runner(options.build()).run();
+    }
+
+    protected Benchmarks() {
+
+    }
+}
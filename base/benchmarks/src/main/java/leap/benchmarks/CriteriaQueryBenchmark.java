@@ -0,0 +1,65 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package leap.benchmarks;
+
+import leap.benchmarks.app.models.BenchUser;
+import leap.orm.dao.Dao;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds and executes the criteria queries of {@link BenchUser} in the h2 database.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CriteriaQueryBenchmark {
+
+    private Dao dao;
+    private int id;
+
+    @Setup
+    public void setup() {
+        dao = BenchmarkApp.dao();
+    }
+
+    @Benchmark
+    public BenchUser findById() {
+        id = id % BenchmarkApp.USERS + 1;
+        return dao.createCriteriaQuery(BenchUser.class).whereById(id).firstOrNull();
+    }
+
+    @Benchmark
+    public List<BenchUser> listWhere() {
+        return dao.createCriteriaQuery(BenchUser.class)
+                  .where("age > ? and enabled = ?", 30, true)
+                  .orderBy("id desc")
+                  .limit(10)
+                  .list();
+    }
+
+    @Benchmark
+    public long countWhere() {
+        return dao.createCriteriaQuery(BenchUser.class).where("name like ?", "user1%").count();
+    }
+
+}
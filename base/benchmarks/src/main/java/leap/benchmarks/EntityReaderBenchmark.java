@@ -0,0 +1,78 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package leap.benchmarks;
+
+import leap.benchmarks.app.models.BenchUser;
+import leap.orm.OrmContext;
+import leap.orm.dao.Dao;
+import leap.orm.mapping.EntityMapping;
+import leap.orm.reader.EntityReader;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps the rows of a scrollable result set to {@link BenchUser}, the query is executed once so only the
+ * row mapping is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityReaderBenchmark {
+
+    private OrmContext    context;
+    private EntityMapping em;
+    private EntityReader  reader;
+    private Connection    conn;
+    private Statement     stmt;
+    private ResultSet     rs;
+
+    @Setup
+    public void setup() throws SQLException {
+        Dao dao = BenchmarkApp.dao();
+
+        context = dao.getOrmContext();
+        em      = context.getMetadata().getEntityMapping(BenchUser.class);
+        reader  = context.getEntityReader();
+
+        conn = context.getDataSource().getConnection();
+        stmt = conn.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+        rs   = stmt.executeQuery("select * from " + em.getTableName());
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        rs.close();
+        stmt.close();
+        conn.close();
+    }
+
+    @Benchmark
+    public List<BenchUser> readList() throws SQLException {
+        rs.beforeFirst();
+        return reader.readList(context, rs, em, BenchUser.class, BenchUser.class);
+    }
+
+}
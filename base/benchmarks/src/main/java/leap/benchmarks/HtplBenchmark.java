@@ -0,0 +1,85 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package leap.benchmarks;
+
+import leap.benchmarks.app.models.BenchUser;
+import leap.htpl.DefaultHtplConfig;
+import leap.htpl.DefaultHtplContext;
+import leap.htpl.HtplEngine;
+import leap.htpl.HtplTemplate;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HtplBenchmark {
+
+    private static final String HTML =
+            "<div class=\"users\">" +
+                "<h1>${title}</h1>" +
+                "<ul>" +
+                    "<li ht-for=\"user : users\" class=\"enabled\" ht-class-if=\"user.enabled\">" +
+                        "<span>${user.name}</span><a href=\"mailto:${user.email}\">${user.email}</a>" +
+                        "<em ht-if=\"user.age >= 30\">senior</em>" +
+                    "</li>" +
+                "</ul>" +
+            "</div>";
+
+    @Param({"false", "true"})
+    public boolean compiled;
+
+    private HtplTemplate       template;
+    private DefaultHtplContext context;
+
+    @Setup
+    public void setup() {
+        HtplEngine engine = BenchmarkApp.start().getBeanFactory().getBean(HtplEngine.class);
+
+        ((DefaultHtplConfig)engine.getConfig()).setCompiled(compiled);
+
+        List<Object> users = new ArrayList<>();
+        for(int i=0;i<20;i++) {
+            BenchUser user = new BenchUser();
+            user.setName("<user" + i + ">");
+            user.setEmail("user" + i + "@example.com");
+            user.setAge(20 + i);
+            user.setEnabled(i % 2 == 0);
+            users.add(user);
+        }
+
+        template = engine.createTemplate(HTML);
+        context  = new DefaultHtplContext(engine);
+        context.setLocalVariable("title", "Users");
+        context.setLocalVariable("users", users);
+    }
+
+    @Benchmark
+    public String render() {
+        StringWriter writer = new StringWriter();
+        template.render(context, writer);
+        return writer.toString();
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package leap.benchmarks;
+
+import leap.benchmarks.app.models.BenchUser;
+import leap.lang.New;
+import leap.lang.json.JSON;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    private static final String USER_JSON =
+            "{\"id\":1,\"name\":\"leap\",\"email\":\"leap@example.com\",\"age\":18,\"enabled\":true}";
+
+    private List<BenchUser>     users;
+    private Map<String, Object> map;
+    private String              mapJson;
+
+    @Setup
+    public void setup() {
+        users = new ArrayList<>();
+        for(int i=0;i<20;i++) {
+            BenchUser user = new BenchUser();
+            user.setId(i);
+            user.setName("user" + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setAge(20 + i);
+            user.setEnabled(i % 2 == 0);
+            user.setCreatedAt(new Date());
+            users.add(user);
+        }
+
+        map = New.hashMap("total", 100, "page", New.hashMap("index", 1, "size", 20));
+        List<Object> items = new ArrayList<>();
+        for(int i=0;i<20;i++) {
+            items.add(New.hashMap("id", i, "title", "item \"" + i + "\"", "tags", New.arrayList("a", "b", "c")));
+        }
+        map.put("items", items);
+
+        mapJson = JSON.encode(map);
+    }
+
+    @Benchmark
+    public String encodeBeans() {
+        return JSON.encode(users);
+    }
+
+    @Benchmark
+    public String encodeMap() {
+        return JSON.encode(map);
+    }
+
+    @Benchmark
+    public Object decodeMap() {
+        return JSON.decode(mapJson);
+    }
+
+    @Benchmark
+    public BenchUser decodeBean() {
+        return JSON.decode(USER_JSON, BenchUser.class);
+    }
+
+}
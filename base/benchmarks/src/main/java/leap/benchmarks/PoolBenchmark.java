@@ -0,0 +1,67 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package leap.benchmarks;
+
+import leap.db.cp.PooledDataSource;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gets a connection from the pool of {@link PooledDataSource} and returns it to the pool by closing it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PoolBenchmark {
+
+    private PooledDataSource ds;
+
+    @Setup
+    public void setup() throws SQLException {
+        ds = new PooledDataSource();
+        ds.setDriverClassName("org.h2.Driver");
+        ds.setJdbcUrl("jdbc:h2:mem:leap_benchmarks_pool;DB_CLOSE_DELAY=-1");
+        ds.setUsername("sa");
+        ds.setMaxActive(8);
+        ds.open();
+    }
+
+    @TearDown
+    public void tearDown() {
+        ds.close();
+    }
+
+    @Benchmark
+    public void getAndReturn() throws SQLException {
+        Connection conn = ds.getConnection();
+        conn.close();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void getAndReturnConcurrent() throws SQLException {
+        Connection conn = ds.getConnection();
+        conn.close();
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package leap.benchmarks;
+
+import leap.core.web.path.PathTemplateFactory;
+import leap.web.App;
+import leap.web.action.RunnableAction;
+import leap.web.route.DefaultRoutes;
+import leap.web.route.Route;
+import leap.web.route.RouteBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matches the routes of 20 rest resources, 4 paths and 2 methods of each resource.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoutesBenchmark {
+
+    private static final int RESOURCES = 20;
+
+    @Param({"true", "false"})
+    public boolean indexEnabled;
+
+    private DefaultRoutes routes;
+
+    @Setup
+    public void setup() {
+        App app = BenchmarkApp.app();
+
+        PathTemplateFactory ptf = app.factory().getBean(PathTemplateFactory.class);
+
+        routes = app.factory().createBean(DefaultRoutes.class);
+        routes.setIndexEnabled(indexEnabled);
+
+        for(int i=0;i<RESOURCES;i++) {
+            for(String path : new String[]{"/res" + i, "/res" + i + "/{id}", "/res" + i + "/{id}/items", "/res" + i + "/{id}/items/{itemId}"}) {
+                for(String method : new String[]{"GET", "POST"}) {
+                    RouteBuilder rb = new RouteBuilder();
+                    rb.setMethod(method);
+                    rb.setPathTemplate(ptf.createPathTemplate(path));
+                    rb.setAction(new RunnableAction(() -> {}));
+                    routes.add(rb.build());
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public Route matchFirst() {
+        return match("GET", "/res0");
+    }
+
+    @Benchmark
+    public Route matchLast() {
+        return match("POST", "/res" + (RESOURCES - 1) + "/100/items/200");
+    }
+
+    @Benchmark
+    public Route matchVariable() {
+        return match("GET", "/res10/100");
+    }
+
+    @Benchmark
+    public Route matchNotFound() {
+        return match("GET", "/not/found/path");
+    }
+
+    private Route match(String method, String path) {
+        Map<String, String> vars = new HashMap<>();
+        return routes.match(method, path, null, vars);
+    }
+
+}
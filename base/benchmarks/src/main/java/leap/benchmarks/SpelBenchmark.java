@@ -0,0 +1,89 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package leap.benchmarks;
+
+import leap.benchmarks.app.models.BenchUser;
+import leap.lang.New;
+import leap.lang.el.spel.SPEL;
+import leap.lang.el.spel.SpelExpression;
+import leap.lang.el.spel.compiler.SpelCompiler;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpelBenchmark {
+
+    @Param({"false", "true"})
+    public boolean compiled;
+
+    private SpelExpression      property;
+    private SpelExpression      arithmetic;
+    private SpelExpression      condition;
+    private BenchUser           user;
+    private Map<String, Object> vars;
+
+    @Setup
+    public void setup() {
+        SpelCompiler.setEnabled(compiled);
+
+        user = new BenchUser();
+        user.setName("leap");
+        user.setAge(18);
+
+        vars = New.hashMap("user", user, "a", 10, "b", 20);
+
+        property   = SPEL.createExpression("user.name");
+        arithmetic = SPEL.createExpression("a * 2 + b - 1");
+        condition  = SPEL.createExpression("user.age >= 18 && user.name == 'leap'");
+
+        if(compiled) {
+            //resolves the properties by the interpreter before compiling.
+            for(SpelExpression expr : new SpelExpression[]{property, arithmetic, condition}) {
+                expr.getValue(vars);
+                expr.compile();
+            }
+        }
+    }
+
+    @Benchmark
+    public Object evalProperty() {
+        return property.getValue(vars);
+    }
+
+    @Benchmark
+    public Object evalArithmetic() {
+        return arithmetic.getValue(vars);
+    }
+
+    @Benchmark
+    public Object evalCondition() {
+        return condition.getValue(vars);
+    }
+
+    @Benchmark
+    public Object parseAndEval() {
+        return SPEL.createExpression("a * 2 + b - 1").getValue(vars);
+    }
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package leap.benchmarks;
+
+import leap.webunit.client.THttpClient;
+import leap.webunit.client.THttpResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends the http requests to the web app in the embedded jetty server, the request is handled by the action of
+ * {@link leap.benchmarks.app.controllers.HomeController} and the result is rendered as json.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebRequestBenchmark {
+
+    private THttpClient client;
+
+    @Setup
+    public void setup() {
+        client = BenchmarkApp.client();
+
+        THttpResponse response = client.request("/").get();
+        if(response.getStatus() != 200) {
+            throw new IllegalStateException("Unexpected response status " + response.getStatus() + " of '/'");
+        }
+    }
+
+    @Benchmark
+    public String index() {
+        return client.request("/").get().getContent();
+    }
+
+}
@@ -34,10 +34,17 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Internal
 public class AppClassLoader extends ClassLoader {
 
+    static {
+        registerAsParallelCapable();
+    }
+
     private static final Log log = LogFactory.get(AppClassLoader.class);
 
     private static final ThreadLocal<Set<String>> instrumentPackagesLocal = new ThreadLocal<>();
@@ -53,7 +60,7 @@ public class AppClassLoader extends ClassLoader {
         return instanceLocal == null ? null : instanceLocal.get();
     }
 
-    static AppClassLoader init(ClassLoader parent)  {
+    static synchronized AppClassLoader init(ClassLoader parent)  {
         if(null == instanceLocal) {
             instanceLocal = new ThreadLocal<>();
         }
@@ -104,13 +111,15 @@ public class AppClassLoader extends ClassLoader {
 
     private final ClassLoader parent;
 
-    private final Map<String,Boolean>               handledUrls        = new HashMap<>();
-    private final Set<String>                       loadedNames        = new HashSet<>();
+    private final Map<String,Boolean>               handledUrls        = new ConcurrentHashMap<>();
+    private final Set<String>                       loadedNames        = ConcurrentHashMap.newKeySet();
     private final AppInstrumentation                instrumentation    = Factory.newInstance(AppInstrumentation.class);
     private final ClassDependencyResolver           dependencyResolver = Factory.newInstance(ClassDependencyResolver.class);
-    private final Set<String>                       instrumenting      = new HashSet<>();
+    private final ThreadLocal<Set<String>>          instrumenting      = ThreadLocal.withInitial(HashSet::new);
+    private final ReentrantLock                     instrumentLock     = new ReentrantLock();
+    private final Map<String, Future<PreparedClass>> preparedClasses   = new ConcurrentHashMap<>();
     private final Map<Class<?>, AppInstrumentClass> redefineClasses    = new LinkedHashMap<>();
-    private final Map<String, AppInstrumentClass>   failedClasses      = new HashMap<>();
+    private final Map<String, AppInstrumentClass>   failedClasses      = new ConcurrentHashMap<>();
 
     private Method  parentLoaderDefineClass;
     private Method  parentFindLoadedClass;
@@ -119,6 +128,7 @@ public class AppClassLoader extends ClassLoader {
     private String    basePackage;
     private boolean   testing;
     private boolean   redefine;
+    private int       threads;
 
     private RedefineClassLoader redefineClassLoader;
 
@@ -151,6 +161,8 @@ public class AppClassLoader extends ClassLoader {
             redefine = redefineProp;
         }
 
+        threads = config.getIntProperty("instrument.threads", Runtime.getRuntime().availableProcessors());
+
         instrumentation.init(config);
 
         loadAllClasses();
@@ -158,6 +170,8 @@ public class AppClassLoader extends ClassLoader {
 
     private void loadAllClasses() {
         log.debug("Try instrument all classes in app configured resources.");
+
+        List<Resource> resources = new ArrayList<>();
         config.getResources().forEach(resource -> {
 
             if(resource.exists()) {
@@ -165,15 +179,55 @@ public class AppClassLoader extends ClassLoader {
 
                 if(null != filename &&
                         filename.endsWith(Classes.CLASS_FILE_SUFFIX)) {
+                    resources.add(resource);
+                }
+            }
+        });
 
-                    try {
-                        instrumentClass(null, resource, true);
-                    } catch (ClassNotFoundException e) {
-                        throw new NestedClassNotFoundException(e);
-                    }
+        ExecutorService executor = null;
+        if(threads > 1 && resources.size() > 1) {
+            executor = prepareClasses(resources);
+        }
+
+        try {
+            for(Resource resource : resources) {
+                try {
+                    instrumentClass(null, resource, true);
+                } catch (ClassNotFoundException e) {
+                    throw new NestedClassNotFoundException(e);
                 }
             }
+        }finally {
+            if(null != executor) {
+                executor.shutdownNow();
+            }
+            preparedClasses.clear();
+        }
+    }
+
+    /**
+     * Resolves the dependencies and instruments the classes concurrently, the instrumented classes will be defined later
+     * by the order of dependencies.
+     *
+     * <p>
+     * The instrumentation can be executed in any order because the {@link InstrumentClassWriter} never loads the classes.
+     */
+    private ExecutorService prepareClasses(List<Resource> resources) {
+        log.debug("Instrument {} classes using {} threads", resources.size(), threads);
+
+        AtomicInteger count = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, (r) -> {
+            Thread thread = new Thread(r, "app-instrument-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
         });
+
+        for(Resource resource : resources) {
+            preparedClasses.computeIfAbsent(resource.getURLString(),
+                                            (url) -> executor.submit(() -> prepareClass(resource, true)));
+        }
+
+        return executor;
     }
 
     void done() {
@@ -182,7 +236,8 @@ public class AppClassLoader extends ClassLoader {
         //loadedUrls.clear();
         //loadedNames.clear();
         handledUrls.clear();
-        instrumenting.clear();
+        preparedClasses.clear();
+        instrumenting.remove();
         instrumentClassesLocal.remove();
         instrumentPackagesLocal.remove();
     }
@@ -270,33 +325,33 @@ public class AppClassLoader extends ClassLoader {
     }
 
     @Override
-    protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
-        log.trace("Loading class '{}'...", name);
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        synchronized (getClassLoadingLock(name)) {
+            log.trace("Loading class '{}'...", name);
 
-        Class<?> c = findLoadedClass(name);
+            Class<?> c = findLoadedClass(name);
 
-        if (null == c) {
-            c = this.findClass(name);
-        }
+            if (null == c) {
+                c = this.findClass(name);
+            }
 
-        if (null == c) {
-            log.trace("Load class '{}' by parent loader", name);
-            c = parent.loadClass(name);
-        }
+            if (null == c) {
+                log.trace("Load class '{}' by parent loader", name);
+                c = parent.loadClass(name);
+            }
 
-        if (resolve) {
-            resolveClass(c);
-        }
+            if (resolve) {
+                resolveClass(c);
+            }
 
-        return c;
+            return c;
+        }
     }
 
     @Override
     protected Class<?> findClass(final String name) throws ClassNotFoundException {
-        if(loadedNames.contains(name)) {
+        if(!loadedNames.add(name)) {
             return null;
-        }else{
-            loadedNames.add(name);
         }
 
         if(isParentLoaded(name)) {
@@ -313,7 +368,7 @@ public class AppClassLoader extends ClassLoader {
             return null;
         }
 
-        if(instrumenting.contains(resource.getURLString())) {
+        if(instrumenting.get().contains(resource.getURLString())) {
             log.debug("Found cyclic instrumenting class '{}', instrument it now", name);
             return instrumentClass(name, resource, false);
         }
@@ -337,6 +392,13 @@ public class AppClassLoader extends ClassLoader {
         return resource;
     }
 
+    /**
+     * Instruments the class and defines it in the parent class loader.
+     *
+     * <p>
+     * The class is instrumented out of the lock, the dependencies are defined by one thread at a time,
+     * so the cyclic dependencies can be detected by the instrumenting classes of current thread.
+     */
     private Class<?> instrumentClass(String name, Resource resource, boolean depFirst) throws ClassNotFoundException {
         String url = resource.getURLString();
 
@@ -346,13 +408,70 @@ public class AppClassLoader extends ClassLoader {
             return null;
         }
 
+        PreparedClass prepared = getPreparedClass(name, resource, depFirst);
+
+        instrumentLock.lock();
         try {
-            instrumenting.add(url);
+            return defineInstrumentedClass(name, resource, prepared, depFirst);
+        }finally {
+            instrumentLock.unlock();
+        }
+    }
 
-            byte[] rawBytes = IO.readByteArrayAndClose(resource.getInputStream());
+    private PreparedClass getPreparedClass(String name, Resource resource, boolean depFirst) throws ClassNotFoundException {
+        Future<PreparedClass> future = preparedClasses.remove(resource.getURLString());
+
+        try {
+            if(null == future) {
+                return prepareClass(resource, depFirst);
+            }
+
+            return future.get();
+        }catch(ExecutionException e) {
+            Throwable cause = e.getCause();
+            if(cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            }
+            if(cause instanceof Error) {
+                throw (Error)cause;
+            }
+            throw new ClassNotFoundException(name, cause);
+        }catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClassNotFoundException(name, e);
+        }catch(IOException e) {
+            throw new ClassNotFoundException(name, e);
+        }
+    }
+
+    private PreparedClass prepareClass(Resource resource, boolean resolveDependencies) throws IOException {
+        byte[] rawBytes = IO.readByteArrayAndClose(resource.getInputStream());
+
+        //parse the class once for resolving dependencies and instrumenting.
+        ParsedClass pc = new ParsedClass(rawBytes);
+
+        ClassDependency dep = resolveDependencies ? dependencyResolver.resolveDependentClassNames(resource, pc) : null;
+
+        return new PreparedClass(rawBytes, dep, instrumentation.tryInstrument(this, resource, pc, false));
+    }
+
+    private Class<?> defineInstrumentedClass(String name, Resource resource, PreparedClass prepared, boolean depFirst) throws ClassNotFoundException {
+        String url = resource.getURLString();
+
+        //may be handled by another thread.
+        if(handledUrls.containsKey(url)) {
+            return null;
+        }
+
+        Set<String> instrumentingUrls = instrumenting.get();
+        try {
+            instrumentingUrls.add(url);
+
+            byte[] rawBytes = prepared.rawBytes;
 
             if(depFirst) {
-                ClassDependency dep = dependencyResolver.resolveDependentClassNames(resource, rawBytes);
+                ClassDependency dep = null != prepared.dependency ? prepared.dependency :
+                                        dependencyResolver.resolveDependentClassNames(resource, rawBytes);
 
                 if(null == name) {
                     name = dep.getClassName();
@@ -387,8 +506,8 @@ public class AppClassLoader extends ClassLoader {
                 }
             }
 
-            //try instrument the class.
-            AppInstrumentClass ic = instrumentation.tryInstrument(this, resource, rawBytes, false);
+            //the class was instrumented before defining the dependencies.
+            AppInstrumentClass ic = prepared.instrumented;
 
             //don't define the class if not instrumented.
             if(null == ic) {
@@ -406,11 +525,16 @@ public class AppClassLoader extends ClassLoader {
             log.debug("Defining instrumented class '{}' use class loader '{}'", name, parent);
             Object[] args = new Object[]{name, bytes, 0, bytes.length};
 
-            Set<String> vmInstrumented = vmInstrumentedClasses.get(parent);
-            if(null == vmInstrumented) {
-                vmInstrumented = new HashSet<>(1);
-                vmInstrumentedClasses.put(parent, vmInstrumented);
-            }else if(vmInstrumented.contains(name)){
+            Set<String> vmInstrumented;
+            synchronized (vmInstrumentedClasses) {
+                vmInstrumented = vmInstrumentedClasses.get(parent);
+                if(null == vmInstrumented) {
+                    vmInstrumented = Collections.synchronizedSet(new HashSet<>(1));
+                    vmInstrumentedClasses.put(parent, vmInstrumented);
+                }
+            }
+
+            if(vmInstrumented.contains(name)){
                 //ignore if instrumented in same class loader by another app.
                 boolean ignore = true;
                 for(AppInstrumentProcessor p : ic.getAllInstrumentedBy()) {
@@ -467,10 +591,8 @@ public class AppClassLoader extends ClassLoader {
             }catch(Exception e) {
                 throw new ClassNotFoundException(name, e);
             }
-        }catch(IOException e) {
-            throw new ClassNotFoundException(name, e);
         }finally{
-            instrumenting.remove(url);
+            instrumentingUrls.remove(url);
         }
     }
 
@@ -523,6 +645,18 @@ public class AppClassLoader extends ClassLoader {
         return true;
     }
 
+    private static final class PreparedClass {
+        final byte[]             rawBytes;
+        final ClassDependency    dependency;
+        final AppInstrumentClass instrumented;
+
+        PreparedClass(byte[] rawBytes, ClassDependency dependency, AppInstrumentClass instrumented) {
+            this.rawBytes     = rawBytes;
+            this.dependency   = dependency;
+            this.instrumented = instrumented;
+        }
+    }
+
     private final class RedefineClassLoader extends ClassLoader {
 
         public void defineClass(String name, byte[] bytes) {
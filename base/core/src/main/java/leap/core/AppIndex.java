@@ -0,0 +1,246 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package leap.core;
+
+import leap.lang.Charsets;
+import leap.lang.Classes;
+import leap.lang.Strings;
+import leap.lang.annotation.Internal;
+import leap.lang.exception.NestedIOException;
+import leap.lang.io.IO;
+import leap.lang.logging.Log;
+import leap.lang.logging.LogFactory;
+import leap.lang.net.Urls;
+import leap.lang.path.PathMatcher;
+import leap.lang.resource.Resource;
+import leap.lang.resource.ResourceSet;
+import leap.lang.resource.Resources;
+import leap.lang.resource.SimpleResourceSet;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.*;
+
+/**
+ * The precomputed index of the jars in classpath, generated by {@link AppIndexGenerator} at build time.
+ *
+ * <p>
+ * The resources in the indexed jars are matched by the entries of the index instead of walking the jar files,
+ * the directories and the jars without index are still scanned.
+ *
+ * <p>
+ * The index of directory (i.e. <code>target/classes</code>) is ignored because it may be out of date in development.
+ *
+ * <p>
+ * Set the system or external property {@link #IGNORE_PROPERTY} to <code>true</code> to disable the index.
+ */
+@Internal
+public class AppIndex {
+
+    private static final Log log = LogFactory.get(AppIndex.class);
+
+    public static final String INDEX_FILE      = "META-INF/leap/app.index";
+    public static final String IGNORE_PROPERTY = "app.index.ignore";
+
+    static final String ENTRIES_SECTION = "[entries]";
+    static final String BEANS_SECTION   = "[beans]";
+
+    private static final String JAR_SEPARATOR = "!/";
+
+    /**
+     * Loads all the indexes of jars in the classpath, returns <code>null</code> if no index.
+     */
+    public static AppIndex load() {
+        return load(Classes.getClassLoader());
+    }
+
+    /**
+     * Loads all the indexes of jars in the given class loader, returns <code>null</code> if no index.
+     */
+    public static AppIndex load(ClassLoader classLoader) {
+        Map<String, JarIndex> jars = new HashMap<>();
+
+        try {
+            Enumeration<URL> urls = classLoader.getResources(INDEX_FILE);
+            while (urls.hasMoreElements()) {
+                URL url = urls.nextElement();
+                if(!Urls.isJarUrl(url)) {
+                    continue;
+                }
+
+                String s = url.toString();
+                String root = s.substring(0, s.length() - INDEX_FILE.length());
+
+                jars.put(root, read(root, IO.readStringAndClose(url.openStream(), Charsets.UTF_8)));
+            }
+        } catch (IOException e) {
+            throw new NestedIOException("Error loading app index, " + e.getMessage(), e);
+        }
+
+        if(jars.isEmpty()) {
+            return null;
+        }
+
+        log.debug("Load {} app index(es) of jars", jars.size());
+        return new AppIndex(jars);
+    }
+
+    static JarIndex read(String root, String content) {
+        JarIndex index = new JarIndex(root);
+
+        Collection<String> section = null;
+        for(String line : Strings.split(content, '\n')) {
+            line = line.trim();
+            if(line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            if(ENTRIES_SECTION.equals(line)) {
+                section = index.entries;
+            }else if(BEANS_SECTION.equals(line)) {
+                section = index.beans;
+            }else if(line.startsWith("[")) {
+                section = null; //unknown section.
+            }else if(null != section) {
+                section.add(line);
+            }
+        }
+
+        return index;
+    }
+
+    private final Map<String, JarIndex> jars;
+    private final PathMatcher           matcher = Resources.getPathMatcher();
+
+    protected AppIndex(Map<String, JarIndex> jars) {
+        this.jars = jars;
+    }
+
+    /**
+     * Returns the number of indexed jars.
+     */
+    public int size() {
+        return jars.size();
+    }
+
+    /**
+     * Scans the resources in the package and it's sub packages.
+     *
+     * @see Resources#scanPackage(String)
+     */
+    public ResourceSet scanPackage(String basePackage) {
+        return scan(Urls.CLASSPATH_ALL_URL_PREFIX + basePackage.replace('.', '/') + "/**/*");
+    }
+
+    /**
+     * Scans the resources matching the given location pattern.
+     *
+     * <p>
+     * Only the pattern starts with <code>classpath*:</code> uses the index, the others are delegated to {@link Resources#scan(String)}.
+     */
+    public ResourceSet scan(String locationPattern) {
+        if(!locationPattern.startsWith(Urls.CLASSPATH_ALL_URL_PREFIX)) {
+            return Resources.scan(locationPattern);
+        }
+
+        String rootDirPath = Resources.extractRootDirPath(locationPattern);
+        String rootDir     = rootDirPath.substring(Urls.CLASSPATH_ALL_URL_PREFIX.length());
+        String subPattern  = locationPattern.substring(rootDirPath.length());
+
+        if(subPattern.isEmpty()) {
+            return Resources.scan(locationPattern);
+        }
+
+        Set<Resource> result = new LinkedHashSet<>();
+
+        for(Resource root : Resources.scan(rootDirPath)) {
+            JarIndex jar = getJarIndex(root.getURLString());
+            if(null == jar) {
+                Resources.scan(root, subPattern).forEach(result::add);
+                continue;
+            }
+
+            for(String entry : jar.entries) {
+                if(!entry.startsWith(rootDir)) {
+                    continue;
+                }
+
+                String relativePath = entry.substring(rootDir.length());
+                if(matcher.match(subPattern, relativePath)) {
+                    try {
+                        result.add(root.createRelative(relativePath));
+                    } catch (IOException e) {
+                        throw new NestedIOException(e);
+                    }
+                }
+            }
+        }
+
+        return new SimpleResourceSet(result.toArray(new Resource[result.size()]));
+    }
+
+    /**
+     * Returns <code>true</code> if the given resource is in an indexed jar.
+     */
+    public boolean isIndexed(Resource resource) {
+        return null != getJarIndex(resource.getURLString());
+    }
+
+    /**
+     * Returns <code>true</code> if the given class resource in an indexed jar is annotated by {@link leap.core.annotation.Bean}.
+     *
+     * <p>
+     * Returns <code>true</code> if the resource is not in an indexed jar.
+     */
+    public boolean isBeanClass(Resource resource) {
+        JarIndex jar = getJarIndex(resource.getURLString());
+        if(null == jar) {
+            return true;
+        }
+
+        String cp = resource.getClasspath();
+        if(null == cp || !cp.endsWith(Classes.CLASS_FILE_SUFFIX)) {
+            return false;
+        }
+
+        String className = cp.substring(0, cp.length() - Classes.CLASS_FILE_SUFFIX.length()).replace('/', '.');
+        return jar.beans.contains(className);
+    }
+
+    protected JarIndex getJarIndex(String url) {
+        if(null == url) {
+            return null;
+        }
+
+        int index = url.lastIndexOf(JAR_SEPARATOR);
+        if(index <= 0) {
+            return null;
+        }
+
+        return jars.get(url.substring(0, index + JAR_SEPARATOR.length()));
+    }
+
+    static final class JarIndex {
+        final String       root;
+        final List<String> entries = new ArrayList<>();
+        final Set<String>  beans   = new HashSet<>();
+
+        JarIndex(String root) {
+            this.root = root;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package leap.core;
+
+import leap.core.annotation.Bean;
+import leap.lang.Charsets;
+import leap.lang.Classes;
+import leap.lang.asm.AnnotationVisitor;
+import leap.lang.asm.ClassReader;
+import leap.lang.asm.ClassVisitor;
+import leap.lang.asm.Opcodes;
+import leap.lang.asm.Type;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Generates the {@link AppIndex} of a compiled classes directory, the index file will be packaged into the jar.
+ *
+ * <p>
+ * Run it in the <code>process-classes</code> phase of the module, i.e. by the exec-maven-plugin :
+ *
+ * <pre>
+ * &lt;plugin&gt;
+ *     &lt;groupId&gt;org.codehaus.mojo&lt;/groupId&gt;
+ *     &lt;artifactId&gt;exec-maven-plugin&lt;/artifactId&gt;
+ *     &lt;executions&gt;
+ *         &lt;execution&gt;
+ *             &lt;id&gt;leap-app-index&lt;/id&gt;
+ *             &lt;phase&gt;process-classes&lt;/phase&gt;
+ *             &lt;goals&gt;&lt;goal&gt;java&lt;/goal&gt;&lt;/goals&gt;
+ *             &lt;configuration&gt;
+ *                 &lt;mainClass&gt;leap.core.AppIndexGenerator&lt;/mainClass&gt;
+ *                 &lt;arguments&gt;&lt;argument&gt;${project.build.outputDirectory}&lt;/argument&gt;&lt;/arguments&gt;
+ *             &lt;/configuration&gt;
+ *         &lt;/execution&gt;
+ *     &lt;/executions&gt;
+ * &lt;/plugin&gt;
+ * </pre>
+ *
+ * <p>
+ * The leap modules inherit the execution from the parent pom and only declare the plugin.
+ */
+public class AppIndexGenerator {
+
+    private static final String BEAN_DESC = Type.getDescriptor(Bean.class);
+
+    public static void main(String[] args) throws IOException {
+        if(args.length != 1) {
+            System.err.println("Usage : " + AppIndexGenerator.class.getName() + " <classes directory>");
+            System.exit(1);
+        }
+
+        File file = generate(new File(args[0]));
+        System.out.println("Generated app index '" + file.getAbsolutePath() + "'");
+    }
+
+    /**
+     * Generates the index file of the given classes directory and returns the index file.
+     */
+    public static File generate(File dir) throws IOException {
+        if(!dir.isDirectory()) {
+            throw new IllegalArgumentException("The classes directory '" + dir.getAbsolutePath() + "' not exists");
+        }
+
+        Path root = dir.toPath();
+
+        List<String> entries;
+        try(Stream<Path> paths = Files.walk(root)) {
+            entries = paths.filter(Files::isRegularFile)
+                           .map(p -> root.relativize(p).toString().replace(File.separatorChar, '/'))
+                           .filter(p -> !p.equals(AppIndex.INDEX_FILE))
+                           .sorted()
+                           .collect(Collectors.toList());
+        }
+
+        List<String> beans = new ArrayList<>();
+        for(String entry : entries) {
+            if(entry.endsWith(Classes.CLASS_FILE_SUFFIX) && isBeanClass(Files.readAllBytes(root.resolve(entry)))) {
+                beans.add(entry.substring(0, entry.length() - Classes.CLASS_FILE_SUFFIX.length()).replace('/', '.'));
+            }
+        }
+        Collections.sort(beans);
+
+        List<String> lines = new ArrayList<>();
+        lines.add("# Generated by " + AppIndexGenerator.class.getName() + ", do not edit");
+        lines.add(AppIndex.ENTRIES_SECTION);
+        lines.addAll(entries);
+        lines.add(AppIndex.BEANS_SECTION);
+        lines.addAll(beans);
+
+        File file = new File(dir, AppIndex.INDEX_FILE);
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), lines, Charsets.UTF_8);
+        return file;
+    }
+
+    static boolean isBeanClass(byte[] bytes) {
+        final boolean[] bean = new boolean[1];
+
+        new ClassReader(bytes).accept(new ClassVisitor(Opcodes.ASM5) {
+            @Override
+            public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
+                if(BEAN_DESC.equals(desc)) {
+                    bean[0] = true;
+                }
+                return null;
+            }
+        }, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+
+        return bean[0];
+    }
+
+    protected AppIndexGenerator() {
+
+    }
+}
@@ -101,8 +101,8 @@ public class AppResources {
         }
     }
 
-    static AppResources create(DefaultAppConfig config, Object externalContext) {
-        AppResources inst = new AppResources(config, externalContext);
+    static AppResources create(DefaultAppConfig config, Object externalContext, AppIndex index) {
+        AppResources inst = new AppResources(config, externalContext, index);
 
         instances.put(config, inst);
 
@@ -147,35 +147,39 @@ public class AppResources {
     }
 
     private final DefaultAppConfig config;
+    private final AppIndex         index;
     private final Set<String>      resourceUrls    = new HashSet<>();
     private final Set<AppResource> sortedResources = new TreeSet<>(new ResourceComparator());
     private final boolean dev;
 
     private String[] defaultSearchPatterns;
 
-    private AppResources(DefaultAppConfig config, Object externalContext) {
+    private AppResources(DefaultAppConfig config, Object externalContext, AppIndex index) {
         this.config = config;
+        this.index  = index;
         this.dev    = AppConfig.PROFILE_DEVELOPMENT.equals(config.getProfile());
         init(externalContext);
     }
 
     protected void init(Object externalContext) {
         //load fixed resources.
-        Resources.scan(CP_CORE_LOCATION).forEach(this::add);
-        Resources.scan(CP_FRAMEWORK_LOCATION).forEach(this::add);
-        Resources.scan(CP_MODULES_LOCATION).forEach(this::add);
-        Resources.scan(CP_META_LOCATION).forEach(this::add);
+        scan(CP_CORE_LOCATION).forEach(this::add);
+        scan(CP_FRAMEWORK_LOCATION).forEach(this::add);
+        scan(CP_MODULES_LOCATION).forEach(this::add);
+        scan(CP_META_LOCATION).forEach(this::add);
 
         loadServletContextResources(externalContext);
 
-        Resources.scan(CP_APP_LOCATION).forEach(this::add);
+        scan(CP_APP_LOCATION).forEach(this::add);
 
         //load profile resources.
-        Resources.scan(config.getProfiled(new String[]{CP_PROFILE_LOCATION})).forEach(this::add);
+        for(String location : config.getProfiled(new String[]{CP_PROFILE_LOCATION})) {
+            scan(location).forEach(this::add);
+        }
 
         //load local resources(only for development profile).
         if(dev) {
-            Resources.scan(CP_LOCAL_LOCATION).forEach(this::add);
+            scan(CP_LOCAL_LOCATION).forEach(this::add);
         }
 
         if(log.isDebugEnabled()) {
@@ -222,6 +226,20 @@ public class AppResources {
         this.defaultSearchPatterns = patterns.toArray(new String[0]);
     }
 
+    /**
+     * Returns the {@link AppIndex} of the jars in classpath, or <code>null</code> if no index.
+     */
+    public AppIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Scans the resources by the {@link AppIndex} if exists.
+     */
+    public ResourceSet scan(String locationPattern) {
+        return null == index ? Resources.scan(locationPattern) : index.scan(locationPattern);
+    }
+
     protected int resolveSortOrder(Resource resource) {
         /* sort orders :
                 core         : 0
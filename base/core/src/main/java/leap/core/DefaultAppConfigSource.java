@@ -229,7 +229,7 @@ public class DefaultAppConfigSource implements AppConfigSource {
             this.externalContext = externalContext;
             this.initProperties  = props;
             this.config          = new DefaultAppConfig(profile);
-            this.appResources    = AppResources.create(config, externalContext);
+            this.appResources    = AppResources.create(config, externalContext, loadIndex());
             this.configResources = appResources.search("config");
 
             this.resolver = new DefaultPlaceholderResolver(this::resolveProperty);
@@ -243,6 +243,15 @@ public class DefaultAppConfigSource implements AppConfigSource {
 
         }
 
+        protected AppIndex loadIndex() {
+            AppProperty ignore = initProperties.get(AppIndex.IGNORE_PROPERTY);
+            if(null != ignore && Converts.toBoolean(ignore.getValue(), false)) {
+                log.info("App index ignored by property '{}'", AppIndex.IGNORE_PROPERTY);
+                return null;
+            }
+            return AppIndex.load();
+        }
+
         protected DefaultAppConfig load() {
             init();
             // pre load configuration
@@ -559,7 +568,8 @@ public class DefaultAppConfigSource implements AppConfigSource {
 
         protected void loadBasePackageResources(Map<String, Resource> urlResourceMap, String basePackage) throws IOException {
             if(!Strings.isEmpty(basePackage)){
-                ResourceSet rs = Resources.scanPackage(basePackage);
+                ResourceSet rs = null == appResources.getIndex() ?
+                                    Resources.scanPackage(basePackage) : appResources.getIndex().scanPackage(basePackage);
 
                 log.debug("Scan {} resource(s) in base-package location '{}'",rs.size(),basePackage);
 
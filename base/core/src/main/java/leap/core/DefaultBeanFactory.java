@@ -24,6 +24,8 @@ import leap.lang.beans.BeanException;
 import leap.lang.beans.NoSuchBeanException;
 import leap.lang.logging.Log;
 import leap.lang.logging.LogFactory;
+import leap.lang.resource.Resource;
+import leap.lang.resource.SimpleResourceSet;
 
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
@@ -60,12 +62,31 @@ public class DefaultBeanFactory extends BeanFactoryInternal implements BeanFacto
         AppResources resources = AppResources.get(appContext.getConfig());
 
 		this.beanContainer.setAppContext(appContext);
-		this.beanContainer.loadFromClasses(config.getResources().searchClasses())
+		this.beanContainer.loadFromClasses(searchBeanClasses(resources))
 						  .loadFromResources(resources.search("beans"))
 						  .init()
 						  .registerShutdownHook();
 		return this;
 	}
+
+    /**
+     * Returns the classes which may be beans, the classes in the indexed jars are filtered by the {@link AppIndex}
+     * so the non bean classes will not be loaded.
+     */
+    protected Class<?>[] searchBeanClasses(AppResources resources) {
+        AppIndex index = resources.getIndex();
+        if(null == index) {
+            return config.getResources().searchClasses();
+        }
+
+        List<Resource> list = new ArrayList<>();
+        for(Resource resource : config.getResources()) {
+            if(index.isBeanClass(resource)) {
+                list.add(resource);
+            }
+        }
+        return new SimpleResourceSet(list.toArray(new Resource[list.size()])).searchClasses();
+    }
 	
 	@Override
     public AppContext getAppContext() {
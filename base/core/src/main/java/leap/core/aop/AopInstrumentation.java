@@ -24,9 +24,9 @@ import leap.core.aop.matcher.AsmMethodInfo;
 import leap.core.instrument.AppInstrumentClass;
 import leap.core.instrument.AppInstrumentContext;
 import leap.core.instrument.AsmInstrumentProcessor;
+import leap.core.instrument.InstrumentClassWriter;
 import leap.lang.Arrays2;
 import leap.lang.Strings;
-import leap.lang.Try;
 import leap.lang.asm.*;
 import leap.lang.asm.commons.GeneratorAdapter;
 import leap.lang.asm.commons.Method;
@@ -34,7 +34,6 @@ import leap.lang.asm.tree.AnnotationNode;
 import leap.lang.asm.tree.ClassNode;
 import leap.lang.asm.tree.MethodNode;
 
-import java.io.InputStream;
 import java.lang.invoke.LambdaMetafactory;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
@@ -144,6 +143,14 @@ public class AopInstrumentation extends AsmInstrumentProcessor {
         this.config = config.getExtension(AopConfig.class);
     }
 
+    /**
+     * The key is the string of the {@link AopConfig}, which should describe all the interceptions.
+     */
+    @Override
+    public String getCacheKey() {
+        return null == config ? "" : config.toString();
+    }
+
     @Override
     protected boolean preInstrument(AppInstrumentContext context) {
         if(null == config || !config.isEnabled()) {
@@ -190,19 +197,14 @@ public class AopInstrumentation extends AsmInstrumentProcessor {
                 return;
             }
 
-            Try.throwUnchecked(() -> {
-                try (InputStream in = ci.is.getInputStream()) {
+            byte[] bytes = instrumentClass(cn, ci.cr, methods);
 
-                    byte[] bytes = instrumentClass(cn, new ClassReader(in), methods);
-
-                    context.updateInstrumented(ic, this, bytes, true);
-                }
-            });
+            context.updateInstrumented(ic, this, bytes, true);
         }
     }
 
     protected byte[] instrumentClass(ClassNode cn, ClassReader cr, List<AopMethod> methods) {
-        AopClassVisitor visitor = new AopClassVisitor(cn ,new ClassWriter(cr, ClassWriter.COMPUTE_FRAMES), methods);
+        AopClassVisitor visitor = new AopClassVisitor(cn ,new InstrumentClassWriter(cr, ClassWriter.COMPUTE_FRAMES), methods);
 
         cr.accept(visitor, ClassReader.EXPAND_FRAMES);
 
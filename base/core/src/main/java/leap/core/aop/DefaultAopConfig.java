@@ -63,4 +63,9 @@ public class DefaultAopConfig implements AopConfig, ConfigBean {
 
         return list;
     }
+
+    @Override
+    public String toString() {
+        return "AopConfig[enabled=" + enabled + ", interceptions=" + methodInterceptions + "]";
+    }
 }
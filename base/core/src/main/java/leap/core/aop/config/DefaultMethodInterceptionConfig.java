@@ -48,4 +48,9 @@ public class DefaultMethodInterceptionConfig implements MethodInterceptionConfig
         }
         return false;
     }
+
+    @Override
+    public String toString() {
+        return "Interception[interceptor=" + interceptor + ", matchers=" + matchers + "]";
+    }
 }
\ No newline at end of file
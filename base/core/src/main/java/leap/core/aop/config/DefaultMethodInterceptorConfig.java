@@ -36,4 +36,9 @@ public class DefaultMethodInterceptorConfig implements MethodInterceptorConfig {
         return className;
     }
 
+    @Override
+    public String toString() {
+        return "Interceptor[bean=" + beanName + ", class=" + className + "]";
+    }
+
 }
@@ -31,4 +31,9 @@ public class AnnotationMethodMatcher implements MethodMatcher {
         return method.isAnnotationPresent(type);
     }
 
+    @Override
+    public String toString() {
+        return "@" + type.getName();
+    }
+
 }
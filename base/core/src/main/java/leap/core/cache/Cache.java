@@ -16,6 +16,7 @@
 package leap.core.cache;
 
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * All implementations must be thread safe.
@@ -29,6 +30,23 @@ public interface Cache<K,V> {
 	 * Returns <code>null</code> if the entry does not exists. 
 	 */
 	V get(K key);
+
+	/**
+	 * Gets an entry mapping to the given key in this cache, creates it by the loader if the entry does not exists.
+	 *
+	 * <p>
+	 * Returns <code>null</code> and caches nothing if the loader returns <code>null</code>.
+	 */
+	default V get(K key, Function<? super K, ? extends V> loader) {
+		V value = get(key);
+		if(null == value) {
+			value = loader.apply(key);
+			if(null != value) {
+				put(key, value);
+			}
+		}
+		return value;
+	}
 	
 	/**
 	 * Returns a new created map contains all the cached items.
@@ -31,6 +31,29 @@ public interface CacheManager {
 	 */
 	<K,V> Cache<K,V> createSimpleLRUCache(String cacheName) throws ObjectExistsException;
 
+	/**
+	 * Creates a {@link ConcurrentCache}.
+	 */
+	<K,V> Cache<K,V> createConcurrentCache(int maxSize);
+
+	/**
+	 * Creates a {@link ConcurrentCache} expires by time.
+	 *
+	 * <p>
+	 * The expire times are in milliseconds, 0 means never expires.
+	 */
+	<K,V> Cache<K,V> createConcurrentCache(int maxSize, long expireAfterWriteMs, long expireAfterAccessMs);
+
+	/**
+	 * Creates a {@link ConcurrentCache} and register it to this manager.
+	 *
+	 * <p>
+	 * The max size and expire times are read from the config properties
+	 * <code>cache.{cacheName}.maxSize</code>, <code>cache.{cacheName}.expireAfterWriteMs</code>
+	 * and <code>cache.{cacheName}.expireAfterAccessMs</code>.
+	 */
+	<K,V> Cache<K,V> createConcurrentCache(String cacheName) throws ObjectExistsException;
+
 	/**
 	 * Looks up a managed {@link Cache} given it's name.
 	 * 
@@ -48,6 +71,14 @@ public interface CacheManager {
 	 * @throws ObjectExistsException if the given cache name aleady exists.
 	 */
 	void registerCache(String name,Cache<?, ?> cache) throws ObjectExistsException;
+
+	/**
+	 * Removes the cache registered by the given name from this manager.
+	 *
+	 * <p>
+	 * Returns the removed cache or <code>null</code> if the cache name not exists.
+	 */
+	<K,V> Cache<K,V> removeCache(String name);
 	
 	/**
 	 * Clears the cache defined by the given cache name.
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.core.cache;
+
+/**
+ * An immutable snapshot of the statistics of a {@link Cache}.
+ */
+public final class CacheStats {
+
+    private final long hitCount;
+    private final long missCount;
+    private final long loadCount;
+    private final long evictionCount;
+    private final long expirationCount;
+
+    public CacheStats(long hitCount, long missCount, long loadCount, long evictionCount, long expirationCount) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.loadCount = loadCount;
+        this.evictionCount = evictionCount;
+        this.expirationCount = expirationCount;
+    }
+
+    /**
+     * Returns the number of lookups that returned a cached value.
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of lookups that did not find a cached value (includes the expired values).
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the number of values created by a loader function.
+     */
+    public long getLoadCount() {
+        return loadCount;
+    }
+
+    /**
+     * Returns the number of entries removed because the cache exceeded it's max size.
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Returns the number of entries removed because they were expired.
+     */
+    public long getExpirationCount() {
+        return expirationCount;
+    }
+
+    /**
+     * Returns the number of lookups.
+     */
+    public long getRequestCount() {
+        return hitCount + missCount;
+    }
+
+    /**
+     * Returns the ratio of hits to lookups, returns <code>1.0</code> if no lookups.
+     */
+    public double getHitRate() {
+        long requests = getRequestCount();
+        return requests == 0 ? 1.0d : (double)hitCount / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats[hits=" + hitCount + ", misses=" + missCount + ", loads=" + loadCount +
+               ", evictions=" + evictionCount + ", expirations=" + expirationCount + "]";
+    }
+}
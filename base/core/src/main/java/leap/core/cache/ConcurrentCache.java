@@ -0,0 +1,453 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.core.cache;
+
+import leap.lang.Args;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * A thread safe {@link Cache} bounded by size and optionally by time.
+ *
+ * <p>
+ * The entries are stored in a {@link ConcurrentHashMap}, reads never take a lock.
+ * Reads are recorded in a lossy ring buffer and replayed to the eviction policy in batches by the thread
+ * which holds the eviction lock, writes update the eviction policy directly.
+ *
+ * <p>
+ * The eviction policy is a segmented LRU. New entries are added to the probation segment and promoted to the
+ * protected segment when they are read again, so the entries used only once can not push the hot entries out.
+ *
+ * <p>
+ * Expired entries are removed when they are read, when they are evicted or by calling {@link #cleanUp()}.
+ */
+public class ConcurrentCache<K,V> implements Cache<K,V> {
+
+    public static final int DEFAULT_MAX_SIZE = SimpleLRUCache.DEFAULT_MAX_SIZE;
+
+    private static final int    READ_BUFFER_SIZE      = 128;
+    private static final int    READ_BUFFER_MASK      = READ_BUFFER_SIZE - 1;
+    private static final int    READ_BUFFER_THRESHOLD = 32;
+    private static final double PROTECTED_RATIO       = 0.8d;
+
+    private static final int NEW       = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+    private static final int DEAD      = 3;
+
+    private final ConcurrentHashMap<K, Node<K,V>> map;
+
+    private final int     maxSize;
+    private final int     maxProtectedSize;
+    private final long    expireAfterWriteNanos;
+    private final long    expireAfterAccessNanos;
+    private final boolean expires;
+
+    private final ReentrantLock                   evictionLock = new ReentrantLock();
+    private final AtomicReferenceArray<Node<K,V>> readBuffer   = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+    private final AtomicLong                      readCounter  = new AtomicLong();
+    private volatile long                         drainedCounter;
+
+    //guarded by the eviction lock.
+    private final Node<K,V> probation = new Node<>(null, null, 0);
+    private final Node<K,V> protect   = new Node<>(null, null, 0);
+    private int             probationSize;
+    private int             protectedSize;
+
+    private final LongAdder hits        = new LongAdder();
+    private final LongAdder misses      = new LongAdder();
+    private final LongAdder loads       = new LongAdder();
+    private final LongAdder evictions   = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public ConcurrentCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public ConcurrentCache(int maxSize) {
+        this(maxSize, 0, 0);
+    }
+
+    /**
+     * @param maxSize the max number of entries.
+     * @param expireAfterWriteMs the entry expires after the given milliseconds since it was put, 0 means never.
+     * @param expireAfterAccessMs the entry expires after the given milliseconds since it was last read, 0 means never.
+     */
+    public ConcurrentCache(int maxSize, long expireAfterWriteMs, long expireAfterAccessMs) {
+        Args.assertTrue(maxSize > 0, "The max size must be positive");
+        Args.assertTrue(expireAfterWriteMs >= 0, "The expire after write must not be negative");
+        Args.assertTrue(expireAfterAccessMs >= 0, "The expire after access must not be negative");
+
+        this.map                    = new ConcurrentHashMap<>(Math.min(maxSize, 1024));
+        this.maxSize                = maxSize;
+        this.maxProtectedSize       = (int)(maxSize * PROTECTED_RATIO);
+        this.expireAfterWriteNanos  = TimeUnit.MILLISECONDS.toNanos(expireAfterWriteMs);
+        this.expireAfterAccessNanos = TimeUnit.MILLISECONDS.toNanos(expireAfterAccessMs);
+        this.expires                = expireAfterWriteMs > 0 || expireAfterAccessMs > 0;
+
+        probation.prev = probation.next = probation;
+        protect.prev   = protect.next   = protect;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the number of entries in this cache, may include the expired entries which are not removed yet.
+     */
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * Returns a snapshot of the statistics of this cache.
+     */
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), loads.sum(), evictions.sum(), expirations.sum());
+    }
+
+    @Override
+    public V get(K key) {
+        Node<K,V> node = map.get(key);
+        if(null == node) {
+            misses.increment();
+            return null;
+        }
+
+        if(expires) {
+            long now = System.nanoTime();
+            if(isExpired(node, now)) {
+                expire(node);
+                misses.increment();
+                return null;
+            }
+            if(expireAfterAccessNanos > 0) {
+                node.accessTime = now;
+            }
+        }
+
+        hits.increment();
+        afterRead(node);
+        return node.value;
+    }
+
+    @Override
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if(null != value) {
+            return value;
+        }
+
+        final long       now     = expires ? System.nanoTime() : 0;
+        final Loading<K,V> loading = new Loading<>();
+
+        Node<K,V> node = map.compute(key, (k, old) -> {
+            if(null != old && !isExpired(old, now)) {
+                return old;
+            }
+            loading.replaced = old;
+
+            V v = loader.apply(k);
+            if(null == v) {
+                return null;
+            }
+            return loading.created = new Node<>(k, v, now);
+        });
+
+        if(null != loading.replaced) {
+            expirations.increment();
+        }
+
+        if(null != loading.created) {
+            loads.increment();
+            afterWrite(loading.created, loading.replaced);
+        }else if(null != loading.replaced) {
+            afterRemove(loading.replaced);
+        }
+
+        return null == node ? null : node.value;
+    }
+
+    @Override
+    public Map<K, V> getAll() {
+        long now = expires ? System.nanoTime() : 0;
+
+        Map<K, V> all = new HashMap<>(map.size());
+        for(Node<K,V> node : map.values()) {
+            if(!isExpired(node, now)) {
+                all.put(node.key, node.value);
+            }
+        }
+        return all;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        Args.notNull(key, "key");
+
+        Node<K,V> node = new Node<>(key, value, expires ? System.nanoTime() : 0);
+        Node<K,V> old  = map.put(key, node);
+
+        afterWrite(node, old);
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        Node<K,V> node = map.get(key);
+        return null != node && !isExpired(node, expires ? System.nanoTime() : 0);
+    }
+
+    @Override
+    public boolean remove(K key) {
+        Node<K,V> node = removeNode(key);
+        return null != node;
+    }
+
+    @Override
+    public V getAndRemove(K key) {
+        Node<K,V> node = removeNode(key);
+        return null == node ? null : node.value;
+    }
+
+    @Override
+    public void clear() {
+        evictionLock.lock();
+        try{
+            for(K key : map.keySet()) {
+                Node<K,V> node = map.remove(key);
+                if(null != node) {
+                    unlink(node);
+                }
+            }
+            for(int i=0;i<READ_BUFFER_SIZE;i++) {
+                readBuffer.lazySet(i, null);
+            }
+            drainedCounter = readCounter.get();
+        }finally{
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Removes all the expired entries.
+     */
+    public void cleanUp() {
+        if(expires) {
+            long now = System.nanoTime();
+            for(Node<K,V> node : map.values()) {
+                if(isExpired(node, now)) {
+                    expire(node);
+                }
+            }
+        }
+
+        evictionLock.lock();
+        try{
+            drainReadBuffer();
+        }finally{
+            evictionLock.unlock();
+        }
+    }
+
+    protected final boolean isExpired(Node<K,V> node, long now) {
+        if(!expires) {
+            return false;
+        }
+        if(expireAfterWriteNanos > 0 && now - node.writeTime >= expireAfterWriteNanos) {
+            return true;
+        }
+        if(expireAfterAccessNanos > 0 && now - node.accessTime >= expireAfterAccessNanos) {
+            return true;
+        }
+        return false;
+    }
+
+    private Node<K,V> removeNode(K key) {
+        Node<K,V> node = map.remove(key);
+        if(null == node) {
+            return null;
+        }
+
+        afterRemove(node);
+
+        if(isExpired(node, expires ? System.nanoTime() : 0)) {
+            expirations.increment();
+            return null;
+        }
+        return node;
+    }
+
+    private void expire(Node<K,V> node) {
+        if(map.remove(node.key, node)) {
+            expirations.increment();
+            afterRemove(node);
+        }
+    }
+
+    private void afterRead(Node<K,V> node) {
+        long counter = readCounter.getAndIncrement();
+        readBuffer.lazySet((int)(counter & READ_BUFFER_MASK), node);
+
+        if(counter - drainedCounter >= READ_BUFFER_THRESHOLD && evictionLock.tryLock()) {
+            try{
+                drainReadBuffer();
+            }finally{
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    private void afterWrite(Node<K,V> node, Node<K,V> old) {
+        evictionLock.lock();
+        try{
+            drainReadBuffer();
+
+            if(null != old) {
+                unlink(old);
+            }
+
+            //The node may be removed by another thread before acquiring the lock.
+            if(node.segment == NEW) {
+                link(probation, node);
+                node.segment = PROBATION;
+                probationSize++;
+            }
+
+            evict();
+        }finally{
+            evictionLock.unlock();
+        }
+    }
+
+    private void afterRemove(Node<K,V> node) {
+        evictionLock.lock();
+        try{
+            unlink(node);
+        }finally{
+            evictionLock.unlock();
+        }
+    }
+
+    //guarded by the eviction lock.
+    private void drainReadBuffer() {
+        drainedCounter = readCounter.get();
+        for(int i=0;i<READ_BUFFER_SIZE;i++) {
+            Node<K,V> node = readBuffer.getAndSet(i, null);
+            if(null != node) {
+                onAccess(node);
+            }
+        }
+    }
+
+    //guarded by the eviction lock.
+    private void onAccess(Node<K,V> node) {
+        if(node.segment == PROBATION) {
+            unlinkQuietly(node);
+            probationSize--;
+
+            link(protect, node);
+            node.segment = PROTECTED;
+            protectedSize++;
+
+            while(protectedSize > maxProtectedSize) {
+                Node<K,V> demoted = protect.next;
+                unlinkQuietly(demoted);
+                protectedSize--;
+
+                link(probation, demoted);
+                demoted.segment = PROBATION;
+                probationSize++;
+            }
+        }else if(node.segment == PROTECTED) {
+            unlinkQuietly(node);
+            link(protect, node);
+        }
+    }
+
+    //guarded by the eviction lock.
+    private void evict() {
+        while(probationSize + protectedSize > maxSize) {
+            Node<K,V> victim = probation.next != probation ? probation.next : protect.next;
+
+            unlink(victim);
+
+            if(map.remove(victim.key, victim)) {
+                evictions.increment();
+            }
+        }
+    }
+
+    //guarded by the eviction lock.
+    private void unlink(Node<K,V> node) {
+        if(node.segment == PROBATION) {
+            unlinkQuietly(node);
+            probationSize--;
+        }else if(node.segment == PROTECTED) {
+            unlinkQuietly(node);
+            protectedSize--;
+        }
+        node.segment = DEAD;
+    }
+
+    //Links the node as the most recently used node of the segment.
+    private static <K,V> void link(Node<K,V> head, Node<K,V> node) {
+        node.prev = head.prev;
+        node.next = head;
+        head.prev.next = node;
+        head.prev = node;
+    }
+
+    private static <K,V> void unlinkQuietly(Node<K,V> node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+    }
+
+    protected static final class Node<K,V> {
+        final K    key;
+        final V    value;
+        final long writeTime;
+
+        volatile long accessTime;
+
+        //guarded by the eviction lock.
+        int       segment = NEW;
+        Node<K,V> prev;
+        Node<K,V> next;
+
+        Node(K key, V value, long now) {
+            this.key        = key;
+            this.value      = value;
+            this.writeTime  = now;
+            this.accessTime = now;
+        }
+    }
+
+    private static final class Loading<K,V> {
+        Node<K,V> created;
+        Node<K,V> replaced;
+    }
+}
@@ -15,7 +15,9 @@
  */
 package leap.core.cache;
 
+import leap.core.AppConfig;
 import leap.core.BeanFactory;
+import leap.core.annotation.Inject;
 import leap.core.ioc.FactoryBean;
 import leap.core.ioc.PostCreateBean;
 import leap.lang.Args;
@@ -31,7 +33,11 @@ import java.util.concurrent.ConcurrentHashMap;
 public class DefaultCacheManager implements CacheManager, PostCreateBean, FactoryBean {
 	
 	private static final Log log = LogFactory.get(DefaultCacheManager.class);
-	
+
+	private static final String CONFIG_PREFIX = "cache.";
+
+	protected @Inject AppConfig config;
+
 	protected Map<String,Cache<?,?>> caches;
 	
     @Override
@@ -46,6 +52,29 @@ public class DefaultCacheManager implements CacheManager, PostCreateBean, Factor
 	    return cache;
     }
 
+    @Override
+    public <K, V> Cache<K, V> createConcurrentCache(int maxSize) {
+        return new ConcurrentCache<K, V>(maxSize);
+    }
+
+    @Override
+    public <K, V> Cache<K, V> createConcurrentCache(int maxSize, long expireAfterWriteMs, long expireAfterAccessMs) {
+        return new ConcurrentCache<K, V>(maxSize, expireAfterWriteMs, expireAfterAccessMs);
+    }
+
+    @Override
+    public <K, V> Cache<K, V> createConcurrentCache(String cacheName) throws ObjectExistsException {
+    	String prefix = CONFIG_PREFIX + cacheName + ".";
+
+    	int  maxSize             = config.getIntProperty(prefix + "maxSize", ConcurrentCache.DEFAULT_MAX_SIZE);
+    	long expireAfterWriteMs  = config.getLongProperty(prefix + "expireAfterWriteMs", 0L);
+    	long expireAfterAccessMs = config.getLongProperty(prefix + "expireAfterAccessMs", 0L);
+
+    	Cache<K, V> cache = new ConcurrentCache<>(maxSize, expireAfterWriteMs, expireAfterAccessMs);
+    	registerCache(cacheName, cache);
+	    return cache;
+    }
+
 	@Override
     @SuppressWarnings("unchecked")
 	public <K, V> Cache<K, V> getCache(String cacheName) {
@@ -68,6 +97,12 @@ public class DefaultCacheManager implements CacheManager, PostCreateBean, Factor
 		caches.put(name, cache);
     }
 
+	@Override
+	@SuppressWarnings("unchecked")
+	public <K, V> Cache<K, V> removeCache(String name) {
+		return (Cache<K,V>)caches.remove(name);
+	}
+
 	@Override
     public void clearCache(String cacheName) throws ObjectNotFoundException {
 		getCache(cacheName).clear();
@@ -45,4 +45,20 @@ public interface MDataSource extends Named {
      */
     MSlowSql[] getVerySlowSqls();
 
+    /**
+     * Returns the number of prepared statements reused from the statement cache.
+     *
+     * <p>
+     * Returns 0 if the underlying DataSource does not cache the prepared statements.
+     */
+    long getStatementCacheHits();
+
+    /**
+     * Returns the number of cacheable prepared statements not found in the statement cache.
+     *
+     * <p>
+     * Returns 0 if the underlying DataSource does not cache the prepared statements.
+     */
+    long getStatementCacheMisses();
+
 }
\ No newline at end of file
@@ -112,6 +112,16 @@ public class MDataSourceProxy extends DataSourceWrapper implements MDataSource {
         return list.toArray(new MSlowSql[list.size()]);
     }
 
+    @Override
+    public long getStatementCacheHits() {
+        return ds instanceof MStatementCache ? ((MStatementCache) ds).getStatementCacheHits() : 0;
+    }
+
+    @Override
+    public long getStatementCacheMisses() {
+        return ds instanceof MStatementCache ? ((MStatementCache) ds).getStatementCacheMisses() : 0;
+    }
+
     @Override
     public Connection getConnection() throws SQLException {
         return openConnection(super.getConnection());
@@ -200,6 +210,16 @@ public class MDataSourceProxy extends DataSourceWrapper implements MDataSource {
             return new ActiveConnectionsModel(activeConnectionModels);
         }
 
+        @Managed
+        public long getStatementCacheHits() {
+            return MDataSourceProxy.this.getStatementCacheHits();
+        }
+
+        @Managed
+        public long getStatementCacheMisses() {
+            return MDataSourceProxy.this.getStatementCacheMisses();
+        }
+
     }
 
     protected static class ActiveConnectionsModel {
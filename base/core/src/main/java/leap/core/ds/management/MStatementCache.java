@@ -0,0 +1,36 @@
+/*
+ *
+ *  * Copyright 2016 the original author or authors.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package leap.core.ds.management;
+
+/**
+ * The management interface of a {@link javax.sql.DataSource} which caches the prepared statements.
+ */
+public interface MStatementCache {
+
+    /**
+     * Returns the number of prepared statements reused from the cache.
+     */
+    long getStatementCacheHits();
+
+    /**
+     * Returns the number of cacheable prepared statements not found in the cache.
+     */
+    long getStatementCacheMisses();
+
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package leap.core.instrument;
+
+import leap.lang.Classes;
+import leap.lang.asm.ClassReader;
+import leap.lang.codec.Digests;
+import leap.lang.codec.Hex;
+import leap.lang.io.IO;
+import leap.lang.logging.Log;
+import leap.lang.logging.LogFactory;
+import leap.lang.resource.Resource;
+import leap.lang.resource.Resources;
+
+import java.io.*;
+import java.net.URL;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * The on-disk cache of the instrumented byte codes.
+ *
+ * <p>
+ * The cache key is the hash of the class byte codes, the byte codes of its super classes (the model classes and the frames
+ * computed by the processors depend on them), the instrument processors and their cache keys (see {@link AppInstrumentProcessor#getCacheKey()}),
+ * so the cached result of a class will be reused until the class, its super classes, the processors or their settings was changed.
+ *
+ * <p>
+ * The result of a class which is not instrumented will be cached too.
+ */
+public class AppInstrumentCache {
+
+    private static final Log log = LogFactory.get(AppInstrumentCache.class);
+
+    private static final int    MAGIC   = 0x4C494331;
+    private static final String VERSION = "1";
+    private static final String SUFFIX  = ".ic";
+
+    /**
+     * Creates a new cache in the given directory, returns null if any of the processors cannot be cached.
+     */
+    public static AppInstrumentCache create(File dir, List<AppInstrumentProcessor> processors) {
+        StringBuilder s = new StringBuilder(VERSION);
+
+        for(AppInstrumentProcessor p : processors) {
+            String key = p.getCacheKey();
+            if(null == key) {
+                log.info("Instrument processor '{}' cannot be cached, disable the instrument cache", p.getClass().getName());
+                return null;
+            }
+            s.append('|').append(p.getClass().getName()).append(':').append(key).append(':').append(getStamp(p.getClass()));
+        }
+
+        return new AppInstrumentCache(dir, processors, s.toString());
+    }
+
+    private static String getStamp(Class<?> c) {
+        URL url = c.getResource('/' + c.getName().replace('.', '/') + ".class");
+        if(null == url) {
+            return "";
+        }
+        try {
+            return url.toString() + '@' + url.openConnection().getLastModified();
+        } catch (IOException e) {
+            return url.toString();
+        }
+    }
+
+    protected final File                         dir;
+    protected final List<AppInstrumentProcessor> processors;
+    protected final byte[]                       fingerprint;
+
+    protected AppInstrumentCache(File dir, List<AppInstrumentProcessor> processors, String fingerprint) {
+        this.dir         = dir;
+        this.processors  = processors;
+        this.fingerprint = Digests.sha(fingerprint);
+    }
+
+    /**
+     * Returns the directory of the cache.
+     */
+    public File getDir() {
+        return dir;
+    }
+
+    /**
+     * Returns the cache key of the given byte codes.
+     */
+    public String key(byte[] bytes, boolean methodBodyOnly) {
+        MessageDigest md = Digests.getDigest("SHA-1");
+        md.update(fingerprint);
+        md.update(methodBodyOnly ? (byte)1 : (byte)0);
+        md.update(bytes);
+        return Hex.encode(md.digest());
+    }
+
+    /**
+     * Returns the cache key of the given class, which contains the byte codes of its super classes.
+     */
+    public String key(ParsedClass pc, boolean methodBodyOnly) {
+        MessageDigest md = Digests.getDigest("SHA-1");
+        md.update(fingerprint);
+        md.update(methodBodyOnly ? (byte)1 : (byte)0);
+        md.update(pc.getBytes());
+
+        //the classes of jdk will not be changed without changing the processors.
+        for(String type = pc.getReader().getSuperName(); null != type && !type.startsWith("java/");) {
+            byte[] bytes = readClass(type);
+            if(null == bytes) {
+                break;
+            }
+            md.update(bytes);
+            type = new ClassReader(bytes).getSuperName();
+        }
+
+        return Hex.encode(md.digest());
+    }
+
+    protected byte[] readClass(String internalClassName) {
+        Resource resource = Resources.getResource("classpath:" + internalClassName + Classes.CLASS_FILE_SUFFIX);
+        if(null == resource || !resource.exists()) {
+            return null;
+        }
+        try {
+            return IO.readByteArrayAndClose(resource.getInputStream());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the cached result or null if not cached.
+     */
+    public Cached get(String key) {
+        File file = new File(dir, key + SUFFIX);
+        if(!file.exists()) {
+            return null;
+        }
+
+        try(DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if(in.readInt() != MAGIC) {
+                return null;
+            }
+
+            if(!in.readBoolean()) {
+                return new Cached(null);
+            }
+
+            SimpleAppInstrumentClass ic = new SimpleAppInstrumentClass(in.readUTF());
+            if(in.readBoolean()) {
+                ic.makeEnsure();
+            }
+            ic.setBeanDeclared(in.readBoolean());
+
+            int size = in.readInt();
+            for(int i=0;i<size;i++) {
+                AppInstrumentProcessor p = getProcessor(in.readUTF());
+                if(null == p) {
+                    return null;
+                }
+                ic.addInstrumentedBy(p);
+            }
+
+            byte[] data = new byte[in.readInt()];
+            in.readFully(data);
+            ic.updateClassData(data);
+
+            return new Cached(ic);
+        }catch (IOException e) {
+            log.warn("Error reading instrument cache '{}', {}", file.getAbsolutePath(), e.getMessage());
+            file.delete();
+            return null;
+        }
+    }
+
+    /**
+     * Saves the result of the given key, the instrumented class is null if the class is not instrumented.
+     */
+    public void put(String key, AppInstrumentClass ic) {
+        try {
+            dir.mkdirs();
+
+            Path tmp = Files.createTempFile(dir.toPath(), key, ".tmp");
+            try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeBoolean(null != ic);
+
+                if(null != ic) {
+                    out.writeUTF(ic.getInternalClassName());
+                    out.writeBoolean(ic.isEnsure());
+                    out.writeBoolean(ic.isBeanDeclared());
+
+                    out.writeInt(ic.getAllInstrumentedBy().size());
+                    for(AppInstrumentProcessor p : ic.getAllInstrumentedBy()) {
+                        out.writeUTF(p.getClass().getName());
+                    }
+
+                    byte[] data = ic.getClassData();
+                    out.writeInt(data.length);
+                    out.write(data);
+                }
+            }
+
+            Path file = new File(dir, key + SUFFIX).toPath();
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }catch (IOException e) {
+            log.warn("Error writing instrument cache to '{}', {}", dir.getAbsolutePath(), e.getMessage());
+        }
+    }
+
+    protected AppInstrumentProcessor getProcessor(String className) {
+        for(AppInstrumentProcessor p : processors) {
+            if(p.getClass().getName().equals(className)) {
+                return p;
+            }
+        }
+        return null;
+    }
+
+    public static final class Cached {
+
+        private final AppInstrumentClass ic;
+
+        Cached(AppInstrumentClass ic) {
+            this.ic = ic;
+        }
+
+        /**
+         * Returns the cached instrumented class or null if the class is not instrumented.
+         */
+        public AppInstrumentClass getInstrumentedClass() {
+            return ic;
+        }
+    }
+}
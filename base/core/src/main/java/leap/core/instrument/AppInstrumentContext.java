@@ -52,4 +52,14 @@ public interface AppInstrumentContext {
      */
     void updateInstrumented(AppInstrumentClass cls, AppInstrumentProcessor instrumentedBy, byte[] classData, boolean ensure);
 
+    /**
+     * Returns the {@link ParsedClass} of the given byte codes.
+     *
+     * <p>
+     * The same byte codes (the same array instance) will be parsed only once in a context.
+     */
+    default ParsedClass parse(byte[] bytes) {
+        return new ParsedClass(bytes);
+    }
+
 }
\ No newline at end of file
@@ -52,6 +52,21 @@ public interface AppInstrumentProcessor {
         return false;
     }
 
+    /**
+     * Returns a key of the settings which affect the instrumented result of this processor,
+     * the key will be a part of the key of the instrumentation cache.
+     *
+     * <p>
+     * The cache key of a class contains the byte codes of the class and its super classes, a processor depends on
+     * anything else must put it into the key.
+     *
+     * <p>
+     * Returns <code>null</code> (the default) if the instrumented result cannot be cached.
+     */
+    default String getCacheKey() {
+        return null;
+    }
+
     /**
      * Instrument the class.
      *
@@ -47,4 +47,11 @@ public interface AppInstrumentation {
      */
     AppInstrumentClass tryInstrument(ClassLoader loader, Resource r, byte[] bytes, boolean methodBodyOnly);
 
+    /**
+     * Try instrument the parsed class, returns the instrumented class info or null.
+     */
+    default AppInstrumentClass tryInstrument(ClassLoader loader, Resource r, ParsedClass pc, boolean methodBodyOnly) {
+        return tryInstrument(loader, r, pc.getBytes(), methodBodyOnly);
+    }
+
 }
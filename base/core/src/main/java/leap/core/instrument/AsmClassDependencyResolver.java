@@ -34,6 +34,22 @@ public class AsmClassDependencyResolver implements ClassDependencyResolver {
 
         cr.accept(visitor,0);
 
+        return newClassDependency(cr, visitor);
+    }
+
+    /**
+     * Visits the parsed {@link leap.lang.asm.tree.ClassNode}, which will be reused by the instrument processors.
+     */
+    @Override
+    public ClassDependency resolveDependentClassNames(Resource resource, ParsedClass pc) {
+        DependencyVisitor visitor = new DependencyVisitor();
+
+        pc.getNode().accept(visitor);
+
+        return newClassDependency(pc.getReader(), visitor);
+    }
+
+    protected ClassDependency newClassDependency(ClassReader cr, DependencyVisitor visitor) {
         String className = Type.getObjectType(cr.getClassName()).getClassName();
         String superName = className.equals("java.lang.Object") ?
                                 null :
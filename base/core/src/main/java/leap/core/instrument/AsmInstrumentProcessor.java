@@ -50,31 +50,30 @@ public abstract class AsmInstrumentProcessor implements AppInstrumentProcessor {
         }
 
         try{
-            ClassReader cr = new ClassReader(bytes);
+            ParsedClass pc = context.parse(bytes);
+            ClassReader cr = pc.getReader();
 
             if(acceptsClass(context, cr)) {
                 if(context.isInstrumentedBy(cr.getClassName(), this.getClass())) {
                     return;
                 }
 
-                InputStreamSource  is = new ByteArrayInputStreamSource(bytes);
                 AppInstrumentClass ic = context.getInstrumentedClass(cr.getClassName());
                 if(null != ic) {
-                    is = new ByteArrayInputStreamSource(ic.getClassData());
-                    cr = new ClassReader(ic.getClassData());
+                    pc = context.parse(ic.getClassData());
+                    cr = pc.getReader();
                 }else{
                     ic = context.newInstrumentedClass(cr.getClassName());
                 }
 
-                ClassNode cn = ASM.getClassNode(cr);
+                ClassNode cn = pc.getNode();
 
                 ClassInfo ci = new ClassInfo();
                 ci.rs = resource;
-                ci.is = is;
+                ci.is = new ByteArrayInputStreamSource(pc.getBytes());
                 ci.cr = cr;
                 ci.cn = cn;
 
-                //todo : optimize performance?
                 processClass(context, ic, ci, methodBodyOnly);
 
                 if(null == ic) {
@@ -22,4 +22,11 @@ public interface ClassDependencyResolver {
 
     ClassDependency resolveDependentClassNames(Resource resource, byte[] bytes);
 
+    /**
+     * Resolves the dependencies of the parsed class.
+     */
+    default ClassDependency resolveDependentClassNames(Resource resource, ParsedClass pc) {
+        return resolveDependentClassNames(resource, pc.getBytes());
+    }
+
 }
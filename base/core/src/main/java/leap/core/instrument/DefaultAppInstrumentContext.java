@@ -16,6 +16,7 @@
 package leap.core.instrument;
 
 import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -23,11 +24,17 @@ public class DefaultAppInstrumentContext implements AppInstrumentContext {
 
     private final ClassLoader                     classLoader;
     private final Map<String, AppInstrumentClass> instrumentedMap = new LinkedHashMap<>();
+    private final Map<byte[], ParsedClass>        parsedMap       = new IdentityHashMap<>(2);
 
     public DefaultAppInstrumentContext(ClassLoader classLoader) {
         this.classLoader = classLoader;
     }
 
+    public DefaultAppInstrumentContext(ClassLoader classLoader, ParsedClass pc) {
+        this.classLoader = classLoader;
+        this.parsedMap.put(pc.getBytes(), pc);
+    }
+
     @Override
     public ClassLoader getClassLoader() {
         return classLoader;
@@ -64,7 +71,13 @@ public class DefaultAppInstrumentContext implements AppInstrumentContext {
         }
     }
 
+    @Override
+    public ParsedClass parse(byte[] bytes) {
+        return parsedMap.computeIfAbsent(bytes, ParsedClass::new);
+    }
+
     public void clear() {
         instrumentedMap.clear();
+        parsedMap.clear();
     }
 }
@@ -35,10 +35,12 @@ package leap.core.instrument;
 import leap.core.AppConfig;
 import leap.core.AppInitException;
 import leap.lang.Factory;
+import leap.lang.Strings;
 import leap.lang.logging.Log;
 import leap.lang.logging.LogFactory;
 import leap.lang.resource.Resource;
 
+import java.io.File;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -46,18 +48,57 @@ public class DefaultAppInstrumentation implements AppInstrumentation {
 
     private static final Log log = LogFactory.get(DefaultAppInstrumentation.class);
 
+    /**
+     * The directory of the instrument cache, the cache is disabled if not configured.
+     */
+    public static final String CACHE_DIR_PROPERTY = "instrument.cache.dir";
+
     private final List<AppInstrumentProcessor> processors = Factory.newInstances(AppInstrumentProcessor.class);
 
+    private AppInstrumentCache cache;
+
     @Override
     public void init(AppConfig config) {
         for(AppInstrumentProcessor p : processors) {
             p.init(config);
         }
+
+        String cacheDir = config.getProperty(CACHE_DIR_PROPERTY);
+        if(!Strings.isEmpty(cacheDir)) {
+            cache = AppInstrumentCache.create(new File(cacheDir), processors);
+            if(null != cache) {
+                log.info("Instrument cache enabled at '{}'", cache.getDir().getAbsolutePath());
+            }
+        }
     }
 
     @Override
     public AppInstrumentClass tryInstrument(ClassLoader loader, Resource r, byte[] bytes, boolean methodBodyOnly) {
-        DefaultAppInstrumentContext context = new DefaultAppInstrumentContext(loader);
+        return tryInstrument(loader, r, new ParsedClass(bytes), methodBodyOnly);
+    }
+
+    @Override
+    public AppInstrumentClass tryInstrument(ClassLoader loader, Resource r, ParsedClass pc, boolean methodBodyOnly) {
+        if(null == cache) {
+            return doInstrument(loader, r, pc, methodBodyOnly);
+        }
+
+        String key = cache.key(pc, methodBodyOnly);
+
+        AppInstrumentCache.Cached cached = cache.get(key);
+        if(null != cached) {
+            log.trace("Found cached instrument result of '{}'", r.getURLString());
+            return cached.getInstrumentedClass();
+        }
+
+        AppInstrumentClass ic = doInstrument(loader, r, pc, methodBodyOnly);
+        cache.put(key, ic);
+        return ic;
+    }
+
+    protected AppInstrumentClass doInstrument(ClassLoader loader, Resource r, ParsedClass pc, boolean methodBodyOnly) {
+        DefaultAppInstrumentContext context = new DefaultAppInstrumentContext(loader, pc);
+        byte[] bytes = pc.getBytes();
 
         for(AppInstrumentProcessor p : processors){
             try {
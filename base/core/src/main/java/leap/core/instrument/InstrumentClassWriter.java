@@ -0,0 +1,117 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package leap.core.instrument;
+
+import leap.lang.Classes;
+import leap.lang.asm.ClassReader;
+import leap.lang.asm.ClassWriter;
+import leap.lang.asm.Opcodes;
+import leap.lang.io.IO;
+import leap.lang.resource.Resource;
+import leap.lang.resource.Resources;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A {@link ClassWriter} which computes the common super class by reading the class files instead of loading the classes.
+ *
+ * <p>
+ * The default implementation loads the classes by the parent class loader, the loaded classes cannot be instrumented later,
+ * so the instrumentation depends on the order of classes and cannot be executed concurrently.
+ */
+public class InstrumentClassWriter extends ClassWriter {
+
+    private static final String OBJECT = "java/lang/Object";
+
+    private final Map<String, ClassReader> readers = new HashMap<>();
+
+    public InstrumentClassWriter(ClassReader cr, int flags) {
+        super(cr, flags);
+    }
+
+    @Override
+    protected String getCommonSuperClass(String type1, String type2) {
+        if(type1.equals(type2)) {
+            return type1;
+        }
+
+        ClassReader cr1 = read(type1);
+        ClassReader cr2 = read(type2);
+        if(null == cr1 || null == cr2) {
+            return super.getCommonSuperClass(type1, type2);
+        }
+
+        //the verifier treats the interfaces as object.
+        if(isInterface(cr1) || isInterface(cr2)) {
+            return OBJECT;
+        }
+
+        Set<String> supers = new HashSet<>();
+        for(String type = type1; null != type; type = readSuperName(type)) {
+            supers.add(type);
+        }
+
+        for(String type = type2; null != type; type = readSuperName(type)) {
+            if(supers.contains(type)) {
+                return type;
+            }
+        }
+
+        return OBJECT;
+    }
+
+    private static boolean isInterface(ClassReader cr) {
+        return (cr.getAccess() & Opcodes.ACC_INTERFACE) != 0;
+    }
+
+    private String readSuperName(String type) {
+        if(OBJECT.equals(type)) {
+            return null;
+        }
+        ClassReader cr = read(type);
+        return null == cr ? OBJECT : cr.getSuperName();
+    }
+
+    private ClassReader read(String type) {
+        if(readers.containsKey(type)) {
+            return readers.get(type);
+        }
+
+        ClassReader cr = null;
+
+        Resource resource = Resources.getResource("classpath:" + type + Classes.CLASS_FILE_SUFFIX);
+        if(null != resource && resource.exists()) {
+            InputStream is = null;
+            try {
+                is = resource.getInputStream();
+                cr = new ClassReader(is);
+            }catch (IOException e) {
+                cr = null;
+            }finally {
+                IO.close(is);
+            }
+        }
+
+        readers.put(type, cr);
+        return cr;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package leap.core.instrument;
+
+import leap.lang.asm.ASM;
+import leap.lang.asm.ClassReader;
+import leap.lang.asm.tree.ClassNode;
+
+/**
+ * The byte codes of a class and the parsed {@link ClassReader} and {@link ClassNode}.
+ *
+ * <p>
+ * The parsed class is shared by the {@link ClassDependencyResolver} and all the {@link AppInstrumentProcessor}s,
+ * so the same byte codes will be parsed only once. The {@link ClassNode} must be used as read only.
+ */
+public final class ParsedClass {
+
+    private final byte[]      bytes;
+    private final ClassReader reader;
+
+    private ClassNode node;
+
+    public ParsedClass(byte[] bytes) {
+        this.bytes  = bytes;
+        this.reader = new ClassReader(bytes);
+    }
+
+    /**
+     * Returns the byte codes.
+     */
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns the {@link ClassReader} of the byte codes.
+     */
+    public ClassReader getReader() {
+        return reader;
+    }
+
+    /**
+     * Returns the {@link ClassNode} of the byte codes, parses it at the first time.
+     */
+    public ClassNode getNode() {
+        if(null == node) {
+            node = ASM.getClassNode(reader);
+        }
+        return node;
+    }
+
+}
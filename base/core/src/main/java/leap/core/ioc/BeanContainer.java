@@ -48,6 +48,13 @@ import java.util.function.Supplier;
 public class BeanContainer implements BeanFactory {
 	
 	private static final Log log = LogFactory.get(BeanContainer.class);
+
+    /**
+     * Initializes the non lazy beans in parallel if <code>true</code>, see {@link ParallelBeanInitializer}.
+     */
+    public static final String PARALLEL_INIT_PROPERTY         = "beans.parallel-init";
+    public static final String PARALLEL_INIT_THREADS_PROPERTY = "beans.parallel-init.threads";
+    public static final String PARALLEL_INIT_TIMEOUT_PROPERTY = "beans.parallel-init.timeout";
 	
 	/** Definition of beans that are currently in creation */
 	private final ThreadLocal<Map<BeanDefinitionBase,Object>> beansCurrentlyInCreation = new ThreadLocal<>();
@@ -323,7 +330,7 @@ public class BeanContainer implements BeanFactory {
 		bd.setType(type);
 		bd.setBeanClass(bean.getClass());
 		bd.setSingleton(true);
-		bd.setSingletonInstance(bean);
+		bd.setInstance(bean, null);
 		bd.setPrimary(primary);
 		
 		return bd;
@@ -909,12 +916,36 @@ public class BeanContainer implements BeanFactory {
 	}
 	
 	protected void initNonLazyBeans() {
+        if(config.getBooleanProperty(PARALLEL_INIT_PROPERTY)) {
+            initNonLazyBeansInParallel(config.getIntProperty(PARALLEL_INIT_THREADS_PROPERTY, Runtime.getRuntime().availableProcessors()),
+                                       config.getLongProperty(PARALLEL_INIT_TIMEOUT_PROPERTY, 300));
+            return;
+        }
+
 		for(BeanDefinitionBase bd : bds.allBeanDefinitions){
 			if(!bd.isLazyInit()){
 				doGetBean(bd);
 			}
 		}
 	}
+
+    /**
+     * Initializes the non lazy beans by the {@link ParallelBeanInitializer}, the beans added while initializing
+     * are initialized in the caller thread after that.
+     */
+    protected void initNonLazyBeansInParallel(int threads, long timeout) {
+        List<BeanDefinitionBase> list = new ArrayList<>(bds.allBeanDefinitions);
+
+        new ParallelBeanInitializer(this, threads, timeout).init(list);
+
+        //the beans added while initializing.
+        Set<BeanDefinitionBase> inited = new HashSet<>(list);
+        for(BeanDefinitionBase bd : bds.allBeanDefinitions){
+            if(!bd.isLazyInit() && !inited.contains(bd)){
+                doGetBean(bd);
+            }
+        }
+    }
 	
 	protected Object doGetBean(BeanDefinitionBase bd){
 		if(bd.isSingleton()){
@@ -922,7 +953,11 @@ public class BeanContainer implements BeanFactory {
             if(null == instance) {
                 synchronized (bd.getSingletonLock()) {
                     if(null == (instance = bd.getInstance())) {
-                        instance = doCreateBean(bd);
+                        //the bean was created by current thread but not published, i.e. creating the proxy.
+                        instance = bd.getSingletonInstance();
+                        if(null == instance) {
+                            instance = doCreateBean(bd);
+                        }
                     }
                 }
             }
@@ -961,11 +996,12 @@ public class BeanContainer implements BeanFactory {
 
     protected Object doCreateBean(BeanDefinitionBase bd){
 
-        Object bean = doCreateBeanOnly(bd);
+        Object bean      = doCreateBeanOnly(bd);
+        Object proxyBean = null;
 
         BeanDefinitionBase pd = findProxy(bd);
         if(null != pd) {
-            Object proxyBean = doCreateProxy(pd, bd.getType(), bean);
+            proxyBean = doCreateProxy(pd, bd.getType(), bean);
 
             if(!isTypedProxy(pd)) {
                 pd = findTypedProxy(bd);
@@ -974,15 +1010,14 @@ public class BeanContainer implements BeanFactory {
                     proxyBean = typedProxyBean;
                 }
             }
+        }
 
-            if(bd.isSingleton()) {
-                bd.setProxyInstance(proxyBean);
-            }
-
-            return proxyBean;
+        //publishes the bean after the proxy was created, the other threads never see the bean without proxy.
+        if(bd.isSingleton() && bean == bd.getSingletonInstance()) {
+            bd.setInstance(bean, proxyBean);
         }
 
-        return bean;
+        return null != proxyBean ? proxyBean : bean;
     }
 
     protected Object doCreateBeanOnly(BeanDefinitionBase bd) {
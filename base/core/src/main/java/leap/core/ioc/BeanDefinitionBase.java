@@ -60,8 +60,9 @@ class BeanDefinitionBase implements BeanDefinition,TypeDefinition,BeanDefinition
     protected Set<String>                 qualifiers           = new LinkedHashSet<>();
     protected ValueDefinition          valueDefinition;
 	
-	protected Object singletonInstance;
-    protected Object proxyInstance;
+	protected volatile Object singletonInstance;
+    protected volatile Object proxyInstance;
+    protected volatile Object instance;
 	protected float  sortOrder = DEFAULT_SORT_ORDER;
 
     protected boolean inited;
@@ -293,10 +294,12 @@ class BeanDefinitionBase implements BeanDefinition,TypeDefinition,BeanDefinition
 	}
 
     /**
-     * Returns the proxy instance or the singleton instance.
+     * Returns the proxy instance or the singleton instance, returns <code>null</code> if the instance is not published.
+     *
+     * @see #setInstance(Object, Object)
      */
     public Object getInstance() {
-        return null != proxyInstance ? proxyInstance : singletonInstance;
+        return instance;
     }
 	
 	public Object getSingletonInstance() {
@@ -319,6 +322,16 @@ class BeanDefinitionBase implements BeanDefinition,TypeDefinition,BeanDefinition
         this.proxyInstance = proxyInstance;
     }
 
+    /**
+     * Sets the singleton instance and the proxy instance (may be null) of a created bean,
+     * and then publishes the final instance returned by {@link #getInstance()} in one write.
+     */
+    protected void setInstance(Object singletonInstance, Object proxyInstance) {
+        this.singletonInstance = singletonInstance;
+        this.proxyInstance     = proxyInstance;
+        this.instance          = null != proxyInstance ? proxyInstance : singletonInstance;
+    }
+
     public boolean isListBean(){
 		return isTypeOf(List.class);
 	}
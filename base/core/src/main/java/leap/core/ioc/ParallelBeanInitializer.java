@@ -0,0 +1,476 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package leap.core.ioc;
+
+import leap.core.annotation.Inject;
+import leap.lang.Lazy;
+import leap.lang.Strings;
+import leap.lang.Types;
+import leap.lang.beans.BeanProperty;
+import leap.lang.beans.BeanType;
+import leap.lang.logging.Log;
+import leap.lang.logging.LogFactory;
+import leap.lang.reflect.ReflectField;
+import leap.lang.reflect.ReflectValued;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Initializes the non lazy beans of {@link BeanContainer} in parallel.
+ *
+ * <p>
+ * The dependencies of a bean are resolved from the bean references in the definition and the {@link Inject} points
+ * of the bean class. The beans in a circular dependency (a strongly connected component of the dependency graph) are created
+ * in one thread in the order of definitions, so the circular references are still resolved or detected by the
+ * beans currently in creation of the thread as the sequential initialization.
+ *
+ * <p>
+ * The dependencies looked up dynamically (i.e. {@link leap.core.BeanFactory#getBean(Class)} in the init method) are not in the graph,
+ * such beans are waiting for the creating bean in other thread, the initialization fails after timeout if they are in a cycle.
+ *
+ * <p>
+ * If some beans fail, the beans depend on them are skipped and the error of the first failed bean
+ * in the order of definitions is thrown.
+ */
+class ParallelBeanInitializer {
+
+    private static final Log log = LogFactory.get(ParallelBeanInitializer.class);
+
+    private static final int REPORT_TOP = 10;
+
+    private final BeanContainer container;
+    private final int           threads;
+    private final long          timeout;
+
+    private final List<BeanDefinitionBase>                      beans = new ArrayList<>();
+    private final Map<BeanDefinitionBase, Integer>              index = new HashMap<>();
+    private final Map<BeanDefinitionBase, Set<BeanDefinitionBase>> deps  = new HashMap<>();
+
+    private final Map<BeanDefinitionBase, Long>      timings = new ConcurrentHashMap<>();
+    private final Map<BeanDefinitionBase, Throwable> errors  = new ConcurrentHashMap<>();
+
+    /**
+     * @param timeout the max seconds for waiting all the beans.
+     */
+    ParallelBeanInitializer(BeanContainer container, int threads, long timeout) {
+        this.container = container;
+        this.threads   = threads;
+        this.timeout   = timeout;
+    }
+
+    void init(Collection<BeanDefinitionBase> bds) {
+        long start = System.currentTimeMillis();
+
+        for(BeanDefinitionBase bd : bds) {
+            index.put(bd, beans.size());
+            beans.add(bd);
+        }
+        for(BeanDefinitionBase bd : beans) {
+            deps.put(bd, resolveDependencies(bd));
+        }
+
+        List<Group> groups = createGroups();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new InitThreadFactory());
+        try{
+            execute(executor, groups);
+        }finally{
+            executor.shutdownNow();
+        }
+
+        if(!errors.isEmpty()) {
+            throwError();
+        }
+
+        report(groups.size(), System.currentTimeMillis() - start);
+    }
+
+    protected void execute(ExecutorService executor, List<Group> groups) {
+        CountDownLatch latch = new CountDownLatch(groups.size());
+
+        for(Group g : groups) {
+            if(g.pending.get() == 0) {
+                submit(executor, g, latch);
+            }
+        }
+
+        try {
+            if(!latch.await(timeout, TimeUnit.SECONDS)) {
+                throw new BeanCreationException("Timeout waiting for the parallel initialization of beans after " + timeout +
+                                                "s, is there a circular dependency looked up dynamically? the beans in creation : " +
+                                                inCreation(groups));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BeanCreationException("Interrupted while initializing beans in parallel", e);
+        }
+    }
+
+    protected void submit(ExecutorService executor, Group g, CountDownLatch latch) {
+        executor.execute(() -> {
+            g.running = true;
+            try {
+                //skip the beans depends on the failed beans, the errors are deterministic.
+                if(g.dependencies.stream().anyMatch(dg -> dg.failed)) {
+                    g.failed = true;
+                }else{
+                    for(BeanDefinitionBase bd : g.beans) {
+                        if(!create(bd)) {
+                            g.failed = true;
+                            break;
+                        }
+                    }
+                }
+            }finally {
+                g.running = false;
+
+                for(Group dependent : g.dependents) {
+                    if(dependent.pending.decrementAndGet() == 0) {
+                        submit(executor, dependent, latch);
+                    }
+                }
+                latch.countDown();
+            }
+        });
+    }
+
+    protected boolean create(BeanDefinitionBase bd) {
+        //the lazy beans are created by the beans depend on them.
+        if(bd.isLazyInit()) {
+            return true;
+        }
+
+        long start = System.nanoTime();
+        try {
+            container.doGetBean(bd);
+            return true;
+        }catch (Throwable e) {
+            errors.put(bd, e);
+            return false;
+        }finally {
+            timings.put(bd, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    protected void throwError() {
+        List<BeanDefinitionBase> failed = new ArrayList<>(errors.keySet());
+        failed.sort(Comparator.comparing(index::get));
+
+        Throwable first = errors.get(failed.get(0));
+        for(int i=1;i<failed.size();i++) {
+            Throwable e = errors.get(failed.get(i));
+            if(e != first) {
+                first.addSuppressed(e);
+            }
+        }
+
+        if(first instanceof RuntimeException) {
+            throw (RuntimeException)first;
+        }
+        if(first instanceof Error) {
+            throw (Error)first;
+        }
+        throw new BeanCreationException("Error creating bean '" + failed.get(0) + "', " + first.getMessage(), first);
+    }
+
+    protected void report(int groups, long total) {
+        log.info("Initialized {} non lazy beans in parallel ({} groups, {} threads) in {}ms", timings.size(), groups, threads, total);
+
+        List<Map.Entry<BeanDefinitionBase, Long>> list = new ArrayList<>(timings.entrySet());
+        list.sort((e1, e2) -> {
+            int c = Long.compare(e2.getValue(), e1.getValue());
+            return c != 0 ? c : Integer.compare(index.get(e1.getKey()), index.get(e2.getKey()));
+        });
+
+        if(log.isDebugEnabled()) {
+            StringBuilder s = new StringBuilder();
+            for(Map.Entry<BeanDefinitionBase, Long> entry : list) {
+                s.append("\n  ").append(entry.getValue()).append("ms : ").append(entry.getKey());
+            }
+            log.debug("Timing of beans (includes the dependencies created by the bean) : {}", s);
+        }else if(log.isInfoEnabled()) {
+            StringBuilder s = new StringBuilder();
+            for(int i=0;i<list.size() && i < REPORT_TOP;i++) {
+                Map.Entry<BeanDefinitionBase, Long> entry = list.get(i);
+                s.append("\n  ").append(entry.getValue()).append("ms : ").append(entry.getKey());
+            }
+            log.info("Top {} slowest beans : {}", Math.min(REPORT_TOP, list.size()), s);
+        }
+    }
+
+    /**
+     * Creates the groups by the strongly connected components (Tarjan's algorithm) of the dependency graph,
+     * the beans in a group are sorted in the order of definitions.
+     */
+    protected List<Group> createGroups() {
+        Map<BeanDefinitionBase, Group> groupOf = new HashMap<>();
+        List<Group>                    groups  = new ArrayList<>();
+
+        Map<BeanDefinitionBase, Integer> indexes = new HashMap<>();
+        Map<BeanDefinitionBase, Integer> lowLinks = new HashMap<>();
+        Deque<BeanDefinitionBase>        stack    = new ArrayDeque<>();
+        Set<BeanDefinitionBase>          onStack  = new HashSet<>();
+
+        for(BeanDefinitionBase bd : beans) {
+            if(!indexes.containsKey(bd)) {
+                strongConnect(bd, indexes, lowLinks, stack, onStack, groupOf, groups);
+            }
+        }
+
+        for(Group g : groups) {
+            g.beans.sort(Comparator.comparing(index::get));
+
+            Set<Group> dependencies = new HashSet<>();
+            for(BeanDefinitionBase bd : g.beans) {
+                for(BeanDefinitionBase dep : deps.get(bd)) {
+                    Group dg = groupOf.get(dep);
+                    if(dg != g) {
+                        dependencies.add(dg);
+                    }
+                }
+            }
+            g.dependencies.addAll(dependencies);
+            g.pending.set(dependencies.size());
+            for(Group dg : dependencies) {
+                dg.dependents.add(g);
+            }
+        }
+
+        return groups;
+    }
+
+    private void strongConnect(BeanDefinitionBase root,
+                               Map<BeanDefinitionBase, Integer> indexes, Map<BeanDefinitionBase, Integer> lowLinks,
+                               Deque<BeanDefinitionBase> stack, Set<BeanDefinitionBase> onStack,
+                               Map<BeanDefinitionBase, Group> groupOf, List<Group> groups) {
+
+        //iterative version to avoid stack overflow in deep graph.
+        Deque<Object[]> work = new ArrayDeque<>();
+        work.push(new Object[]{root, deps.get(root).iterator()});
+        indexes.put(root, indexes.size());
+        lowLinks.put(root, indexes.get(root));
+        stack.push(root);
+        onStack.add(root);
+
+        while(!work.isEmpty()) {
+            Object[] frame = work.peek();
+            BeanDefinitionBase v = (BeanDefinitionBase)frame[0];
+            @SuppressWarnings("unchecked")
+            Iterator<BeanDefinitionBase> it = (Iterator<BeanDefinitionBase>)frame[1];
+
+            if(it.hasNext()) {
+                BeanDefinitionBase w = it.next();
+                if(!indexes.containsKey(w)) {
+                    indexes.put(w, indexes.size());
+                    lowLinks.put(w, indexes.get(w));
+                    stack.push(w);
+                    onStack.add(w);
+                    work.push(new Object[]{w, deps.get(w).iterator()});
+                }else if(onStack.contains(w)) {
+                    lowLinks.put(v, Math.min(lowLinks.get(v), indexes.get(w)));
+                }
+                continue;
+            }
+
+            work.pop();
+            if(!work.isEmpty()) {
+                BeanDefinitionBase parent = (BeanDefinitionBase)work.peek()[0];
+                lowLinks.put(parent, Math.min(lowLinks.get(parent), lowLinks.get(v)));
+            }
+
+            if(lowLinks.get(v).equals(indexes.get(v))) {
+                Group g = new Group();
+                BeanDefinitionBase w;
+                do {
+                    w = stack.pop();
+                    onStack.remove(w);
+                    g.beans.add(w);
+                    groupOf.put(w, g);
+                }while(w != v);
+                groups.add(g);
+            }
+        }
+    }
+
+    /**
+     * Returns the beans in the graph which the given bean depends on.
+     */
+    protected Set<BeanDefinitionBase> resolveDependencies(BeanDefinitionBase bd) {
+        Set<BeanDefinitionBase> set = new LinkedHashSet<>();
+
+        collectDefinitionDependencies(bd, set, new HashSet<>());
+
+        BeanDefinitionBase pd = container.findProxy(bd);
+        if(null != pd) {
+            collectDefinitionDependencies(pd, set, new HashSet<>());
+        }
+
+        set.remove(bd);
+        set.retainAll(index.keySet());
+        return set;
+    }
+
+    private void collectDefinitionDependencies(BeanDefinitionBase bd, Set<BeanDefinitionBase> set, Set<Object> visited) {
+        if(!visited.add(bd)) {
+            return;
+        }
+
+        for(ArgumentDefinition arg : bd.getConstructorArguments()) {
+            collectValueDependencies(arg.getValueDefinition(), set, visited);
+        }
+
+        for(PropertyDefinition pd : bd.getProperties()) {
+            collectValueDependencies(pd.getValueDefinition(), set, visited);
+        }
+
+        for(InvokeDefinition invoke : bd.getInvokes()) {
+            for(ArgumentDefinition arg : invoke.getArguments()) {
+                collectValueDependencies(arg.getValueDefinition(), set, visited);
+            }
+        }
+
+        if(null != bd.getFactoryDefinition()) {
+            for(ArgumentDefinition arg : bd.getFactoryDefinition().getArguments()) {
+                collectValueDependencies(arg.getValueDefinition(), set, visited);
+            }
+        }
+
+        collectValueDependencies(bd.getValueDefinition(), set, visited);
+
+        BeanType bt = bd.getBeanClassType();
+        if(null != bt) {
+            for(BeanProperty bp : bt.getProperties()) {
+                collectInjectDependencies(bp, set);
+            }
+            for(ReflectField rf : bt.getReflectClass().getFields()) {
+                collectInjectDependencies(rf, set);
+            }
+        }
+    }
+
+    private void collectValueDependencies(ValueDefinition vd, Set<BeanDefinitionBase> set, Set<Object> visited) {
+        if(null != vd) {
+            collectValueDependencies(vd.getDefinedValue(), set, visited);
+        }
+    }
+
+    private void collectValueDependencies(Object v, Set<BeanDefinitionBase> set, Set<Object> visited) {
+        if(null == v) {
+            return;
+        }
+
+        if(v instanceof ValueDefinition) {
+            collectValueDependencies((ValueDefinition)v, set, visited);
+        }else if(v instanceof BeanReference) {
+            BeanDefinitionBase referenced = container.findBeanDefinition((BeanReference)v);
+            if(null != referenced) {
+                set.add(referenced);
+            }
+        }else if(v instanceof BeanDefinitionBase) {
+            //inner bean, created by the outer bean.
+            collectDefinitionDependencies((BeanDefinitionBase)v, set, visited);
+        }else if(v instanceof Collection) {
+            for(Object item : (Collection<?>)v) {
+                collectValueDependencies(item, set, visited);
+            }
+        }else if(v instanceof Map) {
+            for(Map.Entry<?,?> entry : ((Map<?,?>)v).entrySet()) {
+                collectValueDependencies(entry.getKey(), set, visited);
+                collectValueDependencies(entry.getValue(), set, visited);
+            }
+        }else if(v instanceof Object[]) {
+            for(Object item : (Object[])v) {
+                collectValueDependencies(item, set, visited);
+            }
+        }
+    }
+
+    private void collectInjectDependencies(ReflectValued v, Set<BeanDefinitionBase> set) {
+        Inject inject = v.getAnnotation(Inject.class);
+        if(null == inject) {
+            return;
+        }
+
+        if(!Strings.isEmpty(inject.id())) {
+            BeanDefinitionBase bd = container.findBeanOrAliasDefinition(inject.id());
+            if(null != bd) {
+                set.add(bd);
+            }
+            return;
+        }
+
+        Class<?> type = v.getType();
+        if(Lazy.class.equals(type)) {
+            return;
+        }
+
+        Class<?> beanType = Object.class.equals(inject.type()) ? null : inject.type();
+        if(null == beanType) {
+            if(List.class.equals(type) || BeanList.class.equals(type)) {
+                beanType = Types.getActualTypeArgument(v.getGenericType());
+            }else if(type.isArray()) {
+                beanType = type.getComponentType();
+            }else {
+                beanType = type;
+            }
+        }
+
+        //all the beans of the type, the actual injected bean is one of them.
+        Set<BeanDefinitionBase> typed = container.bds.beanTypeDefinitions.get(beanType);
+        if(null != typed) {
+            set.addAll(typed);
+        }
+    }
+
+    private String inCreation(List<Group> groups) {
+        List<BeanDefinitionBase> list = new ArrayList<>();
+        for(Group g : groups) {
+            if(g.running) {
+                for(BeanDefinitionBase bd : g.beans) {
+                    if(!timings.containsKey(bd)) {
+                        list.add(bd);
+                        break;
+                    }
+                }
+            }
+        }
+        return list.toString();
+    }
+
+    protected static final class Group {
+        final List<BeanDefinitionBase> beans        = new ArrayList<>(1);
+        final List<Group>              dependencies = new ArrayList<>();
+        final List<Group>              dependents   = new ArrayList<>();
+        final AtomicInteger            pending      = new AtomicInteger();
+
+        volatile boolean running;
+        volatile boolean failed;
+    }
+
+    private static final class InitThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "bean-init-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
@@ -22,4 +22,15 @@ public interface ResultSetReader<T> {
 
 	T read(ResultSet rs) throws SQLException;
 	
+	/**
+	 * Returns the fetch size of the query statement, <code>0</code> means the default fetch size of the jdbc driver.
+	 * 
+	 * <p>
+	 * A reader reads the rows one by one (not holds all the rows in memory) should returns a
+	 * dialect-appropriate fetch size, see <code>DbDialect.getStreamingFetchSize()</code>.
+	 */
+	default int getFetchSize() {
+		return 0;
+	}
+	
 }
\ No newline at end of file
@@ -21,6 +21,7 @@ import leap.core.annotation.Monitored;
 import leap.core.instrument.AppInstrumentClass;
 import leap.core.instrument.AppInstrumentContext;
 import leap.core.instrument.AsmInstrumentProcessor;
+import leap.core.instrument.InstrumentClassWriter;
 import leap.lang.Try;
 import leap.lang.asm.*;
 import leap.lang.asm.commons.AdviceAdapter;
@@ -30,7 +31,6 @@ import leap.lang.asm.tree.AnnotationNode;
 import leap.lang.asm.tree.ClassNode;
 import leap.lang.asm.tree.MethodNode;
 
-import java.io.InputStream;
 import java.lang.reflect.Modifier;
 import java.util.Map;
 
@@ -72,6 +72,11 @@ public class MonitorInstrumentation extends AsmInstrumentProcessor {
         this.mc = config.getExtension(MonitorConfig.class);
     }
 
+    @Override
+    public String getCacheKey() {
+        return null == mc ? "" : String.valueOf(mc.isEnabled());
+    }
+
     @Override
     protected boolean preInstrument(AppInstrumentContext context) {
         if(null == mc || !mc.isEnabled()) {
@@ -130,13 +135,9 @@ public class MonitorInstrumentation extends AsmInstrumentProcessor {
         }
 
         if(isMonitorDeclared){
-            Try.throwUnchecked(() -> {
-                try(InputStream in = ci.is.getInputStream()) {
-                    byte[] bytes = instrumentClass(cn, new ClassReader(in), true);
+            byte[] bytes = instrumentClass(cn, ci.cr, true);
 
-                    context.updateInstrumented(ic, this, bytes , false);
-                }
-            });
+            context.updateInstrumented(ic, this, bytes , false);
         }
     }
 
@@ -172,7 +173,7 @@ public class MonitorInstrumentation extends AsmInstrumentProcessor {
 
     protected byte[] instrumentClass(ClassNode cn, ClassReader cr, boolean methodBodyOnly) {
         MonitoredClassVisitor visitor =
-                new MonitoredClassVisitor(cn ,new ClassWriter(cr, ClassWriter.COMPUTE_FRAMES), methodBodyOnly);
+                new MonitoredClassVisitor(cn ,new InstrumentClassWriter(cr, ClassWriter.COMPUTE_FRAMES), methodBodyOnly);
 
         cr.accept(visitor, ClassReader.EXPAND_FRAMES);
 
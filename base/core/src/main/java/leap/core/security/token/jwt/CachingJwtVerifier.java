@@ -0,0 +1,136 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.core.security.token.jwt;
+
+import leap.core.cache.CacheStats;
+import leap.core.cache.ConcurrentCache;
+import leap.core.security.token.TokenExpiredException;
+import leap.core.security.token.TokenVerifyException;
+import leap.lang.Args;
+import leap.lang.codec.Digests;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A {@link JwtVerifier} caches the claims of verified tokens, so the same token will not be verified again
+ * until it expired.
+ *
+ * <p>
+ * The cache key is the sha-256 hash of the token. A cached token is valid until the <code>exp</code> claim or
+ * the max age of cache, which comes first. The failures of verification are not cached.
+ *
+ * <p>
+ * Returns a copy of the cached claims, the caller can modify it.
+ */
+public class CachingJwtVerifier implements JwtVerifier {
+
+    public static final int  DEFAULT_MAX_SIZE = 1024;
+    public static final long DEFAULT_MAX_AGE  = 300 * 1000L; //5 minutes
+
+    protected final JwtVerifier                        verifier;
+    protected final long                               maxAge;
+    protected final ConcurrentCache<String, Verified> cache;
+
+    public CachingJwtVerifier(JwtVerifier verifier) {
+        this(verifier, DEFAULT_MAX_SIZE, DEFAULT_MAX_AGE);
+    }
+
+    /**
+     * @param verifier the verifier to verify the tokens not cached.
+     * @param maxSize the max number of cached tokens.
+     * @param maxAge the max milliseconds of a token in cache.
+     */
+    public CachingJwtVerifier(JwtVerifier verifier, int maxSize, long maxAge) {
+        Args.notNull(verifier, "verifier");
+        Args.assertTrue(maxSize > 0, "The max size must be positive");
+        Args.assertTrue(maxAge > 0, "The max age must be positive");
+        this.verifier = verifier;
+        this.maxAge   = maxAge;
+        this.cache    = new ConcurrentCache<>(maxSize, maxAge, 0);
+    }
+
+    /**
+     * Returns the underlying verifier.
+     */
+    public JwtVerifier getVerifier() {
+        return verifier;
+    }
+
+    /**
+     * Returns the statistics of the cache.
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Removes all the cached tokens.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    @Override
+    public Map<String, Object> verify(String token) throws TokenVerifyException {
+        Args.notEmpty(token, "token");
+
+        String key = Digests.sha256Hex(token);
+
+        Verified verified = cache.get(key);
+        if(null != verified) {
+            if(System.currentTimeMillis() <= verified.expiresAt) {
+                return new LinkedHashMap<>(verified.claims);
+            }
+
+            cache.remove(key);
+            if(verified.expiresAt == verified.exp) {
+                throw new TokenExpiredException("Token expired");
+            }
+        }
+
+        Map<String, Object> claims = verifier.verify(token);
+
+        cache.put(key, new Verified(new LinkedHashMap<>(claims), getExpirationTime(claims), maxAge));
+
+        return claims;
+    }
+
+    /**
+     * Returns the expiration time in milliseconds of the claims or <code>0</code> if no expiration.
+     */
+    protected long getExpirationTime(Map<String, Object> claims) {
+        Object exp = claims.get(JWT.CLAIM_EXPIRATION_TIME);
+        if(exp instanceof Long) {
+            return (Long)exp;
+        }
+        return 0;
+    }
+
+    protected static final class Verified {
+        final Map<String, Object> claims;
+        final long                exp;
+        final long                expiresAt;
+
+        Verified(Map<String, Object> claims, long exp, long maxAge) {
+            long maxExpiresAt = System.currentTimeMillis() + maxAge;
+
+            this.claims    = claims;
+            this.exp       = exp;
+            this.expiresAt = exp > 0 && exp < maxExpiresAt ? exp : maxExpiresAt;
+        }
+    }
+}
@@ -34,6 +34,9 @@ public class MacSigner extends AbstractJwtSigner implements JwtVerifier {
     protected final SecretKey  secretKey;
 
 	protected JwtVerifier verifier;
+
+	//Mac is not thread safe, an initialized mac can be reused after doFinal.
+	private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::createMac);
 	
 	public MacSigner(String secret) {
 		this(JWT.ALG_HS256, ALG_HMACSHA256, new SecretKeySpec(secret.getBytes(), ALG_HMACSHA256));
@@ -60,7 +63,7 @@ public class MacSigner extends AbstractJwtSigner implements JwtVerifier {
 
 	@Override
 	protected byte[] signToBytes(String payload) {
-		return sign(macAlgorithm,secretKey,payload);
+		return macs.get().doFinal(payload.getBytes());
 	}
 	
     @Override
@@ -78,14 +81,14 @@ public class MacSigner extends AbstractJwtSigner implements JwtVerifier {
         }
     }
 	
-	static byte[] sign(String alg, SecretKey key, String data) {
+	protected Mac createMac() {
 		try {
-	        Mac mac = Mac.getInstance(alg);
-	        mac.init(key);
-	        return mac.doFinal(data.getBytes());
-        } catch (Exception e) {
-        	throw new TokenSignatureException("Error signing data using algorithm '" + alg + ", " + e.getMessage(), e);
-        }
+			Mac mac = Mac.getInstance(macAlgorithm);
+			mac.init(secretKey);
+			return mac;
+		} catch (Exception e) {
+			throw new TokenSignatureException("Error creating mac of algorithm '" + macAlgorithm + "', " + e.getMessage(), e);
+		}
 	}
 
 }
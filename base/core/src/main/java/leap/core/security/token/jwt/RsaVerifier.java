@@ -19,12 +19,17 @@ import java.security.GeneralSecurityException;
 import java.security.Signature;
 import java.security.interfaces.RSAPublicKey;
 
+import leap.core.security.token.TokenVerifyException;
+import leap.core.security.token.TokenVerifyException.ErrorCode;
 import leap.lang.Args;
 
 public class RsaVerifier extends AbstractJwtVerifier {
     
     protected RSAPublicKey publicKey;
     protected String       rsaAlgorithm;
+
+    //Signature is not thread safe, a signature initialized for verification can be reused after verify.
+    private final ThreadLocal<Signature> signatures = ThreadLocal.withInitial(this::createSignature);
     
     public RsaVerifier(RSAPublicKey publicKey) {
         this(publicKey, RsaSigner.ALG_SHA256_WITH_RSA);
@@ -43,14 +48,26 @@ public class RsaVerifier extends AbstractJwtVerifier {
             byte[] signedData  = JWT.base64UrlDeocode(signed);
             byte[] contentData = content.getBytes();
             
-            Signature signature = Signature.getInstance(rsaAlgorithm);
-            signature.initVerify(publicKey);
+            Signature signature = signatures.get();
             signature.update(contentData);
 
             return signature.verify(signedData);
         } catch (GeneralSecurityException e) {
+            //the state of signature is unknown after error.
+            signatures.remove();
             return false;
         }
     }
 
+    protected Signature createSignature() {
+        try {
+            Signature signature = Signature.getInstance(rsaAlgorithm);
+            signature.initVerify(publicKey);
+            return signature;
+        } catch (GeneralSecurityException e) {
+            throw new TokenVerifyException(ErrorCode.VERIFY_FAILED,
+                                           "Error creating signature of algorithm '" + rsaAlgorithm + "', " + e.getMessage(), e);
+        }
+    }
+
 }
\ No newline at end of file
@@ -59,6 +59,11 @@ public class LocalTransactionProvider extends AbstractReadonlyBean implements Tr
         return getTransaction(null == td ? getRequiredDefinition() : td).begin();
     }
 
+    @Override
+    public boolean hasActiveTransaction() {
+        return null != peekActiveTransaction();
+    }
+
     @Override
     public void execute(ConnectionCallback callback) {
         Connection connection = null;
@@ -29,7 +29,6 @@ import leap.lang.asm.tree.MethodNode;
 import leap.lang.logging.Log;
 import leap.lang.logging.LogFactory;
 
-import java.io.InputStream;
 import java.util.Map;
 
 public class TransactionInstrumentation extends AsmInstrumentProcessor implements AppInstrumentProcessor {
@@ -62,6 +61,14 @@ public class TransactionInstrumentation extends AsmInstrumentProcessor implement
         });
     }
 
+    /**
+     * The instrumented result depends on the class only.
+     */
+    @Override
+    public String getCacheKey() {
+        return "";
+    }
+
     @Override
     protected void processClass(AppInstrumentContext context, AppInstrumentClass ic, ClassInfo ci, boolean methodBodyOnly) {
         ClassNode cn = ci.cn;
@@ -77,20 +84,16 @@ public class TransactionInstrumentation extends AsmInstrumentProcessor implement
 
             if(hasTransactionalMethods) {
                 log.debug("Instrument Transactional class : {}", ic.getClassName());
-                Try.throwUnchecked(() -> {
-                    try(InputStream in = ci.is.getInputStream()) {
-                        context.updateInstrumented(ic,
-                                this,
-                                instrumentClass(ci.cn, new ClassReader(in), true),
-                                true);
-                    }
-                });
+                context.updateInstrumented(ic,
+                        this,
+                        instrumentClass(ci.cn, ci.cr, true),
+                        true);
             }
         }
     }
 
     protected byte[] instrumentClass(ClassNode cn, ClassReader cr, boolean methodBodyOnly) {
-        TxClassVisitor visitor = new TxClassVisitor(cn, new ClassWriter(cr, ClassWriter.COMPUTE_FRAMES), methodBodyOnly);
+        TxClassVisitor visitor = new TxClassVisitor(cn, new InstrumentClassWriter(cr, ClassWriter.COMPUTE_FRAMES), methodBodyOnly);
 
         cr.accept(visitor, ClassReader.EXPAND_FRAMES);
 
@@ -30,6 +30,13 @@ public interface TransactionProvider {
      */
     Transaction beginTransaction(TransactionDefinition td);
 
+    /**
+     * Returns true if an active transaction is exists in current thread.
+     */
+    default boolean hasActiveTransaction() {
+        return false;
+    }
+
     /**
      * Executes the callback.
      *
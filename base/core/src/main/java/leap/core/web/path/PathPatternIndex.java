@@ -0,0 +1,209 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.core.web.path;
+
+import leap.lang.Args;
+import leap.lang.Strings;
+import leap.lang.path.AntPathPattern;
+import leap.lang.path.PathPattern;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * An immutable index of the path patterns for finding the first matched value by the given path.
+ *
+ * <p>
+ * The leading literal segments of the ant patterns and path templates are compiled into a segment trie,
+ * so only the patterns which literal prefix matches the path will be tested.
+ * The patterns of other types are always tested.
+ *
+ * <p>
+ * The values are tested in the order of the given list.
+ */
+public class PathPatternIndex<T> {
+
+    private static final String SEPARATOR = "/";
+    private static final int[]  NONE      = new int[0];
+
+    private final Object[]      values;
+    private final PathPattern[] patterns;
+    private final Node          root = new Node();
+
+    /**
+     * @param values the values ordered by priority.
+     * @param pattern the function to returns the {@link PathPattern} of value.
+     */
+    public PathPatternIndex(List<? extends T> values, Function<T, PathPattern> pattern) {
+        Args.notNull(values, "values");
+        Args.notNull(pattern, "pattern function");
+
+        this.values   = values.toArray();
+        this.patterns = new PathPattern[this.values.length];
+
+        for(int i=0;i<this.values.length;i++) {
+            PathPattern pp = pattern.apply(values.get(i));
+            Args.notNull(pp, "path pattern");
+
+            patterns[i] = pp;
+
+            Node node = root;
+            for(String segment : literalSegments(pp)) {
+                node = node.child(segment);
+            }
+            node.add(i);
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if no values.
+     */
+    public boolean isEmpty() {
+        return values.length == 0;
+    }
+
+    /**
+     * Returns the first value which pattern matches the given path or <code>null</code> if no matched.
+     */
+    public T match(String path) {
+        return match(path, null);
+    }
+
+    /**
+     * Returns the first value which pattern matches the given path and accepted by the filter.
+     *
+     * <p>
+     * Returns <code>null</code> if no matched.
+     */
+    @SuppressWarnings("unchecked")
+    public T match(String path, Predicate<T> filter) {
+        if(values.length == 0) {
+            return null;
+        }
+
+        int[] candidates = candidates(path);
+        for(int i : candidates) {
+            T value = (T)values[i];
+            if(patterns[i].matches(path) && (null == filter || filter.test(value))) {
+                return value;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the ordered indexes of the values which literal prefix matches the given path.
+     */
+    protected int[] candidates(String path) {
+        Node node = root;
+
+        int[] found = node.indexes;
+        if(null == node.children) {
+            return found;
+        }
+
+        boolean merge = false;
+        for(String segment : Strings.split(path, SEPARATOR)) {
+            node = node.children.get(segment);
+            if(null == node) {
+                break;
+            }
+
+            if(node.indexes.length > 0) {
+                if(found.length == 0) {
+                    found = node.indexes;
+                }else{
+                    found = concat(found, node.indexes);
+                    merge = true;
+                }
+            }
+
+            if(null == node.children) {
+                break;
+            }
+        }
+
+        if(merge) {
+            Arrays.sort(found);
+        }
+
+        return found;
+    }
+
+    /**
+     * Returns the leading literal segments of the pattern, all the segments must be matched by the same
+     * position of path.
+     */
+    protected static List<String> literalSegments(PathPattern pp) {
+        String s;
+        if(pp instanceof AntPathPattern) {
+            s = pp.pattern();
+        }else if(pp instanceof PathTemplate) {
+            s = ((PathTemplate) pp).getTemplate();
+        }else{
+            return Collections.emptyList();
+        }
+
+        List<String> segments = new ArrayList<>();
+        for(String segment : Strings.split(s, SEPARATOR)) {
+            if(!isLiteral(segment)) {
+                break;
+            }
+            segments.add(segment);
+        }
+        return segments;
+    }
+
+    private static boolean isLiteral(String segment) {
+        for(int i=0;i<segment.length();i++) {
+            char c = segment.charAt(i);
+            if(c == '*' || c == '?' || c == '{' || c == '}' || c == '%' || c == '\\') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int[] concat(int[] a, int[] b) {
+        int[] c = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, c, a.length, b.length);
+        return c;
+    }
+
+    private static final class Node {
+        Map<String, Node> children;
+        int[]             indexes = NONE;
+
+        Node child(String segment) {
+            if(null == children) {
+                children = new HashMap<>();
+            }
+            return children.computeIfAbsent(segment, (s) -> new Node());
+        }
+
+        void add(int index) {
+            indexes = Arrays.copyOf(indexes, indexes.length + 1);
+            indexes[indexes.length - 1] = index;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.core.web.path;
+
+import leap.core.web.RequestBase;
+import leap.core.web.RequestIgnore;
+import leap.lang.Args;
+import leap.lang.path.PathPattern;
+
+/**
+ * A {@link RequestIgnore} matches the path of request by a {@link PathPattern}.
+ */
+public class PathPatternRequestIgnore implements RequestIgnore {
+
+    private final PathPattern pattern;
+
+    public PathPatternRequestIgnore(PathPattern pattern) {
+        Args.notNull(pattern, "pattern");
+        this.pattern = pattern;
+    }
+
+    /**
+     * Returns the path pattern.
+     */
+    public PathPattern getPattern() {
+        return pattern;
+    }
+
+    @Override
+    public boolean matches(RequestBase request) {
+        return pattern.matches(request.getPath());
+    }
+
+    @Override
+    public String toString() {
+        return pattern.toString();
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package leap.core.ioc;
+
+import leap.core.junit.AppTestBase;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+public class ParallelBeanInitializerTest extends AppTestBase {
+
+    @Test
+    public void testCircularDependencyGroups() {
+        TestContainer container = new TestContainer();
+
+        BeanDefinitionBase a = bean("a");
+        BeanDefinitionBase b = bean("b");
+        BeanDefinitionBase c = bean("c");
+        BeanDefinitionBase d = bean("d");
+
+        //a <-> b, c -> a
+        TestInitializer initializer = new TestInitializer(container, 4, 10);
+        initializer.depends(a, b).depends(b, a).depends(c, a);
+        initializer.init(Arrays.asList(b, a, c, d));
+
+        assertEquals(3, initializer.groups.size());
+
+        ParallelBeanInitializer.Group ab = group(initializer, a);
+        assertSame(ab, group(initializer, b));
+        assertEquals(Arrays.asList(b, a), ab.beans);
+        assertTrue(ab.dependencies.isEmpty());
+
+        ParallelBeanInitializer.Group cg = group(initializer, c);
+        assertEquals(Collections.singletonList(ab), cg.dependencies);
+        assertEquals(Collections.singletonList(cg), ab.dependents);
+        assertTrue(group(initializer, d).dependencies.isEmpty());
+
+        //the beans in a cycle are created in one thread in the order of definitions.
+        List<BeanDefinitionBase> created = container.created;
+        assertEquals(4, created.size());
+        assertTrue(created.indexOf(b) < created.indexOf(a));
+        assertTrue(created.indexOf(a) < created.indexOf(c));
+        assertEquals(container.threads.get(a), container.threads.get(b));
+    }
+
+    @Test
+    public void testFailedBeans() {
+        TestContainer container = new TestContainer();
+
+        BeanDefinitionBase x = bean("x");
+        BeanDefinitionBase y = bean("y");
+        BeanDefinitionBase z = bean("z");
+
+        //the first failed bean in the order of definitions fails later.
+        container.onCreate(x, (bd) -> {
+            sleep(100);
+            throw new IllegalStateException("x");
+        });
+        container.onCreate(z, (bd) -> {
+            throw new IllegalStateException("z");
+        });
+
+        TestInitializer initializer = new TestInitializer(container, 4, 10);
+        initializer.depends(y, x);
+
+        try {
+            initializer.init(Arrays.asList(x, y, z));
+            fail("Should throw exception");
+        }catch (IllegalStateException e) {
+            assertEquals("x", e.getMessage());
+            assertEquals(1, e.getSuppressed().length);
+            assertEquals("z", e.getSuppressed()[0].getMessage());
+        }
+
+        //the bean depends on the failed bean is skipped.
+        assertFalse(container.created.contains(y));
+    }
+
+    @Test
+    public void testTimeout() {
+        TestContainer container = new TestContainer();
+
+        BeanDefinitionBase slow = bean("slow");
+        BeanDefinitionBase fast = bean("fast");
+
+        container.onCreate(slow, (bd) -> sleep(5000));
+
+        try {
+            new TestInitializer(container, 2, 1).init(Arrays.asList(slow, fast));
+            fail("Should throw exception");
+        }catch (BeanCreationException e) {
+            assertContains(e.getMessage(), "Timeout");
+            assertContains(e.getMessage(), "slow");
+        }
+
+        assertTrue(container.created.contains(fast));
+    }
+
+    @Test
+    public void testBeansAddedWhileInitializing() {
+        TestContainer container = new TestContainer();
+
+        BeanDefinitionBase a     = bean("a");
+        BeanDefinitionBase added = bean("added");
+        BeanDefinitionBase lazy  = bean("lazy");
+        lazy.setLazyInit(true);
+
+        container.onCreate(a, (bd) -> {
+            container.bds.allBeanDefinitions.add(added);
+            container.bds.allBeanDefinitions.add(lazy);
+        });
+        container.bds.allBeanDefinitions.add(a);
+
+        container.initNonLazyBeansInParallel(2, 10);
+
+        assertEquals(Arrays.asList(a, added), container.created);
+        assertEquals(Thread.currentThread(), container.threads.get(added));
+    }
+
+    private static ParallelBeanInitializer.Group group(TestInitializer initializer, BeanDefinitionBase bd) {
+        for(ParallelBeanInitializer.Group g : initializer.groups) {
+            if(g.beans.contains(bd)) {
+                return g;
+            }
+        }
+        fail("No group of bean '" + bd + "'");
+        return null;
+    }
+
+    private static BeanDefinitionBase bean(String id) {
+        BeanDefinitionBase bd = new BeanDefinitionBase(id);
+        bd.setId(id);
+        bd.setSingleton(true);
+        return bd;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class TestContainer extends BeanContainer {
+
+        final List<BeanDefinitionBase>                      created   = Collections.synchronizedList(new ArrayList<>());
+        final Map<BeanDefinitionBase, Thread>               threads   = new HashMap<>();
+        final Map<BeanDefinitionBase, Consumer<BeanDefinitionBase>> callbacks = new HashMap<>();
+
+        TestContainer() {
+            super(config);
+        }
+
+        void onCreate(BeanDefinitionBase bd, Consumer<BeanDefinitionBase> callback) {
+            callbacks.put(bd, callback);
+        }
+
+        @Override
+        protected Object doGetBean(BeanDefinitionBase bd) {
+            Consumer<BeanDefinitionBase> callback = callbacks.get(bd);
+            if(null != callback) {
+                callback.accept(bd);
+            }
+            synchronized (threads) {
+                threads.put(bd, Thread.currentThread());
+            }
+            created.add(bd);
+            return bd;
+        }
+    }
+
+    private static final class TestInitializer extends ParallelBeanInitializer {
+
+        final Map<BeanDefinitionBase, Set<BeanDefinitionBase>> dependencies = new HashMap<>();
+
+        List<Group> groups;
+
+        TestInitializer(BeanContainer container, int threads, long timeout) {
+            super(container, threads, timeout);
+        }
+
+        TestInitializer depends(BeanDefinitionBase bd, BeanDefinitionBase dependency) {
+            dependencies.computeIfAbsent(bd, (key) -> new LinkedHashSet<>()).add(dependency);
+            return this;
+        }
+
+        @Override
+        protected Set<BeanDefinitionBase> resolveDependencies(BeanDefinitionBase bd) {
+            return dependencies.getOrDefault(bd, Collections.emptySet());
+        }
+
+        @Override
+        protected List<Group> createGroups() {
+            return groups = super.createGroups();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tests.core;
+
+import leap.core.AppIndex;
+import leap.core.AppIndexGenerator;
+import leap.core.junit.AppTestBase;
+import leap.lang.io.Files;
+import leap.lang.io.IO;
+import leap.lang.resource.Resource;
+import leap.lang.resource.ResourceSet;
+import leap.lang.resource.Resources;
+import org.junit.After;
+import org.junit.Test;
+import tested.base.beans.TAnnotationBean1;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+public class AppIndexTest extends AppTestBase {
+
+    private final File dir = new File(IO.tmpdir(), "leap-app-index-" + System.nanoTime());
+
+    @After
+    public void cleanup() {
+        Files.deleteQuietly(dir);
+    }
+
+    @Test
+    public void testGenerateAndScan() throws Exception {
+        File classes = new File(dir, "classes");
+
+        byte[] bean    = readClass(TAnnotationBean1.class);
+        byte[] nonBean = readClass(AppIndexTest.class);
+
+        write(classes, "conf/a.xml",     "a".getBytes());
+        write(classes, "conf/sub/b.xml", "b".getBytes());
+        write(classes, "other/c.txt",    "c".getBytes());
+        write(classes, "tested/base/beans/TAnnotationBean1.class", bean);
+        write(classes, "tests/core/AppIndexTest.class", nonBean);
+
+        File indexFile = AppIndexGenerator.generate(classes);
+        assertTrue(indexFile.exists());
+
+        //the entry added after generating will not be found by the index.
+        File jar = new File(dir, "test.jar");
+        try(JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+            putDir(out, "conf/");
+            putDir(out, "conf/sub/");
+            putDir(out, "tested/");
+            putDir(out, "tests/");
+            putFile(out, "conf/a.xml", "a".getBytes());
+            putFile(out, "conf/sub/b.xml", "b".getBytes());
+            putFile(out, "conf/d.xml", "d".getBytes());
+            putFile(out, "other/c.txt", "c".getBytes());
+            putFile(out, "tested/base/beans/TAnnotationBean1.class", bean);
+            putFile(out, "tests/core/AppIndexTest.class", nonBean);
+            putFile(out, AppIndex.INDEX_FILE, IO.readByteArrayAndClose(new FileInputStream(indexFile)));
+        }
+
+        ClassLoader old = Thread.currentThread().getContextClassLoader();
+        try(URLClassLoader loader = new URLClassLoader(new URL[]{jar.toURI().toURL()}, null)) {
+            Thread.currentThread().setContextClassLoader(loader);
+
+            AppIndex index = AppIndex.load(loader);
+            assertNotNull(index);
+            assertEquals(1, index.size());
+
+            assertEquals(3, Resources.scan("classpath*:conf/**/*.xml").size());
+
+            ResourceSet rs = index.scan("classpath*:conf/**/*.xml");
+            assertEquals(2, rs.size());
+            assertNotNull(rs.getClasspathResource("conf/a.xml"));
+            assertNotNull(rs.getClasspathResource("conf/sub/b.xml"));
+            assertEquals("a", rs.getClasspathResource("conf/a.xml").getContent());
+
+            Resource beanClass    = index.scan("classpath*:tested/**/*.class").toResourceArray()[0];
+            Resource nonBeanClass = index.scan("classpath*:tests/**/*.class").toResourceArray()[0];
+            assertTrue(index.isIndexed(beanClass));
+            assertTrue(index.isBeanClass(beanClass));
+            assertFalse(index.isBeanClass(nonBeanClass));
+        }finally {
+            Thread.currentThread().setContextClassLoader(old);
+        }
+    }
+
+    @Test
+    public void testNoIndex() throws Exception {
+        assertNull(AppIndex.load(new URLClassLoader(new URL[0], null)));
+    }
+
+    private static byte[] readClass(Class<?> c) {
+        return IO.readByteArrayAndClose(c.getResourceAsStream(c.getSimpleName() + ".class"));
+    }
+
+    private static void write(File root, String path, byte[] bytes) throws Exception {
+        File file = new File(root, path);
+        file.getParentFile().mkdirs();
+        java.nio.file.Files.write(file.toPath(), bytes);
+    }
+
+    private static void putDir(JarOutputStream out, String name) throws Exception {
+        out.putNextEntry(new JarEntry(name));
+        out.closeEntry();
+    }
+
+    private static void putFile(JarOutputStream out, String name, byte[] bytes) throws Exception {
+        out.putNextEntry(new JarEntry(name));
+        out.write(bytes);
+        out.closeEntry();
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tests.core.cache;
+
+import leap.core.annotation.Inject;
+import leap.core.cache.Cache;
+import leap.core.cache.CacheManager;
+import leap.core.cache.CacheStats;
+import leap.core.cache.ConcurrentCache;
+import leap.core.junit.AppTestBase;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConcurrentCacheTest extends AppTestBase {
+
+    protected @Inject CacheManager cacheManager;
+
+    @After
+    public void removeCache() {
+        cacheManager.removeCache("tested");
+    }
+
+    @Test
+    public void testGetAndPut() {
+        ConcurrentCache<String, String> cache = new ConcurrentCache<>(10);
+
+        assertNull(cache.get("a"));
+        cache.put("a", "1");
+        assertEquals("1", cache.get("a"));
+        assertTrue(cache.containsKey("a"));
+
+        assertEquals("1", cache.getAndRemove("a"));
+        assertFalse(cache.containsKey("a"));
+        assertFalse(cache.remove("a"));
+
+        CacheStats stats = cache.stats();
+        assertEquals(1, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+    }
+
+    @Test
+    public void testMaxSize() {
+        ConcurrentCache<Integer, Integer> cache = new ConcurrentCache<>(10);
+
+        for(int i=0;i<100;i++) {
+            cache.put(i, i);
+        }
+
+        assertEquals(10, cache.size());
+        assertEquals(90, cache.stats().getEvictionCount());
+        assertEquals(10, cache.getAll().size());
+    }
+
+    @Test
+    public void testProtectedEntriesNotEvicted() {
+        ConcurrentCache<Integer, Integer> cache = new ConcurrentCache<>(10);
+
+        cache.put(-1, -1);
+        cache.get(-1);
+
+        for(int i=0;i<100;i++) {
+            cache.put(i, i);
+        }
+
+        assertEquals(new Integer(-1), cache.get(-1));
+    }
+
+    @Test
+    public void testExpireAfterWrite() throws Exception {
+        ConcurrentCache<String, String> cache = new ConcurrentCache<>(10, 50, 0);
+
+        cache.put("a", "1");
+        assertEquals("1", cache.get("a"));
+
+        Thread.sleep(100);
+        assertNull(cache.get("a"));
+        assertFalse(cache.containsKey("a"));
+        assertEquals(1, cache.stats().getExpirationCount());
+    }
+
+    @Test
+    public void testExpireAfterAccess() throws Exception {
+        ConcurrentCache<String, String> cache = new ConcurrentCache<>(10, 0, 100);
+
+        cache.put("a", "1");
+        for(int i=0;i<5;i++) {
+            Thread.sleep(40);
+            assertEquals("1", cache.get("a"));
+        }
+
+        Thread.sleep(150);
+        cache.cleanUp();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testLoader() {
+        ConcurrentCache<String, String> cache = new ConcurrentCache<>(10);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("a1", cache.get("a", (k) -> k + loads.incrementAndGet()));
+        assertEquals("a1", cache.get("a", (k) -> k + loads.incrementAndGet()));
+        assertNull(cache.get("b", (k) -> null));
+        assertFalse(cache.containsKey("b"));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().getLoadCount());
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        final ConcurrentCache<Integer, Integer> cache = new ConcurrentCache<>(100);
+        final int threads = 8;
+        final CountDownLatch latch = new CountDownLatch(threads);
+        final AtomicInteger errors = new AtomicInteger();
+
+        for(int t=0;t<threads;t++) {
+            final int seed = t;
+            new Thread(() -> {
+                try{
+                    for(int i=0;i<10000;i++) {
+                        int key = (i * 31 + seed) % 500;
+                        Integer v = cache.get(key, (k) -> k);
+                        if(!v.equals(key)) {
+                            errors.incrementAndGet();
+                        }
+                        if(i % 7 == 0) {
+                            cache.remove(key);
+                        }
+                    }
+                }catch(Throwable e) {
+                    errors.incrementAndGet();
+                }finally{
+                    latch.countDown();
+                }
+            }).start();
+        }
+
+        latch.await();
+        assertEquals(0, errors.get());
+        assertTrue(cache.size() <= 100);
+    }
+
+    @Test
+    public void testCreateByName() {
+        Cache<String, String> cache = cacheManager.createConcurrentCache("tested");
+        assertSame(cache, cacheManager.getCache("tested"));
+        assertEquals(10, ((ConcurrentCache<String, String>)cache).getMaxSize());
+    }
+}
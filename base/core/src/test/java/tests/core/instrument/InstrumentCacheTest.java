@@ -0,0 +1,120 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tests.core.instrument;
+
+import leap.core.instrument.*;
+import leap.core.junit.AppTestBase;
+import leap.core.transaction.TransactionInstrumentation;
+import leap.lang.io.Files;
+import leap.lang.io.IO;
+import leap.lang.resource.Resource;
+import leap.lang.resource.Resources;
+import org.junit.After;
+import org.junit.Test;
+import tested.beans.TransactionalBean;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class InstrumentCacheTest extends AppTestBase {
+
+    private final File dir = new File(IO.tmpdir(), "leap-instrument-cache-" + System.nanoTime());
+
+    @After
+    public void cleanup() {
+        Files.deleteQuietly(dir);
+    }
+
+    @Test
+    public void testCacheInstrumentedClass() throws Exception {
+        AppInstrumentProcessor p = new TransactionInstrumentation();
+        List<AppInstrumentProcessor> processors = Arrays.asList(p);
+
+        AppInstrumentCache cache = AppInstrumentCache.create(dir, processors);
+        assertNotNull(cache);
+
+        Resource resource = Resources.getResource("classpath:" + TransactionalBean.class.getName().replace('.', '/') + ".class");
+        byte[]   bytes    = IO.readByteArrayAndClose(resource.getInputStream());
+
+        String key = cache.key(bytes, false);
+        assertNotEquals(key, cache.key(bytes, true));
+        assertNull(cache.get(key));
+
+        DefaultAppInstrumentContext context = new DefaultAppInstrumentContext(getClass().getClassLoader(), new ParsedClass(bytes));
+        p.instrument(context, resource, bytes, false);
+
+        AppInstrumentClass ic = context.getInstrumentedClass(TransactionalBean.class.getName().replace('.', '/'));
+        assertNotNull(ic);
+        cache.put(key, ic);
+
+        AppInstrumentClass cached = cache.get(key).getInstrumentedClass();
+        assertNotNull(cached);
+        assertEquals(ic.getClassName(), cached.getClassName());
+        assertEquals(ic.isEnsure(), cached.isEnsure());
+        assertTrue(Arrays.equals(ic.getClassData(), cached.getClassData()));
+        assertTrue(cached.getAllInstrumentedBy().contains(p));
+
+        //another processor set.
+        AppInstrumentCache another = AppInstrumentCache.create(dir, new ArrayList<>());
+        assertNotEquals(key, another.key(bytes, false));
+        assertNull(another.get(another.key(bytes, false)));
+    }
+
+    @Test
+    public void testCacheNotInstrumentedClass() {
+        AppInstrumentCache cache = AppInstrumentCache.create(dir, new ArrayList<>());
+
+        byte[] bytes = new byte[]{1, 2, 3};
+        String key   = cache.key(bytes, false);
+
+        cache.put(key, null);
+
+        AppInstrumentCache.Cached cached = cache.get(key);
+        assertNotNull(cached);
+        assertNull(cached.getInstrumentedClass());
+    }
+
+    @Test
+    public void testNotCacheable() {
+        AppInstrumentProcessor p = new TransactionInstrumentation() {
+            @Override
+            public String getCacheKey() {
+                return null;
+            }
+        };
+        assertNull(AppInstrumentCache.create(dir, Arrays.asList(p)));
+
+        //not cacheable by default.
+        AppInstrumentProcessor np = (context, resource, bytes, methodBodyOnly) -> {};
+        assertNull(AppInstrumentCache.create(dir, Arrays.asList(np)));
+    }
+
+    @Test
+    public void testKeyOfSuperClasses() throws Exception {
+        AppInstrumentCache cache = AppInstrumentCache.create(dir, new ArrayList<>());
+
+        Resource resource = Resources.getResource("classpath:" + InstrumentCacheTest.class.getName().replace('.', '/') + ".class");
+        byte[]   bytes    = IO.readByteArrayAndClose(resource.getInputStream());
+
+        //the super class AppTestBase is a part of the key.
+        assertNotEquals(cache.key(bytes, false), cache.key(new ParsedClass(bytes), false));
+        assertEquals(cache.key(new ParsedClass(bytes), false), cache.key(new ParsedClass(bytes), false));
+    }
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package tests.core.instrument;
+
+import leap.core.instrument.InstrumentClassWriter;
+import leap.core.junit.AppTestBase;
+import leap.lang.asm.ClassReader;
+import leap.lang.asm.ClassWriter;
+import leap.lang.io.IO;
+import leap.lang.resource.Resources;
+import org.junit.Test;
+
+public class InstrumentClassWriterTest extends AppTestBase {
+
+    private static final String PARENT = "tested/base/instrument/InstrumentParent";
+    private static final String CHILD  = "tested/base/instrument/nested/InstrumentChild";
+    private static final String NESTED = "tested/base/instrument/InstrumentNested";
+
+    @Test
+    public void testCommonSuperClass() throws Exception {
+        TestClassWriter cw = new TestClassWriter();
+
+        assertEquals(PARENT, cw.commonSuperClass(CHILD, PARENT));
+        assertEquals(PARENT, cw.commonSuperClass(PARENT, CHILD));
+        assertEquals(CHILD,  cw.commonSuperClass(CHILD, CHILD));
+        assertEquals("java/lang/Object", cw.commonSuperClass(CHILD, NESTED));
+        assertEquals("java/lang/Object", cw.commonSuperClass(CHILD, "java/lang/Runnable"));
+    }
+
+    private static final class TestClassWriter extends InstrumentClassWriter {
+
+        TestClassWriter() throws Exception {
+            super(new ClassReader(IO.readByteArrayAndClose(Resources.getResource("classpath:" + PARENT + ".class").getInputStream())),
+                  ClassWriter.COMPUTE_FRAMES);
+        }
+
+        String commonSuperClass(String type1, String type2) {
+            return getCommonSuperClass(type1, type2);
+        }
+    }
+}
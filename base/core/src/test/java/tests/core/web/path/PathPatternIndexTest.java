@@ -0,0 +1,91 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tests.core.web.path;
+
+import leap.core.web.path.JerseyPathTemplateFactory;
+import leap.core.web.path.PathPatternIndex;
+import leap.junit.TestBase;
+import leap.lang.New;
+import leap.lang.path.AntPathPattern;
+import leap.lang.path.PathPattern;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.function.Function;
+
+public class PathPatternIndexTest extends TestBase {
+
+    private static final Function<PathPattern, PathPattern> SELF = (p) -> p;
+
+    private static PathPattern ant(String pattern) {
+        return new AntPathPattern(pattern);
+    }
+
+    private static PathPattern pt(String template) {
+        return new JerseyPathTemplateFactory().createPathTemplate(template);
+    }
+
+    @Test
+    public void testMatchByOrder() {
+        List<PathPattern> patterns = New.arrayList(ant("/a/b/c"), ant("/a/**"), ant("/**/*.js"), ant("/b/*/c"), ant("/**"));
+
+        PathPatternIndex<PathPattern> index = new PathPatternIndex<>(patterns, SELF);
+
+        assertEquals("/a/b/c",   index.match("/a/b/c").pattern());
+        assertEquals("/a/**",    index.match("/a").pattern());
+        assertEquals("/a/**",    index.match("/a/b/c.js").pattern());
+        assertEquals("/**/*.js", index.match("/x/y.js").pattern());
+        assertEquals("/b/*/c",   index.match("/b/x/c").pattern());
+        assertEquals("/**",      index.match("/b/x/d").pattern());
+        assertEquals("/**",      index.match("/").pattern());
+    }
+
+    @Test
+    public void testNoMatch() {
+        PathPatternIndex<PathPattern> index =
+                new PathPatternIndex<>(New.arrayList(ant("/a/b"), ant("/a/c/*"), ant("/*.html")), SELF);
+
+        assertNull(index.match("/a"));
+        assertNull(index.match("/a/b/c"));
+        assertNull(index.match("/a/c"));
+        assertNull(index.match("/b/c.html"));
+        assertNotNull(index.match("/a/c/d"));
+        assertNotNull(index.match("/c.html"));
+
+        assertTrue(new PathPatternIndex<PathPattern>(New.arrayList(), SELF).isEmpty());
+    }
+
+    @Test
+    public void testPathTemplate() {
+        PathPatternIndex<PathPattern> index =
+                new PathPatternIndex<>(New.arrayList(pt("/users/{id}/roles"), pt("/users/{id}"), pt("/{path}")), SELF);
+
+        assertEquals("/users/*/roles", index.match("/users/1/roles").pattern());
+        assertEquals("/users/*",       index.match("/users/1").pattern());
+        assertEquals("/*",             index.match("/roles").pattern());
+        assertNull(index.match("/roles/1"));
+    }
+
+    @Test
+    public void testFilter() {
+        PathPatternIndex<PathPattern> index =
+                new PathPatternIndex<>(New.arrayList(ant("/a/*"), ant("/a/**"), ant("/**")), SELF);
+
+        assertEquals("/a/**", index.match("/a/b", (p) -> !p.pattern().equals("/a/*")).pattern());
+        assertEquals("/**",   index.match("/a/b", (p) -> p.pattern().equals("/**")).pattern());
+        assertNull(index.match("/a/b", (p) -> false));
+    }
+}
@@ -400,7 +400,10 @@ public class Converts {
 		}
 	}
 	
-	static Converter findConverter(Class<?> type) {
+	/**
+	 * Returns the {@link Converter} of the given type, returns <code>null</code> if no converter.
+	 */
+	public static Converter findConverter(Class<?> type) {
 		Converter converter = converters.get(type);
 		
 		if(null == converter){
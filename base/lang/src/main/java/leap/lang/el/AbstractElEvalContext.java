@@ -163,7 +163,8 @@ public abstract class AbstractElEvalContext extends AbstractElContext implements
 				vars.put(name, v);
 				return v;
 			}
-		}else{
+		}else if(name.indexOf('.') < 0){
+			//a qualified name such as 'a.b' never be a property of java class.
 			ElProperty p = resolveProperty(ctx.getClass(), name);
 			if(null != p){
 				try {
@@ -16,26 +16,85 @@
 package leap.lang.el.spel;
 
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import leap.lang.el.DefaultElEvalContext;
 import leap.lang.el.ElEvalContext;
 import leap.lang.el.spel.ast.AstExpr;
+import leap.lang.el.spel.compiler.CompiledExpression;
+import leap.lang.el.spel.compiler.SpelCompiler;
 import leap.lang.expression.AbstractExpression;
 
 public class SpelExpression extends AbstractExpression {
 	
 	protected final AstExpr expr;
 	
+	private final AtomicInteger evals = new AtomicInteger();
+
+	private volatile CompiledExpression compiled;
+	private volatile boolean            deoptimized;
+	
 	public SpelExpression(AstExpr expr) {
 		this.expr = expr;
 	}
+	
+	public AstExpr getAst() {
+		return expr;
+	}
+
+	/**
+	 * Returns <code>true</code> if the expression was compiled by the {@link SpelCompiler}.
+	 */
+	public boolean isCompiled() {
+		return null != compiled;
+	}
+
+	/**
+	 * Compiles the expression by the {@link SpelCompiler} now.
+	 *
+	 * <p>
+	 * The properties and methods not resolved by the interpreter yet can not be inlined,
+	 * so an expression compiled after some evaluations has better performance.
+	 *
+	 * <p>
+	 * Returns <code>false</code> if the expression can not be compiled.
+	 */
+	public synchronized boolean compile() {
+		if(null != compiled) {
+			return true;
+		}
+		if(deoptimized) {
+			return false;
+		}
+		
+		compiled = SpelCompiler.compile(expr);
+		if(null == compiled) {
+			deoptimized = true;
+			return false;
+		}
+		return true;
+	}
 
 	@Override
     protected Object eval(Object context, Map<String, Object> vars) {
-	    return expr.eval(new DefaultElEvalContext(context, vars));
+	    return eval(new DefaultElEvalContext(context, vars));
     }
 
 	public Object eval(ElEvalContext context) {
+		CompiledExpression c = compiled;
+		if(null != c) {
+			try {
+				return c.eval(context);
+			} catch (CompiledExpression.Deoptimize e) {
+				//no method was invoked, evaluates by the interpreter (the null value is a normal result of it).
+				if(e.isTypeChanged()) {
+					deoptimized = true;
+					compiled    = null;
+				}
+			}
+		}else if(!deoptimized && SpelCompiler.isEnabled() && evals.incrementAndGet() >= SpelCompiler.getThreshold()) {
+			compile();
+		}
 		return expr.eval(context);
 	}
 
@@ -43,4 +102,4 @@ public class SpelExpression extends AbstractExpression {
     public String toString() {
 		return expr.toString();
 	}
-}
\ No newline at end of file
+}
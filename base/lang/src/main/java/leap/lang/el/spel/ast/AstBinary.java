@@ -364,6 +364,20 @@ public class AstBinary extends AstExpr {
 		return this.operator;
 	}
 
+	/**
+	 * Returns the {@link ElTypes} of left expression or {@link ElTypes#UNRESOLVED}.
+	 */
+	public int getLeftType() {
+		return ltype;
+	}
+
+	/**
+	 * Returns the {@link ElTypes} of right expression or {@link ElTypes#UNRESOLVED}.
+	 */
+	public int getRightType() {
+		return rtype;
+	}
+
 	public void setOperator(BOperator operator) {
 		this.operator = operator;
 	}
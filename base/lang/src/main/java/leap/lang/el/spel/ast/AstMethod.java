@@ -48,6 +48,20 @@ public class AstMethod extends AstInvocable implements Serializable {
         this.owner = owner;
     }
     
+    /**
+     * Returns the class of owner resolved by the first evaluation or <code>null</code> if not resolved.
+     */
+    public Class<?> getResolvedClass() {
+        return c;
+    }
+
+    /**
+     * Returns the method resolved by the first evaluation or <code>null</code> if not resolved.
+     */
+    public ElMethod getResolvedMethod() {
+        return m;
+    }
+    
     @Override
     public Object eval(ElEvalContext context) {
     	Object o = owner.eval(context);
@@ -56,16 +70,21 @@ public class AstMethod extends AstInvocable implements Serializable {
     		return null;
     	}
     	
+    	return invoke(context, o, evalParameters(context));
+    }
+
+    /**
+     * Invokes this method of the given owner object with the evaluated arguments.
+     */
+    public Object invoke(ElEvalContext context, Object o, Object[] args) {
     	if(o instanceof ElMethodInvocable){
     		try {
-	            return ((ElMethodInvocable) o).invokeMethod(context, name, evalParameters(context));
+	            return ((ElMethodInvocable) o).invokeMethod(context, name, args);
             } catch (Throwable e) {
             	throw new ElException(context.getMessage("el.errors.methodInvokeError", name, o, e.getMessage()),e);
             }
     	}
     	
-    	Object[] args = evalParameters(context);
-    	
     	if(null == m){
     		synchronized (this) {
 	            if(null == m){
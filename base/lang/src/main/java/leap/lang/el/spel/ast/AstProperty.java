@@ -64,28 +64,51 @@ public class AstProperty extends AstExpr implements Named {
         this.name = name;
     }
 
-    @Override
-    @SuppressWarnings("rawtypes")
-    public Object eval(ElEvalContext context) {
+    /**
+     * Returns the qualified name of this property, such as <code>user.name</code>.
+     */
+    public String getQualifiedName() {
         if(null == qName) {
             qName = owner.toString() + "." + name;
-            Object o = context.resolveVariable(qName);
-            if(null != o) {
-                return o;
-            }
-        }else{
-            Object o = context.resolveVariable(qName);
-            if(null != o) {
-                return o;
-            }
+        }
+        return qName;
+    }
+
+    /**
+     * Returns the class of owner resolved by the first evaluation or <code>null</code> if not resolved.
+     */
+    public Class<?> getResolvedClass() {
+        return c;
+    }
+
+    /**
+     * Returns the property resolved by the first evaluation or <code>null</code> if not resolved.
+     */
+    public ElProperty getResolvedProperty() {
+        return p;
+    }
+
+    @Override
+    public Object eval(ElEvalContext context) {
+        Object o = context.resolveVariable(getQualifiedName());
+        if(null != o) {
+            return o;
         }
         
-    	Object o = owner.eval(context);
+    	o = owner.eval(context);
     	
     	if(null == o){
     		return null;
     	}
-    	
+
+    	return getValue(context, o);
+    }
+
+    /**
+     * Returns the value of this property in the given owner object.
+     */
+    @SuppressWarnings("rawtypes")
+    public Object getValue(ElEvalContext context, Object o) {
     	if(o instanceof Map){
     		return ((Map)o).get(name);
     	}
@@ -145,6 +145,13 @@ public class AstUnary extends AstExpr {
 		return operator;
 	}
 
+	/**
+	 * Returns the {@link ElTypes} of expression or {@link ElTypes#UNRESOLVED}.
+	 */
+	public int getType() {
+		return type;
+	}
+
 	public void setOperator(UOperator operator) {
 		this.operator = operator;
 	}
@@ -20,17 +20,19 @@ import static leap.lang.el.ElTypes.*;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 
+import leap.lang.annotation.Internal;
 import leap.lang.el.ElEvalContext;
 import leap.lang.el.ElException;
 import leap.lang.el.ElTypes;
 
 
-class Ops {
+@Internal
+public class Ops {
 	
 	/**
 	 * + operator : jsr341 spec
 	 */
-	static Object add(ElEvalContext ctx, int ltype,Object lval,int rtype,Object rval) {
+	public static Object add(ElEvalContext ctx, int ltype,Object lval,int rtype,Object rval) {
 		//■ If A and B are null, return (Long)0
 		if(null == lval && null == rval){
 			return Coerce.LG_ZERO;
@@ -76,7 +78,7 @@ class Ops {
 	/**
 	 * - operator : jsr341 spec
 	 */
-	static Object sub(ElEvalContext ctx, int ltype,Object lval,int rtype,Object rval) {
+	public static Object sub(ElEvalContext ctx, int ltype,Object lval,int rtype,Object rval) {
 		//■ If A and B are null, return (Long)0
 		if(null == lval && null == rval){
 			return Coerce.LG_ZERO;
@@ -117,7 +119,7 @@ class Ops {
 	/**
 	 * * operator : jsr341 spec
 	 */
-	static Object mul(ElEvalContext ctx, int ltype,Object lval,int rtype,Object rval) {
+	public static Object mul(ElEvalContext ctx, int ltype,Object lval,int rtype,Object rval) {
 		//■ If A and B are null, return (Long)0
 		if(null == lval && null == rval){
 			return Coerce.LG_ZERO;
@@ -158,7 +160,7 @@ class Ops {
 	/**
 	 * / operator : jsr341 spec
 	 */
-	static Object div(ElEvalContext ctx, int ltype,Object lval,int rtype,Object rval) {
+	public static Object div(ElEvalContext ctx, int ltype,Object lval,int rtype,Object rval) {
 		//■ If A and B are null, return (Long)0
 		if(null == lval && null == rval){
 			return Coerce.LG_ZERO;
@@ -183,7 +185,7 @@ class Ops {
 	/**
 	 * % operator : jsr341 spec
 	 */
-	static Object mod(ElEvalContext ctx, int ltype,Object lval,int rtype,Object rval) {
+	public static Object mod(ElEvalContext ctx, int ltype,Object lval,int rtype,Object rval) {
 		//■ If A and B are null, return (Long)0
 		if(null == lval && null == rval){
 			return Coerce.LG_ZERO;
@@ -215,7 +217,7 @@ class Ops {
 	/**
 	 * == operator : jsr341 spec
 	 */
-	static Object eq(ElEvalContext ctx, int ltype,Object lval,int rtype,Object rval) {
+	public static Object eq(ElEvalContext ctx, int ltype,Object lval,int rtype,Object rval) {
 		if(ltype == -1){
 			ltype = resolveTypeByVal(lval);
 		}
@@ -225,7 +227,7 @@ class Ops {
 		
 		//If A or B is Boolean coerce both A and B to Boolean, apply operator
 		if(isBoolean(ltype) || isBoolean(rtype)){
-			return Coerce.toBoolean(ctx, ltype, lval) == Coerce.toBoolean(ctx, rtype, rval);
+			return Coerce.toBoolean(ctx, ltype, lval).booleanValue() == Coerce.toBoolean(ctx, rtype, rval).booleanValue();
 		}
 		
 		//If A or B is an enum, coerce both A and B to enum, apply operator
@@ -257,7 +259,7 @@ class Ops {
 			
 			//If A or B is Float or Double coerce both A and B to Double, apply operator
 			if(ElTypes.isFloatOrDouble(ltype) || ElTypes.isFloatOrDouble(rtype)){
-				return Coerce.toDouble(ctx, ltype, lval) == Coerce.toDouble(ctx, rtype, rval);
+				return Coerce.toDouble(ctx, ltype, lval).doubleValue() == Coerce.toDouble(ctx, rtype, rval).doubleValue();
 			}
 			
 			//If A or B is BigInteger, coerce both A and B to BigInteger and then: return A.equals(B)
@@ -265,7 +267,7 @@ class Ops {
 				return Coerce.toBigInteger(ctx, ltype, lval).equals(Coerce.toBigInteger(ctx, rtype, rval));
 			}
 			
-			return Coerce.toLong(ctx, ltype, lval) == Coerce.toLong(ctx, rtype, rval);
+			return Coerce.toLong(ctx, ltype, lval).longValue() == Coerce.toLong(ctx, rtype, rval).longValue();
 		}
 		
 		//Otherwise, apply operator to result of A.equals(B)	
@@ -276,7 +278,7 @@ class Ops {
 	 * >= operator : jsr341 spec
 	 */
 	@SuppressWarnings({ "unchecked", "rawtypes" })
-    static Object ge(ElEvalContext ctx, int ltype,Object lval,int rtype,Object rval) {
+    public static Object ge(ElEvalContext ctx, int ltype,Object lval,int rtype,Object rval) {
 		if(ltype == -1){
 			ltype = resolveTypeByVal(lval);
 		}
@@ -326,7 +328,7 @@ class Ops {
 	 * > operator : jsr341 spec
 	 */
 	@SuppressWarnings({ "unchecked", "rawtypes" })
-    static Object gt(ElEvalContext ctx, int ltype,Object lval,int rtype,Object rval) {
+    public static Object gt(ElEvalContext ctx, int ltype,Object lval,int rtype,Object rval) {
 		if(ltype == -1){
 			ltype = resolveTypeByVal(lval);
 		}
@@ -376,7 +378,7 @@ class Ops {
 	 * < operator : jsr341 spec
 	 */
 	@SuppressWarnings({ "unchecked", "rawtypes" })
-    static Object lt(ElEvalContext ctx, int ltype,Object lval,int rtype,Object rval) {
+    public static Object lt(ElEvalContext ctx, int ltype,Object lval,int rtype,Object rval) {
 		if(ltype == -1){
 			ltype = resolveTypeByVal(lval);
 		}
@@ -426,7 +428,7 @@ class Ops {
 	 * <= operator : jsr341 spec
 	 */
 	@SuppressWarnings({ "unchecked", "rawtypes" })
-    static Object le(ElEvalContext ctx, int ltype,Object lval,int rtype,Object rval) {
+    public static Object le(ElEvalContext ctx, int ltype,Object lval,int rtype,Object rval) {
 		if(ltype == -1){
 			ltype = resolveTypeByVal(lval);
 		}
@@ -475,7 +477,7 @@ class Ops {
 	/**
 	 *  - operator , jsr341 spec
 	 */
-	static Object minus(ElEvalContext ctx, int type,Object val) {
+	public static Object minus(ElEvalContext ctx, int type,Object val) {
 		//If A is null, return (Long)0
 		if(val == null){
 			return Coerce.LG_ZERO;
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.el.spel.compiler;
+
+import leap.lang.annotation.Internal;
+import leap.lang.el.ElEvalContext;
+import leap.lang.el.ElException;
+import leap.lang.el.spel.ast.AstNode;
+import leap.lang.el.spel.ast.Ops;
+
+/**
+ * The base class of the expression classes generated by {@link SpelCompiler}.
+ *
+ * <p>
+ * The static methods are the runtime helpers invoked by the generated code, do not use them directly.
+ */
+public abstract class CompiledExpression {
+
+	protected final AstNode[]  nodes;
+	protected final Class<?>[] classes;
+
+	protected CompiledExpression(AstNode[] nodes, Class<?>[] classes) {
+		this.nodes   = nodes;
+		this.classes = classes;
+	}
+
+	/**
+	 * Evaluates the expression.
+	 *
+	 * @throws Deoptimize if the runtime types not matched the compiled code, the caller must evaluates the expression by the interpreter.
+	 *                    It is thrown before any method invocation of the expression, so the methods are invoked once.
+	 */
+	public abstract Object eval(ElEvalContext context) throws Deoptimize;
+
+	@Internal
+	public static ElException propertyError(Throwable e, ElEvalContext context, String name, Object o) {
+		return new ElException(context.getMessage("el.errors.getPropertyError", name, o, e.getMessage()),e);
+	}
+
+	@Internal
+	public static ElException methodError(Throwable e, ElEvalContext context, String name, Object o) {
+		return new ElException(context.getMessage("el.errors.methodInvokeError", name, o, e.getMessage()),e);
+	}
+
+	@Internal
+	public static Deoptimize deoptimize() {
+		return Deoptimize.INSTANCE;
+	}
+
+	@Internal
+	public static Deoptimize deoptimizeNull() {
+		return Deoptimize.NULL;
+	}
+
+	@Internal
+	public static int unboxInt(Object v) {
+		if(v instanceof Integer) {
+			return ((Integer)v).intValue();
+		}
+		throw null == v ? Deoptimize.NULL : Deoptimize.INSTANCE;
+	}
+
+	@Internal
+	public static long unboxLong(Object v) {
+		if(v instanceof Long) {
+			return ((Long)v).longValue();
+		}
+		throw null == v ? Deoptimize.NULL : Deoptimize.INSTANCE;
+	}
+
+	@Internal
+	public static double unboxDouble(Object v) {
+		if(v instanceof Double) {
+			return ((Double)v).doubleValue();
+		}
+		throw null == v ? Deoptimize.NULL : Deoptimize.INSTANCE;
+	}
+
+	@Internal
+	public static boolean unboxBoolean(Object v) {
+		if(v instanceof Boolean) {
+			return ((Boolean)v).booleanValue();
+		}
+		throw null == v ? Deoptimize.NULL : Deoptimize.INSTANCE;
+	}
+
+	/**
+	 * The '==' operator, see {@link leap.lang.el.spel.ast.AstBinary#EQ}.
+	 */
+	@Internal
+	public static boolean eq(ElEvalContext ctx, int ltype, Object lval, int rtype, Object rval) {
+		if(lval == rval){
+			return true;
+		}
+		if(lval == null || rval == null){
+			return false;
+		}
+		return (Boolean)Ops.eq(ctx, ltype, lval, rtype, rval);
+	}
+
+	/**
+	 * The '!=' operator, see {@link leap.lang.el.spel.ast.AstBinary#NE}.
+	 */
+	@Internal
+	public static boolean ne(ElEvalContext ctx, int ltype, Object lval, int rtype, Object rval) {
+		if(lval == rval){
+			return false;
+		}
+		if(lval == null || rval == null){
+			return true;
+		}
+		return Boolean.FALSE == Ops.eq(ctx, ltype, lval, rtype, rval);
+	}
+
+	/**
+	 * The '>=' operator, see {@link leap.lang.el.spel.ast.AstBinary#GE}.
+	 */
+	@Internal
+	public static boolean ge(ElEvalContext ctx, int ltype, Object lval, int rtype, Object rval) {
+		if(lval == rval){
+			return true;
+		}
+		if(lval == null || rval == null){
+			return false;
+		}
+		return (Boolean)Ops.ge(ctx, ltype, lval, rtype, rval);
+	}
+
+	/**
+	 * The '<=' operator, see {@link leap.lang.el.spel.ast.AstBinary#LE}.
+	 */
+	@Internal
+	public static boolean le(ElEvalContext ctx, int ltype, Object lval, int rtype, Object rval) {
+		if(lval == rval){
+			return true;
+		}
+		if(lval == null || rval == null){
+			return false;
+		}
+		return (Boolean)Ops.le(ctx, ltype, lval, rtype, rval);
+	}
+
+	/**
+	 * The '>' operator, the null values must be checked by the caller, see {@link leap.lang.el.spel.ast.AstBinary#GT}.
+	 */
+	@Internal
+	public static boolean gt(ElEvalContext ctx, int ltype, Object lval, int rtype, Object rval) {
+		if(lval == rval){
+			return false;
+		}
+		return (Boolean)Ops.gt(ctx, ltype, lval, rtype, rval);
+	}
+
+	/**
+	 * The '<' operator, the null values must be checked by the caller, see {@link leap.lang.el.spel.ast.AstBinary#LT}.
+	 */
+	@Internal
+	public static boolean lt(ElEvalContext ctx, int ltype, Object lval, int rtype, Object rval) {
+		if(lval == rval){
+			return false;
+		}
+		return (Boolean)Ops.lt(ctx, ltype, lval, rtype, rval);
+	}
+
+	/**
+	 * Thrown by the compiled code if the runtime types not matched the types at compile time,
+	 * or the value of a primitive type is null.
+	 *
+	 * <p>
+	 * The expression must be evaluated by the interpreter, the compiled expression must not be used any more
+	 * if {@link #isTypeChanged()} returns <code>true</code>.
+	 */
+	public static final class Deoptimize extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		static final Deoptimize INSTANCE = new Deoptimize(true);
+		static final Deoptimize NULL     = new Deoptimize(false);
+
+		private final boolean typeChanged;
+
+		private Deoptimize(boolean typeChanged) {
+			super("Deoptimize", null, false, false);
+			this.typeChanged = typeChanged;
+		}
+
+		/**
+		 * Returns <code>false</code> if the value is null, the compiled expression can still be used.
+		 */
+		public boolean isTypeChanged() {
+			return typeChanged;
+		}
+	}
+}
@@ -0,0 +1,1142 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.el.spel.compiler;
+
+import static leap.lang.asm.Opcodes.AALOAD;
+import static leap.lang.asm.Opcodes.AASTORE;
+import static leap.lang.asm.Opcodes.ACC_FINAL;
+import static leap.lang.asm.Opcodes.ACC_PUBLIC;
+import static leap.lang.asm.Opcodes.ACONST_NULL;
+import static leap.lang.asm.Opcodes.ALOAD;
+import static leap.lang.asm.Opcodes.ANEWARRAY;
+import static leap.lang.asm.Opcodes.ARETURN;
+import static leap.lang.asm.Opcodes.ASTORE;
+import static leap.lang.asm.Opcodes.ATHROW;
+import static leap.lang.asm.Opcodes.BIPUSH;
+import static leap.lang.asm.Opcodes.CHECKCAST;
+import static leap.lang.asm.Opcodes.DADD;
+import static leap.lang.asm.Opcodes.DCMPG;
+import static leap.lang.asm.Opcodes.DCMPL;
+import static leap.lang.asm.Opcodes.DDIV;
+import static leap.lang.asm.Opcodes.DMUL;
+import static leap.lang.asm.Opcodes.DNEG;
+import static leap.lang.asm.Opcodes.DREM;
+import static leap.lang.asm.Opcodes.DSUB;
+import static leap.lang.asm.Opcodes.DUP;
+import static leap.lang.asm.Opcodes.GETFIELD;
+import static leap.lang.asm.Opcodes.GOTO;
+import static leap.lang.asm.Opcodes.I2D;
+import static leap.lang.asm.Opcodes.I2L;
+import static leap.lang.asm.Opcodes.ICONST_0;
+import static leap.lang.asm.Opcodes.ICONST_1;
+import static leap.lang.asm.Opcodes.IFEQ;
+import static leap.lang.asm.Opcodes.IFGE;
+import static leap.lang.asm.Opcodes.IFGT;
+import static leap.lang.asm.Opcodes.IFLE;
+import static leap.lang.asm.Opcodes.IFLT;
+import static leap.lang.asm.Opcodes.IFNE;
+import static leap.lang.asm.Opcodes.IFNONNULL;
+import static leap.lang.asm.Opcodes.IFNULL;
+import static leap.lang.asm.Opcodes.IF_ACMPNE;
+import static leap.lang.asm.Opcodes.IF_ICMPEQ;
+import static leap.lang.asm.Opcodes.IF_ICMPNE;
+import static leap.lang.asm.Opcodes.INEG;
+import static leap.lang.asm.Opcodes.INSTANCEOF;
+import static leap.lang.asm.Opcodes.INVOKEINTERFACE;
+import static leap.lang.asm.Opcodes.INVOKESPECIAL;
+import static leap.lang.asm.Opcodes.INVOKESTATIC;
+import static leap.lang.asm.Opcodes.INVOKEVIRTUAL;
+import static leap.lang.asm.Opcodes.IXOR;
+import static leap.lang.asm.Opcodes.L2D;
+import static leap.lang.asm.Opcodes.LADD;
+import static leap.lang.asm.Opcodes.LCMP;
+import static leap.lang.asm.Opcodes.LMUL;
+import static leap.lang.asm.Opcodes.LNEG;
+import static leap.lang.asm.Opcodes.LREM;
+import static leap.lang.asm.Opcodes.LSUB;
+import static leap.lang.asm.Opcodes.POP;
+import static leap.lang.asm.Opcodes.RETURN;
+import static leap.lang.asm.Opcodes.SIPUSH;
+import static leap.lang.asm.Opcodes.V1_6;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import leap.lang.asm.ClassWriter;
+import leap.lang.asm.Label;
+import leap.lang.asm.MethodVisitor;
+import leap.lang.asm.Type;
+import leap.lang.el.ElBeanProperty;
+import leap.lang.el.ElEvalContext;
+import leap.lang.el.ElInstanceMethod;
+import leap.lang.el.ElMethod;
+import leap.lang.el.ElProperty;
+import leap.lang.el.spel.ast.AstBinary;
+import leap.lang.el.spel.ast.AstBinary.BOperator;
+import leap.lang.el.spel.ast.AstBoolean;
+import leap.lang.el.spel.ast.AstChoice;
+import leap.lang.el.spel.ast.AstExpr;
+import leap.lang.el.spel.ast.AstMethod;
+import leap.lang.el.spel.ast.AstNode;
+import leap.lang.el.spel.ast.AstNull;
+import leap.lang.el.spel.ast.AstNumber;
+import leap.lang.el.spel.ast.AstProperty;
+import leap.lang.el.spel.ast.AstString;
+import leap.lang.el.spel.ast.AstUnary;
+import leap.lang.el.spel.ast.AstUnary.UOperator;
+import leap.lang.el.spel.ast.Ops;
+import leap.lang.logging.Log;
+import leap.lang.logging.LogFactory;
+
+/**
+ * Compiles the ast of spel expression to a generated class.
+ *
+ * <p>
+ * The compiled code has the same semantics as the interpreter :
+ *
+ * <ul>
+ *     <li>
+ *         The property getters and methods resolved by the interpreter are invoked directly, guarded by the class of owner
+ *         (monomorphic inline cache). The interpreter is used if the guard not matched.
+ *     </li>
+ *     <li>
+ *         The arithmetic and comparison of int, long, double and boolean values are compiled to the primitive instructions.
+ *     </li>
+ *     <li>
+ *         The other nodes are evaluated by the interpreter.
+ *     </li>
+ * </ul>
+ *
+ * If the runtime types of the primitive values not match the compiled code, {@link CompiledExpression.Deoptimize} will be thrown,
+ * the expression must be evaluated by the interpreter. The properties evaluated after a method invocation are compiled as objects,
+ * so the deoptimization never happens after a method was invoked and the interpreter will not invoke it again.
+ *
+ * <p>
+ * The compiler is disabled by default, enables it by the system property <code>leap.spel.compiler.enabled=true</code>.
+ * An expression will be compiled after evaluated by the interpreter <code>leap.spel.compiler.threshold</code> times,
+ * so the properties and methods can be resolved before compiling.
+ */
+public class SpelCompiler {
+
+	private static final Log log = LogFactory.get(SpelCompiler.class);
+
+	public static final String ENABLED_PROPERTY   = "leap.spel.compiler.enabled";
+	public static final String THRESHOLD_PROPERTY = "leap.spel.compiler.threshold";
+	public static final int    DEFAULT_THRESHOLD  = 50;
+
+	private static final String CLASS_NAME_PREFIX = "leap/lang/el/spel/compiler/SpelExpr$";
+	private static final String SUPER_NAME        = Type.getInternalName(CompiledExpression.class);
+	private static final String NODES_DESC        = Type.getDescriptor(AstNode[].class);
+	private static final String CLASSES_DESC      = Type.getDescriptor(Class[].class);
+	private static final String CTX_NAME          = Type.getInternalName(ElEvalContext.class);
+	private static final String CTX_DESC          = Type.getDescriptor(ElEvalContext.class);
+	private static final String OBJECT_NAME       = Type.getInternalName(Object.class);
+	private static final String NODE_NAME         = Type.getInternalName(AstNode.class);
+	private static final String PROPERTY_NAME     = Type.getInternalName(AstProperty.class);
+	private static final String METHOD_NAME       = Type.getInternalName(AstMethod.class);
+	private static final String OPS_NAME          = Type.getInternalName(Ops.class);
+
+	private static final String OP_DESC    = "(" + CTX_DESC + "ILjava/lang/Object;ILjava/lang/Object;)Ljava/lang/Object;";
+	private static final String CMP_DESC   = "(" + CTX_DESC + "ILjava/lang/Object;ILjava/lang/Object;)Z";
+	private static final String ERROR_DESC = "(Ljava/lang/Throwable;" + CTX_DESC + "Ljava/lang/String;Ljava/lang/Object;)Lleap/lang/el/ElException;";
+
+	static final int OBJECT  = 0;
+	static final int BOOLEAN = 1;
+	static final int INT     = 2;
+	static final int LONG    = 3;
+	static final int DOUBLE  = 4;
+
+	private static final AtomicInteger counter = new AtomicInteger();
+
+	private static volatile boolean enabled   = Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY));
+	private static volatile int     threshold = threshold(System.getProperty(THRESHOLD_PROPERTY));
+
+	/**
+	 * Returns <code>true</code> if the expressions will be compiled after evaluated {@link #getThreshold()} times.
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	public static void setEnabled(boolean enabled) {
+		SpelCompiler.enabled = enabled;
+	}
+
+	/**
+	 * Returns the number of evaluations by the interpreter before compiling an expression.
+	 */
+	public static int getThreshold() {
+		return threshold;
+	}
+
+	public static void setThreshold(int threshold) {
+		SpelCompiler.threshold = threshold > 0 ? threshold : 1;
+	}
+
+	/**
+	 * Compiles the given expression.
+	 *
+	 * <p>
+	 * Returns <code>null</code> if failed to compile.
+	 */
+	public static CompiledExpression compile(AstExpr expr) {
+		try {
+			return new SpelCompiler(expr).compile();
+		} catch (Throwable e) {
+			log.warn("Unable to compile spel expression '{}', {}", expr, e.getMessage(), e);
+			return null;
+		}
+	}
+
+	private static int threshold(String s) {
+		if(null != s && s.length() > 0) {
+			int i = Integer.parseInt(s.trim());
+			return i > 0 ? i : 1;
+		}
+		return DEFAULT_THRESHOLD;
+	}
+
+	private final AstExpr                  expr;
+	private final String                   className;
+	private final List<AstNode>            nodes     = new ArrayList<>();
+	private final List<Class<?>>           classes   = new ArrayList<>();
+	private final Map<String, Class<?>>    types     = new HashMap<>();
+	private final Map<AstNode, Method>     inlines   = new IdentityHashMap<>();
+	private final Map<AstNode, Class<?>>   owners    = new IdentityHashMap<>();
+	private final Set<AstNode>             boxed     = Collections.newSetFromMap(new IdentityHashMap<>());
+
+	private boolean invoked;
+
+	private MethodVisitor mv;
+	private int           locals = 2; //0 : this, 1 : context
+
+	private SpelCompiler(AstExpr expr) {
+		this.expr      = expr;
+		this.className = CLASS_NAME_PREFIX + counter.incrementAndGet();
+	}
+
+	private CompiledExpression compile() throws Exception {
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+
+		cw.visit(V1_6, ACC_PUBLIC | ACC_FINAL, className, null, SUPER_NAME, null);
+
+		mv = cw.visitMethod(ACC_PUBLIC, "<init>", "(" + NODES_DESC + CLASSES_DESC + ")V", null, null);
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitVarInsn(ALOAD, 1);
+		mv.visitVarInsn(ALOAD, 2);
+		mv.visitMethodInsn(INVOKESPECIAL, SUPER_NAME, "<init>", "(" + NODES_DESC + CLASSES_DESC + ")V", false);
+		mv.visitInsn(RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		analyze(expr);
+
+		mv = cw.visitMethod(ACC_PUBLIC, "eval", "(" + CTX_DESC + ")Ljava/lang/Object;", null, null);
+		mv.visitCode();
+		box(emit(expr));
+		mv.visitInsn(ARETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		cw.visitEnd();
+
+		byte[] data = cw.toByteArray();
+
+		Class<?> c = new CompilerLoader(types).defineClass(className.replace('/', '.'), data);
+
+		return (CompiledExpression)c.getConstructor(AstNode[].class, Class[].class)
+									.newInstance(nodes.toArray(new AstNode[nodes.size()]), classes.toArray(new Class<?>[classes.size()]));
+	}
+
+	/**
+	 * Visits the nodes in the order of evaluation, the properties evaluated after a method invocation
+	 * (or a node evaluated by the interpreter) are boxed, so the value of them never deoptimizes.
+	 */
+	private void analyze(AstNode node) {
+		if(node instanceof AstNull || node instanceof AstString || node instanceof AstBoolean || node instanceof AstNumber) {
+			return;
+		}
+
+		if(node instanceof AstProperty) {
+			analyze(((AstProperty) node).getOwner());
+			if(invoked) {
+				boxed.add(node);
+			}
+			return;
+		}
+
+		if(node instanceof AstMethod) {
+			analyze(((AstMethod) node).getOwner());
+			for(AstExpr param : ((AstMethod) node).getParameters()) {
+				analyze(param);
+			}
+			invoked = true;
+			return;
+		}
+
+		if(node instanceof AstBinary) {
+			BOperator op = ((AstBinary) node).getOperator();
+			if(op == AstBinary.AND || op == AstBinary.OR || isComparison(op) ||
+			   op == AstBinary.ADD || op == AstBinary.SUB || op == AstBinary.MUL || op == AstBinary.MOD || op == AstBinary.DIV) {
+				analyze(((AstBinary) node).getLeft());
+				analyze(((AstBinary) node).getRight());
+				return;
+			}
+		}
+
+		if(node instanceof AstUnary) {
+			UOperator op = ((AstUnary) node).getOperator();
+			if(op == AstUnary.NOT || op == AstUnary.PLUS || op == AstUnary.MINUS) {
+				analyze(((AstUnary) node).getExpr());
+				return;
+			}
+		}
+
+		if(node instanceof AstChoice) {
+			analyze(((AstChoice) node).getQuestion());
+			analyze(((AstChoice) node).getYes());
+			analyze(((AstChoice) node).getNo());
+			return;
+		}
+
+		//evaluated by the interpreter, may invoke methods.
+		invoked = true;
+	}
+
+	/**
+	 * Returns the kind of value pushed by {@link #emit(AstNode)}.
+	 */
+	private int kindOf(AstNode node) {
+		if(node instanceof AstBoolean) {
+			return null == ((AstBoolean) node).getValue() ? OBJECT : BOOLEAN;
+		}
+
+		if(node instanceof AstNumber) {
+			return kindOf(((AstNumber) node).getValue());
+		}
+
+		if(node instanceof AstProperty) {
+			Method getter = getter((AstProperty)node);
+			return null == getter || boxed.contains(node) ? OBJECT : kindOf(getter.getReturnType());
+		}
+
+		if(node instanceof AstBinary) {
+			AstBinary b  = (AstBinary)node;
+			BOperator op = b.getOperator();
+
+			if(op == AstBinary.AND || op == AstBinary.OR || isComparison(op)) {
+				return BOOLEAN;
+			}
+
+			if(op == AstBinary.ADD || op == AstBinary.SUB || op == AstBinary.MUL || op == AstBinary.MOD) {
+				int lk = kindOf(b.getLeft());
+				int rk = kindOf(b.getRight());
+				if(isNumeric(lk) && isNumeric(rk)) {
+					return lk == DOUBLE || rk == DOUBLE ? DOUBLE : LONG;
+				}
+				return OBJECT;
+			}
+
+			if(op == AstBinary.DIV) {
+				return isNumeric(kindOf(b.getLeft())) && isNumeric(kindOf(b.getRight())) ? DOUBLE : OBJECT;
+			}
+
+			return OBJECT;
+		}
+
+		if(node instanceof AstUnary) {
+			AstUnary  u  = (AstUnary)node;
+			UOperator op = u.getOperator();
+
+			if(op == AstUnary.NOT) {
+				return BOOLEAN;
+			}
+
+			if(op == AstUnary.PLUS) {
+				return kindOf(u.getExpr());
+			}
+
+			if(op == AstUnary.MINUS) {
+				int k = kindOf(u.getExpr());
+				return isNumeric(k) ? k : OBJECT;
+			}
+
+			return OBJECT;
+		}
+
+		if(node instanceof AstChoice) {
+			AstChoice c = (AstChoice)node;
+			int yk = kindOf(c.getYes());
+			int nk = kindOf(c.getNo());
+			return yk == nk ? yk : OBJECT;
+		}
+
+		return OBJECT;
+	}
+
+	/**
+	 * Emits the code of the given node, pushes the value of the returned kind on the stack.
+	 */
+	private int emit(AstNode node) {
+		if(node instanceof AstNull) {
+			mv.visitInsn(ACONST_NULL);
+			return OBJECT;
+		}
+
+		if(node instanceof AstString && null != ((AstString) node).getValue()) {
+			mv.visitLdcInsn(((AstString) node).getValue());
+			return OBJECT;
+		}
+
+		if(node instanceof AstBoolean && null != ((AstBoolean) node).getValue()) {
+			mv.visitInsn(((AstBoolean) node).getValue() ? ICONST_1 : ICONST_0);
+			return BOOLEAN;
+		}
+
+		if(node instanceof AstNumber && kindOf(node) != OBJECT) {
+			mv.visitLdcInsn(((AstNumber) node).getValue());
+			return kindOf(node);
+		}
+
+		if(node instanceof AstProperty) {
+			return emitProperty((AstProperty)node);
+		}
+
+		if(node instanceof AstMethod) {
+			return emitMethod((AstMethod)node);
+		}
+
+		if(node instanceof AstBinary) {
+			return emitBinary((AstBinary)node);
+		}
+
+		if(node instanceof AstUnary) {
+			return emitUnary((AstUnary)node);
+		}
+
+		if(node instanceof AstChoice) {
+			return emitChoice((AstChoice)node);
+		}
+
+		return emitInterpreted(node);
+	}
+
+	private int emitInterpreted(AstNode node) {
+		loadNode(node, NODE_NAME);
+		mv.visitVarInsn(ALOAD, 1);
+		mv.visitMethodInsn(INVOKEVIRTUAL, NODE_NAME, "eval", "(" + CTX_DESC + ")Ljava/lang/Object;", false);
+		return OBJECT;
+	}
+
+	private int emitProperty(AstProperty node) {
+		Method getter = getter(node);
+		int    kind   = kindOf(node);
+		Label  end    = new Label();
+
+		//the variable named by the qualified name, such as 'user.name'.
+		mv.visitVarInsn(ALOAD, 1);
+		mv.visitLdcInsn(node.getQualifiedName());
+		mv.visitMethodInsn(INVOKEINTERFACE, CTX_NAME, "resolveVariable", "(Ljava/lang/String;)Ljava/lang/Object;", true);
+		mv.visitInsn(DUP);
+		Label notResolved = new Label();
+		mv.visitJumpInsn(IFNULL, notResolved);
+		unbox(kind);
+		mv.visitJumpInsn(GOTO, end);
+		mv.visitLabel(notResolved);
+		mv.visitInsn(POP);
+
+		//the owner
+		box(emit(node.getOwner()));
+		int o = newLocal(OBJECT);
+		mv.visitVarInsn(ASTORE, o);
+
+		mv.visitVarInsn(ALOAD, o);
+		Label notNull = new Label();
+		mv.visitJumpInsn(IFNONNULL, notNull);
+		if(kind == OBJECT) {
+			mv.visitInsn(ACONST_NULL);
+			mv.visitJumpInsn(GOTO, end);
+		}else{
+			//the primitive value cannot be null.
+			mv.visitMethodInsn(INVOKESTATIC, SUPER_NAME, "deoptimizeNull", "()" + Type.getDescriptor(CompiledExpression.Deoptimize.class), false);
+			mv.visitInsn(ATHROW);
+		}
+		mv.visitLabel(notNull);
+
+		Label miss = new Label();
+		if(null != getter) {
+			Class<?> c = owners.get(node);
+
+			guardClass(o, c, miss);
+
+			Label start   = new Label();
+			Label stop    = new Label();
+			Label handler = new Label();
+			mv.visitTryCatchBlock(start, stop, handler, "java/lang/Throwable");
+			mv.visitLabel(start);
+			mv.visitVarInsn(ALOAD, o);
+			mv.visitTypeInsn(CHECKCAST, type(c));
+			invoke(c, getter);
+			mv.visitLabel(stop);
+			if(kind == OBJECT) {
+				box(getter.getReturnType());
+			}
+			mv.visitJumpInsn(GOTO, end);
+
+			mv.visitLabel(handler);
+			emitError("propertyError", node.getName(), o);
+		}
+
+		mv.visitLabel(miss);
+		loadNode(node, PROPERTY_NAME);
+		mv.visitVarInsn(ALOAD, 1);
+		mv.visitVarInsn(ALOAD, o);
+		mv.visitMethodInsn(INVOKEVIRTUAL, PROPERTY_NAME, "getValue", "(" + CTX_DESC + "Ljava/lang/Object;)Ljava/lang/Object;", false);
+		unbox(kind);
+
+		mv.visitLabel(end);
+		return kind;
+	}
+
+	private int emitMethod(AstMethod node) {
+		Method m   = method(node);
+		Label  end = new Label();
+
+		box(emit(node.getOwner()));
+		int o = newLocal(OBJECT);
+		mv.visitVarInsn(ASTORE, o);
+
+		mv.visitVarInsn(ALOAD, o);
+		Label notNull = new Label();
+		mv.visitJumpInsn(IFNONNULL, notNull);
+		mv.visitInsn(ACONST_NULL);
+		mv.visitJumpInsn(GOTO, end);
+		mv.visitLabel(notNull);
+
+		AstExpr[] params = node.getParameters();
+		int[]     args   = new int[params.length];
+		for(int i=0;i<params.length;i++) {
+			box(emit(params[i]));
+			args[i] = newLocal(OBJECT);
+			mv.visitVarInsn(ASTORE, args[i]);
+		}
+
+		Label miss = new Label();
+		if(null != m) {
+			Class<?> c = owners.get(node);
+
+			guardClass(o, c, miss);
+
+			Class<?>[] types = m.getParameterTypes();
+			for(int i=0;i<args.length;i++) {
+				if(types[i] == Object.class) {
+					continue;
+				}
+				Label ok = new Label();
+				mv.visitVarInsn(ALOAD, args[i]);
+				mv.visitJumpInsn(IFNULL, ok);
+				mv.visitVarInsn(ALOAD, args[i]);
+				mv.visitTypeInsn(INSTANCEOF, type(types[i]));
+				mv.visitJumpInsn(IFEQ, miss);
+				mv.visitLabel(ok);
+			}
+
+			Label start   = new Label();
+			Label stop    = new Label();
+			Label handler = new Label();
+			mv.visitTryCatchBlock(start, stop, handler, "java/lang/Throwable");
+			mv.visitLabel(start);
+			mv.visitVarInsn(ALOAD, o);
+			mv.visitTypeInsn(CHECKCAST, type(c));
+			for(int i=0;i<args.length;i++) {
+				mv.visitVarInsn(ALOAD, args[i]);
+				if(types[i] != Object.class) {
+					mv.visitTypeInsn(CHECKCAST, type(types[i]));
+				}
+			}
+			invoke(c, m);
+			mv.visitLabel(stop);
+			if(m.getReturnType() == void.class) {
+				mv.visitInsn(ACONST_NULL);
+			}else{
+				box(m.getReturnType());
+			}
+			mv.visitJumpInsn(GOTO, end);
+
+			mv.visitLabel(handler);
+			emitError("methodError", node.getName(), o);
+		}
+
+		mv.visitLabel(miss);
+		loadNode(node, METHOD_NAME);
+		mv.visitVarInsn(ALOAD, 1);
+		mv.visitVarInsn(ALOAD, o);
+		pushInt(args.length);
+		mv.visitTypeInsn(ANEWARRAY, OBJECT_NAME);
+		for(int i=0;i<args.length;i++) {
+			mv.visitInsn(DUP);
+			pushInt(i);
+			mv.visitVarInsn(ALOAD, args[i]);
+			mv.visitInsn(AASTORE);
+		}
+		mv.visitMethodInsn(INVOKEVIRTUAL, METHOD_NAME, "invoke", "(" + CTX_DESC + "Ljava/lang/Object;[Ljava/lang/Object;)Ljava/lang/Object;", false);
+
+		mv.visitLabel(end);
+		return OBJECT;
+	}
+
+	private int emitBinary(AstBinary node) {
+		BOperator op   = node.getOperator();
+		int       kind = kindOf(node);
+
+		if(op == AstBinary.AND || op == AstBinary.OR) {
+			Label end = new Label();
+			Label shortcut = new Label();
+			test(emit(node.getLeft()));
+			mv.visitJumpInsn(op == AstBinary.AND ? IFEQ : IFNE, shortcut);
+			test(emit(node.getRight()));
+			mv.visitJumpInsn(GOTO, end);
+			mv.visitLabel(shortcut);
+			mv.visitInsn(op == AstBinary.AND ? ICONST_0 : ICONST_1);
+			mv.visitLabel(end);
+			return BOOLEAN;
+		}
+
+		if(isComparison(op)) {
+			int lk = kindOf(node.getLeft());
+			int rk = kindOf(node.getRight());
+
+			if(isNumeric(lk) && isNumeric(rk)) {
+				int t = lk == DOUBLE || rk == DOUBLE ? DOUBLE : LONG;
+				convert(emit(node.getLeft()), t);
+				convert(emit(node.getRight()), t);
+				if(t == LONG) {
+					mv.visitInsn(LCMP);
+				}else{
+					//NaN is not greater or less than any value.
+					mv.visitInsn(op == AstBinary.LT || op == AstBinary.LE ? DCMPG : DCMPL);
+				}
+				pushCondition(jumpOf(op));
+				return BOOLEAN;
+			}
+
+			if(lk == BOOLEAN && rk == BOOLEAN && (op == AstBinary.EQ || op == AstBinary.NE)) {
+				emit(node.getLeft());
+				emit(node.getRight());
+				pushCondition(op == AstBinary.EQ ? IF_ICMPEQ : IF_ICMPNE);
+				return BOOLEAN;
+			}
+
+			if(op == AstBinary.GT || op == AstBinary.LT) {
+				Label end = new Label();
+				Label no  = new Label();
+
+				box(emit(node.getLeft()));
+				int l = newLocal(OBJECT);
+				mv.visitVarInsn(ASTORE, l);
+				mv.visitVarInsn(ALOAD, l);
+				mv.visitJumpInsn(IFNULL, no);
+
+				box(emit(node.getRight()));
+				int r = newLocal(OBJECT);
+				mv.visitVarInsn(ASTORE, r);
+				mv.visitVarInsn(ALOAD, r);
+				mv.visitJumpInsn(IFNULL, no);
+
+				mv.visitVarInsn(ALOAD, 1);
+				pushInt(node.getLeftType());
+				mv.visitVarInsn(ALOAD, l);
+				pushInt(node.getRightType());
+				mv.visitVarInsn(ALOAD, r);
+				mv.visitMethodInsn(INVOKESTATIC, SUPER_NAME, op == AstBinary.GT ? "gt" : "lt", CMP_DESC, false);
+				mv.visitJumpInsn(GOTO, end);
+
+				mv.visitLabel(no);
+				mv.visitInsn(ICONST_0);
+				mv.visitLabel(end);
+				return BOOLEAN;
+			}
+
+			mv.visitVarInsn(ALOAD, 1);
+			pushInt(node.getLeftType());
+			box(emit(node.getLeft()));
+			pushInt(node.getRightType());
+			box(emit(node.getRight()));
+			mv.visitMethodInsn(INVOKESTATIC, SUPER_NAME, nameOf(op), CMP_DESC, false);
+			return BOOLEAN;
+		}
+
+		if(op == AstBinary.ADD || op == AstBinary.SUB || op == AstBinary.MUL || op == AstBinary.MOD || op == AstBinary.DIV) {
+			if(kind != OBJECT) {
+				convert(emit(node.getLeft()), kind);
+				convert(emit(node.getRight()), kind);
+				mv.visitInsn(arithmeticOf(op, kind));
+				return kind;
+			}
+
+			mv.visitVarInsn(ALOAD, 1);
+			pushInt(node.getLeftType());
+			box(emit(node.getLeft()));
+			pushInt(node.getRightType());
+			box(emit(node.getRight()));
+			mv.visitMethodInsn(INVOKESTATIC, OPS_NAME, nameOf(op), OP_DESC, false);
+			return OBJECT;
+		}
+
+		return emitInterpreted(node);
+	}
+
+	private int emitUnary(AstUnary node) {
+		UOperator op = node.getOperator();
+
+		if(op == AstUnary.NOT) {
+			test(emit(node.getExpr()));
+			mv.visitInsn(ICONST_1);
+			mv.visitInsn(IXOR);
+			return BOOLEAN;
+		}
+
+		if(op == AstUnary.PLUS) {
+			return emit(node.getExpr());
+		}
+
+		if(op == AstUnary.MINUS) {
+			int kind = kindOf(node.getExpr());
+			if(isNumeric(kind)) {
+				emit(node.getExpr());
+				mv.visitInsn(kind == INT ? INEG : (kind == LONG ? LNEG : DNEG));
+				return kind;
+			}
+
+			mv.visitVarInsn(ALOAD, 1);
+			pushInt(node.getType());
+			box(emit(node.getExpr()));
+			mv.visitMethodInsn(INVOKESTATIC, OPS_NAME, "minus", "(" + CTX_DESC + "ILjava/lang/Object;)Ljava/lang/Object;", false);
+			return OBJECT;
+		}
+
+		return emitInterpreted(node);
+	}
+
+	private int emitChoice(AstChoice node) {
+		int   kind = kindOf(node);
+		Label no   = new Label();
+		Label end  = new Label();
+
+		test(emit(node.getQuestion()));
+		mv.visitJumpInsn(IFEQ, no);
+		int yk = emit(node.getYes());
+		if(kind == OBJECT) {
+			box(yk);
+		}
+		mv.visitJumpInsn(GOTO, end);
+		mv.visitLabel(no);
+		int nk = emit(node.getNo());
+		if(kind == OBJECT) {
+			box(nk);
+		}
+		mv.visitLabel(end);
+		return kind;
+	}
+
+	private void emitError(String method, String name, int o) {
+		mv.visitVarInsn(ALOAD, 1);
+		mv.visitLdcInsn(name);
+		mv.visitVarInsn(ALOAD, o);
+		mv.visitMethodInsn(INVOKESTATIC, SUPER_NAME, method, ERROR_DESC, false);
+		mv.visitInsn(ATHROW);
+	}
+
+	/**
+	 * Jumps to the label if the class of the object at the local is not the expected class.
+	 */
+	private void guardClass(int local, Class<?> c, Label miss) {
+		int index = classes.size();
+		classes.add(c);
+
+		mv.visitVarInsn(ALOAD, local);
+		mv.visitMethodInsn(INVOKEVIRTUAL, OBJECT_NAME, "getClass", "()Ljava/lang/Class;", false);
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitFieldInsn(GETFIELD, SUPER_NAME, "classes", CLASSES_DESC);
+		pushInt(index);
+		mv.visitInsn(AALOAD);
+		mv.visitJumpInsn(IF_ACMPNE, miss);
+	}
+
+	private void loadNode(AstNode node, String type) {
+		int index = nodes.size();
+		nodes.add(node);
+
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitFieldInsn(GETFIELD, SUPER_NAME, "nodes", NODES_DESC);
+		pushInt(index);
+		mv.visitInsn(AALOAD);
+		if(!NODE_NAME.equals(type)) {
+			mv.visitTypeInsn(CHECKCAST, type);
+		}
+	}
+
+	private void invoke(Class<?> c, Method m) {
+		if(c.isInterface()) {
+			mv.visitMethodInsn(INVOKEINTERFACE, type(c), m.getName(), Type.getMethodDescriptor(m), true);
+		}else{
+			mv.visitMethodInsn(INVOKEVIRTUAL, type(c), m.getName(), Type.getMethodDescriptor(m), false);
+		}
+	}
+
+	/**
+	 * Converts the value at the top of stack to the boolean value by {@link ElEvalContext#test(Object)}.
+	 */
+	private void test(int kind) {
+		if(kind != BOOLEAN) {
+			box(kind);
+			int v = newLocal(OBJECT);
+			mv.visitVarInsn(ASTORE, v);
+			mv.visitVarInsn(ALOAD, 1);
+			mv.visitVarInsn(ALOAD, v);
+			mv.visitMethodInsn(INVOKEINTERFACE, CTX_NAME, "test", "(Ljava/lang/Object;)Z", true);
+		}
+	}
+
+	private void pushCondition(int jump) {
+		Label yes = new Label();
+		Label end = new Label();
+		mv.visitJumpInsn(jump, yes);
+		mv.visitInsn(ICONST_0);
+		mv.visitJumpInsn(GOTO, end);
+		mv.visitLabel(yes);
+		mv.visitInsn(ICONST_1);
+		mv.visitLabel(end);
+	}
+
+	private void pushInt(int i) {
+		if(i >= -1 && i <= 5) {
+			mv.visitInsn(ICONST_0 + i);
+		}else if(i >= Byte.MIN_VALUE && i <= Byte.MAX_VALUE) {
+			mv.visitIntInsn(BIPUSH, i);
+		}else if(i >= Short.MIN_VALUE && i <= Short.MAX_VALUE) {
+			mv.visitIntInsn(SIPUSH, i);
+		}else{
+			mv.visitLdcInsn(i);
+		}
+	}
+
+	private void convert(int from, int to) {
+		if(from == to) {
+			return;
+		}
+		if(from == INT) {
+			mv.visitInsn(to == LONG ? I2L : I2D);
+		}else if(from == LONG && to == DOUBLE) {
+			mv.visitInsn(L2D);
+		}else{
+			throw new IllegalStateException("Cannot convert kind " + from + " to " + to);
+		}
+	}
+
+	private void box(int kind) {
+		switch (kind) {
+			case BOOLEAN:
+				mv.visitMethodInsn(INVOKESTATIC, "java/lang/Boolean", "valueOf", "(Z)Ljava/lang/Boolean;", false);
+				break;
+			case INT:
+				mv.visitMethodInsn(INVOKESTATIC, "java/lang/Integer", "valueOf", "(I)Ljava/lang/Integer;", false);
+				break;
+			case LONG:
+				mv.visitMethodInsn(INVOKESTATIC, "java/lang/Long", "valueOf", "(J)Ljava/lang/Long;", false);
+				break;
+			case DOUBLE:
+				mv.visitMethodInsn(INVOKESTATIC, "java/lang/Double", "valueOf", "(D)Ljava/lang/Double;", false);
+				break;
+			default:
+		}
+	}
+
+	private void box(Class<?> type) {
+		if(type.isPrimitive()) {
+			Type   t = Type.getType(type);
+			String w = Type.getInternalName(wrapper(type));
+			mv.visitMethodInsn(INVOKESTATIC, w, "valueOf", "(" + t.getDescriptor() + ")L" + w + ";", false);
+		}
+	}
+
+	private void unbox(int kind) {
+		switch (kind) {
+			case BOOLEAN:
+				mv.visitMethodInsn(INVOKESTATIC, SUPER_NAME, "unboxBoolean", "(Ljava/lang/Object;)Z", false);
+				break;
+			case INT:
+				mv.visitMethodInsn(INVOKESTATIC, SUPER_NAME, "unboxInt", "(Ljava/lang/Object;)I", false);
+				break;
+			case LONG:
+				mv.visitMethodInsn(INVOKESTATIC, SUPER_NAME, "unboxLong", "(Ljava/lang/Object;)J", false);
+				break;
+			case DOUBLE:
+				mv.visitMethodInsn(INVOKESTATIC, SUPER_NAME, "unboxDouble", "(Ljava/lang/Object;)D", false);
+				break;
+			default:
+		}
+	}
+
+	private int newLocal(int kind) {
+		int local = locals;
+		locals += (kind == LONG || kind == DOUBLE) ? 2 : 1;
+		return local;
+	}
+
+	/**
+	 * Returns the getter can be invoked directly or <code>null</code>.
+	 */
+	private Method getter(AstProperty node) {
+		if(inlines.containsKey(node)) {
+			return inlines.get(node);
+		}
+
+		Method     getter = null;
+		Class<?>   c      = node.getResolvedClass();
+		ElProperty p      = node.getResolvedProperty();
+		if(null != c && p instanceof ElBeanProperty && c != Class.class && isAccessible(c)) {
+			Method m = ((ElBeanProperty) p).getBeanProperty().getGetter();
+			if(null != m && isAccessible(m) && m.getDeclaringClass().isAssignableFrom(c)) {
+				getter = m;
+			}
+		}
+
+		inlines.put(node, getter);
+		if(null != getter) {
+			owners.put(node, c);
+		}
+		return getter;
+	}
+
+	/**
+	 * Returns the method can be invoked directly or <code>null</code>.
+	 */
+	private Method method(AstMethod node) {
+		if(inlines.containsKey(node)) {
+			return inlines.get(node);
+		}
+
+		Method   method = null;
+		Class<?> c      = node.getResolvedClass();
+		ElMethod em     = node.getResolvedMethod();
+		if(null != c && em instanceof ElInstanceMethod && c != Class.class && isAccessible(c)) {
+			Method m = ((ElInstanceMethod) em).getReflectMethod().getReflectedMethod();
+			if(isAccessible(m) && !m.isVarArgs() && m.getDeclaringClass().isAssignableFrom(c) &&
+			   m.getParameterTypes().length == node.getParameters().length) {
+				boolean ok = true;
+				for(Class<?> type : m.getParameterTypes()) {
+					if(type.isPrimitive() || type.isArray() || !isAccessible(type)) {
+						ok = false;
+						break;
+					}
+				}
+				if(ok) {
+					method = m;
+				}
+			}
+		}
+
+		inlines.put(node, method);
+		if(null != method) {
+			owners.put(node, c);
+		}
+		return method;
+	}
+
+	private boolean isAccessible(Method m) {
+		return Modifier.isPublic(m.getModifiers()) && !Modifier.isStatic(m.getModifiers()) && isAccessible(m.getDeclaringClass());
+	}
+
+	private boolean isAccessible(Class<?> c) {
+		for(Class<?> t = c; null != t; t = t.getEnclosingClass()) {
+			if(!Modifier.isPublic(t.getModifiers())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the internal name of the type and registers it to the class loader.
+	 */
+	private String type(Class<?> c) {
+		types.put(c.getName(), c);
+		return Type.getInternalName(c);
+	}
+
+	private static int kindOf(Object number) {
+		if(number instanceof Integer) {
+			return INT;
+		}
+		if(number instanceof Long) {
+			return LONG;
+		}
+		if(number instanceof Double) {
+			return DOUBLE;
+		}
+		return OBJECT;
+	}
+
+	private static int kindOf(Class<?> type) {
+		if(type == int.class) {
+			return INT;
+		}
+		if(type == long.class) {
+			return LONG;
+		}
+		if(type == double.class) {
+			return DOUBLE;
+		}
+		if(type == boolean.class) {
+			return BOOLEAN;
+		}
+		return OBJECT;
+	}
+
+	private static boolean isNumeric(int kind) {
+		return kind == INT || kind == LONG || kind == DOUBLE;
+	}
+
+	private static boolean isComparison(BOperator op) {
+		return op == AstBinary.EQ || op == AstBinary.NE || op == AstBinary.GT ||
+			   op == AstBinary.GE || op == AstBinary.LT || op == AstBinary.LE;
+	}
+
+	private static int jumpOf(BOperator op) {
+		if(op == AstBinary.EQ) {
+			return IFEQ;
+		}
+		if(op == AstBinary.NE) {
+			return IFNE;
+		}
+		if(op == AstBinary.GT) {
+			return IFGT;
+		}
+		if(op == AstBinary.GE) {
+			return IFGE;
+		}
+		if(op == AstBinary.LT) {
+			return IFLT;
+		}
+		return IFLE;
+	}
+
+	private static int arithmeticOf(BOperator op, int kind) {
+		boolean d = kind == DOUBLE;
+		if(op == AstBinary.ADD) {
+			return d ? DADD : LADD;
+		}
+		if(op == AstBinary.SUB) {
+			return d ? DSUB : LSUB;
+		}
+		if(op == AstBinary.MUL) {
+			return d ? DMUL : LMUL;
+		}
+		if(op == AstBinary.MOD) {
+			return d ? DREM : LREM;
+		}
+		return DDIV;
+	}
+
+	private static String nameOf(BOperator op) {
+		if(op == AstBinary.ADD) {
+			return "add";
+		}
+		if(op == AstBinary.SUB) {
+			return "sub";
+		}
+		if(op == AstBinary.MUL) {
+			return "mul";
+		}
+		if(op == AstBinary.DIV) {
+			return "div";
+		}
+		if(op == AstBinary.MOD) {
+			return "mod";
+		}
+		if(op == AstBinary.EQ) {
+			return "eq";
+		}
+		if(op == AstBinary.NE) {
+			return "ne";
+		}
+		if(op == AstBinary.GE) {
+			return "ge";
+		}
+		if(op == AstBinary.LE) {
+			return "le";
+		}
+		throw new IllegalStateException("Unsupported operator " + op);
+	}
+
+	private static Class<?> wrapper(Class<?> type) {
+		if(type == int.class) {
+			return Integer.class;
+		}
+		if(type == long.class) {
+			return Long.class;
+		}
+		if(type == double.class) {
+			return Double.class;
+		}
+		if(type == boolean.class) {
+			return Boolean.class;
+		}
+		if(type == float.class) {
+			return Float.class;
+		}
+		if(type == short.class) {
+			return Short.class;
+		}
+		if(type == byte.class) {
+			return Byte.class;
+		}
+		return Character.class;
+	}
+
+	private static final class CompilerLoader extends ClassLoader {
+
+		private final Map<String, Class<?>> types;
+
+		CompilerLoader(Map<String, Class<?>> types) {
+			super(SpelCompiler.class.getClassLoader());
+			this.types = types;
+		}
+
+		@Override
+		protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+			Class<?> c = types.get(name);
+			if(null != c) {
+				return c;
+			}
+			return super.loadClass(name, resolve);
+		}
+
+		Class<?> defineClass(String name, byte[] bytes) throws ClassFormatError {
+			return defineClass(name, bytes, 0, bytes.length);
+		}
+	}
+}
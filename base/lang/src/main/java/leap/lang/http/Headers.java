@@ -33,6 +33,10 @@ public class Headers {
      * See {@link <a href="http://www.w3.org/Protocols/rfc2616/rfc2616-sec14.html#sec14.4">HTTP/1.1 documentation</a>}.
      */
     public static final String ACCEPT_LANGUAGE = "Accept-Language";
+    /**
+     * See {@link <a href="http://www.w3.org/Protocols/rfc2616/rfc2616-sec14.html#sec14.5">HTTP/1.1 documentation</a>}.
+     */
+    public static final String ACCEPT_RANGES = "Accept-Ranges";
     /**
      * See {@link <a href="http://www.w3.org/Protocols/rfc2616/rfc2616-sec14.html#sec14.7">HTTP/1.1 documentation</a>}.
      */
@@ -73,6 +77,10 @@ public class Headers {
      * See {@link <a href="http://www.w3.org/Protocols/rfc2616/rfc2616-sec14.html#sec14.17">HTTP/1.1 documentation</a>}.
      */
     public static final String CONTENT_TYPE = "Content-Type";
+    /**
+     * See {@link <a href="http://www.w3.org/Protocols/rfc2616/rfc2616-sec14.html#sec14.16">HTTP/1.1 documentation</a>}.
+     */
+    public static final String CONTENT_RANGE = "Content-Range";
     /**
      * See {@link <a href="http://www.w3.org/Protocols/rfc2616/rfc2616-sec14.html#sec14.18">HTTP/1.1 documentation</a>}.
      */
@@ -101,6 +109,10 @@ public class Headers {
      * See {@link <a href="http://www.w3.org/Protocols/rfc2616/rfc2616-sec14.html#sec14.26">HTTP/1.1 documentation</a>}.
      */
     public static final String IF_NONE_MATCH = "If-None-Match";
+    /**
+     * See {@link <a href="http://www.w3.org/Protocols/rfc2616/rfc2616-sec14.html#sec14.27">HTTP/1.1 documentation</a>}.
+     */
+    public static final String IF_RANGE = "If-Range";
     /**
      * See {@link <a href="http://www.w3.org/Protocols/rfc2616/rfc2616-sec14.html#sec14.28">HTTP/1.1 documentation</a>}.
      */
@@ -117,6 +129,10 @@ public class Headers {
      * See {@link <a href="http://tools.ietf.org/html/rfc5988#page-6">Web Linking (IETF RFC-5988) documentation</a>}.
      */
     public static final String LINK = "Link";
+    /**
+     * See {@link <a href="http://www.w3.org/Protocols/rfc2616/rfc2616-sec14.html#sec14.35">HTTP/1.1 documentation</a>}.
+     */
+    public static final String RANGE = "Range";
     /**
      * See {@link <a href="http://www.w3.org/Protocols/rfc2616/rfc2616-sec14.html#sec14.37">HTTP/1.1 documentation</a>}.
      */
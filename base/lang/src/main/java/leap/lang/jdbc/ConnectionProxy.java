@@ -22,6 +22,11 @@ import java.sql.*;
 
 public abstract class ConnectionProxy extends ConnectionWrapper {
 
+    /**
+     * Indicates the argument of {@link #prepareStatement(String, int, int, int, int)} is not specified.
+     */
+    protected static final int NOT_SPECIFIED = -1;
+
     protected Exception                    stackTraceExceptionOnOpen;
     protected boolean                      statementStackTrace;
     protected static ThreadLocal<Boolean>  printThreadDump = ThreadLocal.withInitial(()->true);
@@ -78,12 +83,12 @@ public abstract class ConnectionProxy extends ConnectionWrapper {
 
     @Override
     public final PreparedStatement prepareStatement(String sql) throws SQLException {
-        return proxyOfPreparedStatement(conn.prepareStatement(sql), sql);
+        return proxyOfPreparedStatement(prepareStatement(sql, NOT_SPECIFIED, NOT_SPECIFIED, NOT_SPECIFIED, NOT_SPECIFIED), sql);
     }
 
     @Override
     public final PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
-        return proxyOfPreparedStatement(conn.prepareStatement(sql, autoGeneratedKeys), sql);
+        return proxyOfPreparedStatement(prepareStatement(sql, NOT_SPECIFIED, NOT_SPECIFIED, NOT_SPECIFIED, autoGeneratedKeys), sql);
     }
 
     @Override
@@ -98,12 +103,12 @@ public abstract class ConnectionProxy extends ConnectionWrapper {
 
     @Override
     public final PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
-        return proxyOfPreparedStatement(conn.prepareStatement(sql, resultSetType, resultSetConcurrency), sql);
+        return proxyOfPreparedStatement(prepareStatement(sql, resultSetType, resultSetConcurrency, NOT_SPECIFIED, NOT_SPECIFIED), sql);
     }
 
     @Override
     public final PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
-        return proxyOfPreparedStatement(conn.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability), sql);
+        return proxyOfPreparedStatement(prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability, NOT_SPECIFIED), sql);
     }
 
     @Override
@@ -121,6 +126,32 @@ public abstract class ConnectionProxy extends ConnectionWrapper {
         return proxyOfCallableStatement(conn.prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability), sql);
     }
 
+    /**
+     * Prepares the {@link PreparedStatement} by the wrapped connection.
+     *
+     * <p>
+     * The arguments not specified by the caller are {@link #NOT_SPECIFIED}.
+     *
+     * <p>
+     * The subclass can override this method to reuse the prepared statements.
+     */
+    protected PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency,
+                                                 int resultSetHoldability, int autoGeneratedKeys) throws SQLException {
+        if(autoGeneratedKeys != NOT_SPECIFIED) {
+            return conn.prepareStatement(sql, autoGeneratedKeys);
+        }
+
+        if(resultSetType == NOT_SPECIFIED) {
+            return conn.prepareStatement(sql);
+        }
+
+        if(resultSetHoldability == NOT_SPECIFIED) {
+            return conn.prepareStatement(sql, resultSetType, resultSetConcurrency);
+        }
+
+        return conn.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+    }
+
     /**
      * Test the type of the statement and return the proxy of it.
      */
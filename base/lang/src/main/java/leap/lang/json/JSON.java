@@ -17,6 +17,7 @@ package leap.lang.json;
 
 import java.io.Reader;
 import java.lang.reflect.Array;
+import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -156,7 +157,14 @@ public class JSON {
      * Parse the json string and converts the raw value to the target type.
      */
     public static <T> T decode(String json,Class<? extends T> targetType){
-        return Converts.convert(decoder.decode(json),targetType);
+        return (T)decoder.decode(json, targetType, null);
+    }
+
+    /**
+     * Parse the json string and binds the value to the target type directly, without building the raw value.
+     */
+    public static <T> T decode(String json, Class<? extends T> targetType, Type genericType){
+        return (T)decoder.decode(json, targetType, genericType);
     }
 
     /**
@@ -183,7 +191,14 @@ public class JSON {
      * Parse the json string and converts the raw value to the target type.
      */
     public static <T> T decode(Reader json,Class<? extends T> targetType){
-        return Converts.convert(decoder.decode(json),targetType);
+        return (T)decoder.decode(json, targetType, null);
+    }
+
+    /**
+     * Parse the json reader and binds the value to the target type directly, without building the raw value.
+     */
+    public static <T> T decode(Reader json, Class<? extends T> targetType, Type genericType){
+        return (T)decoder.decode(json, targetType, genericType);
     }
 
     /**
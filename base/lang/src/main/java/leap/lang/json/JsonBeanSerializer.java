@@ -0,0 +1,145 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.json;
+
+import leap.lang.beans.BeanProperty;
+import leap.lang.beans.BeanType;
+import leap.lang.naming.NamingStyle;
+import leap.lang.reflect.ReflectField;
+import leap.lang.time.DateFormats;
+
+import java.text.DateFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The compiled json serializer of a bean class, used by {@link JsonWriterImpl#bean(Object)}.
+ *
+ * <p>
+ * The serializable properties, the accessors and the annotations are resolved once per class,
+ * the encoded keys are resolved once per {@link NamingStyle} and key quoting of {@link JsonSettings}.
+ */
+final class JsonBeanSerializer {
+
+    private static final Map<Class<?>, JsonBeanSerializer> cache = new ConcurrentHashMap<>();
+
+    static JsonBeanSerializer of(Class<?> beanClass) {
+        JsonBeanSerializer serializer = cache.get(beanClass);
+        if(null == serializer) {
+            serializer = new JsonBeanSerializer(beanClass);
+            cache.put(beanClass, serializer);
+        }
+        return serializer;
+    }
+
+    private final Property[]                    properties;
+    private final Map<NamingStyle, Keys>        quotedKeys   = new ConcurrentHashMap<>(2);
+    private final Map<NamingStyle, Keys>        unquotedKeys = new ConcurrentHashMap<>(2);
+    private volatile Keys                       lastKeys;
+
+    private JsonBeanSerializer(Class<?> beanClass) {
+        BeanType       beanType = BeanType.of(beanClass);
+        List<Property> list     = new ArrayList<>();
+
+        for(BeanProperty bp : beanType.getProperties()) {
+            if(bp.isTransient()) {
+                continue;
+            }
+
+            if(!bp.isReadable() || !bp.isField()) {
+                continue;
+            }
+
+            JsonField jsonField = bp.getAnnotation(JsonField.class);
+
+            if(null == jsonField && bp.isAnnotationPresent(JsonIgnore.class)) {
+                continue;
+            }
+
+            list.add(new Property(bp, jsonField));
+        }
+
+        this.properties = list.toArray(new Property[list.size()]);
+    }
+
+    Property[] properties() {
+        return properties;
+    }
+
+    /**
+     * Returns the encoded keys (such as <code>"name":</code>) of the properties.
+     */
+    String[] keys(NamingStyle namingStyle, boolean quoted) {
+        Keys keys = lastKeys;
+        if(null != keys && keys.namingStyle == namingStyle && keys.quoted == quoted) {
+            return keys.values;
+        }
+
+        Map<NamingStyle, Keys> map = quoted ? quotedKeys : unquotedKeys;
+
+        keys = map.get(namingStyle);
+        if(null == keys) {
+            keys = new Keys(namingStyle, quoted, properties);
+            map.put(namingStyle, keys);
+        }
+
+        lastKeys = keys;
+        return keys.values;
+    }
+
+    static final class Property {
+        final BeanProperty bp;
+        final String       name;
+        final ReflectField field;
+        final boolean      useGetter;
+        final DateFormat   dateFormat;
+
+        Property(BeanProperty bp, JsonField jsonField) {
+            JsonName named = bp.getAnnotation(JsonName.class);
+            JsonFormat format = bp.getAnnotation(JsonFormat.class);
+
+            this.bp         = bp;
+            this.name       = null != named ? named.value() : bp.getName();
+            this.field      = bp.getReflectField();
+            this.useGetter  = null == jsonField || jsonField.useGetter();
+            this.dateFormat = null != format ? DateFormats.getFormat(format.value()) : null;
+        }
+
+        Object getValue(Object bean) {
+            return useGetter ? bp.getValue(bean) : field.getValue(bean, false);
+        }
+    }
+
+    private static final class Keys {
+        final NamingStyle namingStyle;
+        final boolean     quoted;
+        final String[]    values;
+
+        Keys(NamingStyle namingStyle, boolean quoted, Property[] properties) {
+            this.namingStyle = namingStyle;
+            this.quoted      = quoted;
+            this.values      = new String[properties.length];
+
+            for(int i=0;i<values.length;i++) {
+                String key = namingStyle.of(properties[i].name);
+                values[i] = quoted ? (JsonWriter.DOUBLE_QUOTE + key + JsonWriter.DOUBLE_QUOTE + JsonWriter.CLOSE_KEY) :
+                                     (key + JsonWriter.CLOSE_KEY);
+            }
+        }
+    }
+}
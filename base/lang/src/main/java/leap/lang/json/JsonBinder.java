@@ -0,0 +1,242 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.json;
+
+import leap.lang.Types;
+import leap.lang.annotation.Name;
+import leap.lang.beans.BeanProperty;
+import leap.lang.beans.BeanType;
+import leap.lang.convert.AbstractCollectionConverter;
+import leap.lang.convert.ArrayConverter;
+import leap.lang.convert.Converter;
+import leap.lang.convert.Converts;
+import leap.lang.reflect.ReflectClass;
+import leap.lang.serialize.Serialize;
+import leap.lang.serialize.Serializer;
+import leap.lang.serialize.Serializes;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Binds the json tokens to the target type directly, used by the parser to decode json without building the raw tree.
+ *
+ * <p>
+ * The result is the same as converting the raw value by {@link Converts#convert(Object, Class, Type)}.
+ * Only the beans, arrays and collections which are converted by the built-in converters are bound by tokens,
+ * the other types are parsed to the raw value and then converted.
+ */
+final class JsonBinder {
+
+    private static final BeanBinding                   NONE  = new BeanBinding();
+    private static final Map<Class<?>, BeanBinding>    beans = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the {@link BeanBinding} if the type is a bean converted from map by the bean converter,
+     * or returns <code>null</code>.
+     */
+    static BeanBinding bean(Class<?> type) {
+        if(null == type || type.isPrimitive() || type.isArray() || type.isEnum() || type.isInterface() ||
+                Object.class.equals(type) || Modifier.isAbstract(type.getModifiers())) {
+            return null;
+        }
+
+        if(Map.class.isAssignableFrom(type) || JsonParsable.class.isAssignableFrom(type)) {
+            return null;
+        }
+
+        if(null != Converts.findConverter(type) || null != Converts.findConverter(LinkedHashMap.class)) {
+            return null;
+        }
+
+        BeanBinding binding = beans.get(type);
+        if(null == binding) {
+            binding = BeanBinding.create(type);
+            beans.put(type, binding);
+        }
+
+        return binding == NONE ? null : binding;
+    }
+
+    /**
+     * Returns the element type if the type is an array or collection converted from list by the built-in converters,
+     * or returns <code>null</code>.
+     */
+    static Class<?> elementType(Class<?> type, Type genericType) {
+        if(null == type) {
+            return null;
+        }
+
+        Converter converter = Converts.findConverter(type);
+
+        if(converter instanceof ArrayConverter) {
+            return type.getComponentType();
+        }
+
+        if(converter instanceof AbstractCollectionConverter) {
+            return null == genericType ? Object.class : Types.getActualTypeArgument(genericType);
+        }
+
+        return null;
+    }
+
+    static final class BeanBinding {
+
+        private final ReflectClass            cls;
+        private final int                     size;
+        private final Map<String, Property[]> names;
+        private final Map<String, Property[]> lowerCaseNames;
+
+        private BeanBinding() {
+            this.cls            = null;
+            this.size           = 0;
+            this.names          = null;
+            this.lowerCaseNames = null;
+        }
+
+        private BeanBinding(ReflectClass cls, List<Property> props) {
+            this.cls            = cls;
+            this.size           = props.size();
+            this.names          = new HashMap<>();
+            this.lowerCaseNames = new HashMap<>();
+
+            for(Property p : props) {
+                for(String name : p.names) {
+                    add(names, name, p);
+                    add(lowerCaseNames, name.toLowerCase(Locale.ROOT), p);
+                }
+            }
+        }
+
+        static BeanBinding create(Class<?> type) {
+            BeanType bt;
+            try {
+                bt = BeanType.of(type);
+            }catch (RuntimeException e) {
+                return NONE;
+            }
+
+            if(!bt.getReflectClass().hasDefaultConstructor()) {
+                return NONE;
+            }
+
+            List<Property> props = new ArrayList<>();
+            for(BeanProperty bp : bt.getProperties()) {
+                if(bp.isWritable()) {
+                    props.add(new Property(props.size(), bp));
+                }
+            }
+
+            return new BeanBinding(bt.getReflectClass(), props);
+        }
+
+        /**
+         * Returns the number of writable properties.
+         */
+        int size() {
+            return size;
+        }
+
+        Object newInstance() {
+            return cls.newInstance();
+        }
+
+        /**
+         * Returns the properties matched the key (ignore case), or <code>null</code> if no matched property.
+         */
+        Property[] find(String key) {
+            Property[] props = names.get(key);
+            if(null == props) {
+                props = lowerCaseNames.get(key.toLowerCase(Locale.ROOT));
+            }
+            return props;
+        }
+
+        private static void add(Map<String, Property[]> map, String name, Property p) {
+            Property[] props = map.get(name);
+            if(null == props) {
+                map.put(name, new Property[]{p});
+            }else{
+                for(Property exists : props) {
+                    if(exists == p) {
+                        return;
+                    }
+                }
+                props = Arrays.copyOf(props, props.length + 1);
+                props[props.length - 1] = p;
+                map.put(name, props);
+            }
+        }
+    }
+
+    static final class Property {
+        final int          index;
+        final BeanProperty bp;
+        final Class<?>     type;
+        final Type         genericType;
+        final Serializer   serializer;
+        final String[]     names;
+
+        Property(int index, BeanProperty bp) {
+            this.index       = index;
+            this.bp          = bp;
+            this.type        = bp.getType();
+            this.genericType = bp.getGenericType();
+            this.serializer  = Serializes.getSerializer(bp.getAnnotation(Serialize.class));
+            this.names       = names(bp);
+        }
+
+        /**
+         * Returns <code>true</code> if the value must be parsed to raw value before converting.
+         */
+        boolean isRaw() {
+            return null != serializer;
+        }
+
+        /**
+         * Converts the raw value and sets it to the bean.
+         */
+        void setRaw(Object bean, Object raw) {
+            if(null != serializer && raw instanceof String) {
+                raw = serializer.tryDeserialize((String)raw);
+            }
+            bp.setValue(bean, Converts.convert(raw, type, genericType));
+        }
+
+        void setValue(Object bean, Object value) {
+            bp.setValue(bean, value);
+        }
+
+        private static String[] names(BeanProperty bp) {
+            for(Annotation a : bp.getAnnotations()) {
+                Name nameAnnotation = a.annotationType().getAnnotation(Name.class);
+
+                if(null != nameAnnotation) {
+                    String name = (String)ReflectClass.of(a.getClass()).getMethod(nameAnnotation.value()).invoke(a);
+                    return new String[]{name, bp.getName()};
+                }
+            }
+            return new String[]{bp.getName()};
+        }
+    }
+
+    private JsonBinder() {
+
+    }
+}
@@ -16,6 +16,7 @@
 package leap.lang.json;
 
 import java.io.Reader;
+import java.lang.reflect.Type;
 
 class JsonDecoder {
     
@@ -30,4 +31,12 @@ class JsonDecoder {
     public Object decode(Reader reader){
         return new JsonParser(JsonParser.MODE_PERMISSIVE).parse(reader);
     }
+
+    public Object decode(String string, Class<?> type, Type genericType){
+        return new JsonParser(JsonParser.MODE_PERMISSIVE).parse(string, type, genericType);
+    }
+
+    public Object decode(Reader reader, Class<?> type, Type genericType){
+        return new JsonParser(JsonParser.MODE_PERMISSIVE).parse(reader, type, genericType);
+    }
 }
\ No newline at end of file
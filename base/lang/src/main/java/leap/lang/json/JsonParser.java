@@ -17,6 +17,7 @@ package leap.lang.json;
  */
 import java.io.InputStream;
 import java.io.Reader;
+import java.lang.reflect.Type;
 
 class JsonParser {
 	/**
@@ -161,4 +162,40 @@ class JsonParser {
 			pSBintream = new JsonParserInputStream(mode);
 		return pSBintream.parse(in);
 	}
+
+	/**
+	 * Parses the json string and binds the tokens to the given type.
+	 */
+	public Object parse(String in, Class<?> type, Type genericType) throws JsonParserException {
+		if (pString == null)
+			pString = new JsonParserString(mode);
+		return pString.parse(in, type, genericType);
+	}
+
+	/**
+	 * Parses the json bytes and binds the tokens to the given type.
+	 */
+	public Object parse(byte[] in, Class<?> type, Type genericType) throws JsonParserException {
+		if (pBytes == null)
+			pBytes = new JsonParserByteArray(mode);
+		return pBytes.parse(in, type, genericType);
+	}
+
+	/**
+	 * Parses the json reader and binds the tokens to the given type.
+	 */
+	public Object parse(Reader in, Class<?> type, Type genericType) throws JsonParserException {
+		if (pStream == null)
+			pStream = new JsonParserReader(mode);
+		return pStream.parse(in, type, genericType);
+	}
+
+	/**
+	 * Parses the json input stream and binds the tokens to the given type.
+	 */
+	public Object parse(InputStream in, Class<?> type, Type genericType) throws JsonParserException {
+		if (pSBintream == null)
+			pSBintream = new JsonParserInputStream(mode);
+		return pSBintream.parse(in, type, genericType);
+	}
 }
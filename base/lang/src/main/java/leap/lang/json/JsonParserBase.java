@@ -23,6 +23,7 @@ import static leap.lang.json.JsonParserException.ERROR_UNEXPECTED_TOKEN;
 import static leap.lang.json.JsonParserException.ERROR_UNEXPECTED_UNICODE;
 
 import java.io.IOException;
+import java.lang.reflect.Type;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
@@ -30,6 +31,8 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import leap.lang.convert.Converts;
+
 /**
  * JSONParserBase is the common code between {@link JsonParserString} and
  * {@link JsonParserReader}
@@ -144,11 +147,23 @@ abstract class JsonParserBase {
 	 * generated by a ContainerFactory
 	 */
 	public Object parse() throws JsonParserException {
+		return parse(null, null);
+	}
+
+	/**
+	 * Parses the json and binds the tokens to the given type directly.
+	 *
+	 * <p>
+	 * Returns the raw value if the type is <code>null</code>.
+	 *
+	 * @see JsonBinder
+	 */
+	public Object parse(Class<?> type, Type genericType) throws JsonParserException {
 		this.pos = -1;
 		Object result;
 		try {
 			read();
-			result = readMain(stopX);
+			result = null == type ? readMain(stopX) : readValue(stopX, type, genericType);
 			if (checkTaillingData) {
 				skipSpace();
 				if (c != EOI)
@@ -446,6 +461,172 @@ abstract class JsonParserBase {
 		}
 	}
 
+	/**
+	 * Reads the value and binds it to the given type.
+	 */
+	protected Object readValue(boolean stop[], Class<?> type, Type genericType) throws JsonParserException, IOException {
+		for (;;) {
+			switch (c) {
+			case ' ':
+			case '\r':
+			case '\n':
+			case '\t':
+				read();
+				continue;
+			case '{':
+				JsonBinder.BeanBinding binding = JsonBinder.bean(type);
+				if (null != binding)
+					return readBean(binding);
+				break;
+			case '[':
+				Class<?> elementType = JsonBinder.elementType(type, genericType);
+				if (null != elementType)
+					return Converts.convert(readArray(elementType), type, genericType);
+				break;
+			default:
+				break;
+			}
+			return Converts.convert(readMain(stop), type, genericType);
+		}
+	}
+
+	/**
+	 * Reads the array and binds the elements to the element type.
+	 */
+	protected List<Object> readArray(Class<?> elementType) throws JsonParserException, IOException {
+		List<Object> obj = new ArrayList<Object>();
+		read();
+		boolean needData = false;
+		for (;;) {
+			switch (c) {
+			case ' ':
+			case '\r':
+			case '\n':
+			case '\t':
+				read();
+				continue;
+			case ']':
+				if (needData && !acceptUselessComma)
+					throw new JsonParserException(pos, ERROR_UNEXPECTED_CHAR, (char) c);
+				read(); /* unstack */
+				return obj;
+			case ':':
+			case '}':
+				throw new JsonParserException(pos, ERROR_UNEXPECTED_CHAR, (char) c);
+			case ',':
+				if (needData && !acceptUselessComma)
+					throw new JsonParserException(pos, ERROR_UNEXPECTED_CHAR, (char) c);
+				read();
+				needData = true;
+				continue;
+			case EOI:
+				throw new JsonParserException(pos - 1, ERROR_UNEXPECTED_EOF, "EOF");
+			default:
+				obj.add(readValue(stopArray, elementType, null));
+				needData = false;
+				continue;
+			}
+		}
+	}
+
+	/**
+	 * Reads the object and binds the values to the properties of a new bean.
+	 *
+	 * <p>
+	 * The first key matches the property (ignore case) wins, the other keys are parsed and ignored.
+	 * If the winning key occurs more than once, the last value wins, the same as converting the parsed map.
+	 */
+	protected Object readBean(JsonBinder.BeanBinding binding) throws JsonParserException, IOException {
+		Object    bean     = binding.newInstance();
+		String[]  assigned = new String[binding.size()];
+
+		boolean needData = false;
+		boolean acceptData = true;
+		for (;;) {
+			read();
+			switch (c) {
+			case ' ':
+			case '\r':
+			case '\t':
+			case '\n':
+				continue;
+			case ':':
+			case ']':
+			case '[':
+			case '{':
+				throw new JsonParserException(pos, ERROR_UNEXPECTED_CHAR, c);
+			case '}':
+				if (needData && !acceptUselessComma)
+					throw new JsonParserException(pos, ERROR_UNEXPECTED_CHAR, (char) c);
+				read(); /* unstack */
+				return bean;
+			case ',':
+				if (needData && !acceptUselessComma)
+					throw new JsonParserException(pos, ERROR_UNEXPECTED_CHAR, (char) c);
+				acceptData = needData = true;
+				continue;
+			case '"':
+			case '\'':
+			default:
+				if (c == '\"' || c == '\'') {
+					readString();
+				} else {
+					readNQString(stopKey);
+					if (!acceptNonQuote)
+						throw new JsonParserException(pos, ERROR_UNEXPECTED_TOKEN, xs);
+				}
+				String key = xs;
+				if (!acceptData)
+					throw new JsonParserException(pos, ERROR_UNEXPECTED_TOKEN, key);
+				while (c != ':' && c != EOI) {
+					read();
+				}
+				if (c == EOI)
+					throw new JsonParserException(pos - 1, ERROR_UNEXPECTED_EOF, null);
+				readNoEnd(); /* skip : */
+				readProperty(bean, key, binding.find(key), assigned);
+				if (c == '}') {
+					read(); /* unstack */
+					return bean;
+				}
+				if (c == EOI)
+					throw new JsonParserException(pos - 1, ERROR_UNEXPECTED_EOF, null);
+				// if c==, continue
+				if (c == ',')
+					acceptData = needData = true;
+				else
+					acceptData = needData = false;
+				continue;
+			}
+		}
+	}
+
+	private void readProperty(Object bean, String key, JsonBinder.Property[] props, String[] assigned) throws JsonParserException, IOException {
+		if (null == props) {
+			readMain(stopValue);
+			return;
+		}
+
+		if (props.length == 1 && !props[0].isRaw()) {
+			JsonBinder.Property p = props[0];
+			if (null != assigned[p.index] && !assigned[p.index].equals(key)) {
+				readMain(stopValue);
+			} else {
+				assigned[p.index] = key;
+				p.setValue(bean, readValue(stopValue, p.type, p.genericType));
+			}
+			return;
+		}
+
+		Object raw = readMain(stopValue);
+		for (JsonBinder.Property p : props) {
+			if (null == assigned[p.index] || assigned[p.index].equals(key)) {
+				assigned[p.index] = key;
+				p.setRaw(bean, raw);
+			}
+		}
+	}
+
 	/**
 	 * store and read
 	 */
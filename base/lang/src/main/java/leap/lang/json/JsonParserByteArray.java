@@ -17,6 +17,8 @@ package leap.lang.json;
  */
 import static leap.lang.json.JsonParserException.ERROR_UNEXPECTED_EOF;
 
+import java.lang.reflect.Type;
+
 /**
  * Parser for JSON text. Please note that JSONParser is NOT thread-safe.
  * 
@@ -39,6 +41,15 @@ class JsonParserByteArray extends JsonParserMemory {
 		return parse();
 	}
 
+	/**
+	 * Parses the json and binds the tokens to the given type.
+	 */
+	public Object parse(byte[] in, Class<?> type, Type genericType) throws JsonParserException {
+		this.in = in;
+		this.len = in.length;
+		return parse(type, genericType);
+	}
+
 	protected void extractString(int beginIndex, int endIndex) {
 		xs = new String(in, beginIndex, endIndex - beginIndex);
 	}
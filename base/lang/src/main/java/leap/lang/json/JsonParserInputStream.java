@@ -19,6 +19,7 @@ import static leap.lang.json.JsonParserException.ERROR_UNEXPECTED_EOF;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.Type;
 
 /**
  * Parser for JSON text. Please note that JSONParser is NOT thread-safe.
@@ -44,6 +45,14 @@ class JsonParserInputStream extends JsonParserStream {
 		return super.parse();
 	}
 
+	/**
+	 * Parses the json and binds the tokens to the given type.
+	 */
+	public Object parse(InputStream in, Class<?> type, Type genericType) throws JsonParserException {
+		this.in = in;
+		return parse(type, genericType);
+	}
+
 	protected void read() throws IOException {
 		int i = in.read();
 		c = (i == -1) ? (char) EOI : (char) i;
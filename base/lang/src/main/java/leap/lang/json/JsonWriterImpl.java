@@ -18,7 +18,6 @@ package leap.lang.json;
 
 import leap.lang.*;
 import leap.lang.beans.BeanProperty;
-import leap.lang.beans.BeanType;
 import leap.lang.codec.Base64;
 import leap.lang.naming.NamingStyle;
 import leap.lang.time.DateFormats;
@@ -650,6 +649,18 @@ public class JsonWriterImpl implements JsonWriter {
         return this;
     }
 	
+    /**
+     * Writes the key already quoted and ends with {@link #CLOSE_KEY}.
+     */
+    private void encodedKey(String key) throws IOException {
+        if(startProperty){
+            startProperty = false;
+        }else{
+            out.append(COMMA_CHAR);
+        }
+        out.append(key);
+    }
+
 	@Override
     public JsonWriter keyUseNamingStyle(String key) {
 	    return key(getNamingStyle().of(key));
@@ -833,49 +844,29 @@ public class JsonWriterImpl implements JsonWriter {
             startObject();
 
             try {
-                BeanType beanType = BeanType.of(bean.getClass());
+                JsonBeanSerializer serializer = JsonBeanSerializer.of(bean.getClass());
+                JsonBeanSerializer.Property[] props = serializer.properties();
+                String[] keys = serializer.keys(getNamingStyle(), isKeyQuoted());
 
-                for(BeanProperty prop : beanType.getProperties()){
-                    if(prop.isTransient()){
+                for(int i=0;i<props.length;i++){
+                    JsonBeanSerializer.Property prop = props[i];
+
+                    Object propValue = prop.getValue(bean);
+
+                    if(null == propValue && isIgnoreNull()){
                         continue;
                     }
 
-                    if(!prop.isReadable() || !prop.isField()){
+                    if(isIgnoreEmptyString() && Strings.isNullOrBlank(propValue)){
                         continue;
                     }
 
-                    JsonField jsonField = prop.getAnnotation(JsonField.class);
-
-                    if(null != jsonField || !prop.isAnnotationPresent(JsonIgnore.class)){
-                        String propName = prop.getName();
-
-                        JsonName named = prop.getAnnotation(JsonName.class);
-						
-                        if(null != named){
-                            propName = named.value();
-                        }
-
-						Object propValue;
-                        
-                        if(jsonField != null && jsonField.useGetter() == false){
-							propValue = prop.getReflectField().getValue(bean,false);
-						}else{
-							propValue = prop.getValue(bean);
-						}
-
-                        if(null == propValue && isIgnoreNull()){
-                            continue;
-                        }
-
-                        if(isIgnoreEmptyString() && Strings.isNullOrBlank(propValue)){
-                            continue;
-                        }
-
-                        keyUseNamingStyle(propName);
+                    encodedKey(keys[i]);
 
-                        if(!writeDateValue(prop, propValue)) {
-                            value(propValue);
-                        }
+                    if(propValue instanceof Date && null != prop.dateFormat) {
+                        value(prop.dateFormat.format((Date)propValue));
+                    }else{
+                        value(propValue);
                     }
                 }
             } catch (JsonException e){
@@ -889,6 +880,12 @@ public class JsonWriterImpl implements JsonWriter {
 
     }
 
+    /**
+     * Writes the date value with the {@link JsonFormat} of the bean property.
+     *
+     * @deprecated the bean properties are written by {@link JsonBeanSerializer}, this method is not called by the writer.
+     */
+    @Deprecated
     protected boolean writeDateValue(BeanProperty bp, Object value) {
 
         if(value instanceof Date) {
@@ -21,6 +21,8 @@ import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -58,8 +60,15 @@ public class AntPathMatcher implements PathMatcher {
 	/** Default path separator: "/" */
 	public static final String DEFAULT_PATH_SEPARATOR = "/";
 
+	/** The max number of cached segment matchers, the cache will be turned off if exceeded. */
+	private static final int CACHE_TURNOFF_THRESHOLD = 65536;
+
 	private String pathSeparator = DEFAULT_PATH_SEPARATOR;
 
+	private final ConcurrentMap<String, AntPathStringMatcher> stringMatcherCache = new ConcurrentHashMap<>(256);
+
+	private volatile boolean cachePatterns = true;
+
 	/** Set the path separator to use for pattern parsing. Default is "/", as in Ant. */
 	public void setPathSeparator(String pathSeparator) {
 		this.pathSeparator = (pathSeparator != null ? pathSeparator : DEFAULT_PATH_SEPARATOR);
@@ -220,8 +229,31 @@ public class AntPathMatcher implements PathMatcher {
 	 * @return <code>true</code> if the string matches against the pattern, or <code>false</code> otherwise.
 	 */
 	private boolean matchStrings(String pattern, String str, Map<String, String> uriTemplateVariables) {
-		AntPathStringMatcher matcher = new AntPathStringMatcher(pattern, str, uriTemplateVariables);
-		return matcher.matchStrings();
+		return getStringMatcher(pattern).matchStrings(str, uriTemplateVariables);
+	}
+
+	/**
+	 * Returns the compiled matcher of the pattern segment.
+	 *
+	 * <p>The compiled matchers are cached until the number of distinct segments exceeds {@link #CACHE_TURNOFF_THRESHOLD},
+	 * that means the patterns are dynamic and the cache will not be hit in most cases.
+	 */
+	private AntPathStringMatcher getStringMatcher(String pattern) {
+		if (!cachePatterns) {
+			return new AntPathStringMatcher(pattern);
+		}
+
+		AntPathStringMatcher matcher = stringMatcherCache.get(pattern);
+		if (matcher == null) {
+			matcher = new AntPathStringMatcher(pattern);
+			if (stringMatcherCache.size() >= CACHE_TURNOFF_THRESHOLD) {
+				cachePatterns = false;
+				stringMatcherCache.clear();
+				return matcher;
+			}
+			stringMatcherCache.put(pattern, matcher);
+		}
+		return matcher;
 	}
 
 	/**
@@ -474,17 +506,14 @@ public class AntPathMatcher implements PathMatcher {
 
 		private final Pattern pattern;
 
-		private String str;
+		private final String literal;
 
 		private final List<String> variableNames = new LinkedList<String>();
 
-		private final Map<String, String> uriTemplateVariables;
-
 		/** Construct a new instance of the <code>AntPatchStringMatcher</code>. */
-		AntPathStringMatcher(String pattern, String str, Map<String, String> uriTemplateVariables) {
-			this.str = str;
-			this.uriTemplateVariables = uriTemplateVariables;
+		AntPathStringMatcher(String pattern) {
 			this.pattern = createPattern(pattern);
+			this.literal = this.pattern == null ? pattern : null;
 		}
 
 		private Pattern createPattern(String pattern) {
@@ -517,6 +546,10 @@ public class AntPathMatcher implements PathMatcher {
 				}
 				end = m.end();
 			}
+			if (end == 0) {
+				//No glob characters, matches the string by equality.
+				return null;
+			}
 			patternBuilder.append(quote(pattern, end, pattern.length()));
 			return Pattern.compile(patternBuilder.toString());
 		}
@@ -533,7 +566,11 @@ public class AntPathMatcher implements PathMatcher {
 		 *
 		 * @return <code>true</code> if the string matches against the pattern, or <code>false</code> otherwise.
 		 */
-		public boolean matchStrings() {
+		public boolean matchStrings(String str, Map<String, String> uriTemplateVariables) {
+			if (literal != null) {
+				return literal.equals(str);
+			}
+
 			Matcher matcher = pattern.matcher(str);
 			if (matcher.matches()) {
 				if (uriTemplateVariables != null) {
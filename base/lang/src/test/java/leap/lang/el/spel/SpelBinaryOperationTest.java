@@ -35,6 +35,13 @@ public class SpelBinaryOperationTest extends SpelTestCase {
 		assertEquals(new Long(0), eval("a + b"));
 	}
 	
+	@Test
+	public void testNumberEq() {
+		assertEquals(Boolean.TRUE,eval("1000 == 1000"));
+		assertEquals(Boolean.TRUE,eval("1 == 1.0"));
+		assertEquals(Boolean.FALSE,eval("1000 != 1000L"));
+	}
+	
 	@Test
 	public void testCharEq() {
 		Map<String, Object> vars = New.hashMap("c",new Character('s'));
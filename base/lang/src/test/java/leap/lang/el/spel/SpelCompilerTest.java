@@ -0,0 +1,217 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.el.spel;
+
+import leap.lang.el.DefaultElEvalContext;
+import leap.lang.el.ElException;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class SpelCompilerTest extends SpelTestCase {
+
+	@Test
+	public void testLiteralOperations() {
+		assertCompiled("1 + 2");
+		assertCompiled("1 + 2L");
+		assertCompiled("1 + 2.5");
+		assertCompiled("7 - 2 * 3");
+		assertCompiled("7 / 2");
+		assertCompiled("7 % 3");
+		assertCompiled("-(3 + 4)");
+		assertCompiled("1 > 2");
+		assertCompiled("1 >= 1.0");
+		assertCompiled("2 < 3L");
+		assertCompiled("2 <= 1");
+		assertCompiled("1 == 1");
+		assertCompiled("1 != 1.0");
+		assertCompiled("true == false");
+		assertCompiled("!true || 1 < 2");
+		assertCompiled("1 > 2 ? 'a' : 'b'");
+		assertCompiled("1 < 2 ? 1 : 2.0");
+		assertCompiled("'a' + 'b'");
+		assertCompiled("null == null");
+		assertCompiled("null > 1");
+	}
+
+	@Test
+	public void testBeanProperties() {
+		Bean bean = new Bean();
+		Map<String, Object> vars = vars(bean);
+
+		assertCompiled("bean.num + 1", vars);
+		assertCompiled("bean.num * bean.price", vars);
+		assertCompiled("bean.name", vars);
+		assertCompiled("bean.name == 'x'", vars);
+		assertCompiled("bean.ok && bean.num > 5", vars);
+		assertCompiled("bean.child.name", vars);
+		assertCompiled("bean.sayHello('world')", vars);
+		assertCompiled("bean.sayHello(bean.name)", vars);
+		assertCompiled("bean.none.name", vars);
+	}
+
+	@Test
+	public void testInlineCacheMiss() {
+		SpelExpression expr = compile("bean.name + bean.sayHello('x')", vars(new Bean()));
+
+		//another class with the same property and method
+		assertEquals("y" + "hello x!", expr.eval(new DefaultElEvalContext(vars(new OtherBean()))));
+		assertTrue(expr.isCompiled());
+	}
+
+	@Test
+	public void testDeoptimize() {
+		SpelExpression expr = compile("bean.num + 1", vars(new Bean()));
+		assertEquals(11L, expr.eval(new DefaultElEvalContext(vars(new Bean()))));
+
+		//the property 'num' of OtherBean is not an int.
+		assertEquals(2.5, expr.eval(new DefaultElEvalContext(vars(new OtherBean()))));
+		assertFalse(expr.isCompiled());
+		assertEquals(11L, expr.eval(new DefaultElEvalContext(vars(new Bean()))));
+	}
+
+	@Test
+	public void testDeoptimizeAfterMethodInvoked() {
+		SpelExpression expr = compile("bean.count() > 0 && bean.num > 5", vars(new Bean()));
+
+		//the property 'num' is evaluated after invoking the method, so it never deoptimizes.
+		OtherBean other = new OtherBean();
+		assertEquals(Boolean.FALSE, expr.eval(new DefaultElEvalContext(vars(other))));
+		assertEquals(1, other.calls);
+		assertTrue(expr.isCompiled());
+	}
+
+	@Test
+	public void testNullOwnerOfPrimitive() {
+		String         s    = "bean.child.num + 1";
+		SpelExpression expr = compile(s, vars(new Bean()));
+
+		Map<String, Object> vars = vars(new NoChildBean());
+		assertEquals(SPEL.createExpression(s).eval(new DefaultElEvalContext(vars)), expr.eval(new DefaultElEvalContext(vars)));
+
+		//the null value does not deoptimize the compiled expression.
+		assertTrue(expr.isCompiled());
+		assertEquals(11L, expr.eval(new DefaultElEvalContext(vars(new Bean()))));
+	}
+
+	@Test
+	public void testErrors() {
+		SpelExpression expr = compile("bean.error", vars(new Bean()));
+		try {
+			expr.eval(new DefaultElEvalContext(vars(new Bean())));
+			fail();
+		}catch(ElException e) {
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+	}
+
+	protected static Map<String, Object> vars(Object bean) {
+		Map<String, Object> vars = new HashMap<>();
+		vars.put("bean", bean);
+		return vars;
+	}
+
+	protected static SpelExpression compile(String s, Map<String, Object> vars) {
+		SpelExpression expr = SPEL.createExpression(s);
+		try {
+			expr.eval(new DefaultElEvalContext(vars));
+		}catch(ElException e) {
+			//resolved.
+		}
+		assertTrue(expr.compile());
+		return expr;
+	}
+
+	protected static void assertCompiled(String s) {
+		assertCompiled(s, new HashMap<>());
+	}
+
+	protected static void assertCompiled(String s, Map<String, Object> vars) {
+		Object expected = SPEL.createExpression(s).eval(new DefaultElEvalContext(vars));
+		Object actual   = compile(s, vars).eval(new DefaultElEvalContext(vars));
+
+		assertEquals(s, expected, actual);
+		if(null != expected) {
+			assertEquals(s, expected.getClass(), actual.getClass());
+		}
+	}
+
+	public static class Bean {
+		public int getNum() {
+			return 10;
+		}
+
+		public double getPrice() {
+			return 2.5;
+		}
+
+		public String getName() {
+			return "x";
+		}
+
+		public boolean isOk() {
+			return true;
+		}
+
+		public Bean getChild() {
+			return new Bean();
+		}
+
+		public Bean getNone() {
+			return null;
+		}
+
+		public String getError() {
+			throw new IllegalStateException("error");
+		}
+
+		public String sayHello(String who) {
+			return "hello " + who;
+		}
+
+		public int count() {
+			return 1;
+		}
+	}
+
+	public static class NoChildBean extends Bean {
+		@Override
+		public Bean getChild() {
+			return null;
+		}
+	}
+
+	public static class OtherBean {
+		public double getNum() {
+			return 1.5;
+		}
+
+		public String getName() {
+			return "y";
+		}
+
+		public String sayHello(String who) {
+			return "hello " + who + "!";
+		}
+
+		int calls;
+
+		public int count() {
+			return ++calls;
+		}
+	}
+}
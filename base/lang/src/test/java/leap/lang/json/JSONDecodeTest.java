@@ -205,6 +205,53 @@ public class JSONDecodeTest extends ConcurrentTestCase {
         assertTrue(map.containsKey("boolTrue"));
     }
     
+    @Test
+    public void testDecodeBindBean() throws Exception {
+        String json = "{\"AGE\":\" 10 \",\"age\":20,\"id\":100,\"scores\":[1,\"2\",3]," +
+                      "\"names\":[\"a\",\"b\",\"a\"],\"beans\":[{\"name\":\"b1\"},{\"name\":\"b2\"}]," +
+                      "\"attrs\":{\"x\":1,\"y\":[true]},\"Name\":\"n1\",\"unknown\":{\"a\":[1,{}]},\"flag\":\"true\"}";
+
+        NestedBean bound     = JSON.decode(json, NestedBean.class);
+        NestedBean converted = Converts.convert(JSON.decode(json), NestedBean.class);
+
+        for(NestedBean bean : new NestedBean[]{bound, converted}) {
+            assertEquals(10, bean.age);
+            assertEquals(Long.valueOf(100), bean.id);
+            assertArrayEquals(new int[]{1,2,3}, bean.scores);
+            assertEquals(2, bean.names.size());
+            assertEquals(2, bean.beans.size());
+            assertEquals("b2", bean.beans.get(1).name);
+            assertEquals(1, bean.attrs.get("x"));
+            assertEquals("n1", bean.name);
+            assertTrue(bean.flag);
+        }
+
+        List<NestedBean> list = JSON.decode("[" + json + "," + json + "]", List.class,
+                                            NestedBean.class.getDeclaredField("list").getGenericType());
+        assertEquals(2, list.size());
+        assertEquals("b1", list.get(1).beans.get(0).name);
+
+        NestedBean[] array = JSON.decode(new java.io.StringReader("[" + json + "]"), NestedBean[].class);
+        assertEquals(1, array.length);
+        assertEquals(10, array[0].age);
+
+        assertNull(JSON.decode("null", NestedBean.class));
+        assertEquals(Integer.valueOf(1), JSON.decode("\"1\"", Integer.class));
+    }
+
+    @Test
+    public void testDecodeBindBeanDuplicateKeys() throws Exception {
+        String json = "{\"age\":1,\"AGE\":2,\"age\":3,\"name\":\"a\",\"name\":\"b\"}";
+
+        NestedBean bound     = JSON.decode(json, NestedBean.class);
+        NestedBean converted = Converts.convert(JSON.decode(json), NestedBean.class);
+
+        for(NestedBean bean : new NestedBean[]{bound, converted}) {
+            assertEquals(3, bean.age);
+            assertEquals("b", bean.name);
+        }
+    }
+
     private static  class JsonWriterBean{
         public String str = "str";
         public String strEmpty = "";
@@ -218,6 +265,18 @@ public class JSONDecodeTest extends ConcurrentTestCase {
     	public String name = UUID.randomUUID().toString();
     }
     
+    private static class NestedBean {
+        public int                 age;
+        public Long                id;
+        public int[]               scores;
+        public java.util.Set<String> names;
+        public List<Bean>          beans;
+        public Map<String, Object> attrs;
+        public String              name;
+        public boolean             flag;
+        public List<NestedBean>    list;
+    }
+
     private static class Bean1 {
     	@JsonName("Name")
     	public String name;
@@ -164,6 +164,26 @@ public class JSONEncodeTest extends ConcurrentTestCase {
 		assertEquals(json, encodeUpperCamelStyle(new NamingStyleBean("1","xx")));
 	}
 	
+	@Test
+	public void testSameBeanWithDifferentSettings() throws Exception {
+		NamingStyleBean bean = new NamingStyleBean("1","xx");
+
+		for(int i=0;i<2;i++) {
+			assertEquals("{\"userId\":\"1\",\"userName\":\"xx\"}", encode(bean));
+			assertEquals("{userId:\"1\",userName:\"xx\"}", encodeNonKeyQuoted(bean));
+			assertEquals("{\"user_id\":\"1\",\"user_name\":\"xx\"}", encodeUpperCamelStyle(bean));
+		}
+	}
+
+	@Test
+	public void testFormatDateBean() throws Exception {
+		FormatDateBean bean = new FormatDateBean();
+		bean.date = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").parse("2010-11-01 10:10:10");
+		bean.time = bean.date;
+
+		assertEquals("{\"date\":\"2010-11-01\",\"time\":" + bean.time.getTime() + "}", encode(bean));
+	}
+
 	private static String encode(Object value){
 		return JSON.encode(value);
 	}
@@ -180,6 +200,12 @@ public class JSONEncodeTest extends ConcurrentTestCase {
 		BLUE;
 	}
 	
+	static final class FormatDateBean {
+		@JsonFormat("yyyy-MM-dd")
+		public Date date;
+		public Date time;
+	}
+
 	static class DateBean{
 		private Date  date ;
 
@@ -337,6 +337,24 @@ public interface DbDialect {
 	 */
 	PreparedStatement createPreparedStatement(Connection connection,String sql, int autoGeneratedKeys) throws SQLException;
 	
+	/**
+	 * Returns the fetch size of a query statement which reads the rows one by one (streaming).
+	 * 
+	 * <p>
+	 * Returns <code>0</code> if the default fetch size of the jdbc driver should be used.
+	 * 
+	 * @see Statement#setFetchSize(int)
+	 */
+	int getStreamingFetchSize();
+
+	/**
+	 * Returns <code>true</code> if the jdbc driver ignores the streaming fetch size while the connection is in auto commit mode,
+	 * i.e. the driver of PostgreSQL, so the streaming query must be executed with auto commit disabled.
+	 */
+	default boolean isStreamingRequiresNoAutoCommit() {
+		return false;
+	}
+	
 	/**
 	 * Returns a {@link String} as the page query sql for the underlying db.
 	 * 
@@ -345,6 +363,17 @@ public interface DbDialect {
 	 */
 	String getLimitQuerySql(DbLimitQuery query);
 	
+	/**
+	 * Returns a sql for reading the estimated row count of the given table from the statistics of the underlying db.
+	 * 
+	 * <p>
+	 * The sql has no parameters and returns a single numeric value (may be <code>null</code> if the table was never analyzed).
+	 * 
+	 * <p>
+	 * Returns <code>null</code> if the underlying db does not support row count estimation.
+	 */
+	String getRowCountEstimateSql(DbSchemaObjectName table);
+	
 	/**
 	 * Adds the given order by expression to a sql without order by <strong>simply</strong>.
 	 * 
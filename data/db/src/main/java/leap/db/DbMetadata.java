@@ -84,6 +84,27 @@ public interface DbMetadata {
 	 * @see DatabaseMetaData#supportsAlterTableWithDropColumn()
 	 */
 	boolean supportsAlterTableWithDropColumn();
+
+	/**
+	 * @see DatabaseMetaData#nullsAreSortedHigh()
+	 */
+	default boolean nullsAreSortedHigh() {
+		return false;
+	}
+
+	/**
+	 * @see DatabaseMetaData#nullsAreSortedAtStart()
+	 */
+	default boolean nullsAreSortedAtStart() {
+		return false;
+	}
+
+	/**
+	 * @see DatabaseMetaData#nullsAreSortedAtEnd()
+	 */
+	default boolean nullsAreSortedAtEnd() {
+		return false;
+	}
 	
 	/**
 	 * Returns <code>true</code> if current jdbc driver supports JDBC 3.0 getParameterType.
@@ -23,6 +23,7 @@ import leap.lang.logging.LogFactory;
 import leap.lang.logging.StackTraceStringBuilder;
 
 import javax.sql.DataSource;
+import java.lang.ref.WeakReference;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.SQLTimeoutException;
@@ -30,8 +31,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.locks.AbstractQueuedLongSynchronizer;
+import java.util.concurrent.atomic.LongAdder;
 
 import static leap.db.cp.PooledConnection.*;
 
@@ -39,6 +39,9 @@ class Pool {
 	private static final Log log = LogFactory.get(Pool.class);
 	
 	private static final AtomicInteger poolCounter = new AtomicInteger();
+
+	private static final long HANDOFF_TIMEOUT_MICROS = 100;
+	private static final long WAIT_SLICE_MS          = 10;
 	
 	private final PoolFactory                 factory;
 	private final PoolConfig                  config;
@@ -48,6 +51,8 @@ class Pool {
 	private final int                         defaultTransactionIsolationLevel;
 	private final SyncPool                    syncPool;
 	private final ScheduledThreadPoolExecutor scheduledExecutor;
+	private final LongAdder                   statementCacheHits   = new LongAdder();
+	private final LongAdder                   statementCacheMisses = new LongAdder();
 	
 	private volatile String  name;
 	private volatile boolean closed = false;
@@ -131,8 +136,14 @@ class Pool {
 			PooledConnection conn = syncPool.borrowConnection(maxWait);
 			if(null != conn) {
 				log.trace("[{}] A connection was borrowed from pool, setup and return.", getName());
-				
-				setupConnectionOnBorrow(conn);
+
+				try{
+					setupConnectionOnBorrow(conn);
+				}catch(SQLException | RuntimeException e) {
+					//Gives the connection back, or it will be never borrowed again.
+					syncPool.updateToIdleState(conn, STATE_BUSY);
+					throw e;
+				}
 				
 				return conn;
 			}
@@ -149,6 +160,50 @@ class Pool {
 		return closed;
 	}
 
+	/**
+	 * Returns the number of borrowed connections.
+	 */
+	public int getActiveCount() {
+		return syncPool.getActiveCount();
+	}
+
+	/**
+	 * Returns the approximate number of idle connections.
+	 */
+	public int getIdleCount() {
+		return syncPool.getIdleCount();
+	}
+
+	/**
+	 * Returns the number of prepared statements reused from the statement cache.
+	 */
+	public long getStatementCacheHits() {
+		return statementCacheHits.sum();
+	}
+
+	/**
+	 * Returns the number of cacheable prepared statements not found in the statement cache.
+	 */
+	public long getStatementCacheMisses() {
+		return statementCacheMisses.sum();
+	}
+
+	void statementCacheHit() {
+		statementCacheHits.increment();
+	}
+
+	void statementCacheMiss() {
+		statementCacheMisses.increment();
+	}
+
+	void realConnectionOpened() {
+		syncPool.realConnectionOpened();
+	}
+
+	void realConnectionClosed() {
+		syncPool.realConnectionClosed();
+	}
+
 	/**
 	 * Close this pool, release all the underlying resources.
 	 */
@@ -337,110 +392,142 @@ class Pool {
 
     /**
      * The underlying pool holds all the created connections and sync state.
+     *
+     * <p>
+     * A connection is borrowed from (in order) :
+     * <ol>
+     *     <li>The connection last used by the current thread.</li>
+     *     <li>The idle stack, the last returned connection is borrowed first.</li>
+     *     <li>The connection handed off by the returning thread while waiting.</li>
+     * </ol>
+     *
+     * <p>
+     * The returning thread never spins, it offers the connection to the waiting threads for a moment only,
+     * and the waiting threads check the idle stack again periodically.
+     *
+     * <p>
+     * The state of the {@link PooledConnection} is the only truth, the idle stack may contains the connections
+     * which were borrowed by the thread affinity, such connections are skipped and removed when polled.
      */
 	final class SyncPool {
 		
-		private final CopyOnWriteArrayList<PooledConnection> list;
-		private final AbstractQueuedLongSynchronizer         synchronizer;
-		private final AtomicLong 							 syncState;
+		private final CopyOnWriteArrayList<PooledConnection>     list;
+		private final ConcurrentLinkedDeque<PooledConnection>    idles;
+		private final SynchronousQueue<PooledConnection>         handoff;
+		private final ThreadLocal<WeakReference<PooledConnection>> lastUsed;
+		private final AtomicInteger                              waiters;
+		private final AtomicInteger                              busyCount;
+		private final AtomicInteger                              realCount;
 
 		SyncPool() {
-			this.list 		  = new CopyOnWriteArrayList<>();
-			this.synchronizer = new Synchronizer();
-			this.syncState    = new AtomicLong(1); 
+			this.list 	   = new CopyOnWriteArrayList<>();
+			this.idles     = new ConcurrentLinkedDeque<>();
+			this.handoff   = new SynchronousQueue<>(true);
+			this.lastUsed  = new ThreadLocal<>();
+			this.waiters   = new AtomicInteger();
+			this.busyCount = new AtomicInteger();
+			this.realCount = new AtomicInteger();
 			this.init();
 		}
 		
 		List<PooledConnection> connections() {
 			return list;
 		}
-		
-//		int getActiveCount() {
-//			int count = 0;
-//
-//			for(final PooledConnection conn : list) {
-//				if(conn.isActive()) {
-//					count++;
-//				}
-//			}
-//
-//			return count;
-//		}
-//
-//		int getRealCount() {
-//			int size = 0;
-//			for(final PooledConnection conn : list) {
-//				if(null != conn.getReal()) {
-//					size++;
-//				}
-//			}
-//			return size;
-//		}
-		
+
+		/**
+		 * Returns the number of borrowed connections.
+		 */
+		int getActiveCount() {
+			return busyCount.get();
+		}
+
+		/**
+		 * Returns the approximate number of idle connections which have an underlying connection.
+		 */
 		int getIdleCount() {
-			int count = 0;
-			
-			for(final PooledConnection conn : list) {
-				if(conn.isIdle()) {
-					count++;
-				}
-			}
-			
-			return count;
+			int count = realCount.get() - busyCount.get();
+			return count > 0 ? count : 0;
+		}
+
+		void realConnectionOpened() {
+			realCount.incrementAndGet();
+		}
+
+		void realConnectionClosed() {
+			realCount.decrementAndGet();
 		}
 		
 		/**
 		 * Borrow a connection from pool.
 		 */
 		public PooledConnection borrowConnection(long maxWait) throws InterruptedException{
-			
-			long timeout = maxWait;
+			PooledConnection conn = tryBorrowConnection();
+			if(null != conn) {
+				return conn;
+			}
+
 			final long start = System.currentTimeMillis();
-			
-			do{
-		        long waitingState;
-
-		        do{
-		        	waitingState = syncState.get();
-
-		        	for (final PooledConnection conn : list) {
-		               if (conn.compareStateAndSet(STATE_IDLE, STATE_BUSY)){
-		                  return conn;
-		               }
-		            }
-		        	
-		        	//decrease the timeout
-		        	timeout = maxWait - (System.currentTimeMillis() - start);
-		        	if(timeout <= 0L) {
-		        		//time out.
-		        		return null;
-		        	}
-		        	
-		        	//The sync state will increase if connection returned.
-		        	final long newState = syncState.get();
-		        	if(waitingState < newState || (waitingState > 0 && newState < 0)) {
-		        		continue;
-		        	}else{
-		        		break;
-		        	}
-		        }while(true);
-				
-		        //wait for synchronizer's notification.
-				if(!synchronizer.tryAcquireSharedNanos(waitingState, TimeUnit.MILLISECONDS.toNanos(timeout))){
-					//time out
-					return null;
+
+			waiters.incrementAndGet();
+			try{
+				do{
+					//A connection may be returned before this thread begin waiting.
+					conn = tryBorrowConnection();
+					if(null != conn) {
+						return conn;
+					}
+
+					long timeout = maxWait - (System.currentTimeMillis() - start);
+					if(timeout <= 0L) {
+						//time out.
+						return null;
+					}
+
+					//Waits in slices to check the idle stack again, the returning thread may not hand off the connection.
+					conn = handoff.poll(Math.min(timeout, WAIT_SLICE_MS), TimeUnit.MILLISECONDS);
+					if(null != conn && acquire(conn)) {
+						return conn;
+					}
+				}while(true);
+			}finally{
+				waiters.decrementAndGet();
+			}
+		}
+
+		private PooledConnection tryBorrowConnection() {
+			WeakReference<PooledConnection> ref = lastUsed.get();
+			if(null != ref) {
+				PooledConnection conn = ref.get();
+				if(null != conn && acquire(conn)) {
+					return conn;
 				}
-				
-			}while(timeout > 0L);
-			
+			}
+
+			PooledConnection conn;
+			while((conn = idles.pollFirst()) != null) {
+				conn.setIdleQueued(false);
+				if(acquire(conn)) {
+					return conn;
+				}
+			}
+
 			return null;
 		}
 
+		private boolean acquire(PooledConnection conn) {
+			if(conn.compareStateAndSet(STATE_IDLE, STATE_BUSY)) {
+				busyCount.incrementAndGet();
+				return true;
+			}
+			return false;
+		}
+
         /**
          * Removes the connection from list and release all the underlying resources.
          */
         public void abandonConnection(PooledConnection conn) {
             conn.markAbandon();
+            busyCount.decrementAndGet();
             list.remove(conn);
             conn.closeReal();
         }
@@ -449,6 +536,7 @@ class Pool {
 		 * Returns the connection to pool.
 		 */
 		public void returnConnection(PooledConnection conn) {
+			lastUsed.set(new WeakReference<>(conn));
 			updateToIdleState(conn, STATE_BUSY);
 		}
 		
@@ -458,12 +546,30 @@ class Pool {
 		
 		public void updateToIdleState(PooledConnection conn, int fromState) {
 			if(conn.compareStateAndSet(fromState, STATE_IDLE)) {
-				//increase the state,see PoolSynchronizer
-				synchronizer.releaseShared(syncState.incrementAndGet());
+				if(fromState == STATE_BUSY) {
+					busyCount.decrementAndGet();
+				}
+				release(conn);
 			}else{
 				log.error("Failed to update connection's to 'IDLE', expected {}, but {}",fromState,conn.getState().get());
 			}
 		}
+
+		private void release(PooledConnection conn) {
+			if(conn.setIdleQueued(true)) {
+				idles.offerFirst(conn);
+			}
+
+			//Hands off the connection to a waiting thread directly, waits a moment for the thread which is
+			//about to poll, the connection stays in the idle stack if no thread takes it.
+			if(waiters.get() > 0 && conn.getState().get() == STATE_IDLE) {
+				try {
+					handoff.offer(conn, HANDOFF_TIMEOUT_MICROS, TimeUnit.MICROSECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
 		
 		void close() {
 			for(final PooledConnection conn : list) {
@@ -477,27 +583,12 @@ class Pool {
 		
 		private void init() {
 			for(int i=0;i<config.getMaxActive();i++) {
-				list.add(new PooledConnection(Pool.this));
+				PooledConnection conn = new PooledConnection(Pool.this);
+				list.add(conn);
+				conn.setIdleQueued(true);
+				idles.offerLast(conn);
 			}
 		}
-		
-		private final class Synchronizer extends AbstractQueuedLongSynchronizer {
-
-			private static final long serialVersionUID = -5101833107186489746L;
-
-			@Override
-	        protected long tryAcquireShared(long state) {
-				final long newState = getState();
-		        return (newState > state || (state > 0 && newState < 0)) && !hasQueuedPredecessors() ? 1L : -1L;
-	        }
-
-			@Override
-	        protected boolean tryReleaseShared(long newState) {
-				setState(newState);
-				return true;
-			}
-			
-		}
 	}
 
     private void initMinIdleConnections() throws SQLException {
@@ -38,6 +38,8 @@ class PoolConfig {
 	private final boolean              healthCheck;
 	private final long                 idleTimeoutMs;
 	private final int                  statementTimeout;
+	private final int                  maxStatementsPerConnection;
+	private final int                  maxStatementSqlLength;
 	private final long                 connectionLeakTimeoutMs;
 	
 	PoolConfig(PoolProperties props) {
@@ -58,6 +60,8 @@ class PoolConfig {
 		this.healthCheck					  = props.isHealthCheck();
 		this.idleTimeoutMs					  = props.getIdleTimeoutMs();
 		this.statementTimeout				  = props.getStatementTimeout();
+		this.maxStatementsPerConnection       = props.getMaxStatementsPerConnection();
+		this.maxStatementSqlLength            = props.getMaxStatementSqlLength();
 		this.connectionLeakTimeoutMs          = props.getConnectionLeakTimeoutMs();
 	}
 	
@@ -141,6 +145,18 @@ class PoolConfig {
 		return statementTimeout;
 	}
 	
+	public boolean isStatementCacheEnabled() {
+		return maxStatementsPerConnection > 0;
+	}
+
+	public int getMaxStatementsPerConnection() {
+		return maxStatementsPerConnection;
+	}
+
+	public int getMaxStatementSqlLength() {
+		return maxStatementSqlLength;
+	}
+
 	public boolean isDetecteConnectionLeak() {
 		return connectionLeakTimeoutMs > 0;
 	}
@@ -32,6 +32,8 @@ public class PoolProperties {
 	public static final int DEFAULT_IDLE_TIMEOUT 	        = 180; //3 minutes
 	public static final int DEFAULT_STATEMENT_TIMEOUT       = -1;
 	public static final int DEFAULT_CONNECTION_LEAK_TIMEOUT = -1;
+	public static final int DEFAULT_MAX_STATEMENTS_PER_CONNECTION = 0; //disabled
+	public static final int DEFAULT_MAX_STATEMENT_SQL_LENGTH      = 2048;
 	
 	public static final int MAX_MAX_WAIT		      = 10 * 60 * 1000; //10 minutes 
 	public static final int MIN_MAX_WAIT		      = 0;
@@ -68,6 +70,9 @@ public class PoolProperties {
 	
 	protected int statementTimeout	    = DEFAULT_STATEMENT_TIMEOUT;
 
+	protected int maxStatementsPerConnection = DEFAULT_MAX_STATEMENTS_PER_CONNECTION;
+	protected int maxStatementSqlLength      = DEFAULT_MAX_STATEMENT_SQL_LENGTH;
+
     protected int idleTimeout	        = DEFAULT_IDLE_TIMEOUT;
     protected int idleTimeoutMs         = -1;
 
@@ -296,6 +301,31 @@ public class PoolProperties {
 		this.statementTimeout = statementTimeout;
 	}
 	
+	public int getMaxStatementsPerConnection() {
+		return maxStatementsPerConnection;
+	}
+
+	/**
+	 * Sets the max number of cached prepared statements of a pooled connection.
+	 *
+	 * <p>
+	 * The prepared statements will not be cached if the value is zero (the default).
+	 */
+	public void setMaxStatementsPerConnection(int maxStatementsPerConnection) {
+		this.maxStatementsPerConnection = maxStatementsPerConnection;
+	}
+
+	public int getMaxStatementSqlLength() {
+		return maxStatementSqlLength;
+	}
+
+	/**
+	 * Sets the max length of the sql can be cached by the prepared statement cache.
+	 */
+	public void setMaxStatementSqlLength(int maxStatementSqlLength) {
+		this.maxStatementSqlLength = maxStatementSqlLength;
+	}
+
 	public int getConnectionLeakTimeout() {
 		return connectionLeakTimeout;
 	}
@@ -385,6 +415,7 @@ public class PoolProperties {
 		validateRange("healthCheckInterval",healthCheckInterval,MIN_HEALTH_CHECK_INTERVAL,MAX_HEALTH_CHECK_INTERVAL);
 		validateRange("validationTimeout", validationTimeout, MIN_VALIDATION_TIMEOUT, MAX_VALIDATION_TIMEOUT);
 		validateRange("idleTimeout", idleTimeout, healthCheckInterval, MAX_IDLE_TIMEOUT);
+		validateRange("maxStatementsPerConnection", maxStatementsPerConnection, 0, Integer.MAX_VALUE);
 		
 		if(maxIdle >= 0) {
 			validateRange("maxIdle", maxIdle, 0, maxActive);
@@ -21,6 +21,12 @@ import leap.lang.logging.LogFactory;
 import leap.lang.logging.StackTraceStringBuilder;
 
 import java.sql.*;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class PooledConnection extends ConnectionProxy implements Connection {
@@ -38,8 +44,10 @@ public class PooledConnection extends ConnectionProxy implements Connection {
 	private final Pool			 pool;
 	private final PoolConfig     poolConfig;
 	private final AtomicInteger  state;
+	private final AtomicBoolean  idleQueued;
 	private final PoolUtils 	 utils;
 	private final StatementList	 statements = new StatementList();
+	private final StatementCache statementCache;
 
     private boolean   newCreatedConnection;
     private int       transactionState = TRANSACTION_STATE_INIT;
@@ -54,8 +62,10 @@ public class PooledConnection extends ConnectionProxy implements Connection {
 		this.pool       = pool;
 		this.poolConfig = pool.getConfig();
 		this.state      = new AtomicInteger(STATE_IDLE);
+		this.idleQueued = new AtomicBoolean(false);
 		this.utils      = pool.utils();
         this.statementStackTrace = true;
+		this.statementCache = poolConfig.isStatementCacheEnabled() ? new StatementCache() : null;
 	}
 	
 	void setupBeforeOnBorrow() {
@@ -118,7 +128,20 @@ public class PooledConnection extends ConnectionProxy implements Connection {
 		return state;
 	}
 	
+	/**
+	 * Sets the flag indicates this connection is in the idle stack of pool.
+	 *
+	 * <p>
+	 * Returns <code>false</code> if the flag not changed.
+	 */
+	boolean setIdleQueued(boolean queued) {
+		return idleQueued.compareAndSet(!queued, queued);
+	}
+	
 	void setWrapped(Connection conn) {
+		if(null == this.conn && null != conn) {
+			pool.realConnectionOpened();
+		}
 		this.conn = conn;
 	}
 
@@ -198,16 +221,20 @@ public class PooledConnection extends ConnectionProxy implements Connection {
 	void abandonReal() {
 		if(null != conn) {
 			log.debug("Abandon the wrapped connection");
+			clearStatementCache();
 			JDBC.closeConnection(conn);
 			conn = null;
+			pool.realConnectionClosed();
 		}
 	}
 	
 	void closeReal() {
 		if(null != conn) {
 			log.debug("Close the wrapped connection");
+			clearStatementCache();
 			JDBC.closeConnection(conn);
 			conn = null;
+			pool.realConnectionClosed();
 		}
 	}
 	
@@ -229,6 +256,9 @@ public class PooledConnection extends ConnectionProxy implements Connection {
 	}
 	
 	void closeStatementOnly(StatementProxy proxy) throws SQLException {
+		if(null != statementCache && statementCache.release(proxy.wrapped())) {
+			return;
+		}
 		try{
 			proxy.wrapped().close();
 			successCloseStatement(proxy);
@@ -286,6 +316,33 @@ public class PooledConnection extends ConnectionProxy implements Connection {
         return proxy;
     }
 
+    @Override
+    protected PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency,
+                                                 int resultSetHoldability, int autoGeneratedKeys) throws SQLException {
+        if(null == statementCache || null == sql || sql.length() > poolConfig.getMaxStatementSqlLength()) {
+            return super.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability, autoGeneratedKeys);
+        }
+
+        StatementKey key = new StatementKey(sql, resultSetType, resultSetConcurrency, resultSetHoldability, autoGeneratedKeys);
+
+        CachedStatement cs = statementCache.take(key);
+        if(null != cs) {
+            pool.statementCacheHit();
+        }else{
+            pool.statementCacheMiss();
+            PreparedStatement ps = super.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability, autoGeneratedKeys);
+            try {
+                cs = new CachedStatement(key, ps);
+            } catch (SQLException e) {
+                JDBC.closeStatementOnly(ps);
+                throw e;
+            }
+        }
+
+        statementCache.borrowed(cs);
+        return cs.ps;
+    }
+
     @Override
     protected PreparedStatementProxy proxyOfPreparedStatement(PreparedStatement ps, String sql) {
         setupStatement(ps);
@@ -308,6 +365,163 @@ public class PooledConnection extends ConnectionProxy implements Connection {
         }
     }
 
+    private void clearStatementCache() {
+        if(null != statementCache) {
+            statementCache.clear();
+        }
+    }
+
+    private static final class StatementKey {
+        private final String sql;
+        private final int    resultSetType;
+        private final int    resultSetConcurrency;
+        private final int    resultSetHoldability;
+        private final int    autoGeneratedKeys;
+        private final int    hash;
+
+        StatementKey(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability, int autoGeneratedKeys) {
+            this.sql                  = sql;
+            this.resultSetType        = resultSetType;
+            this.resultSetConcurrency = resultSetConcurrency;
+            this.resultSetHoldability = resultSetHoldability;
+            this.autoGeneratedKeys    = autoGeneratedKeys;
+            this.hash                 = Objects.hash(sql, resultSetType, resultSetConcurrency, resultSetHoldability, autoGeneratedKeys);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(this == o) {
+                return true;
+            }
+            if(!(o instanceof StatementKey)) {
+                return false;
+            }
+            StatementKey that = (StatementKey)o;
+            return hash == that.hash &&
+                   resultSetType == that.resultSetType &&
+                   resultSetConcurrency == that.resultSetConcurrency &&
+                   resultSetHoldability == that.resultSetHoldability &&
+                   autoGeneratedKeys == that.autoGeneratedKeys &&
+                   sql.equals(that.sql);
+        }
+    }
+
+    /**
+     * A cacheable prepared statement and the driver's default settings of it.
+     */
+    private static final class CachedStatement {
+        private final StatementKey      key;
+        private final PreparedStatement ps;
+        private final int               fetchSize;
+        private final int               fetchDirection;
+        private final int               maxRows;
+        private final int               maxFieldSize;
+
+        CachedStatement(StatementKey key, PreparedStatement ps) throws SQLException {
+            this.key            = key;
+            this.ps             = ps;
+            this.fetchSize      = ps.getFetchSize();
+            this.fetchDirection = ps.getFetchDirection();
+            this.maxRows        = ps.getMaxRows();
+            this.maxFieldSize   = ps.getMaxFieldSize();
+        }
+
+        /**
+         * Closes the open result set and restores the default settings changed by the previous user.
+         */
+        void reset() throws SQLException {
+            ResultSet rs = ps.getResultSet();
+            if(null != rs) {
+                rs.close();
+            }
+
+            if(ps.getFetchSize() != fetchSize) {
+                ps.setFetchSize(fetchSize);
+            }
+            if(ps.getFetchDirection() != fetchDirection) {
+                ps.setFetchDirection(fetchDirection);
+            }
+            if(ps.getMaxRows() != maxRows) {
+                ps.setMaxRows(maxRows);
+            }
+            if(ps.getMaxFieldSize() != maxFieldSize) {
+                ps.setMaxFieldSize(maxFieldSize);
+            }
+            ps.clearParameters();
+        }
+    }
+
+    /**
+     * A lru cache of the idle prepared statements, the statement is removed from the cache while it is in use.
+     */
+    private final class StatementCache {
+
+        private final Map<StatementKey, CachedStatement> idles;
+        private final Map<Statement, CachedStatement>    borrowed = new IdentityHashMap<>();
+
+        StatementCache() {
+            this.idles = new LinkedHashMap<StatementKey, CachedStatement>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<StatementKey, CachedStatement> eldest) {
+                    if(size() > poolConfig.getMaxStatementsPerConnection()) {
+                        JDBC.closeStatementOnly(eldest.getValue().ps);
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized CachedStatement take(StatementKey key) {
+            return idles.remove(key);
+        }
+
+        synchronized void borrowed(CachedStatement cs) {
+            borrowed.put(cs.ps, cs);
+        }
+
+        /**
+         * Returns <code>true</code> if the statement was returned to the cache.
+         */
+        synchronized boolean release(Statement stmt) {
+            CachedStatement cs = borrowed.remove(stmt);
+            if(null == cs || null == conn) {
+                return false;
+            }
+
+            if(idles.containsKey(cs.key)) {
+                return false;
+            }
+
+            try {
+                if(cs.ps.isClosed()) {
+                    return false;
+                }
+                cs.reset();
+                cs.ps.setQueryTimeout(poolConfig.getStatementTimeout() > 0 ? poolConfig.getStatementTimeout() : 0);
+            } catch (SQLException e) {
+                log.info("Error reset the prepared statement, close it, {}", e.getMessage());
+                return false;
+            }
+
+            idles.put(cs.key, cs);
+            return true;
+        }
+
+        synchronized void clear() {
+            for(Iterator<CachedStatement> it = idles.values().iterator(); it.hasNext();) {
+                JDBC.closeStatementOnly(it.next().ps);
+                it.remove();
+            }
+            borrowed.clear();
+        }
+    }
+
     //inspire from HikariCP
 	private final class StatementList {
 		
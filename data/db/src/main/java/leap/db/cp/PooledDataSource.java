@@ -15,6 +15,7 @@
  */
 package leap.db.cp;
 
+import leap.core.ds.management.MStatementCache;
 import leap.lang.Args;
 
 import javax.sql.DataSource;
@@ -27,7 +28,7 @@ import java.sql.Wrapper;
 import java.util.Map;
 import java.util.logging.Logger;
 
-public class PooledDataSource extends PoolProperties implements DataSource, Closeable {
+public class PooledDataSource extends PoolProperties implements DataSource, Closeable, MStatementCache {
 
 	private Pool pool;
 	
@@ -88,6 +89,38 @@ public class PooledDataSource extends PoolProperties implements DataSource, Clos
 	public boolean isClose() {
 		return null != pool && pool.isClose();
 	}
+
+    /**
+     * Returns the number of borrowed connections, returns 0 if the pool not opened.
+     */
+    public int getActiveCount() {
+        return null == pool ? 0 : pool.getActiveCount();
+    }
+
+    /**
+     * Returns the approximate number of idle connections, returns 0 if the pool not opened.
+     */
+    public int getIdleCount() {
+        return null == pool ? 0 : pool.getIdleCount();
+    }
+
+    /**
+     * Returns the number of prepared statements reused from the statement cache of the pooled connections.
+     *
+     * @see #setMaxStatementsPerConnection(int)
+     */
+    @Override
+    public long getStatementCacheHits() {
+        return null == pool ? 0 : pool.getStatementCacheHits();
+    }
+
+    /**
+     * Returns the number of cacheable prepared statements not found in the statement cache of the pooled connections.
+     */
+    @Override
+    public long getStatementCacheMisses() {
+        return null == pool ? 0 : pool.getStatementCacheMisses();
+    }
 	
 	@Override
 	public Connection getConnection() throws SQLException {
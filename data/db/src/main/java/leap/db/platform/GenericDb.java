@@ -368,6 +368,8 @@ public class GenericDb extends DbBase {
 	protected <T> T doExecuteQuery(Connection connection, String sql, Object[] args, int[] types,ResultSetReader<T> reader) throws NestedSQLException {
 		PreparedStatement ps = null;
 		ResultSet rs = null;
+		int fetchSize = 0;
+		boolean autoCommit = false;
 		try{
 			if(log.isDebugEnabled()){
 				log.debug("Executing Sql Query -> \n\n SQL  : {}\n ARGS : {}\n",sql,getDisplayString(args, types));
@@ -376,6 +378,18 @@ public class GenericDb extends DbBase {
 			StopWatch sw = StopWatch.startNew();
 			
 			ps = dialect.createPreparedStatement(connection, sql);
+			
+			//the statement may be cached by the connection, the fetch size must be restored after executing.
+			fetchSize = ps.getFetchSize();
+			if(reader.getFetchSize() != 0 && reader.getFetchSize() != fetchSize) {
+				ps.setFetchSize(reader.getFetchSize());
+			}
+
+			//the driver may buffer all the rows in auto commit mode.
+			if(reader.getFetchSize() != 0 && dialect.isStreamingRequiresNoAutoCommit() && connection.getAutoCommit()) {
+				connection.setAutoCommit(false);
+				autoCommit = true;
+			}
 
 			if(null != args){
 				if(null != types && types.length > 0){
@@ -398,7 +412,31 @@ public class GenericDb extends DbBase {
 			throw new NestedSQLException(e);
 		}finally{
 			JDBC.closeResultSetOnly(rs);
+			restoreFetchSize(ps, reader, fetchSize);
 			JDBC.closeStatementOnly(ps);
+			if(autoCommit) {
+				restoreAutoCommit(connection);
+			}
+		}
+	}
+
+	protected void restoreAutoCommit(Connection connection) {
+		try {
+			//ends the read only transaction started by the streaming query.
+			connection.setAutoCommit(true);
+		} catch (SQLException e) {
+			log.warn("Error restoring the auto commit of connection, {}", e.getMessage());
+		}
+	}
+
+	protected void restoreFetchSize(PreparedStatement ps, ResultSetReader<?> reader, int fetchSize) {
+		if(null == ps || reader.getFetchSize() == 0 || reader.getFetchSize() == fetchSize) {
+			return;
+		}
+		try {
+			ps.setFetchSize(fetchSize);
+		} catch (SQLException e) {
+			log.warn("Error restoring the fetch size of statement, {}", e.getMessage());
 		}
 	}
 
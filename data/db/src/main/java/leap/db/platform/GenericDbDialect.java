@@ -55,6 +55,7 @@ public abstract class GenericDbDialect extends GenericDbDialectBase implements D
     protected GenericDb   		db;
 	protected GenericDbMetadata metadata;
     protected String      		statementDelimiter = ";";
+    protected int               streamingFetchSize = 500;
 	
 	protected GenericDbDialect(){
 
@@ -678,11 +679,21 @@ public abstract class GenericDbDialect extends GenericDbDialectBase implements D
 	    return connection.prepareStatement(sql, autoGeneratedKeys);
     }
 	
+	@Override
+    public int getStreamingFetchSize() {
+	    return streamingFetchSize;
+    }
+	
 	@Override
     public String getLimitQuerySql(DbLimitQuery query) {
 	    throw new UnsupportedOperationException("This dialect '" + db.getDescription() + "' not implements page query");
     }
 	
+	@Override
+    public String getRowCountEstimateSql(DbSchemaObjectName table) {
+	    return null;
+    }
+	
 	@Override
     public String addOrderBy(String sql, String orderBy) {
 		int havingIndex = Strings.lastIndexOfIgnoreCase(sql, " having ");
@@ -50,6 +50,9 @@ public class GenericDbMetadata implements DbMetadata,DbAware {
     protected final boolean          supportsMixedCaseIdentifiers;
     protected final boolean          supportsAlterTableWithAddColumn;
     protected final boolean          supportsAlterTableWithDropColumn;
+    protected final boolean          nullsAreSortedHigh;
+    protected final boolean          nullsAreSortedAtStart;
+    protected final boolean          nullsAreSortedAtEnd;
     protected final int              maxTableNameLength;
     protected final int              maxColumnNameLength;
     protected final String			 catalog;
@@ -75,6 +78,9 @@ public class GenericDbMetadata implements DbMetadata,DbAware {
         this.supportsMixedCaseIdentifiers     = dm.supportsMixedCaseIdentifiers();
         this.supportsAlterTableWithAddColumn  = dm.supportsAlterTableWithAddColumn();
         this.supportsAlterTableWithDropColumn = dm.supportsAlterTableWithDropColumn();
+        this.nullsAreSortedHigh               = dm.nullsAreSortedHigh();
+        this.nullsAreSortedAtStart            = dm.nullsAreSortedAtStart();
+        this.nullsAreSortedAtEnd              = dm.nullsAreSortedAtEnd();
         this.maxTableNameLength				  = dm.getMaxTableNameLength();
         this.maxColumnNameLength			  = dm.getMaxColumnNameLength();
         this.catalog						  = dm.getConnection().getCatalog();
@@ -134,6 +140,21 @@ public class GenericDbMetadata implements DbMetadata,DbAware {
 	    return supportsAlterTableWithDropColumn;
     }
 
+	@Override
+    public boolean nullsAreSortedHigh() {
+	    return nullsAreSortedHigh;
+    }
+
+	@Override
+    public boolean nullsAreSortedAtStart() {
+	    return nullsAreSortedAtStart;
+    }
+
+	@Override
+    public boolean nullsAreSortedAtEnd() {
+	    return nullsAreSortedAtEnd;
+    }
+
 	@Override
     public boolean driverSupportsGetParameterType() {
 		if(null == driverSupportsGetParameterType) {
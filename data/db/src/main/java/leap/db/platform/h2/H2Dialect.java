@@ -133,6 +133,14 @@ public class H2Dialect extends GenericDbDialect {
 		return sql;
 	}
 
+	@Override
+	public String getRowCountEstimateSql(DbSchemaObjectName table) {
+		String schema = Strings.isEmpty(table.getSchema()) ? "schema()" : "upper('" + escape(table.getSchema()) + "')";
+
+		return "select row_count_estimate from information_schema.tables where table_schema = " + schema +
+			   " and table_name = upper('" + escape(table.getName()) + "')";
+	}
+
 	@Override
     protected void registerSystemSchemas() {
 		Collections2.addAll(systemSchemas, SYSTEM_SCHEMAS);
@@ -60,7 +60,8 @@ public class MySql5Dialect extends GenericDbDialect {
     private static final String[] SYSTEM_SCHEMAS = new String[]{"INFORMATION_SCHEMA","PERFORMANCE_SCHEMA"};
 
     protected MySql5Dialect(){
-    	
+    	//the mysql driver reads the rows one by one only if the fetch size is Integer.MIN_VALUE
+    	this.streamingFetchSize = Integer.MIN_VALUE;
     }
     
 	@Override
@@ -140,6 +141,15 @@ public class MySql5Dialect extends GenericDbDialect {
 		return sql;
     }
 	
+	@Override
+    public String getRowCountEstimateSql(DbSchemaObjectName table) {
+		//innodb : the 'table_rows' is an approximate value from the statistics.
+		String schema = Strings.isEmpty(table.getSchema()) ? "database()" : "'" + escape(table.getSchema()) + "'";
+		
+	    return "select table_rows from information_schema.tables where table_schema = " + schema +
+	    	   " and table_name = '" + escape(table.getName()) + "'";
+    }
+	
 	@Override
     protected List<String> createSafeAlterColumnSqlsForChange(SchemaChangeContext context, ColumnDefinitionChange change) {
 		List<String> sqls = new ArrayList<String>();
@@ -329,6 +329,15 @@ public class Oracle10Dialect extends GenericDbDialect {
         return limitSql.toString();
     }
 
+    @Override
+    public String getRowCountEstimateSql(DbSchemaObjectName table) {
+        //the 'num_rows' is collected by dbms_stats.
+        String owner = Strings.isEmpty(table.getSchema()) ? "user" : "upper('" + escape(table.getSchema()) + "')";
+
+        return "select num_rows from all_tables where owner = " + owner +
+               " and table_name = upper('" + escape(table.getName()) + "')";
+    }
+
     @Override
     protected Object getColumnValueTypeKnown(ResultSet rs, int index, int type) throws SQLException {
         if(type == Types.TIMESTAMP){
@@ -49,6 +49,14 @@ public class PostgreSQL9Dialect extends GenericDbDialect {
 	public PostgreSQL9Dialect() {
 	
 	}
+
+	/**
+	 * The driver uses a cursor to fetch the rows only if auto commit is off.
+	 */
+	@Override
+	public boolean isStreamingRequiresNoAutoCommit() {
+		return true;
+	}
 	
 	@Override
     protected void registerSQLKeyWords() {
@@ -108,6 +116,15 @@ public class PostgreSQL9Dialect extends GenericDbDialect {
 		return sql;
     }
 	
+	@Override
+    public String getRowCountEstimateSql(DbSchemaObjectName table) {
+		//http://www.postgresql.org/docs/9.4/static/row-estimation-examples.html
+		String schema = Strings.isEmpty(table.getSchema()) ? "current_schema()" : "lower('" + escape(table.getSchema()) + "')";
+		
+	    return "select cast(c.reltuples as bigint) from pg_class c join pg_namespace n on n.oid = c.relnamespace" +
+	    	   " where n.nspname = " + schema + " and c.relname = lower('" + escape(table.getName()) + "')";
+    }
+	
 	@Override
     public List<String> getCreateSequenceSqls(DbSequence sequence) throws IllegalStateException {
 		/*
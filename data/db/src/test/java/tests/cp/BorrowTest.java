@@ -20,7 +20,10 @@ package tests.cp;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.SQLTimeoutException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import leap.db.cp.PooledConnection;
 import tests.cp.mock.MockConnection;
 import tests.cp.mock.MockStatement;
 
@@ -172,4 +175,121 @@ public class BorrowTest extends PoolTestBase {
             assertContains(e.getMessage(), "Set AutoCommit Error");
         }
     }
+
+    @Test
+    public void testOpenConnectionErrorNotLeak() throws SQLException {
+        ds.setMaxActive(1);
+        ds.setMaxWait(100);
+
+        ms.setOpenConnectionError(true);
+        try {
+            try(Connection conn = ds.getConnection()){}
+            fail("should throw SQLException");
+        }catch (SQLException e) {
+            assertFalse(e instanceof SQLTimeoutException);
+        }
+
+        ms.setOpenConnectionError(false);
+        try(Connection conn = ds.getConnection()){}
+    }
+
+    @Test
+    public void testActiveAndIdleCount() throws SQLException {
+        ds.setMaxActive(5);
+
+        assertEquals(0, ds.getActiveCount());
+
+        try(Connection conn1 = ds.getConnection()) {
+            assertEquals(1, ds.getActiveCount());
+            assertEquals(0, ds.getIdleCount());
+
+            try(Connection conn2 = ds.getConnection()) {
+                assertEquals(2, ds.getActiveCount());
+            }
+
+            assertEquals(1, ds.getActiveCount());
+            assertEquals(1, ds.getIdleCount());
+        }
+
+        assertEquals(0, ds.getActiveCount());
+        assertEquals(2, ds.getIdleCount());
+    }
+
+    @Test
+    public void testThreadAffinity() throws SQLException {
+        ds.setMaxActive(10);
+
+        PooledConnection last;
+        try(Connection conn = ds.getConnection()) {
+            last = (PooledConnection)conn;
+        }
+
+        for(int i=0;i<10;i++) {
+            try(Connection conn = ds.getConnection()) {
+                assertSame(last, conn);
+            }
+        }
+    }
+
+    @Test
+    public void testHandoffToWaiter() throws Exception {
+        ds.setMaxActive(1);
+        ds.setMaxWait(5000);
+
+        final Connection conn = ds.getConnection();
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicInteger  borrowed = new AtomicInteger();
+
+        Thread waiter = new Thread(() -> {
+            latch.countDown();
+            try(Connection c = ds.getConnection()) {
+                borrowed.incrementAndGet();
+            }catch(SQLException e) {
+                //failed.
+            }
+        });
+        waiter.start();
+
+        latch.await();
+        Thread.sleep(100);
+        conn.close();
+
+        waiter.join(2000);
+        assertEquals(1, borrowed.get());
+    }
+
+    @Test
+    public void testConcurrentBorrow() throws Exception {
+        final int threads = 20;
+
+        ds.setMaxActive(5);
+        ds.setMaxWait(10000);
+
+        final CountDownLatch latch  = new CountDownLatch(threads);
+        final AtomicInteger  errors = new AtomicInteger();
+        final AtomicInteger  active = new AtomicInteger();
+
+        for(int i=0;i<threads;i++) {
+            new Thread(() -> {
+                try{
+                    for(int j=0;j<200;j++) {
+                        try(Connection c = ds.getConnection()) {
+                            if(active.incrementAndGet() > 5) {
+                                errors.incrementAndGet();
+                            }
+                            active.decrementAndGet();
+                        }
+                    }
+                }catch(Throwable e) {
+                    errors.incrementAndGet();
+                }finally {
+                    latch.countDown();
+                }
+            }).start();
+        }
+
+        latch.await();
+        assertEquals(0, errors.get());
+        assertEquals(0, ds.getActiveCount());
+    }
 }
@@ -18,6 +18,7 @@
 package tests.cp;
 
 import leap.lang.jdbc.JDBC;
+import leap.lang.jdbc.StatementProxy;
 import org.junit.Test;
 import tests.cp.mock.MockConnection;
 
@@ -88,4 +89,111 @@ public class StatementTest extends PoolTestBase {
 
         assertEquals(0, mc.getOpeningStatements());
     }
+
+    @Test
+    public void testPreparedStatementCacheDisabledByDefault() throws SQLException {
+        try(Connection conn = ds.getConnection()) {
+            Statement s1;
+            try(PreparedStatement ps = conn.prepareStatement("select 1")) {
+                s1 = wrapped(ps);
+            }
+            try(PreparedStatement ps = conn.prepareStatement("select 1")) {
+                assertNotSame(s1, wrapped(ps));
+            }
+            assertEquals(0, conn.unwrap(MockConnection.class).getOpeningStatements());
+        }
+        assertEquals(0, ds.getStatementCacheHits());
+        assertEquals(0, ds.getStatementCacheMisses());
+    }
+
+    @Test
+    public void testPreparedStatementCache() throws SQLException {
+        ds.setMaxStatementsPerConnection(2);
+
+        MockConnection mc;
+        try(Connection conn = ds.getConnection()) {
+            mc = conn.unwrap(MockConnection.class);
+
+            Statement s1;
+            try(PreparedStatement ps = conn.prepareStatement("select 1")) {
+                s1 = wrapped(ps);
+            }
+            assertEquals(1, mc.getOpeningStatements());
+
+            try(PreparedStatement ps = conn.prepareStatement("select 1")) {
+                assertSame(s1, wrapped(ps));
+
+                //the cached statement is in use.
+                try(PreparedStatement ps1 = conn.prepareStatement("select 1")) {
+                    assertNotSame(s1, wrapped(ps1));
+                }
+            }
+            assertEquals(1, mc.getOpeningStatements());
+
+            try(PreparedStatement ps = conn.prepareStatement("select 1", ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)) {
+                assertNotSame(s1, wrapped(ps));
+            }
+            assertEquals(2, mc.getOpeningStatements());
+
+            try(PreparedStatement ps = conn.prepareStatement("select 2")) {
+
+            }
+            assertEquals(2, mc.getOpeningStatements());
+
+            assertEquals(1, ds.getStatementCacheHits());
+            assertEquals(4, ds.getStatementCacheMisses());
+        }
+
+        //the cached statements still opened after the connection returned to pool.
+        try(Connection conn = ds.getConnection()) {
+            assertSame(mc, conn.unwrap(MockConnection.class));
+            try(PreparedStatement ps = conn.prepareStatement("select 2")) {
+
+            }
+            assertEquals(2, ds.getStatementCacheHits());
+        }
+
+        ds.close();
+        assertEquals(0, mc.getOpeningStatements());
+    }
+
+    @Test
+    public void testPreparedStatementCacheReset() throws SQLException {
+        ds.setMaxStatementsPerConnection(2);
+
+        try(Connection conn = ds.getConnection()) {
+            ResultSet rs;
+            try(PreparedStatement ps = conn.prepareStatement("select 1")) {
+                ps.setFetchSize(100);
+                ps.setMaxRows(10);
+                ps.executeQuery();
+                rs = wrapped(ps).getResultSet();
+            }
+            assertTrue(rs.isClosed());
+
+            try(PreparedStatement ps = conn.prepareStatement("select 1")) {
+                assertEquals(1, ds.getStatementCacheHits());
+                assertEquals(0, ps.getFetchSize());
+                assertEquals(0, ps.getMaxRows());
+            }
+        }
+    }
+
+    @Test
+    public void testPreparedStatementCacheMaxSqlLength() throws SQLException {
+        ds.setMaxStatementsPerConnection(2);
+        ds.setMaxStatementSqlLength(8);
+
+        try(Connection conn = ds.getConnection()) {
+            try(PreparedStatement ps = conn.prepareStatement("select 1 from dual")) {
+
+            }
+            assertEquals(0, conn.unwrap(MockConnection.class).getOpeningStatements());
+        }
+        assertEquals(0, ds.getStatementCacheMisses());
+    }
+
+    private static Statement wrapped(PreparedStatement ps) {
+        return ((StatementProxy)ps).wrapped();
+    }
 }
@@ -27,6 +27,10 @@ public class MockPreparedStatement extends PreparedStatementAdapter {
 
     private final MockConnection conn;
 
+    private int           fetchSize;
+    private int           maxRows;
+    private MockResultSet resultSet;
+
     public MockPreparedStatement(MockConnection conn) {
         this.conn = conn;
         conn.increaseOpeningStatement();
@@ -34,7 +38,32 @@ public class MockPreparedStatement extends PreparedStatementAdapter {
 
     @Override
     public ResultSet executeQuery() throws SQLException {
-        return new MockResultSet(conn);
+        return resultSet = new MockResultSet(conn);
+    }
+
+    @Override
+    public ResultSet getResultSet() throws SQLException {
+        return resultSet;
+    }
+
+    @Override
+    public int getFetchSize() throws SQLException {
+        return fetchSize;
+    }
+
+    @Override
+    public void setFetchSize(int rows) throws SQLException {
+        this.fetchSize = rows;
+    }
+
+    @Override
+    public int getMaxRows() throws SQLException {
+        return maxRows;
+    }
+
+    @Override
+    public void setMaxRows(int max) throws SQLException {
+        this.maxRows = max;
     }
 
     @Override
@@ -19,10 +19,14 @@ package tests.cp.mock;
 
 import leap.lang.jdbc.ResultSetAdapter;
 
+import java.sql.SQLException;
+
 public class MockResultSet extends ResultSetAdapter {
 	
 	private final MockConnection connection;
 
+	private boolean closed;
+
 	public MockResultSet(MockConnection connection) {
 		this.connection = connection;
 	}
@@ -31,4 +35,14 @@ public class MockResultSet extends ResultSetAdapter {
 		return connection;
 	}
 
+	@Override
+	public void close() throws SQLException {
+		closed = true;
+	}
+
+	@Override
+	public boolean isClosed() throws SQLException {
+		return closed;
+	}
+
 }
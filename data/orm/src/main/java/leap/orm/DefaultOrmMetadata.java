@@ -53,6 +53,8 @@ public class DefaultOrmMetadata extends AbstractReadonlyBean implements OrmMetad
 	protected final Map<String,SequenceMapping> nameToSequenceMappings = new ConcurrentHashMap<>();
     protected final Map<String,EntityMapping>   shardingEntityMappings = new ConcurrentHashMap<>();
 
+    private volatile long entityMappingVersion;
+
 	protected @Inject @M Domains domains;
 	
 	@Override
@@ -65,6 +67,11 @@ public class DefaultOrmMetadata extends AbstractReadonlyBean implements OrmMetad
 	    return nameToEntityMappings.size();
     }
 
+	@Override
+    public long getEntityMappingVersion() {
+	    return entityMappingVersion;
+    }
+
 	@Override
     public int getSqlCommandSize() {
 	    return keyToSqlCommands.size();
@@ -252,6 +259,8 @@ public class DefaultOrmMetadata extends AbstractReadonlyBean implements OrmMetad
             if(em.isSharding()) {
                 shardingEntityMappings.put(em.getEntityName().toLowerCase(), em);
             }
+
+            entityMappingVersion++;
         }
     }
 	
@@ -279,6 +288,8 @@ public class DefaultOrmMetadata extends AbstractReadonlyBean implements OrmMetad
 			}
 			
 			tableToEntityMappings.remove(em.getTableName().toLowerCase());
+
+            entityMappingVersion++;
 			
 			return true;
         }
@@ -62,6 +62,15 @@ public interface OrmMetadata {
 	 */
 	int getEntityMappingSize();
 	
+	/**
+	 * Returns the version of the {@link EntityMapping} objects in this metadata.
+	 * 
+	 * <p>
+	 * The version changes after adding or removing an {@link EntityMapping}, so the objects resolved by the entity mappings
+	 * (such as the parsed sql clauses) can be invalidated.
+	 */
+	long getEntityMappingVersion();
+	
 	/**
 	 * Returns the size of {@link SqlCommand} in this metadata.
 	 */
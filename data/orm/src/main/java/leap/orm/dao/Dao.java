@@ -810,4 +810,11 @@ public abstract class Dao implements JdbcExecutor {
 	 */
 	public abstract <T> T doTransaction(TransactionCallbackWithResult<T> callback, boolean requiresNew);
 
+	/**
+	 * Returns true if an active transaction is exists in current thread.
+	 */
+	public boolean hasActiveTransaction() {
+		return false;
+	}
+
 }
\ No newline at end of file
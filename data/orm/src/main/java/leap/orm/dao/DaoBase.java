@@ -148,6 +148,11 @@ public abstract class DaoBase extends Dao implements PostCreateBean,PostInjectBe
 	    return transactionProvider.doTransaction(callback, requiresNew);
     }
 
+	@Override
+    public boolean hasActiveTransaction() {
+	    return transactionProvider.hasActiveTransaction();
+    }
+
 	@Override
     public void postInject(BeanFactory factory) {
 		_readonly.check();
@@ -19,6 +19,7 @@ import leap.core.instrument.AppInstrumentClass;
 import leap.core.instrument.AppInstrumentContext;
 import leap.core.instrument.AppInstrumentProcessor;
 import leap.core.instrument.AsmInstrumentProcessor;
+import leap.core.instrument.InstrumentClassWriter;
 import leap.lang.Classes;
 import leap.lang.Exceptions;
 import leap.lang.Factory;
@@ -73,6 +74,21 @@ public class ModelInstrumentation extends AsmInstrumentProcessor implements AppI
 
 	protected List<ModelTransformer> transformers = Factory.newInstances(ModelTransformer.class);
 
+    /**
+     * The key is the class names of the {@link ModelTransformer}s.
+     */
+    @Override
+    public String getCacheKey() {
+        StringBuilder s = new StringBuilder();
+        for(ModelTransformer transformer : transformers) {
+            if(s.length() > 0) {
+                s.append(',');
+            }
+            s.append(transformer.getClass().getName());
+        }
+        return s.toString();
+    }
+
     @Override
     public boolean supportsMethodBodyOnly() {
         return false;
@@ -105,14 +121,16 @@ public class ModelInstrumentation extends AsmInstrumentProcessor implements AppI
         }
 
         if(isModel){
-            ClassWriter cw = new ClassWriter(ci.cr,ClassWriter.COMPUTE_FRAMES);
-            instrument(context, ic, ci.cr, cw);
+            ClassWriter cw = new InstrumentClassWriter(ci.cr, ClassWriter.COMPUTE_FRAMES);
+            instrument(context, ic, ci.cr, ci.cn, cw);
         }
     }
 
 	protected void instrument(AppInstrumentContext context, AppInstrumentClass ic, ClassReader cr, ClassWriter cw) {
-		ClassNode cn = ASM.getClassNode(cr);
-		
+		instrument(context, ic, cr, ASM.getClassNode(cr), cw);
+	}
+
+	protected void instrument(AppInstrumentContext context, AppInstrumentClass ic, ClassReader cr, ClassNode cn, ClassWriter cw) {
 		transformClass(cr,cw, cn);
 		instrumentDelegates(cr,cw);
 		
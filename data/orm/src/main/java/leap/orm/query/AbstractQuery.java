@@ -34,6 +34,9 @@ import leap.orm.mapping.EntityMapping;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 public abstract class AbstractQuery<T> implements Query<T>,QueryContext {
 	
@@ -154,6 +157,18 @@ public abstract class AbstractQuery<T> implements Query<T>,QueryContext {
 	    return result().list();
     }
 	
+	@Override
+    public int forEach(Consumer<? super T> action) {
+		Args.notNull(action, "action");
+	    return executeQueryForEach(this, action);
+    }
+
+	@Override
+    public <R> R stream(Function<Stream<T>, R> func) {
+		Args.notNull(func, "function");
+	    return executeQueryForStream(this, func);
+    }
+	
 	@Override
     public OrmContext getOrmContext() {
 	    return dao.getOrmContext();
@@ -213,6 +228,10 @@ public abstract class AbstractQuery<T> implements Query<T>,QueryContext {
 
 	protected abstract QueryResult<T> executeQuery(QueryContext context);
 	
+	protected abstract int executeQueryForEach(QueryContext context, Consumer<? super T> action);
+	
+	protected abstract <R> R executeQueryForStream(QueryContext context, Function<Stream<T>, R> func);
+	
 	protected abstract Scalar executeQueryForScalar(QueryContext context) throws TooManyRecordsException;
 	
 	protected abstract Scalars executeQueryForScalars(QueryContext context) throws TooManyRecordsException;
@@ -381,6 +381,30 @@ public interface CriteriaQuery<T> extends Query<T> {
         return lastUpdated().limit(limit);
     }
 
+    /**
+     * Creates a {@link KeysetResult} for querying the records after the given continuation token in the keyset page mode.
+     *
+     * <p>
+     * The records are ordered by the order by fields and the primary key fields, the order by expression
+     * must only contains the fields of the entity.
+     *
+     * @param token the continuation token returned by {@link KeysetResult#getNextToken()}, <code>null</code> for first page.
+     * @param size  the max size of records in the page.
+     *
+     * @throws IllegalArgumentException if the token is invalid.
+     */
+    KeysetResult<T> keysetResult(@Nullable String token, int size) throws IllegalArgumentException;
+
+    /**
+     * Returns the estimated count of records from the statistics of the underlying db.
+     *
+     * <p>
+     * Executes a count(*) query if the query has conditions or the db does not support row count estimation.
+     *
+     * @see leap.db.DbDialect#getRowCountEstimateSql(leap.db.model.DbSchemaObjectName)
+     */
+    long estimateCount();
+
     /**
      * Executes a delete operation on this CriteriaQuery.
      */
@@ -26,6 +26,9 @@ import leap.orm.reader.ResultSetReaders;
 import leap.orm.sql.SqlCommand;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 public class DefaultCommandQuery<T> extends AbstractQuery<T> {
 	
@@ -54,6 +57,16 @@ public class DefaultCommandQuery<T> extends AbstractQuery<T> {
 	    return new DefaultQueryResult<T>(command.toString(),command.executeQuery(qc, params(), reader));
     }
 
+	@Override
+    protected int executeQueryForEach(QueryContext qc, Consumer<? super T> action) {
+	    return command.executeQuery(qc, params(), ResultSetReaders.forEachRow(dao.getOrmContext(), resultClass, command, action));
+    }
+
+	@Override
+    protected <R> R executeQueryForStream(QueryContext qc, Function<Stream<T>, R> func) {
+	    return command.executeQuery(qc, params(), ResultSetReaders.forStreamRow(dao.getOrmContext(), resultClass, command, func));
+    }
+
 	@Override
     protected Scalar executeQueryForScalar(QueryContext context) throws TooManyRecordsException {
 	    return command.executeQuery(context, params(), SimpleScalarReader.DEFAULT_INSTANCE);
@@ -33,6 +33,9 @@ import leap.orm.dao.Dao;
 import leap.orm.linq.Condition;
 import leap.orm.mapping.*;
 import leap.orm.reader.ResultSetReaders;
+import leap.orm.sharding.ShardingContext;
+import leap.orm.sharding.ShardingExecutor;
+import leap.orm.sharding.ShardingTable;
 import leap.orm.sql.SqlClause;
 import leap.orm.sql.SqlStatement;
 
@@ -42,7 +45,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 public class DefaultCriteriaQuery<T> extends AbstractQuery<T> implements CriteriaQuery<T>,QueryContext {
 	
@@ -55,6 +60,8 @@ public class DefaultCriteriaQuery<T> extends AbstractQuery<T> implements Criteri
     protected List          joinByIdArgs;
 	protected String        groupBy;
 	protected String        having;
+	protected String        keysetWhere;
+	protected List<Object>  keysetArgs;
 
 	public DefaultCriteriaQuery(Dao dao, EntityMapping em, Class<T> targetType) {
 	    super(dao, targetType, em);
@@ -552,11 +559,60 @@ public class DefaultCriteriaQuery<T> extends AbstractQuery<T> implements Criteri
 
 	@Override
     public long count() {
-		String sql = builder.buildCountSql();
-		SqlStatement statement = createQueryStatement(this,sql);
-	    return statement.executeQuery(ResultSetReaders.forScalarValue(Long.class, false));
+		String          sql     = builder.buildCountSql();
+		ScatterQuery<T> scatter = scatter(this, sql);
+	    return null != scatter ? scatter.count() : executeCount(this, sql);
     }
 	
+	@Override
+    public long estimateCount() {
+		if(!em.isSharding() && Strings.isEmpty(where) && null == joinByIdWhere && joins.isEmpty() && Strings.isEmpty(groupBy)) {
+			String sql = context.getDb().getDialect().getRowCountEstimateSql(em.getTable());
+			if(null != sql) {
+				Long count = dao.queryForLong(sql);
+				if(null != count && count >= 0) {
+					return count;
+				}
+			}
+		}
+	    return count();
+    }
+
+	@Override
+    public KeysetResult<T> keysetResult(String token, int size) throws IllegalArgumentException {
+		Args.assertTrue(size > 0, "The page size must be positive");
+
+		if(!Strings.isEmpty(groupBy)) {
+			throw new IllegalStateException("Keyset query not supports group by");
+		}
+
+		Keyset   keyset = Keyset.of(em, builder.alias, orderBy);
+		Object[] values = Strings.isEmpty(token) ? null : keyset.decodeToken(token);
+
+	    return new DefaultKeysetResult<>(this, keyset, token, size, () -> executeKeysetQuery(keyset, values, size));
+    }
+
+	/**
+	 * Queries <code>size + 1</code> rows after the given values of keyset, the order by and where of this query are not changed.
+	 */
+	protected List<T> executeKeysetQuery(Keyset keyset, Object[] values, int size) {
+		String order = this.orderBy;
+		try{
+			this.orderBy = keyset.getOrderBy();
+
+			if(null != values) {
+				this.keysetArgs  = new ArrayList<>();
+				this.keysetWhere = keyset.buildWhere(values, keysetArgs);
+			}
+
+			return result(new Limit(1, size + 1)).list();
+		}finally{
+			this.orderBy     = order;
+			this.keysetWhere = null;
+			this.keysetArgs  = null;
+		}
+	}
+	
 	@Override
     public int delete() {
 		String sql = builder.buildDeleteSql();
@@ -574,7 +630,87 @@ public class DefaultCriteriaQuery<T> extends AbstractQuery<T> implements Criteri
 
 	@Override
     protected QueryResult<T> executeQuery(QueryContext qc) {
-		String sql = builder.buildSelectSql();
+		String          sql     = builder.buildSelectSql();
+		ScatterQuery<T> scatter = scatter(qc, sql);
+		return null != scatter ? scatter.executeQuery(qc) : executeSingleQuery(qc, sql);
+    }
+
+	@Override
+    protected int executeQueryForEach(QueryContext qc, Consumer<? super T> action) {
+		String          sql     = builder.buildSelectSql();
+		ScatterQuery<T> scatter = scatter(qc, sql);
+		if(null == scatter) {
+			return executeSingleQueryForEach(qc, sql, action);
+		}
+
+		return scatter.executeQueryForStream(qc, s -> {
+			int[] count = new int[1];
+			s.forEach(row -> {
+				action.accept(row);
+				count[0]++;
+			});
+			return count[0];
+		});
+    }
+
+	@Override
+    protected <R> R executeQueryForStream(QueryContext qc, Function<Stream<T>, R> func) {
+		String          sql     = builder.buildSelectSql();
+		ScatterQuery<T> scatter = scatter(qc, sql);
+		return null != scatter ? scatter.executeQueryForStream(qc, func) : executeSingleQueryForStream(qc, sql, func);
+    }
+
+	@Override
+    protected Scalar executeQueryForScalar(QueryContext qc) throws TooManyRecordsException {
+		String          sql     = builder.buildSelectSql();
+		ScatterQuery<T> scatter = scatter(qc, sql);
+		return null != scatter ? scatter.executeQueryForScalar(qc, builder.selects) : executeSingleQueryForScalar(qc, sql);
+    }
+
+	@Override
+    protected Scalars executeQueryForScalars(QueryContext qc) throws TooManyRecordsException {
+		String          sql     = builder.buildSelectSql();
+		ScatterQuery<T> scatter = scatter(qc, sql);
+		return null != scatter ? scatter.executeQueryForScalars(qc) : executeSingleQueryForScalars(qc, sql);
+    }
+
+	/**
+	 * Returns a {@link ScatterQuery} of the given sql if the entity is sharding and this query cannot be routed to one sharding table,
+	 * or returns <code>null</code>.
+	 *
+	 * <p>
+	 * The sql is built by the caller thread, the sharding tables are queried by the built sql, so the {@link SqlBuilder}
+	 * is never used concurrently.
+	 *
+	 * @throws IllegalStateException if the query cannot be routed and has group by or having, the groups cannot be merged.
+	 */
+	protected ScatterQuery<T> scatter(QueryContext qc, String sql) {
+		if(!em.isSharding() || ShardingContext.isActive()) {
+			return null;
+		}
+
+		SqlClause clause = context.getQueryFactory().createQueryClause(dao, sql);
+		if(!clause.isUnroutedQuery(qc, queryParams(), em)) {
+			return null;
+		}
+
+		if(!Strings.isEmpty(groupBy) || !Strings.isEmpty(having)) {
+			throw new IllegalStateException("The query of sharding entity '" + em.getEntityName() +
+											"' without sharding condition not supports group by and having");
+		}
+
+		ShardingExecutor    executor = context.getAppContext().getBeanFactory().getBean(ShardingExecutor.class);
+		List<ShardingTable> tables   = em.getShardingAlgorithm().getShardingTables(context, em);
+
+		return new ScatterQuery<>(this, sql, executor, tables);
+	}
+
+	protected long executeCount(QueryContext qc, String sql) {
+		SqlStatement statement = createQueryStatement(qc,sql);
+	    return statement.executeQuery(ResultSetReaders.forScalarValue(Long.class, false));
+	}
+
+    protected QueryResult<T> executeSingleQuery(QueryContext qc, String sql) {
 		SqlStatement statement = createQueryStatement(qc,sql);
 		
 		ResultSetReader<List<T>> reader = ResultSetReaders.forListEntity(dao.getOrmContext(), em, targetType, targetType);
@@ -582,17 +718,36 @@ public class DefaultCriteriaQuery<T> extends AbstractQuery<T> implements Criteri
 		return new DefaultQueryResult<T>(sql,statement.executeQuery(reader));
     }
 	
-	@Override
-    protected Scalar executeQueryForScalar(QueryContext context) throws TooManyRecordsException {
-	    return buildQueryStatement(context).executeQuery(SimpleScalarReader.DEFAULT_INSTANCE);
+    protected int executeSingleQueryForEach(QueryContext qc, String sql, Consumer<? super T> action) {
+		SqlStatement statement = createQueryStatement(qc,sql);
+		return statement.executeQuery(ResultSetReaders.forEachEntity(dao.getOrmContext(), em, targetType, action));
     }
 
-	@Override
-    protected Scalars executeQueryForScalars(QueryContext context) throws TooManyRecordsException {
-	    return buildQueryStatement(context).executeQuery(SimpleScalarsReader.DEFAULT_INSTANCE);
+    protected <R> R executeSingleQueryForStream(QueryContext qc, String sql, Function<Stream<T>, R> func) {
+		SqlStatement statement = createQueryStatement(qc,sql);
+		return statement.executeQuery(ResultSetReaders.forStreamEntity(dao.getOrmContext(), em, targetType, func));
+    }
+	
+    protected Scalar executeSingleQueryForScalar(QueryContext context, String sql) throws TooManyRecordsException {
+	    return createQueryStatement(context,sql).executeQuery(SimpleScalarReader.DEFAULT_INSTANCE);
+    }
+
+    protected Scalars executeSingleQueryForScalars(QueryContext context, String sql) throws TooManyRecordsException {
+	    return createQueryStatement(context,sql).executeQuery(SimpleScalarsReader.DEFAULT_INSTANCE);
     }
 
     protected Object[] args() {
+        Object[] args = whereArgs();
+
+        if(null == keysetArgs) {
+            return args;
+        }
+
+        Object[] keyset = keysetArgs.toArray(Arrays2.EMPTY_OBJECT_ARRAY);
+        return null == args ? keyset : Arrays2.concat(args, keyset);
+    }
+
+    protected Object[] whereArgs() {
         if(null == whereParameters && null == joinByIdWhere) {
             return null;
         }
@@ -614,16 +769,17 @@ public class DefaultCriteriaQuery<T> extends AbstractQuery<T> implements Criteri
 
 	protected SqlStatement createQueryStatement(QueryContext qc, String sql) {
 		SqlClause clause = context.getQueryFactory().createQueryClause(dao, sql);
+		
+        return clause.createQueryStatement(qc, queryParams());
+	}
 
-        Object queryParams;
+	protected Object queryParams() {
         Object[] args = args();
         if(null == args) {
-            queryParams = params();
+            return params();
         }else {
-            queryParams = new MapArrayParams(paramsMap(), args);
+            return new MapArrayParams(paramsMap(), args);
         }
-		
-        return clause.createQueryStatement(qc, queryParams);
 	}
 	
 	protected SqlStatement createUpdateStatement(QueryContext qc, String sql) {
@@ -908,7 +1064,12 @@ public class DefaultCriteriaQuery<T> extends AbstractQuery<T> implements Criteri
                         sql.append(",");
                     }
                     
-                    sql.append(alias).append(".").append(column);
+                    //aggregate function, i.e. count(*)
+                    if(column.indexOf('(') > 0) {
+                        sql.append(column);
+                    }else{
+                        sql.append(alias).append(".").append(column);
+                    }
                     
                     index++;
                 }
@@ -970,6 +1131,18 @@ public class DefaultCriteriaQuery<T> extends AbstractQuery<T> implements Criteri
                     sql.append(" )");
                 }
 
+            }
+
+            if(null != keysetWhere) {
+
+                if(Strings.isEmpty(where) && null == joinByIdWhere) {
+                    sql.append(" where ").append(keysetWhere);
+                }else{
+                    sql.append(" and ( ");
+                    sql.append(keysetWhere);
+                    sql.append(" )");
+                }
+
             }
 
 	        return this;
@@ -27,6 +27,9 @@ import leap.orm.reader.ResultSetReaders;
 import leap.orm.sql.SqlCommand;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 public class DefaultEntityQuery<T> extends AbstractQuery<T> implements EntityQuery<T> {
 
@@ -60,6 +63,16 @@ public class DefaultEntityQuery<T> extends AbstractQuery<T> implements EntityQue
 	    return new DefaultQueryResult<T>(command.toString(),command.executeQuery(qc, params(), reader));
     }
 
+	@Override
+    protected int executeQueryForEach(QueryContext qc, Consumer<? super T> action) {
+	    return command.executeQuery(qc, params(), ResultSetReaders.forEachEntity(dao.getOrmContext(), em, resultClass, action));
+    }
+
+	@Override
+    protected <R> R executeQueryForStream(QueryContext qc, Function<Stream<T>, R> func) {
+	    return command.executeQuery(qc, params(), ResultSetReaders.forStreamEntity(dao.getOrmContext(), em, resultClass, func));
+    }
+
 	@Override
     protected Scalar executeQueryForScalar(QueryContext context) throws TooManyRecordsException {
 	    return command.executeQuery(context, params(), SimpleScalarReader.DEFAULT_INSTANCE);
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.orm.query;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+public class DefaultKeysetResult<T> implements KeysetResult<T> {
+
+	protected final CriteriaQuery<T> query;
+	protected final Keyset           keyset;
+	protected final String           token;
+	protected final int              pageSize;
+	protected final Supplier<List<T>> loader;
+
+	private long    totalCount          = -1;
+	private long    estimatedTotalCount = -1;
+	private List<T> list;
+	private String  nextToken;
+
+	/**
+	 * The loader must returns at most <code>pageSize + 1</code> rows, the extra row indicates the next page exists.
+	 */
+	public DefaultKeysetResult(CriteriaQuery<T> query, Keyset keyset, String token, int pageSize, Supplier<List<T>> loader) {
+		this.query    = query;
+		this.keyset   = keyset;
+		this.token    = token;
+		this.pageSize = pageSize;
+		this.loader   = loader;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return list().isEmpty();
+	}
+
+	@Override
+	public int size() {
+		return list().size();
+	}
+
+	@Override
+	public int getPageSize() {
+		return pageSize;
+	}
+
+	@Override
+	public String getToken() {
+		return token;
+	}
+
+	@Override
+	public String getNextToken() {
+		list();
+		return nextToken;
+	}
+
+	@Override
+	public long getTotalCount() {
+		if(-1 == totalCount) {
+			totalCount = query.count();
+		}
+		return totalCount;
+	}
+
+	@Override
+	public long getEstimatedTotalCount() {
+		if(-1 == estimatedTotalCount) {
+			estimatedTotalCount = -1 == totalCount ? query.estimateCount() : totalCount;
+		}
+		return estimatedTotalCount;
+	}
+
+	@Override
+	public List<T> list() {
+		if(null == list) {
+			List<T> rows = loader.get();
+
+			if(rows.size() > pageSize) {
+				list      = rows.subList(0, pageSize);
+				nextToken = keyset.encodeToken(list.get(pageSize - 1));
+			}else{
+				list = rows;
+			}
+		}
+		return list;
+	}
+
+}
@@ -15,8 +15,13 @@
  */
 package leap.orm.query;
 
+import leap.core.annotation.ConfigProperty;
+import leap.core.annotation.Configurable;
 import leap.core.annotation.Inject;
 import leap.core.annotation.M;
+import leap.core.cache.Cache;
+import leap.core.cache.ConcurrentCache;
+import leap.orm.OrmContext;
 import leap.orm.dao.Dao;
 import leap.orm.mapping.EntityMapping;
 import leap.orm.sql.SqlClause;
@@ -24,10 +29,62 @@ import leap.orm.sql.SqlCommand;
 import leap.orm.sql.SqlFactory;
 import leap.orm.sql.SqlLanguage;
 
+import java.util.concurrent.atomic.LongAdder;
+
+@Configurable(prefix="orm.queryFactory")
 public class DefaultQueryFactory implements QueryFactory {
 	
+	public static final int DEFAULT_CLAUSE_CACHE_SIZE = 1024;
+	
     protected @Inject @M SqlLanguage queryLanguage;
     protected @Inject @M SqlFactory  sqlFactory;
+
+    private final LongAdder clauseParses = new LongAdder();
+    private final LongAdder clauseHits   = new LongAdder();
+    private final LongAdder clauseMisses = new LongAdder();
+
+    private Cache<ClauseKey, CachedClause> clauseCache = new ConcurrentCache<>(DEFAULT_CLAUSE_CACHE_SIZE);
+
+    /**
+     * Sets the max number of parsed {@link SqlClause} cached by this factory, <code>0</code> disables the cache.
+     */
+    @ConfigProperty
+    public void setClauseCacheSize(int size) {
+        if(size < 0) {
+            throw new IllegalArgumentException("The clause cache size must not be negative");
+        }
+        this.clauseCache = size == 0 ? null : new ConcurrentCache<>(size);
+    }
+
+    /**
+     * Returns the number of sql clauses parsed by {@link #createQueryClause(Dao, String)}.
+     */
+    public long getClauseParseCount() {
+        return clauseParses.sum();
+    }
+
+    /**
+     * Returns the number of sql clauses returned from the cache.
+     */
+    public long getClauseCacheHitCount() {
+        return clauseHits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that did not find a valid sql clause in the cache.
+     */
+    public long getClauseCacheMissCount() {
+        return clauseMisses.sum();
+    }
+
+    /**
+     * Removes all the cached sql clauses.
+     */
+    public void clearClauseCache() {
+        if(null != clauseCache) {
+            clauseCache.clear();
+        }
+    }
 	
 	@Override
     public <T> Query<T> createQuery(Dao dao, Class<T> resultClass, String sql) {
@@ -56,6 +113,74 @@ public class DefaultQueryFactory implements QueryFactory {
 	
 	@Override
     public SqlClause createQueryClause(Dao dao, String sql) {
-	    return queryLanguage.parseClause(dao.getOrmContext(), sql);
+        OrmContext                     context = dao.getOrmContext();
+        Cache<ClauseKey, CachedClause> cache   = this.clauseCache;
+
+        if(null == cache) {
+            return parseQueryClause(context, sql);
+        }
+
+        //The entity mappings are used to resolve the sql, so the clause parsed by an old version must be parsed again.
+        long         version = context.getMetadata().getEntityMappingVersion();
+        ClauseKey    key     = new ClauseKey(context, sql);
+        CachedClause cached  = cache.get(key);
+
+        if(null != cached && cached.version == version) {
+            clauseHits.increment();
+            return cached.clause;
+        }
+
+        clauseMisses.increment();
+
+        SqlClause clause = parseQueryClause(context, sql);
+        cache.put(key, new CachedClause(clause, version));
+        return clause;
+    }
+
+    protected SqlClause parseQueryClause(OrmContext context, String sql) {
+        clauseParses.increment();
+        return queryLanguage.parseClause(context, sql);
+    }
+
+    /**
+     * The clause is bound to the orm context, which determines the db dialect used to create the statements.
+     */
+    private static final class ClauseKey {
+        private final OrmContext context;
+        private final String     sql;
+        private final int        hash;
+
+        ClauseKey(OrmContext context, String sql) {
+            this.context = context;
+            this.sql     = sql;
+            this.hash    = 31 * System.identityHashCode(context) + sql.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(this == o) {
+                return true;
+            }
+            if(!(o instanceof ClauseKey)) {
+                return false;
+            }
+            ClauseKey other = (ClauseKey)o;
+            return context == other.context && hash == other.hash && sql.equals(other.sql);
+        }
+    }
+
+    private static final class CachedClause {
+        private final SqlClause clause;
+        private final long      version;
+
+        CachedClause(SqlClause clause, long version) {
+            this.clause  = clause;
+            this.version = version;
+        }
     }
 }
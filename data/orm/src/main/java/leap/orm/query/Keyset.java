@@ -0,0 +1,351 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.orm.query;
+
+import leap.lang.Strings;
+import leap.lang.codec.Base64;
+import leap.lang.convert.Converts;
+import leap.lang.json.JSON;
+import leap.orm.mapping.EntityMapping;
+import leap.orm.mapping.FieldMapping;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The ordered fields of a keyset (seek) page query, which are the order by fields and the primary key fields.
+ *
+ * <p>
+ * A continuation token is the url safe base64 string of the json contains the values of the ordered fields in the last row
+ * of previous page and a hash of the order by expression, so a token can only be used for the query of the same order.
+ *
+ * <p>
+ * The ordered fields should be not null, the rows will be skipped or repeated if the values of the ordered fields are null.
+ *
+ * <p>
+ * The date values are encoded as milliseconds, and the timestamp values which have sub-millisecond precision
+ * are encoded as the milliseconds and the nanos.
+ */
+public class Keyset {
+
+    private static final String HASH   = "h";
+    private static final String VALUES = "v";
+
+    /**
+     * Resolves the keyset of the given order by expression (may be empty), the primary key fields will be appended
+     * if not exists in the expression.
+     *
+     * @throws IllegalStateException if the order by expression contains item which is not a field of the entity.
+     */
+    public static Keyset of(EntityMapping em, String alias, String orderBy) throws IllegalStateException {
+        List<Item> items = new ArrayList<>();
+
+        if(!Strings.isEmpty(orderBy)) {
+            for(String expr : Strings.split(orderBy, ',')) {
+                String[] parts = Strings.splitWhitespaces(expr);
+
+                boolean desc = false;
+                if(parts.length == 2 && (Strings.equalsIgnoreCase("desc", parts[1]) || Strings.equalsIgnoreCase("asc", parts[1]))) {
+                    desc = Strings.equalsIgnoreCase("desc", parts[1]);
+                }else if(parts.length != 1) {
+                    throw new IllegalStateException("Keyset query not supports the order by expression '" + expr + "'");
+                }
+
+                String name = parts[0];
+                if(!Strings.isEmpty(alias) && Strings.startsWithIgnoreCase(name, alias + ".")) {
+                    name = name.substring(alias.length() + 1);
+                }
+
+                FieldMapping fm = em.tryGetFieldMapping(name);
+                if(null == fm) {
+                    fm = em.tryGetFieldMappingByColumn(name);
+                }
+                if(null == fm) {
+                    throw new IllegalStateException("Keyset query requires the order by fields of entity '" +
+                                                    em.getEntityName() + "', cannot resolve '" + expr + "'");
+                }
+
+                items.add(new Item(fm, desc));
+            }
+        }
+
+        for(FieldMapping key : em.getKeyFieldMappings()) {
+            boolean exists = false;
+            for(Item item : items) {
+                if(item.field == key) {
+                    exists = true;
+                    break;
+                }
+            }
+            if(!exists) {
+                items.add(new Item(key, false));
+            }
+        }
+
+        if(items.isEmpty()) {
+            throw new IllegalStateException("Keyset query requires order by fields or primary key in entity '" + em.getEntityName() + "'");
+        }
+
+        return new Keyset(alias, items.toArray(new Item[items.size()]));
+    }
+
+    protected final String alias;
+    protected final Item[] items;
+    protected final String orderBy;
+    protected final String hash;
+
+    protected Keyset(String alias, Item[] items) {
+        this.alias   = alias;
+        this.items   = items;
+        this.orderBy = buildOrderBy();
+        this.hash    = Integer.toHexString(orderBy.hashCode());
+    }
+
+    /**
+     * Returns the order by expression contains all the ordered fields.
+     */
+    public String getOrderBy() {
+        return orderBy;
+    }
+
+    /**
+     * Returns the fields of the ordered fields, the rows must contain the values of these fields for encoding the token.
+     */
+    public FieldMapping[] getFields() {
+        FieldMapping[] fields = new FieldMapping[items.length];
+        for(int i=0;i<items.length;i++) {
+            fields[i] = items[i].field;
+        }
+        return fields;
+    }
+
+    /**
+     * Returns the continuation token contains the values of ordered fields in the given row (record or entity).
+     *
+     * @throws IllegalStateException if the value of an ordered field is null, i.e. the field was not selected.
+     */
+    public String encodeToken(Object row) throws IllegalStateException {
+        List<Object> values = new ArrayList<>(items.length);
+
+        for(Item item : items) {
+            Object value = getValue(row, item.field);
+            if(null == value) {
+                throw new IllegalStateException("The value of keyset field '" + item.field.getFieldName() +
+                                                "' is null, the field must be selected and not null");
+            }
+            values.add(encodeValue(value));
+        }
+
+        Map<String, Object> token = new LinkedHashMap<>(2);
+        token.put(HASH,   hash);
+        token.put(VALUES, values);
+
+        return Base64.urlEncode(JSON.encode(token));
+    }
+
+    /**
+     * Returns the values of the ordered fields in the given token.
+     *
+     * @throws IllegalArgumentException if the token is invalid or was not created by the keyset of the same order.
+     */
+    public Object[] decodeToken(String token) throws IllegalArgumentException {
+        Map<String, Object> map;
+        try{
+            map = JSON.decode(Strings.newStringUtf8(Base64.urlDecodeToBytes(Strings.getBytesUtf8(token))));
+        }catch(Exception e) {
+            throw new IllegalArgumentException("Invalid keyset token '" + token + "'", e);
+        }
+
+        if(null == map || !hash.equals(map.get(HASH)) || !(map.get(VALUES) instanceof List)) {
+            throw new IllegalArgumentException("Invalid keyset token '" + token + "', the order was changed?");
+        }
+
+        List<?> list = (List<?>)map.get(VALUES);
+        if(list.size() != items.length) {
+            throw new IllegalArgumentException("Invalid keyset token '" + token + "', the order was changed?");
+        }
+
+        Object[] values = new Object[items.length];
+        for(int i=0;i<items.length;i++) {
+            Object v = list.get(i);
+            if(v instanceof List) {
+                v = decodeTimestamp((List<?>)v, token);
+                if(items[i].field.getJavaType().isInstance(v)) {
+                    values[i] = v;
+                    continue;
+                }
+            }
+            values[i] = null == v ? null : Converts.convert(v, items[i].field.getJavaType());
+        }
+        return values;
+    }
+
+    protected Object encodeValue(Object value) {
+        if(value instanceof Timestamp) {
+            Timestamp ts = (Timestamp)value;
+            if(ts.getNanos() % 1000000 != 0) {
+                List<Object> list = new ArrayList<>(2);
+                list.add(ts.getTime());
+                list.add(ts.getNanos());
+                return list;
+            }
+        }
+        if(value instanceof Date) {
+            return ((Date) value).getTime();
+        }
+        return value;
+    }
+
+    protected Timestamp decodeTimestamp(List<?> list, String token) throws IllegalArgumentException {
+        if(list.size() != 2 || !(list.get(0) instanceof Number) || !(list.get(1) instanceof Number)) {
+            throw new IllegalArgumentException("Invalid keyset token '" + token + "'");
+        }
+        Timestamp ts = new Timestamp(((Number)list.get(0)).longValue());
+        ts.setNanos(((Number)list.get(1)).intValue());
+        return ts;
+    }
+
+    /**
+     * Returns a comparator of the rows (record or entity) in the order of the ordered fields, the null value is the smallest.
+     *
+     * <p>
+     * The values are compared by {@link Comparable}, the order of strings may be different from the collation of db.
+     */
+    public Comparator<Object> comparator() {
+        return comparator(false, false);
+    }
+
+    /**
+     * Returns a comparator of the rows (record or entity) in the order of the ordered fields.
+     *
+     * <p>
+     * If <code>nullsFixed</code> is <code>false</code> the null value is the largest if <code>nullsHigh</code> is <code>true</code>
+     * or the smallest, i.e. <code>nulls first</code> of desc order and <code>nulls last</code> of asc order if it is the largest.
+     *
+     * <p>
+     * If <code>nullsFixed</code> is <code>true</code> the null values are at the end if <code>nullsHigh</code> is <code>true</code>
+     * or at the start, whatever the order is asc or desc.
+     *
+     * @see #comparator()
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Comparator<Object> comparator(boolean nullsHigh, boolean nullsFixed) {
+        return (r1, r2) -> {
+            for(Item item : items) {
+                Object v1 = getValue(r1, item.field);
+                Object v2 = getValue(r2, item.field);
+
+                if(v1 == v2) {
+                    continue;
+                }
+
+                if(null == v1 || null == v2) {
+                    int c = (null == v1) == nullsHigh ? 1 : -1;
+                    return item.desc && !nullsFixed ? -c : c;
+                }
+
+                int c = ((Comparable)v1).compareTo(v2);
+                if(c != 0) {
+                    return item.desc ? -c : c;
+                }
+            }
+            return 0;
+        };
+    }
+
+    /**
+     * Returns the where expression for querying the rows after the given values of ordered fields.
+     *
+     * <p>
+     * The args of the placeholders in the expression will be added to the given list.
+     */
+    public String buildWhere(Object[] values, List<Object> args) {
+        //(k1 > ?) or (k1 = ? and k2 > ?) or ...
+        StringBuilder s = new StringBuilder();
+
+        for(int i=0;i<items.length;i++) {
+            if(i > 0) {
+                s.append(" or ");
+            }
+            s.append('(');
+
+            for(int j=0;j<i;j++) {
+                appendColumn(s, items[j]).append(" = ? and ");
+                args.add(values[j]);
+            }
+
+            appendColumn(s, items[i]).append(items[i].desc ? " < ?" : " > ?");
+            args.add(values[i]);
+
+            s.append(')');
+        }
+
+        return s.toString();
+    }
+
+    protected String buildOrderBy() {
+        StringBuilder s = new StringBuilder();
+
+        for(int i=0;i<items.length;i++) {
+            if(i > 0) {
+                s.append(',');
+            }
+            appendColumn(s, items[i]).append(items[i].desc ? " desc" : " asc");
+        }
+
+        return s.toString();
+    }
+
+    protected StringBuilder appendColumn(StringBuilder s, Item item) {
+        if(!Strings.isEmpty(alias)) {
+            s.append(alias).append('.');
+        }
+        return s.append(item.field.getColumnName());
+    }
+
+    protected Object getValue(Object row, FieldMapping fm) {
+        if(row instanceof Map) {
+            Map<?,?> map = (Map<?,?>)row;
+
+            Object value = map.get(fm.getFieldName());
+            if(null == value && !map.containsKey(fm.getFieldName())) {
+                value = map.get(fm.getColumnName());
+            }
+            return value;
+        }
+
+        if(null != fm.getBeanProperty()) {
+            return fm.getBeanProperty().getValue(row);
+        }
+
+        throw new IllegalStateException("Cannot read the value of field '" + fm.getFieldName() + "' from the row '" + row + "'");
+    }
+
+    protected static final class Item {
+        final FieldMapping field;
+        final boolean      desc;
+
+        Item(FieldMapping field, boolean desc) {
+            this.field = field;
+            this.desc  = desc;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.orm.query;
+
+import leap.lang.Emptiable;
+import leap.lang.annotation.Nullable;
+
+import java.util.List;
+
+/**
+ * The result of a keyset (seek) page, which continues from the last row of the previous page
+ * by the values of the order by fields instead of skipping rows by offset.
+ *
+ * <p>
+ * The total count is not queried unless {@link #getTotalCount()} or {@link #getEstimatedTotalCount()} is invoked.
+ */
+public interface KeysetResult<T> extends Emptiable {
+
+    /**
+     * Returns the max size of records in a page.
+     */
+    int getPageSize();
+
+    /**
+     * Returns the continuation token of this page, or <code>null</code> if this is the first page.
+     */
+    @Nullable
+    String getToken();
+
+    /**
+     * Returns the opaque continuation token for querying the next page, or <code>null</code> if this is the last page.
+     */
+    @Nullable
+    String getNextToken();
+
+    /**
+     * Returns <code>true</code> if the next page has records.
+     */
+    default boolean hasNext() {
+        return null != getNextToken();
+    }
+
+    /**
+     * Executes a count(*) query and returns the total count of this query (not the remaining count).
+     */
+    long getTotalCount();
+
+    /**
+     * Returns the estimated total count of this query.
+     *
+     * @see CriteriaQuery#estimateCount()
+     */
+    long getEstimatedTotalCount();
+
+    /**
+     * Returns the size of result records.
+     */
+    int size();
+
+    /**
+     * Returns the records.
+     */
+    List<T> list();
+
+}
@@ -26,8 +26,12 @@ import leap.lang.params.Params;
 import leap.lang.value.Limit;
 import leap.lang.value.Page;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 public interface Query<T> {
 	
@@ -187,6 +191,33 @@ public interface Query<T> {
 	 */
 	List<T> list();
 	
+	/**
+	 * Executes this query and passes the rows to the given action one by one, returns the number of rows.
+	 * 
+	 * <p>
+	 * The rows are read lazily and not hold in memory, the connection and result set will be closed after
+	 * all the rows consumed or the action throws an exception.
+	 */
+	int forEach(Consumer<? super T> action);
+	
+	/**
+	 * Executes this query and applies the given function to a {@link Stream} reads the rows one by one.
+	 * 
+	 * <p>
+	 * The stream is valid only inside the function, the connection and result set will be closed after the function returns,
+	 * even if the stream was not consumed fully.
+	 */
+	<R> R stream(Function<Stream<T>, R> func);
+	
+	/**
+	 * Executes this query and applies the given function to an {@link Iterator} reads the rows one by one.
+	 * 
+	 * @see #stream(Function)
+	 */
+	default <R> R cursor(Function<Iterator<T>, R> func) {
+		return stream(s -> func.apply(s.iterator()));
+	}
+	
 	/**
 	 * Returns the scalar value in this query result.
 	 * 
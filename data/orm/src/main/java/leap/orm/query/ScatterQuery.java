@@ -0,0 +1,417 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package leap.orm.query;
+
+import leap.core.jdbc.JdbcExecutor;
+import leap.core.value.Scalar;
+import leap.core.value.Scalars;
+import leap.core.value.SimpleScalar;
+import leap.core.value.SimpleScalars;
+import leap.db.DbMetadata;
+import leap.lang.Strings;
+import leap.lang.value.Limit;
+import leap.orm.OrmContext;
+import leap.orm.dao.Dao;
+import leap.orm.mapping.EntityMapping;
+import leap.orm.sharding.ShardingContext;
+import leap.orm.sharding.ShardingExecutor;
+import leap.orm.sharding.ShardingTable;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Executes a {@link DefaultCriteriaQuery} of the sharding entity which cannot be routed to one sharding table
+ * in all the sharding tables, and merges the results.
+ *
+ * <p>
+ * The order by and the end row of limit are pushed down to each table, the ordered rows of the tables are merged by
+ * a k-way merge, so the order by expression must only contains the fields of the entity.
+ *
+ * <p>
+ * The scalar query only supports the count, sum, min and max aggregation.
+ *
+ * <p>
+ * The tables are queried by the {@link ShardingExecutor} (may be in parallel), or one by one in the caller thread
+ * if a transaction is active, so the statements are executed in the transaction.
+ */
+public class ScatterQuery<T> {
+
+    protected final DefaultCriteriaQuery<T> query;
+    protected final String                  sql;
+    protected final EntityMapping           em;
+    protected final ShardingExecutor        executor;
+    protected final List<ShardingTable>     tables;
+
+    /**
+     * Creates a scatter query executing the given sql (built by the caller thread) in all the given tables.
+     */
+    public ScatterQuery(DefaultCriteriaQuery<T> query, String sql, ShardingExecutor executor, List<ShardingTable> tables) {
+        this.query    = query;
+        this.sql      = sql;
+        this.em       = query.getEntityMapping();
+        this.executor = executor;
+        this.tables   = tables;
+    }
+
+    public QueryResult<T> executeQuery(QueryContext qc) {
+        Limit limit = shardLimit(qc.getLimit());
+
+        List<QueryResult<T>> results =
+                scatter((table) -> query.executeSingleQuery(shardContext(qc, table, limit), sql));
+
+        List<Iterator<T>> iterators = new ArrayList<>(results.size());
+        for(QueryResult<T> result : results) {
+            iterators.add(result.list().iterator());
+        }
+
+        List<T> list = new ArrayList<>();
+        limit(merge(qc.getOrderBy(), iterators), qc.getLimit()).forEach(list::add);
+
+        return new DefaultQueryResult<>("scatter query of entity '" + em.getEntityName() + "' in " + tables, list);
+    }
+
+    /**
+     * Reads the rows of all the tables in one stream, the result sets of all the tables are opened at the same time
+     * and merged lazily.
+     *
+     * <p>
+     * Each result set is read by its own connection, the rows of the table are read into memory if the connection
+     * is shared by an active transaction.
+     */
+    public <R> R executeQueryForStream(QueryContext qc, Function<Stream<T>, R> func) {
+        Limit limit = shardLimit(qc.getLimit());
+
+        return openStreams(qc, limit, 0, new ArrayList<>(tables.size()),
+                            (iterators) -> func.apply(limit(merge(qc.getOrderBy(), iterators), qc.getLimit())));
+    }
+
+    /**
+     * Returns the sum of the counts of all the tables.
+     */
+    public long count() {
+        long count = 0;
+        for(Long c : scatter((table) -> query.executeCount(shardContext(query, table, null), sql))) {
+            count += c;
+        }
+        return count;
+    }
+
+    public Scalar executeQueryForScalar(QueryContext qc, String[] selects) {
+        String func = aggregateFunction(selects);
+
+        List<Scalar> scalars =
+                scatter((table) -> query.executeSingleQueryForScalar(shardContext(qc, table, qc.getLimit()), sql));
+
+        boolean found = false;
+        Object  value = null;
+        for(Scalar scalar : scalars) {
+            if(null == scalar) {
+                continue;
+            }
+            found = true;
+
+            if(!scalar.isNull()) {
+                value = null == value ? scalar.get() : aggregate(func, value, scalar.get());
+            }
+        }
+
+        return found ? new SimpleScalar(value) : null;
+    }
+
+    public Scalars executeQueryForScalars(QueryContext qc) {
+        List<Object> values = new ArrayList<>();
+
+        for(Scalars scalars : scatter((table) -> query.executeSingleQueryForScalars(shardContext(qc, table, qc.getLimit()), sql))) {
+            values.addAll(scalars.list());
+        }
+
+        return new SimpleScalars(values);
+    }
+
+    protected <R> R openStreams(QueryContext qc, Limit limit, int index, List<Iterator<T>> iterators, Function<List<Iterator<T>>, R> func) {
+        if(index == tables.size()) {
+            return func.apply(iterators);
+        }
+
+        ShardingTable table = tables.get(index);
+        QueryContext  sc    = shardContext(qc, table, limit);
+
+        //The connection of the transaction cannot read a result set while the other one is opened (i.e. mysql streaming).
+        if(shardDao(table).hasActiveTransaction()) {
+            iterators.add(ShardingContext.execute(em, table.getTableName(), () -> query.executeSingleQuery(sc, sql).list().iterator()));
+            return openStreams(qc, limit, index + 1, iterators, func);
+        }
+
+        return ShardingContext.execute(em, table.getTableName(), () -> query.executeSingleQueryForStream(sc, sql, (s) -> {
+            iterators.add(s.iterator());
+            return openStreams(qc, limit, index + 1, iterators, func);
+        }));
+    }
+
+    /**
+     * Applies the function to all the tables by the {@link ShardingExecutor}.
+     *
+     * <p>
+     * The statements executed by the pool threads do not join the transaction of the caller thread,
+     * so the tables are queried one by one in the caller thread if a transaction is active.
+     */
+    protected <R> List<R> scatter(Function<ShardingTable, R> func) {
+        if(!inTransaction()) {
+            return executor.scatter(em, tables, func);
+        }
+
+        List<R> results = new ArrayList<>(tables.size());
+        for(ShardingTable table : tables) {
+            results.add(ShardingContext.execute(em, table.getTableName(), () -> func.apply(table)));
+        }
+        return results;
+    }
+
+    protected boolean inTransaction() {
+        if(query.dao.hasActiveTransaction()) {
+            return true;
+        }
+
+        for(ShardingTable table : tables) {
+            if(shardDao(table).hasActiveTransaction()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    protected Iterator<T> merge(String orderBy, List<Iterator<T>> iterators) {
+        if(iterators.size() == 1) {
+            return iterators.get(0);
+        }
+
+        if(Strings.isEmpty(orderBy)) {
+            return new ConcatIterator<>(iterators);
+        }
+
+        Keyset keyset;
+        try {
+            keyset = Keyset.of(em, query.alias(), orderBy);
+        }catch (IllegalStateException e) {
+            throw new IllegalStateException("Cannot merge the ordered rows of the scatter query, " + e.getMessage(), e);
+        }
+
+        //The null values are merged in the same order as the db sorts them.
+        DbMetadata md = query.dao.getOrmContext().getDb().getMetadata();
+
+        Comparator<Object> comparator;
+        if(md.nullsAreSortedAtStart()) {
+            comparator = keyset.comparator(false, true);
+        }else if(md.nullsAreSortedAtEnd()) {
+            comparator = keyset.comparator(true, true);
+        }else{
+            comparator = keyset.comparator(md.nullsAreSortedHigh(), false);
+        }
+
+        return new MergeIterator<>(iterators, comparator);
+    }
+
+    protected Stream<T> limit(Iterator<T> it, Limit limit) {
+        Stream<T> stream = StreamSupport.stream(Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED), false);
+
+        if(null != limit) {
+            stream = stream.skip(limit.getStart() - 1).limit(limit.getEnd() - limit.getStart() + 1);
+        }
+
+        return stream;
+    }
+
+    /**
+     * Each table returns the first <code>end</code> rows of the limit.
+     */
+    protected Limit shardLimit(Limit limit) {
+        return null == limit ? null : new Limit(1, limit.getEnd());
+    }
+
+    protected QueryContext shardContext(QueryContext qc, ShardingTable table, Limit limit) {
+        return new ShardQueryContext(shardDao(table), limit, qc.getOrderBy());
+    }
+
+    protected Dao shardDao(ShardingTable table) {
+        return null == table.getDataSourceName() ? query.dao : Dao.get(table.getDataSourceName());
+    }
+
+    protected String aggregateFunction(String[] selects) {
+        if(null != selects && selects.length == 1) {
+            String select = selects[0].trim().toLowerCase(Locale.ROOT);
+
+            for(String func : new String[]{"count", "sum", "min", "max"}) {
+                if(select.startsWith(func + "(")) {
+                    //the distinct values of tables cannot be merged by the results.
+                    if(isDistinct(select.substring(func.length() + 1).trim())) {
+                        throw new IllegalStateException("The scalar query of sharding entity '" + em.getEntityName() +
+                                                        "' without sharding condition not supports distinct aggregation");
+                    }
+                    return func;
+                }
+            }
+        }
+
+        throw new IllegalStateException("The scalar query of sharding entity '" + em.getEntityName() +
+                                        "' without sharding condition must select one of count, sum, min and max aggregation");
+    }
+
+    private static boolean isDistinct(String arg) {
+        return arg.startsWith("distinct") && arg.length() > 8 && !Character.isJavaIdentifierPart(arg.charAt(8));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    protected Object aggregate(String func, Object v1, Object v2) {
+        if("min".equals(func)) {
+            return ((Comparable)v1).compareTo(v2) <= 0 ? v1 : v2;
+        }
+
+        if("max".equals(func)) {
+            return ((Comparable)v1).compareTo(v2) >= 0 ? v1 : v2;
+        }
+
+        //count or sum
+        if(isIntegral(v1) && isIntegral(v2)) {
+            return ((Number)v1).longValue() + ((Number)v2).longValue();
+        }
+        return toDecimal(v1).add(toDecimal(v2));
+    }
+
+    private static boolean isIntegral(Object v) {
+        return v instanceof Long || v instanceof Integer || v instanceof Short || v instanceof Byte;
+    }
+
+    private static BigDecimal toDecimal(Object v) {
+        return v instanceof BigDecimal ? (BigDecimal)v : new BigDecimal(v.toString());
+    }
+
+    protected class ShardQueryContext implements QueryContext {
+
+        private final Dao    dao;
+        private final Limit  limit;
+        private final String orderBy;
+
+        public ShardQueryContext(Dao dao, Limit limit, String orderBy) {
+            this.dao     = dao;
+            this.limit   = limit;
+            this.orderBy = orderBy;
+        }
+
+        @Override
+        public EntityMapping getPrimaryEntityMapping() {
+            return em;
+        }
+
+        @Override
+        public OrmContext getOrmContext() {
+            return dao.getOrmContext();
+        }
+
+        @Override
+        public JdbcExecutor getJdbcExecutor() {
+            return dao;
+        }
+
+        @Override
+        public Limit getLimit() {
+            return limit;
+        }
+
+        @Override
+        public String getOrderBy() {
+            return orderBy;
+        }
+    }
+
+    protected static class ConcatIterator<T> implements Iterator<T> {
+
+        private final Iterator<Iterator<T>> iterators;
+        private Iterator<T> current;
+
+        public ConcatIterator(List<Iterator<T>> iterators) {
+            this.iterators = iterators.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while((null == current || !current.hasNext()) && iterators.hasNext()) {
+                current = iterators.next();
+            }
+            return null != current && current.hasNext();
+        }
+
+        @Override
+        public T next() {
+            if(!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+    }
+
+    /**
+     * Merges the ordered iterators by a priority queue of the head rows.
+     */
+    protected static class MergeIterator<T> implements Iterator<T> {
+
+        private final PriorityQueue<Head<T>> heads;
+
+        public MergeIterator(List<Iterator<T>> iterators, Comparator<Object> comparator) {
+            this.heads = new PriorityQueue<>(Math.max(1, iterators.size()), (h1, h2) -> comparator.compare(h1.row, h2.row));
+
+            for(Iterator<T> it : iterators) {
+                if(it.hasNext()) {
+                    heads.add(new Head<>(it.next(), it));
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            Head<T> head = heads.poll();
+            if(null == head) {
+                throw new NoSuchElementException();
+            }
+
+            T row = head.row;
+            if(head.it.hasNext()) {
+                heads.add(new Head<>(head.it.next(), head.it));
+            }
+            return row;
+        }
+    }
+
+    private static final class Head<T> {
+        final T           row;
+        final Iterator<T> it;
+
+        Head(T row, Iterator<T> it) {
+            this.row = row;
+            this.it  = it;
+        }
+    }
+}
@@ -38,6 +38,7 @@ import leap.orm.value.EntityBase;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -93,6 +94,21 @@ public class DefaultEntityReader implements EntityReader {
 		return list;
     }
 	
+	@Override
+    public <T> Iterator<T> iterate(OrmContext context, ResultSet rs, EntityMapping em, Class<? extends T> resultClass) {
+	    return new ResultSetIterator<T>(rs) {
+	    	private ResultSetMapping rsm;
+	    	
+			@Override
+            protected T readRow(ResultSet rs) throws SQLException {
+				if(null == rsm) {
+					rsm = createResultSetMapping(context, rs, em);
+				}
+	            return readCurrentRow(context, rs, rsm, resultClass);
+            }
+		};
+    }
+
 	@SuppressWarnings("unchecked")
     protected <T> T readCurrentRow(OrmContext context, ResultSet rs,ResultSetMapping rsm,Class<T> resultClass) throws SQLException {
         if(Record.class.equals(resultClass)) {
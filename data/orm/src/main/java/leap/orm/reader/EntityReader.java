@@ -17,11 +17,14 @@ package leap.orm.reader;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Iterator;
 import java.util.List;
 
 import leap.core.exception.TooManyRecordsException;
+import leap.lang.exception.NestedSQLException;
 import leap.orm.OrmContext;
 import leap.orm.mapping.EntityMapping;
+import leap.orm.mapping.ResultSetMapping;
 
 
 public interface EntityReader {
@@ -32,4 +35,19 @@ public interface EntityReader {
 	
 	<T> List<T> readList(OrmContext context, ResultSet rs,EntityMapping em,Class<T> elementType, Class<? extends T> resultClass) throws SQLException;
 	
+	/**
+	 * Returns an {@link Iterator} reads the rows one by one, all the rows are read by one {@link ResultSetMapping}.
+	 *
+	 * <p>
+	 * The default implementation reads all the rows by {@link #readList(OrmContext, ResultSet, EntityMapping, Class, Class)}.
+	 */
+	@SuppressWarnings("unchecked")
+	default <T> Iterator<T> iterate(OrmContext context, ResultSet rs, EntityMapping em, Class<? extends T> resultClass) {
+		try {
+			return readList(context, rs, em, (Class<T>)resultClass, resultClass).iterator();
+		} catch (SQLException e) {
+			throw new NestedSQLException(e);
+		}
+	}
+	
 }
\ No newline at end of file
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.orm.reader;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import leap.lang.exception.NestedSQLException;
+
+/**
+ * An {@link Iterator} reads the rows of a {@link ResultSet} one by one.
+ *
+ * <p>
+ * The iterator is valid only before the result set closed.
+ */
+public abstract class ResultSetIterator<T> implements Iterator<T> {
+
+	protected final ResultSet rs;
+
+	private Boolean next;
+	private int     rows;
+
+	protected ResultSetIterator(ResultSet rs) {
+		this.rs = rs;
+	}
+
+	/**
+	 * Returns the number of rows read by this iterator.
+	 */
+	public int getRows() {
+		return rows;
+	}
+
+	@Override
+	public boolean hasNext() throws NestedSQLException {
+		if(null == next) {
+			try {
+				next = rs.next();
+			} catch (SQLException e) {
+				throw new NestedSQLException(e);
+			}
+		}
+		return next;
+	}
+
+	@Override
+	public T next() throws NestedSQLException {
+		if(!hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		next = null;
+		rows++;
+
+		try {
+			return readRow(rs);
+		} catch (SQLException e) {
+			throw new NestedSQLException(e);
+		}
+	}
+
+	/**
+	 * Reads the current row of the result set.
+	 */
+	protected abstract T readRow(ResultSet rs) throws SQLException;
+}
@@ -17,7 +17,14 @@ package leap.orm.reader;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import leap.core.exception.EmptyRecordsException;
 import leap.core.exception.TooManyRecordsException;
@@ -26,6 +33,7 @@ import leap.core.jdbc.RawScalarReader;
 import leap.orm.OrmContext;
 import leap.orm.mapping.EntityMapping;
 import leap.orm.sql.SqlCommand;
+import leap.orm.sql.SqlExecutionContext;
 import leap.orm.sql.SqlResultSetReader;
 
 public class ResultSetReaders {
@@ -69,6 +77,101 @@ public class ResultSetReaders {
 		return (c,rs) -> context.getRowReader().readList(c, rs, elementType, resultClass, command);
 	}
 	
+	/**
+	 * Returns a reader applies the given function to a stream reads the entities one by one.
+	 */
+	public static <T,R> ResultSetReader<R> forStreamEntity(final OrmContext context, final EntityMapping em, 
+														 final Class<? extends T> resultClass, final Function<Stream<T>, R> func){
+		return new StreamingReader<R>(context) {
+			@Override
+            public R read(ResultSet rs) throws SQLException {
+				Iterator<T> it = context.getEntityReader().iterate(context, rs, em, resultClass);
+	            return func.apply(stream(it));
+            }
+		};
+	}
+	
+	/**
+	 * Returns a reader passes the entities to the given action one by one and returns the number of rows.
+	 */
+	public static <T> ResultSetReader<Integer> forEachEntity(final OrmContext context, final EntityMapping em,
+															 final Class<? extends T> resultClass, final Consumer<? super T> action) {
+		return new StreamingReader<Integer>(context) {
+			@Override
+            public Integer read(ResultSet rs) throws SQLException {
+				Iterator<T> it = context.getEntityReader().iterate(context, rs, em, resultClass);
+	            return forEach(it, action);
+            }
+		};
+	}
+	
+	/**
+	 * Returns a reader applies the given function to a stream reads the rows one by one.
+	 */
+	public static <T,R> SqlResultSetReader<R> forStreamRow(final OrmContext context, final Class<? extends T> resultClass, 
+														  final SqlCommand command, final Function<Stream<T>, R> func){
+		return new StreamingSqlReader<R>(context) {
+			@Override
+            public R read(SqlExecutionContext c, ResultSet rs) throws SQLException {
+				Iterator<T> it = context.getRowReader().iterate(c, rs, resultClass, command);
+	            return func.apply(stream(it));
+            }
+		};
+	}
+	
+	/**
+	 * Returns a reader passes the rows to the given action one by one and returns the number of rows.
+	 */
+	public static <T> SqlResultSetReader<Integer> forEachRow(final OrmContext context, final Class<? extends T> resultClass, 
+															 final SqlCommand command, final Consumer<? super T> action){
+		return new StreamingSqlReader<Integer>(context) {
+			@Override
+            public Integer read(SqlExecutionContext c, ResultSet rs) throws SQLException {
+				Iterator<T> it = context.getRowReader().iterate(c, rs, resultClass, command);
+	            return forEach(it, action);
+            }
+		};
+	}
+	
+	protected static <T> Stream<T> stream(Iterator<T> it) {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED | Spliterator.NONNULL), false);
+	}
+	
+	protected static <T> int forEach(Iterator<T> it, Consumer<? super T> action) {
+		int rows = 0;
+		while(it.hasNext()) {
+			action.accept(it.next());
+			rows++;
+		}
+		return rows;
+	}
+	
+	protected static abstract class StreamingReader<T> implements ResultSetReader<T> {
+		private final int fetchSize;
+		
+		protected StreamingReader(OrmContext context) {
+			this.fetchSize = context.getDb().getDialect().getStreamingFetchSize();
+		}
+		
+		@Override
+        public int getFetchSize() {
+	        return fetchSize;
+        }
+	}
+	
+	protected static abstract class StreamingSqlReader<T> implements SqlResultSetReader<T> {
+		private final int fetchSize;
+		
+		protected StreamingSqlReader(OrmContext context) {
+			this.fetchSize = context.getDb().getDialect().getStreamingFetchSize();
+		}
+		
+		@Override
+        public int getFetchSize() {
+	        return fetchSize;
+        }
+	}
+	
 	protected ResultSetReaders(){
 		
 	}
@@ -16,11 +16,13 @@
 package leap.orm.reader;
 
 import leap.core.exception.TooManyRecordsException;
+import leap.lang.exception.NestedSQLException;
 import leap.orm.sql.SqlCommand;
 import leap.orm.sql.SqlExecutionContext;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Iterator;
 import java.util.List;
 
 public interface RowReader {
@@ -30,5 +32,20 @@ public interface RowReader {
 	<T> T readSingle(SqlExecutionContext context, ResultSet rs, Class<T> resultClass, SqlCommand command) throws SQLException, TooManyRecordsException;
 	
 	<T> List<T> readList(SqlExecutionContext context, ResultSet rs, Class<T> elementType, Class<? extends T> resultClass, SqlCommand command) throws SQLException;
+	
+	/**
+	 * Returns an {@link Iterator} reads the rows one by one.
+	 *
+	 * <p>
+	 * The default implementation reads all the rows by {@link #readList(SqlExecutionContext, ResultSet, Class, Class, SqlCommand)}.
+	 */
+	@SuppressWarnings("unchecked")
+	default <T> Iterator<T> iterate(SqlExecutionContext context, ResultSet rs, Class<? extends T> resultClass, SqlCommand command) {
+		try {
+			return readList(context, rs, (Class<T>)resultClass, resultClass, command).iterator();
+		} catch (SQLException e) {
+			throw new NestedSQLException(e);
+		}
+	}
 
 }
\ No newline at end of file
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package leap.orm.sharding;
+
+import leap.core.annotation.ConfigProperty;
+import leap.core.annotation.Configurable;
+import leap.lang.Disposable;
+import leap.orm.mapping.EntityMapping;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Executes the statements in a bounded thread pool, the task runs in the caller thread if the pool is saturated.
+ *
+ * <p>
+ * Note : the statements executed in the pool threads do not join the transaction of the caller thread,
+ * the {@link leap.orm.query.ScatterQuery} does not use the executor if a transaction is active.
+ */
+@Configurable(prefix="orm.sharding")
+public class DefaultShardingExecutor implements ShardingExecutor, Disposable {
+
+    public static final int DEFAULT_THREADS    = Math.max(2, Runtime.getRuntime().availableProcessors());
+    public static final int DEFAULT_QUEUE_SIZE = 1024;
+
+    protected int  threads   = DEFAULT_THREADS;
+    protected int  queueSize = DEFAULT_QUEUE_SIZE;
+    protected long timeout   = 0;
+
+    private volatile ThreadPoolExecutor pool;
+
+    /**
+     * Sets the max number of threads executing the statements, <code>1</code> executes them in the caller thread one by one.
+     */
+    @ConfigProperty
+    public void setThreads(int threads) {
+        if(threads < 1) {
+            throw new IllegalArgumentException("The threads of sharding executor must be positive");
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Sets the size of the queue of waiting statements.
+     */
+    @ConfigProperty
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    /**
+     * Sets the timeout in milliseconds of a scatter-gather execution, <code>0</code> means no timeout.
+     */
+    @ConfigProperty
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
+    @Override
+    public <R> List<R> scatter(EntityMapping em, List<ShardingTable> tables, Function<ShardingTable, R> func) {
+        List<R> results = new ArrayList<>(tables.size());
+
+        if(tables.size() == 1 || threads == 1) {
+            for(ShardingTable table : tables) {
+                results.add(ShardingContext.execute(em, table.getTableName(), () -> func.apply(table)));
+            }
+            return results;
+        }
+
+        List<Future<R>> futures = new ArrayList<>(tables.size());
+        try{
+            ThreadPoolExecutor pool = pool();
+            for(ShardingTable table : tables) {
+                futures.add(pool.submit(() -> ShardingContext.execute(em, table.getTableName(), () -> func.apply(table))));
+            }
+
+            long deadline = timeout > 0 ? System.currentTimeMillis() + timeout : 0;
+            for(Future<R> future : futures) {
+                if(deadline > 0) {
+                    results.add(future.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS));
+                }else{
+                    results.add(future.get());
+                }
+            }
+
+            return results;
+        }catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while executing the scatter query of entity '" + em.getEntityName() + "'", e);
+        }catch(TimeoutException e) {
+            throw new IllegalStateException("The scatter query of entity '" + em.getEntityName() + "' timeout (" + timeout + "ms)");
+        }catch(ExecutionException e) {
+            Throwable cause = e.getCause();
+            if(cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            }
+            if(cause instanceof Error) {
+                throw (Error)cause;
+            }
+            throw new IllegalStateException("Error executing the scatter query of entity '" + em.getEntityName() + "'", cause);
+        }finally{
+            for(Future<R> future : futures) {
+                if(!future.isDone()) {
+                    future.cancel(true);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void dispose() throws Throwable {
+        if(null != pool) {
+            pool.shutdownNow();
+        }
+    }
+
+    protected ThreadPoolExecutor pool() {
+        if(null == pool) {
+            synchronized (this) {
+                if(null == pool) {
+                    pool = createPool();
+                }
+            }
+        }
+        return pool;
+    }
+
+    protected ThreadPoolExecutor createPool() {
+        AtomicInteger count = new AtomicInteger();
+
+        ThreadPoolExecutor pool =
+                new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(queueSize), (r) -> {
+                    Thread thread = new Thread(r, "orm-sharding-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+
+        pool.allowCoreThreadTimeOut(true);
+
+        return pool;
+    }
+}
@@ -16,8 +16,13 @@
 
 package leap.orm.sharding;
 
+import leap.db.model.DbTable;
+import leap.orm.OrmContext;
 import leap.orm.mapping.EntityMapping;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public interface ShardingAlgorithm {
 
     /**
@@ -30,4 +35,24 @@ public interface ShardingAlgorithm {
      */
     String evalShardingTableName(EntityMapping em, Object value);
 
+    /**
+     * Returns all the sharding tables of the entity, a query cannot be routed to one sharding table
+     * will be executed in all the returned tables.
+     *
+     * <p>
+     * The default implementation returns the tables matched by {@link #isShardingTable(EntityMapping, String)}
+     * in the db of the given context.
+     */
+    default List<ShardingTable> getShardingTables(OrmContext context, EntityMapping em) {
+        List<ShardingTable> tables = new ArrayList<>();
+
+        for(DbTable table : context.getDb().getMetadata().getSchema().getTables()) {
+            if(isShardingTable(em, table.getName())) {
+                tables.add(new ShardingTable(table.getName()));
+            }
+        }
+
+        return tables;
+    }
+
 }
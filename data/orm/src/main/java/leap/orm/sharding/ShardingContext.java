@@ -0,0 +1,99 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package leap.orm.sharding;
+
+import leap.orm.mapping.EntityMapping;
+
+import java.util.function.Supplier;
+
+/**
+ * Holds the sharding table of an entity for the statements built in current thread,
+ * the table name of a sharding entity which cannot be routed by the sharding condition will be resolved by this context.
+ */
+public final class ShardingContext {
+
+    private static final ThreadLocal<ShardingContext> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Returns true if the statements built by the given action contains a table of the sharding entity
+     * which cannot be routed to one sharding table.
+     */
+    public static boolean isUnrouted(EntityMapping em, Runnable action) {
+        ShardingContext probe = new ShardingContext(em, null);
+
+        execute(probe, () -> {
+            action.run();
+            return null;
+        });
+
+        return probe.unrouted;
+    }
+
+    /**
+     * Executes the given function in the context of the sharding table,
+     * the unrouted table name of the entity in the statements built by the function will be the given table.
+     */
+    public static <T> T execute(EntityMapping em, String tableName, Supplier<T> func) {
+        return execute(new ShardingContext(em, tableName), func);
+    }
+
+    /**
+     * Returns true if current thread is executing in a sharding table context.
+     */
+    public static boolean isActive() {
+        return null != CURRENT.get();
+    }
+
+    /**
+     * Returns the sharding table name of the entity in current context, or <code>null</code> if no context.
+     */
+    public static String resolveTableName(EntityMapping em) {
+        ShardingContext context = CURRENT.get();
+        if(null == context || context.em != em) {
+            return null;
+        }
+
+        if(null == context.tableName) {
+            context.unrouted = true;
+        }
+
+        return context.tableName;
+    }
+
+    private static <T> T execute(ShardingContext context, Supplier<T> func) {
+        ShardingContext prev = CURRENT.get();
+        CURRENT.set(context);
+        try{
+            return func.get();
+        }finally{
+            if(null == prev) {
+                CURRENT.remove();
+            }else{
+                CURRENT.set(prev);
+            }
+        }
+    }
+
+    private final EntityMapping em;
+    private final String        tableName;
+    private boolean             unrouted;
+
+    private ShardingContext(EntityMapping em, String tableName) {
+        this.em        = em;
+        this.tableName = tableName;
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package leap.orm.sharding;
+
+import leap.orm.mapping.EntityMapping;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Executes the statements of a scatter-gather query in the sharding tables.
+ */
+public interface ShardingExecutor {
+
+    /**
+     * Applies the function to each sharding table in the {@link ShardingContext} of the table (may be in parallel)
+     * and returns the results in the order of the given tables.
+     *
+     * <p>
+     * The first exception thrown by the function will be rethrown and the remaining executions will be cancelled.
+     */
+    <R> List<R> scatter(EntityMapping em, List<ShardingTable> tables, Function<ShardingTable, R> func);
+
+}
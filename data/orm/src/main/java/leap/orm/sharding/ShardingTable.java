@@ -0,0 +1,57 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package leap.orm.sharding;
+
+import leap.lang.annotation.Nullable;
+
+/**
+ * A sharding table of an entity, may be located in another datasource.
+ */
+public final class ShardingTable {
+
+    private final String dataSourceName;
+    private final String tableName;
+
+    public ShardingTable(String tableName) {
+        this(null, tableName);
+    }
+
+    public ShardingTable(String dataSourceName, String tableName) {
+        this.dataSourceName = dataSourceName;
+        this.tableName      = tableName;
+    }
+
+    /**
+     * Returns the name of datasource contains the table, or <code>null</code> if the table is in the datasource of the entity.
+     */
+    @Nullable
+    public String getDataSourceName() {
+        return dataSourceName;
+    }
+
+    /**
+     * Returns the name of table.
+     */
+    public String getTableName() {
+        return tableName;
+    }
+
+    @Override
+    public String toString() {
+        return null == dataSourceName ? tableName : dataSourceName + ":" + tableName;
+    }
+}
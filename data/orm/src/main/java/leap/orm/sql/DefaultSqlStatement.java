@@ -102,6 +102,19 @@ public class DefaultSqlStatement implements SqlStatement,BatchSqlStatement,SqlEx
 
     private <T> ResultSetReader<T> wrap(ResultSetReader<T> reader) {
         if(reader instanceof SqlResultSetReader) {
+            if(reader.getFetchSize() != 0) {
+                return new ResultSetReader<T>() {
+                    @Override
+                    public T read(ResultSet rs) throws SQLException {
+                        return ((SqlResultSetReader<T>) reader).read(DefaultSqlStatement.this, rs);
+                    }
+
+                    @Override
+                    public int getFetchSize() {
+                        return reader.getFetchSize();
+                    }
+                };
+            }
             return rs -> ((SqlResultSetReader<T>) reader).read(this, rs);
         }else{
             return reader;
@@ -26,6 +26,7 @@ import leap.lang.params.BeanParams;
 import leap.lang.params.EmptyParams;
 import leap.lang.params.Params;
 import leap.lang.value.Limit;
+import leap.orm.mapping.EntityMapping;
 import leap.orm.query.QueryContext;
 import leap.orm.sql.Sql.Type;
 import leap.orm.sql.ast.*;
@@ -101,6 +102,14 @@ public class DynamicSqlClause extends AbstractSqlClause implements SqlClause {
 		return stm.build();
 	}
 	
+	@Override
+	public boolean isUnroutedQuery(QueryContext context, Object p, EntityMapping em) {
+        Params params = createParameters(context, p);
+        DynamicSql.ExecutionSqls sqls = sql.resolveExecutionSqls(params);
+
+        return SqlShardingProcessor.isUnrouted(sqls.sql, em);
+	}
+
 	@Override
     public SqlStatement createCountStatement(QueryContext context, Object p) {
         Params params = createParameters(context, p);
@@ -97,7 +97,8 @@ public class DynamicSqlLanguage implements SqlLanguage {
     }
 
     protected List<DynamicSql.ExecutionSqls> doParseExecutionSqls(MetadataContext context, String sql) {
-        String key = context.getName() + "___" + sql;
+        //The sql is resolved by the entity mappings, so the key contains the version of entity mappings.
+        String key = context.getName() + "___" + context.getMetadata().getEntityMappingVersion() + "___" + sql;
 
         List<DynamicSql.ExecutionSqls> sqls = executionCache.get(key);
 
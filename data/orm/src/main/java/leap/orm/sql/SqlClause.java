@@ -15,7 +15,9 @@
  */
 package leap.orm.sql;
 
+import leap.orm.mapping.EntityMapping;
 import leap.orm.query.QueryContext;
+import leap.orm.sharding.ShardingContext;
 
 public interface SqlClause {
 	
@@ -38,5 +40,12 @@ public interface SqlClause {
      * Creates a batch sql statement.
      */
 	BatchSqlStatement createBatchStatement(SqlContext context, Object[] params);
+
+    /**
+     * Returns true if the query cannot be routed to one sharding table of the given sharding entity.
+     */
+    default boolean isUnroutedQuery(QueryContext context, Object params, EntityMapping em) {
+        return ShardingContext.isUnrouted(em, () -> createQueryStatement(context, params));
+    }
 	
 }
\ No newline at end of file
@@ -22,6 +22,7 @@ import leap.orm.OrmContext;
 import leap.orm.dmo.Dmo;
 import leap.orm.mapping.EntityMapping;
 import leap.orm.mapping.FieldMapping;
+import leap.orm.sharding.ShardingContext;
 import leap.orm.sql.ast.*;
 import leap.orm.sql.parser.Token;
 
@@ -123,6 +124,62 @@ class SqlShardingProcessor {
 
             return true;
         });
+
+        if(sql.isSelect()) {
+            processUnroutedQuery();
+        }
+    }
+
+    //the sharding tables without sharding condition will be resolved by the ShardingContext (scatter-gather query).
+    protected void processUnroutedQuery() {
+        sql.traverse((node) -> {
+
+            if(node instanceof SqlQuery) {
+
+                for(SqlTableSource ts : ((SqlQuery)node).getTableSources()) {
+
+                    if(ts instanceof SqlTableName) {
+
+                        SqlTableName  table = (SqlTableName)ts;
+                        EntityMapping em    = table.getEntityMapping();
+
+                        if(null != em && em.isSharding() && null == table.getDynamicTableName()) {
+                            table.setDynamicTableName(new UnroutedTableName(em));
+                        }
+                    }
+                }
+            }
+
+            return true;
+        });
+    }
+
+    //returns true if the table of the sharding entity in the processed sql will be resolved by the ShardingContext.
+    static boolean isUnrouted(Sql sql, EntityMapping em) {
+        boolean[] unrouted = new boolean[1];
+
+        sql.traverse((node) -> {
+
+            if(node instanceof SqlQuery) {
+
+                for(SqlTableSource ts : ((SqlQuery)node).getTableSources()) {
+
+                    if(ts instanceof SqlTableName) {
+
+                        DynamicName name = ((SqlTableName)ts).getDynamicTableName();
+
+                        if(name instanceof UnroutedTableName && ((UnroutedTableName)name).em == em) {
+                            unrouted[0] = true;
+                            return false;
+                        }
+                    }
+                }
+            }
+
+            return true;
+        });
+
+        return unrouted[0];
     }
 
     //remove the sharding condition.
@@ -238,6 +295,21 @@ class SqlShardingProcessor {
         }
     }
 
+    private static final class UnroutedTableName implements DynamicName {
+
+        private final EntityMapping em;
+
+        public UnroutedTableName(EntityMapping em) {
+            this.em = em;
+        }
+
+        @Override
+        public String get(SqlStatementBuilder stm, Params params) {
+            String tableName = ShardingContext.resolveTableName(em);
+            return null == tableName ? em.getTableName() : tableName;
+        }
+    }
+
     private static final class ShardingTableName implements DynamicName {
 
         private final EntityMapping em;
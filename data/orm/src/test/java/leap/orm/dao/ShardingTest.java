@@ -16,12 +16,16 @@
 
 package leap.orm.dao;
 
+import leap.core.transaction.TransactionStatus;
 import leap.junit.contexual.Contextual;
 import leap.lang.New;
 import leap.orm.OrmTestCase;
 import leap.orm.tested.model.ShardingModel;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class ShardingTest extends OrmTestCase {
 
     @Test
@@ -60,6 +64,79 @@ public class ShardingTest extends OrmTestCase {
         assertNull(ShardingModel.<ShardingModel>where("type = 'b'").firstOrNull());
     }
 
+    @Test
+    @Contextual("h2")
+    public void testScatterQuery() {
+        ShardingModel.where("type = 'a'").delete();
+        ShardingModel.where("type = 'b'").delete();
+
+        new ShardingModel().set("value","1").set("type", "a").create();
+        new ShardingModel().set("value","2").set("type", "b").create();
+        new ShardingModel().set("value","3").set("type", "a").create();
+        new ShardingModel().set("value","4").set("type", "b").create();
+
+        assertEquals(4, dao.createCriteriaQuery(ShardingModel.class).count());
+        assertEquals(2, dao.createCriteriaQuery(ShardingModel.class).where("value > '2'").count());
+
+        List<ShardingModel> list = dao.createCriteriaQuery(ShardingModel.class).orderBy("value desc").list();
+        assertEquals(4, list.size());
+        assertEquals("4", list.get(0).getValue());
+        assertEquals("1", list.get(3).getValue());
+
+        list = dao.createCriteriaQuery(ShardingModel.class).orderBy("value").limit(2, 3).list();
+        assertEquals(2, list.size());
+        assertEquals("2", list.get(0).getValue());
+        assertEquals("3", list.get(1).getValue());
+
+        List<String> values = new ArrayList<>();
+        assertEquals(4, dao.createCriteriaQuery(ShardingModel.class).orderBy("value").forEach(m -> values.add(m.getValue())));
+        assertEquals(New.arrayList("1", "2", "3", "4"), values);
+
+        assertEquals(4L, dao.createCriteriaQuery(ShardingModel.class).select("count(*)").scalar().get(Long.class).longValue());
+
+        //in transaction
+        dao.doTransaction((TransactionStatus s) -> {
+            assertTrue(dao.hasActiveTransaction());
+            assertEquals(4, dao.createCriteriaQuery(ShardingModel.class).count());
+
+            List<String> ordered = new ArrayList<>();
+            dao.createCriteriaQuery(ShardingModel.class).orderBy("value desc").forEach(m -> ordered.add(m.getValue()));
+            assertEquals(New.arrayList("4", "3", "2", "1"), ordered);
+        });
+
+        //routed
+        assertEquals(2, dao.createCriteriaQuery(ShardingModel.class).where("type = 'a'").count());
+    }
+
+    @Test
+    @Contextual("h2")
+    public void testScatterQueryNotSupported() {
+        try {
+            dao.createCriteriaQuery(ShardingModel.class).select("value").groupBy("value").list();
+            fail("Should throw IllegalStateException");
+        }catch(IllegalStateException e) {
+
+        }
+
+        try {
+            dao.createCriteriaQuery(ShardingModel.class).select("value").groupBy("value").having("count(*) > 1").list();
+            fail("Should throw IllegalStateException");
+        }catch(IllegalStateException e) {
+
+        }
+
+        try {
+            dao.createCriteriaQuery(ShardingModel.class).select("count(distinct value)").scalar();
+            fail("Should throw IllegalStateException");
+        }catch(IllegalStateException e) {
+
+        }
+
+        //routed
+        dao.createCriteriaQuery(ShardingModel.class).where("type = 'a'").select("value").groupBy("value").list();
+        dao.createCriteriaQuery(ShardingModel.class).where("type = 'a'").select("count(distinct value)").scalar();
+    }
+
     //todo
     public void testIndexParamsSharding() {
 
@@ -20,8 +20,10 @@ import java.util.List;
 import leap.junit.contexual.Contextual;
 import leap.lang.Confirm;
 import leap.orm.mapping.EntityMapping;
+import leap.orm.query.DefaultQueryFactory;
 import leap.orm.query.JoinBuilder;
 import leap.orm.query.JoinContext;
+import leap.orm.sql.SqlClause;
 import leap.orm.sql.SqlFragment;
 import leap.orm.tested.model.api.Api;
 import leap.orm.tested.model.api.ApiCategory;
@@ -239,4 +241,28 @@ public class CriteriaQueryTest extends OrmTestCase {
         }
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testQueryClauseCache() {
+        DefaultQueryFactory qf = (DefaultQueryFactory)context.getQueryFactory();
+
+        String sql = "select * from owners where first_name = :firstName and last_name = :lastName";
+
+        long parses = qf.getClauseParseCount();
+        long hits   = qf.getClauseCacheHitCount();
+
+        SqlClause clause = qf.createQueryClause(dao, sql);
+        assertSame(clause, qf.createQueryClause(dao, sql));
+        assertEquals(parses + 1, qf.getClauseParseCount());
+        assertEquals(hits + 1, qf.getClauseCacheHitCount());
+
+        EntityMapping em = metadata.getEntityMapping(Owner.class);
+        metadata.removeEntityMapping(em);
+        metadata.addEntityMapping(em);
+
+        SqlClause reparsed = qf.createQueryClause(dao, sql);
+        assertNotSame(clause, reparsed);
+        assertSame(reparsed, qf.createQueryClause(dao, sql));
+        assertEquals(parses + 2, qf.getClauseParseCount());
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.orm.dao.query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import leap.orm.OrmTestCase;
+import leap.orm.query.KeysetResult;
+import leap.orm.tested.model.petclinic.Owner;
+import org.junit.Test;
+
+public class KeysetQueryTest extends OrmTestCase {
+
+	@Test
+	public void testKeysetPages() {
+		createOwners(7);
+
+		List<String> names = new ArrayList<>();
+
+		String token = null;
+		int pages = 0;
+		do {
+			KeysetResult<Owner> page = dao.createCriteriaQuery(Owner.class).orderBy("firstName desc").keysetResult(token, 3);
+			for(Owner o : page.list()) {
+				names.add(o.getFirstName());
+			}
+			token = page.getNextToken();
+			pages++;
+		}while(null != token);
+
+		assertEquals(3, pages);
+		assertEquals(7, names.size());
+		assertEquals("a6", names.get(0));
+		assertEquals("a0", names.get(6));
+	}
+
+	@Test
+	public void testKeysetWithWhere() {
+		createOwners(6);
+
+		KeysetResult<Owner> first = dao.createCriteriaQuery(Owner.class).where("firstName <> ?", "a0").keysetResult(null, 4);
+		assertEquals(4, first.size());
+		assertTrue(first.hasNext());
+		assertEquals(5, first.getTotalCount());
+
+		KeysetResult<Owner> next = dao.createCriteriaQuery(Owner.class).where("firstName <> ?", "a0").keysetResult(first.getNextToken(), 4);
+		assertEquals(1, next.size());
+		assertFalse(next.hasNext());
+		assertEquals("a5", next.list().get(0).getFirstName());
+	}
+
+	@Test
+	public void testInvalidToken() {
+		createOwners(3);
+
+		String token = dao.createCriteriaQuery(Owner.class).keysetResult(null, 1).getNextToken();
+		assertNotNull(token);
+
+		try {
+			dao.createCriteriaQuery(Owner.class).orderBy("firstName").keysetResult(token, 1);
+			fail("Should throw IllegalArgumentException");
+		}catch(IllegalArgumentException e) {
+
+		}
+	}
+
+	@Test
+	public void testKeysetFieldsNotSelected() {
+		createOwners(3);
+
+		KeysetResult<Owner> page = dao.createCriteriaQuery(Owner.class).select("firstName").keysetResult(null, 1);
+		try {
+			page.getNextToken();
+			fail("Should throw IllegalStateException");
+		}catch(IllegalStateException e) {
+
+		}
+
+		page = dao.createCriteriaQuery(Owner.class).select("id", "firstName").keysetResult(null, 1);
+		assertNotNull(page.getNextToken());
+	}
+
+	@Test
+	public void testEstimateCount() {
+		createOwners(3);
+		assertTrue(dao.createCriteriaQuery(Owner.class).estimateCount() >= 0);
+		assertEquals(2, dao.createCriteriaQuery(Owner.class).where("firstName <> ?", "a0").estimateCount());
+	}
+
+	protected void createOwners(int count) {
+		deleteAll(Owner.class);
+		for(int i=0;i<count;i++) {
+			new Owner().setFullName("a" + i, "b").create();
+		}
+	}
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.orm.dao.query;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import leap.core.value.Record;
+import leap.orm.OrmTestCase;
+import leap.orm.tested.model.petclinic.Owner;
+import org.junit.Test;
+
+public class StreamQueryTest extends OrmTestCase {
+
+	@Test
+	public void testCriteriaQueryStream() {
+		createOwners(10);
+
+		List<String> names = new ArrayList<>();
+		assertEquals(10, dao.createCriteriaQuery(Owner.class).orderBy("firstName").forEach(o -> names.add(o.getFirstName())));
+		assertEquals(10, names.size());
+		assertEquals("a0", names.get(0));
+
+		List<String> list = dao.createCriteriaQuery(Owner.class).orderBy("firstName").stream(s -> s.map(Owner::getFirstName).collect(Collectors.toList()));
+		assertEquals(names, list);
+
+		//finishes early
+		String first = dao.createCriteriaQuery(Owner.class).orderBy("firstName").stream(s -> s.findFirst().get().getFirstName());
+		assertEquals("a0", first);
+
+		Owner o = dao.createCriteriaQuery(Owner.class).orderBy("firstName").cursor(it -> {
+			it.next();
+			return it.next();
+		});
+		assertEquals("a1", o.getFirstName());
+	}
+
+	@Test
+	public void testSqlQueryStream() {
+		createOwners(5);
+
+		List<Object> names = new ArrayList<>();
+		assertEquals(5, dao.createSqlQuery("select * from owners order by first_name").forEach(r -> names.add(r.get("firstName"))));
+		assertEquals("a0", names.get(0));
+
+		long count = dao.createSqlQuery("select * from owners").stream(s -> s.count());
+		assertEquals(5L, count);
+
+		Record r = dao.createNamedQuery("findOwnerByLastName").param("lastName", "b").cursor(Iterator::next);
+		assertEquals("b", r.get("lastName"));
+	}
+
+	@Test
+	public void testActionThrowsException() {
+		createOwners(3);
+
+		for(int i=0;i<10;i++) {
+			try {
+				dao.createCriteriaQuery(Owner.class).forEach(o -> {
+					throw new IllegalStateException("error");
+				});
+				fail("Should throw IllegalStateException");
+			}catch(IllegalStateException e) {
+				assertEquals("error", e.getMessage());
+			}
+		}
+
+		assertEquals(3, dao.createCriteriaQuery(Owner.class).list().size());
+	}
+
+	protected void createOwners(int count) {
+		deleteAll(Owner.class);
+		for(int i=0;i<count;i++) {
+			new Owner().setFullName("a" + i, "b").create();
+		}
+	}
+}
@@ -135,7 +135,7 @@ public class DefaultResCredentialsAuthenticator implements ResCredentialsAuthent
     
     @Override
     public void postCreate(BeanFactory factory) throws Throwable {
-        authcCache = cacheManager.createSimpleLRUCache(cacheSize);
+        authcCache = cacheManager.createConcurrentCache(cacheSize);
     }
     
     protected CachedAuthentication getCachedAuthentication(ResAccessToken at) {
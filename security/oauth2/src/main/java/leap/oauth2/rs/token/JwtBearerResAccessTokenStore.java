@@ -15,8 +15,11 @@
  */
 package leap.oauth2.rs.token;
 
+import leap.core.annotation.ConfigProperty;
+import leap.core.annotation.Configurable;
 import leap.core.annotation.Inject;
 import leap.core.security.token.TokenVerifyException;
+import leap.core.security.token.jwt.CachingJwtVerifier;
 import leap.core.security.token.jwt.JwtVerifier;
 import leap.lang.Result;
 import leap.oauth2.as.OAuth2AuthzServerConfig;
@@ -30,6 +33,7 @@ import java.util.Map;
 /**
  * Created by KAEL on 2016/5/8.
  */
+@Configurable(prefix="oauth2.rs.jwt")
 public class JwtBearerResAccessTokenStore implements ResBearerAccessTokenStore {
 
     protected RSAPublicKey               publicKey;
@@ -37,10 +41,14 @@ public class JwtBearerResAccessTokenStore implements ResBearerAccessTokenStore {
     protected @Inject OAuth2AuthzServerConfig asc;
     protected @Inject OAuth2ResServerConfig rsc;
 
+    protected int  verifiedCacheSize   = CachingJwtVerifier.DEFAULT_MAX_SIZE;
+    protected long verifiedCacheMaxAge = CachingJwtVerifier.DEFAULT_MAX_AGE;
+
+    private volatile CachingJwtVerifier cachingVerifier;
 
     @Override
     public Result<ResAccessTokenDetails> loadAccessTokenDetails(ResAccessToken token) {
-        JwtVerifier verifier = rsc.getJwtVerifier();
+        JwtVerifier verifier = getVerifier();
         if(verifier == null){
             throw new TokenVerifyException(TokenVerifyException.ErrorCode.VERIFY_FAILED, "the jwt verifier must be specified!");
         }
@@ -71,6 +79,49 @@ public class JwtBearerResAccessTokenStore implements ResBearerAccessTokenStore {
         //Do nothing
     }
 
+    /**
+     * Returns the verifier of resource server, wraps it by {@link CachingJwtVerifier} if cache enabled.
+     */
+    protected JwtVerifier getVerifier() {
+        JwtVerifier verifier = rsc.getJwtVerifier();
+        if(null == verifier || verifiedCacheSize <= 0) {
+            return verifier;
+        }
+
+        CachingJwtVerifier cv = cachingVerifier;
+        if(null == cv || cv.getVerifier() != verifier) {
+            cv = new CachingJwtVerifier(verifier, verifiedCacheSize, verifiedCacheMaxAge);
+            cachingVerifier = cv;
+        }
+        return cv;
+    }
+
+    public int getVerifiedCacheSize() {
+        return verifiedCacheSize;
+    }
+
+    /**
+     * Sets the max number of cached verified tokens, zero disables the cache.
+     */
+    @ConfigProperty
+    public void setVerifiedCacheSize(int size) {
+        this.verifiedCacheSize = size;
+        this.cachingVerifier   = null;
+    }
+
+    public long getVerifiedCacheMaxAge() {
+        return verifiedCacheMaxAge;
+    }
+
+    /**
+     * Sets the max milliseconds of a verified token in cache.
+     */
+    @ConfigProperty
+    public void setVerifiedCacheMaxAge(long maxAge) {
+        this.verifiedCacheMaxAge = maxAge;
+        this.cachingVerifier     = null;
+    }
+
     public RSAPublicKey getPublicKey() {
         return publicKey;
     }
@@ -15,10 +15,15 @@
  */
 package leap.oauth2.rs.token;
 
+import leap.core.annotation.ConfigProperty;
+import leap.core.annotation.Configurable;
 import leap.core.annotation.Inject;
+import leap.core.cache.ConcurrentCache;
+import leap.lang.Disposable;
 import leap.lang.Result;
 import leap.lang.Strings;
 import leap.lang.codec.Base64;
+import leap.lang.expirable.TimeExpirable;
 import leap.lang.http.ContentTypes;
 import leap.lang.http.Headers;
 import leap.lang.http.client.HttpClient;
@@ -28,31 +33,360 @@ import leap.lang.json.JSON;
 import leap.lang.json.JsonValue;
 import leap.lang.logging.Log;
 import leap.lang.logging.LogFactory;
-import leap.oauth2.OAuth2Constants;
+import leap.oauth2.OAuth2Errors;
 import leap.oauth2.OAuth2InternalServerException;
 import leap.oauth2.rs.OAuth2ResServerConfig;
-import leap.oauth2.wac.OAuth2WebAppConfig;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
-public class RemoteBearerResAccessTokenStore implements ResBearerAccessTokenStore {
+/**
+ * Loads the access token details from the token info endpoint of remote authz server.
+ *
+ * <p>
+ * Only one request of a token is sent to the authz server at the same time, the concurrent lookups of the token
+ * wait for the result of the request in flight.
+ *
+ * <p>
+ * The results are cached, the found tokens are refreshed in background when they are about to expire, and the
+ * not found tokens are cached for a short time. If the authz server fails, the last found result of the token
+ * is returned for a while.
+ */
+@Configurable(prefix="oauth2.rs.remote")
+public class RemoteBearerResAccessTokenStore implements ResBearerAccessTokenStore, Disposable {
     
-    private static final Log log = LogFactory.get(RemoteBearerResAccessTokenStore.class);;
+    private static final Log log = LogFactory.get(RemoteBearerResAccessTokenStore.class);
 
     protected @Inject OAuth2ResServerConfig config;
     protected @Inject HttpClient            httpClient;
 
+    protected int  cacheSize                = 2048;
+    protected long cacheExpiresInMs         = 60 * 1000;  //1 minute
+    protected long refreshAheadMs           = 10 * 1000;  //10 seconds
+    protected long negativeCacheExpiresInMs = 10 * 1000;  //10 seconds
+    protected long staleIfErrorMs           = 30 * 1000;  //30 seconds
+    protected int  refreshThreads           = 2;
+
+    private final ConcurrentMap<String, CompletableFuture<Result<ResAccessTokenDetails>>> inflight =
+            new ConcurrentHashMap<>();
+
+    private final LongAdder  remoteCalls    = new LongAdder();
+    private final LongAdder  remoteErrors   = new LongAdder();
+    private final LongAdder  remoteTime     = new LongAdder();
+    private final AtomicLong lastRemoteTime = new AtomicLong();
+    private final LongAdder  coalescedWaits = new LongAdder();
+    private final LongAdder  cacheHits      = new LongAdder();
+    private final LongAdder  negativeHits   = new LongAdder();
+    private final LongAdder  staleHits      = new LongAdder();
+    private final LongAdder  refreshes      = new LongAdder();
+
+    private volatile ConcurrentCache<String, Entry> cache;
+    private volatile ThreadPoolExecutor             refresher;
+
     public void setHttpClient(HttpClient httpClient) {
         this.httpClient = httpClient;
     }
 
     @Override
     public Result<ResAccessTokenDetails> loadAccessTokenDetails(ResAccessToken credentials) {
+        String token = credentials.getToken();
+
+        if(cacheSize <= 0) {
+            return load(token);
+        }
+
+        long  now   = System.currentTimeMillis();
+        Entry entry = cache().get(token);
+        if(null != entry && now < entry.expiresAt) {
+            if(entry.result.isPresent()) {
+                cacheHits.increment();
+                if(now >= entry.expiresAt - refreshAheadMs) {
+                    refreshAsync(token, entry);
+                }
+            }else{
+                negativeHits.increment();
+            }
+            return entry.result;
+        }
+
+        try {
+            return load(token);
+        } catch (RuntimeException e) {
+            if(null != entry && entry.isStaleUsable(now)) {
+                log.warn("Error loading access token from authz server, returns the last result : {}", e.getMessage());
+                staleHits.increment();
+                return entry.result;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void removeAccessToken(ResAccessToken token) {
+        if(null != cache) {
+            cache.remove(token.getToken());
+        }
+    }
+
+    /**
+     * Returns the number of requests sent to the authz server.
+     */
+    public long getRemoteCallCount() {
+        return remoteCalls.sum();
+    }
+
+    /**
+     * Returns the number of failed requests to the authz server.
+     */
+    public long getRemoteErrorCount() {
+        return remoteErrors.sum();
+    }
+
+    /**
+     * Returns the average milliseconds of the requests to the authz server.
+     */
+    public double getAverageRemoteTime() {
+        long count = remoteCalls.sum();
+        return count == 0 ? 0d : (double)remoteTime.sum() / count;
+    }
+
+    /**
+     * Returns the milliseconds of the last request to the authz server.
+     */
+    public long getLastRemoteTime() {
+        return lastRemoteTime.get();
+    }
+
+    /**
+     * Returns the number of lookups waited for the request in flight of the same token.
+     */
+    public long getCoalescedWaitCount() {
+        return coalescedWaits.sum();
+    }
+
+    /**
+     * Returns the number of lookups returned a cached found token.
+     */
+    public long getCacheHitCount() {
+        return cacheHits.sum();
+    }
+
+    /**
+     * Returns the number of lookups returned a cached not found token.
+     */
+    public long getNegativeHitCount() {
+        return negativeHits.sum();
+    }
+
+    /**
+     * Returns the number of lookups returned the last result because of the error of authz server.
+     */
+    public long getStaleHitCount() {
+        return staleHits.sum();
+    }
+
+    /**
+     * Returns the number of tokens refreshed in background.
+     */
+    public long getRefreshCount() {
+        return refreshes.sum();
+    }
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    /**
+     * Sets the max number of cached tokens, zero disables the cache.
+     */
+    @ConfigProperty
+    public void setCacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+        this.cache     = null;
+    }
+
+    public long getCacheExpiresInMs() {
+        return cacheExpiresInMs;
+    }
+
+    /**
+     * Sets the max milliseconds of a found token in cache.
+     */
+    @ConfigProperty
+    public void setCacheExpiresInMs(long ms) {
+        this.cacheExpiresInMs = ms;
+        this.cache            = null;
+    }
+
+    public long getRefreshAheadMs() {
+        return refreshAheadMs;
+    }
+
+    /**
+     * Sets the milliseconds before the expiration of a cached token to refresh it in background, zero disables it.
+     */
+    @ConfigProperty
+    public void setRefreshAheadMs(long ms) {
+        this.refreshAheadMs = ms;
+    }
+
+    public long getNegativeCacheExpiresInMs() {
+        return negativeCacheExpiresInMs;
+    }
+
+    /**
+     * Sets the milliseconds of a not found token in cache, zero disables it.
+     */
+    @ConfigProperty
+    public void setNegativeCacheExpiresInMs(long ms) {
+        this.negativeCacheExpiresInMs = ms;
+    }
+
+    public long getStaleIfErrorMs() {
+        return staleIfErrorMs;
+    }
+
+    /**
+     * Sets the milliseconds after the expiration of a cached token to return it if the authz server fails,
+     * zero disables it.
+     */
+    @ConfigProperty
+    public void setStaleIfErrorMs(long ms) {
+        this.staleIfErrorMs = ms;
+        this.cache          = null;
+    }
+
+    public int getRefreshThreads() {
+        return refreshThreads;
+    }
+
+    /**
+     * Sets the max number of threads for refreshing the tokens in background.
+     */
+    @ConfigProperty
+    public void setRefreshThreads(int refreshThreads) {
+        this.refreshThreads = refreshThreads;
+    }
+
+    @Override
+    public void dispose() throws Throwable {
+        if(null != refresher) {
+            refresher.shutdownNow();
+            refresher = null;
+        }
+    }
+
+    /**
+     * Loads the token from authz server, waits for the request in flight if the token is loading.
+     */
+    protected Result<ResAccessTokenDetails> load(String token) {
+        CompletableFuture<Result<ResAccessTokenDetails>> future   = new CompletableFuture<>();
+        CompletableFuture<Result<ResAccessTokenDetails>> existing = inflight.putIfAbsent(token, future);
+        if(null != existing) {
+            coalescedWaits.increment();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                if(e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException)e.getCause();
+                }
+                throw e;
+            }
+        }
+
+        try {
+            Result<ResAccessTokenDetails> result = loadAndCache(token);
+            future.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inflight.remove(token, future);
+        }
+    }
+
+    protected Result<ResAccessTokenDetails> loadAndCache(String token) {
+        remoteCalls.increment();
+
+        long start = System.currentTimeMillis();
+        try {
+            Result<ResAccessTokenDetails> result = loadRemote(token);
+            if(cacheSize > 0) {
+                cache(token, result);
+            }
+            return result;
+        } catch (RuntimeException e) {
+            remoteErrors.increment();
+            throw e;
+        } finally {
+            long time = System.currentTimeMillis() - start;
+            remoteTime.add(time);
+            lastRemoteTime.set(time);
+        }
+    }
+
+    protected void cache(String token, Result<ResAccessTokenDetails> result) {
+        long now = System.currentTimeMillis();
+
+        if(result.isPresent()) {
+            long expiresAt = now + cacheExpiresInMs;
+
+            ResAccessTokenDetails details = result.get();
+            if(details instanceof TimeExpirable) {
+                TimeExpirable te = (TimeExpirable)details;
+                if(te.getExpiresIn() > 0) {
+                    expiresAt = Math.min(expiresAt, te.getCreated() + te.getExpiresIn());
+                }
+            }
+
+            cache().put(token, new Entry(result, expiresAt, staleIfErrorMs));
+        }else if(negativeCacheExpiresInMs > 0) {
+            cache().put(token, new Entry(result, now + negativeCacheExpiresInMs, 0));
+        }
+    }
+
+    protected void refreshAsync(String token, Entry entry) {
+        if(!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            refresher().execute(() -> {
+                try {
+                    load(token);
+                    refreshes.increment();
+                } catch (Throwable e) {
+                    log.warn("Error refreshing access token in background : {}", e.getMessage());
+                } finally {
+                    entry.refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            entry.refreshing.set(false);
+        }
+    }
+
+    /**
+     * Requests the token info endpoint of authz server.
+     */
+    protected Result<ResAccessTokenDetails> loadRemote(String token) {
         if(null == config.getRemoteTokenInfoEndpointUrl()) {
             throw new IllegalStateException("The tokenInfoEndpointUrl must not be configured when use remote authz server");
         }
         HttpRequest request = httpClient.request(config.getRemoteTokenInfoEndpointUrl())
-                                         .addQueryParam("access_token", credentials.getToken());
+                                         .addQueryParam("access_token", token);
         if(null != config.getResourceServerId()){
             request.addHeader(Headers.AUTHORIZATION, 
                     Base64.encode(config.getResourceServerId()+":"+config.getResourceServerSecret()));
@@ -63,34 +397,54 @@ public class RemoteBearerResAccessTokenStore implements ResBearerAccessTokenStor
             String content = response.getString();
 
             log.debug("Received response : {}", content);
-            
-            try {
-                JsonValue json = JSON.parse(content);
-                
-                if(!json.isMap()) {
-                    throw new OAuth2InternalServerException("Invalid response from auth server : not a json map");
-                }else{
-                    Map<String, Object> map = json.asMap();
-                    String error = (String)map.get("error");
-                    if(Strings.isEmpty(error)) {
-                        return Result.of(createAccessTokenDetails(map));
-                    }else{
-                        log.info("{} : {}", error, map.get("error_description"));
-                        return Result.empty();
-                    }
-                }
-            } catch (Exception e) {
-                log.error(e);
-                return Result.empty();
-            }
+
+            return readTokenInfo(content);
         }else{
             throw new OAuth2InternalServerException("Invalid response from auth server");
         }
     }
 
-    @Override
-    public void removeAccessToken(ResAccessToken token) {
-        //Do nothing.
+    /**
+     * Reads the json response of the token info endpoint.
+     *
+     * <p>
+     * Returns an empty result if the authz server answers the token is invalid, the empty result is cached as a
+     * not found token. Throws {@link OAuth2InternalServerException} for the other errors and the invalid responses,
+     * so the last found result of the token is returned if stale-if-error is enabled.
+     */
+    protected Result<ResAccessTokenDetails> readTokenInfo(String content) {
+        JsonValue json;
+        try {
+            json = JSON.parse(content);
+        } catch (RuntimeException e) {
+            throw new OAuth2InternalServerException("Invalid response from auth server : " + e.getMessage());
+        }
+
+        if(!json.isMap()) {
+            throw new OAuth2InternalServerException("Invalid response from auth server : not a json map");
+        }
+
+        Map<String, Object> map = json.asMap();
+        String error = (String)map.get("error");
+        if(Strings.isEmpty(error)) {
+            return Result.of(createAccessTokenDetails(map));
+        }
+
+        if(isInvalidTokenError(error)) {
+            log.info("{} : {}", error, map.get("error_description"));
+            return Result.empty();
+        }
+
+        throw new OAuth2InternalServerException("Error response from auth server, " + error + " : " + map.get("error_description"));
+    }
+
+    /**
+     * Returns <code>true</code> if the error returned by the authz server means the token is not found or expired.
+     */
+    protected boolean isInvalidTokenError(String error) {
+        return OAuth2Errors.ERROR_INVALID_TOKEN.equals(error) ||
+               OAuth2Errors.ERROR_INVALID_GRANT.equals(error) ||
+               OAuth2Errors.ERROR_INVALID_REQUEST.equals(error);
     }
 
     protected ResAccessTokenDetails createAccessTokenDetails(Map<String, Object> map) {
@@ -104,4 +458,54 @@ public class RemoteBearerResAccessTokenStore implements ResBearerAccessTokenStor
 
         return details;
     }
-}
\ No newline at end of file
+
+    private ConcurrentCache<String, Entry> cache() {
+        ConcurrentCache<String, Entry> c = cache;
+        if(null == c) {
+            synchronized (this) {
+                if(null == cache) {
+                    cache = new ConcurrentCache<>(cacheSize, cacheExpiresInMs + staleIfErrorMs, 0);
+                }
+                c = cache;
+            }
+        }
+        return c;
+    }
+
+    private ThreadPoolExecutor refresher() {
+        ThreadPoolExecutor r = refresher;
+        if(null == r) {
+            synchronized (this) {
+                if(null == refresher) {
+                    AtomicInteger counter = new AtomicInteger();
+                    refresher = new ThreadPoolExecutor(refreshThreads, refreshThreads, 60, TimeUnit.SECONDS,
+                                                       new LinkedBlockingQueue<>(1024), (runnable) -> {
+                        Thread thread = new Thread(runnable, "oauth2-token-refresher-" + counter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    refresher.allowCoreThreadTimeOut(true);
+                }
+                r = refresher;
+            }
+        }
+        return r;
+    }
+
+    protected static final class Entry {
+        final Result<ResAccessTokenDetails> result;
+        final long                          expiresAt;
+        final long                          staleExpiresAt;
+        final AtomicBoolean                 refreshing = new AtomicBoolean();
+
+        Entry(Result<ResAccessTokenDetails> result, long expiresAt, long staleIfErrorMs) {
+            this.result         = result;
+            this.expiresAt      = expiresAt;
+            this.staleExpiresAt = expiresAt + staleIfErrorMs;
+        }
+
+        boolean isStaleUsable(long now) {
+            return result.isPresent() && now < staleExpiresAt && !result.get().isExpired();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tests.rs;
+
+import leap.junit.TestBase;
+import leap.lang.Result;
+import leap.oauth2.OAuth2InternalServerException;
+import leap.oauth2.rs.token.RemoteBearerResAccessTokenStore;
+import leap.oauth2.rs.token.ResAccessTokenDetails;
+import leap.oauth2.rs.token.SimpleResAccessToken;
+import leap.oauth2.rs.token.SimpleResAccessTokenDetails;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RemoteBearerResAccessTokenStoreTest extends TestBase {
+
+    @Test
+    public void testCoalescing() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        TestStore store = new TestStore() {
+            @Override
+            protected Result<ResAccessTokenDetails> loadRemote(String token) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return super.loadRemote(token);
+            }
+        };
+
+        List<Thread>  threads = new ArrayList<>();
+        AtomicInteger found   = new AtomicInteger();
+        for(int i=0;i<5;i++) {
+            Thread thread = new Thread(() -> {
+                if(store.loadAccessTokenDetails(token("t1")).isPresent()) {
+                    found.incrementAndGet();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        started.await();
+        while(store.getCoalescedWaitCount() < 4) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        for(Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(5, found.get());
+        assertEquals(1, store.calls.get());
+        assertEquals(1, store.getRemoteCallCount());
+        assertEquals(4, store.getCoalescedWaitCount());
+
+        assertTrue(store.loadAccessTokenDetails(token("t1")).isPresent());
+        assertEquals(1, store.calls.get());
+        assertEquals(1, store.getCacheHitCount());
+    }
+
+    @Test
+    public void testNegativeCache() {
+        TestStore store = new TestStore();
+
+        assertFalse(store.loadAccessTokenDetails(token("notfound")).isPresent());
+        assertFalse(store.loadAccessTokenDetails(token("notfound")).isPresent());
+
+        assertEquals(1, store.calls.get());
+        assertEquals(1, store.getNegativeHitCount());
+    }
+
+    @Test
+    public void testStaleIfError() throws Exception {
+        TestStore store = new TestStore();
+        store.setCacheExpiresInMs(50);
+        store.setRefreshAheadMs(0);
+
+        assertTrue(store.loadAccessTokenDetails(token("t1")).isPresent());
+
+        Thread.sleep(100);
+        store.error = true;
+
+        assertTrue(store.loadAccessTokenDetails(token("t1")).isPresent());
+        assertEquals(1, store.getStaleHitCount());
+        assertEquals(1, store.getRemoteErrorCount());
+
+        try {
+            store.loadAccessTokenDetails(token("t2"));
+            fail("Should throw exception");
+        }catch (IllegalStateException e) {
+
+        }
+    }
+
+    @Test
+    public void testReadTokenInfoErrors() {
+        RemoteBearerResAccessTokenStore store = new RemoteBearerResAccessTokenStore() {
+            @Override
+            protected Result<ResAccessTokenDetails> loadRemote(String token) {
+                return readTokenInfo(token);
+            }
+        };
+
+        String invalid = "{\"error\":\"invalid_token\",\"error_description\":\"expired\"}";
+        assertFalse(store.loadAccessTokenDetails(token(invalid)).isPresent());
+        assertFalse(store.loadAccessTokenDetails(token(invalid)).isPresent());
+        assertEquals(1, store.getRemoteCallCount());
+        assertEquals(1, store.getNegativeHitCount());
+
+        for(String content : new String[]{"{\"error\":\"server_error\"}", "{\"error\":\"temporarily_unavailable\"}", "{bad json", "[]"}) {
+            try {
+                store.loadAccessTokenDetails(token(content));
+                fail("Should throw exception");
+            }catch (OAuth2InternalServerException e) {
+
+            }
+        }
+        assertEquals(4, store.getRemoteErrorCount());
+        assertEquals(1, store.getNegativeHitCount());
+    }
+
+    @Test
+    public void testRefreshAhead() throws Throwable {
+        TestStore store = new TestStore();
+        store.setCacheExpiresInMs(100);
+        store.setRefreshAheadMs(90);
+
+        assertTrue(store.loadAccessTokenDetails(token("t1")).isPresent());
+
+        Thread.sleep(20);
+        assertTrue(store.loadAccessTokenDetails(token("t1")).isPresent());
+
+        for(int i=0;i<100 && store.getRefreshCount() == 0;i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, store.getRefreshCount());
+        assertEquals(2, store.calls.get());
+
+        store.dispose();
+    }
+
+    private static SimpleResAccessToken token(String token) {
+        return new SimpleResAccessToken(null, token, new HashMap<>());
+    }
+
+    static class TestStore extends RemoteBearerResAccessTokenStore {
+        final AtomicInteger calls = new AtomicInteger();
+
+        volatile boolean error;
+
+        @Override
+        protected Result<ResAccessTokenDetails> loadRemote(String token) {
+            calls.incrementAndGet();
+
+            if(error) {
+                throw new IllegalStateException("Authz server error");
+            }
+
+            if(token.startsWith("notfound")) {
+                return Result.empty();
+            }
+
+            SimpleResAccessTokenDetails details = new SimpleResAccessTokenDetails();
+            details.setClientId("client1");
+            details.setCreated(System.currentTimeMillis());
+            details.setExpiresIn(3600 * 1000);
+            return Result.of(details);
+        }
+    }
+}
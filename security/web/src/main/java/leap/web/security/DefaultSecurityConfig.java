@@ -24,6 +24,7 @@ import leap.core.ioc.BeanList;
 import leap.core.ioc.PostConfigureBean;
 import leap.core.security.crypto.PasswordEncoder;
 import leap.core.web.RequestIgnore;
+import leap.core.web.path.PathPatternRequestIgnore;
 import leap.lang.Args;
 import leap.lang.Strings;
 import leap.lang.path.AntPathPattern;
@@ -76,9 +77,9 @@ public class DefaultSecurityConfig implements SecurityConfig, SecurityConfigurat
     protected @Inject CsrfStore                     csrfStore;
     protected @Inject BeanList<SecurityInterceptor> interceptors;
 
-    private RequestIgnore[]       ignoresArray       = new RequestIgnore[] {};
-    private SecurityInterceptor[] interceptorArray   = new SecurityInterceptor[]{};
-    private final Object          interceptorLock    = new Object();
+    private volatile RequestIgnore[] ignoresArray     = new RequestIgnore[] {};
+    private SecurityInterceptor[]    interceptorArray = new SecurityInterceptor[]{};
+    private final Object             interceptorLock  = new Object();
     
     public DefaultSecurityConfig() {
         super();
@@ -416,9 +417,8 @@ public class DefaultSecurityConfig implements SecurityConfig, SecurityConfigurat
     }
 
     @Override
-    public SecurityConfigurator ignore(String path) {
-        AntPathPattern pattern = new AntPathPattern(path);
-        ignores.add((req) -> pattern.matches(req.getPath()));
+    public synchronized SecurityConfigurator ignore(String path) {
+        ignores.add(new PathPatternRequestIgnore(new AntPathPattern(path)));
         ignoresArray = ignores.toArray(new RequestIgnore[ignores.size()]);
         return this;
     }
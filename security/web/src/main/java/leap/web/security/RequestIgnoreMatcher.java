@@ -0,0 +1,94 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.web.security;
+
+import leap.core.cache.ConcurrentCache;
+import leap.core.web.RequestBase;
+import leap.core.web.RequestIgnore;
+import leap.core.web.path.PathPatternIndex;
+import leap.core.web.path.PathPatternRequestIgnore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An immutable matcher compiled from the {@link RequestIgnore}s.
+ *
+ * <p>
+ * The path pattern ignores are compiled into a {@link PathPatternIndex} and the matched results are cached by path.
+ * The other ignores are tested one by one.
+ */
+public class RequestIgnoreMatcher {
+
+    protected static final int CACHE_SIZE = 1024;
+
+    private final RequestIgnore[]                            ignores;
+    private final PathPatternIndex<PathPatternRequestIgnore> index;
+    private final RequestIgnore[]                            others;
+    private final ConcurrentCache<String, Boolean>           cache;
+
+    public RequestIgnoreMatcher(RequestIgnore[] ignores) {
+        List<PathPatternRequestIgnore> patterns = new ArrayList<>();
+        List<RequestIgnore>            others   = new ArrayList<>();
+
+        for(RequestIgnore ignore : ignores) {
+            if(ignore instanceof PathPatternRequestIgnore) {
+                patterns.add((PathPatternRequestIgnore)ignore);
+            }else{
+                others.add(ignore);
+            }
+        }
+
+        this.ignores = ignores;
+        this.index   = patterns.isEmpty() ? null : new PathPatternIndex<>(patterns, PathPatternRequestIgnore::getPattern);
+        this.others  = others.toArray(new RequestIgnore[others.size()]);
+        this.cache   = null == index ? null : new ConcurrentCache<>(CACHE_SIZE);
+    }
+
+    /**
+     * Returns <code>true</code> if this matcher was compiled from the given ignores.
+     */
+    public boolean isCompiledFrom(RequestIgnore[] ignores) {
+        return this.ignores == ignores;
+    }
+
+    /**
+     * Returns <code>true</code> if the request should be ignored.
+     */
+    public boolean matches(RequestBase request) {
+        if(null != index) {
+            String path = request.getPath();
+
+            Boolean matched = cache.get(path);
+            if(null == matched) {
+                matched = null != index.match(path);
+                cache.put(path, matched);
+            }
+
+            if(matched) {
+                return true;
+            }
+        }
+
+        for(RequestIgnore ignore : others) {
+            if(ignore.matches(request)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -46,6 +46,8 @@ public class SecurityRequestInterceptor implements RequestInterceptor,AppListene
     protected @Inject @M SecurityHandler   handler;
     protected @Inject @M CsrfHandler       csrf;
 
+    private volatile RequestIgnoreMatcher ignoreMatcher;
+
     protected SecuredPathBuilder spb(Route route) {
         SecuredPathBuilder spb = route.getExtension(SecuredPathBuilder.class);
         if(null == spb) {
@@ -105,12 +107,9 @@ public class SecurityRequestInterceptor implements RequestInterceptor,AppListene
 		    return State.INTERCEPTED;
 		}
 		
-		//TODO : cache 
 		//Check is the request ignored.
-		for(RequestIgnore ignore : config.getIgnores()) {
-			if(ignore.matches(request)) {
-				return State.CONTINUE;
-			}
+		if(isIgnored(request)) {
+			return State.CONTINUE;
 		}
 		
 		DefaultSecurityContextHolder context =
@@ -119,6 +118,27 @@ public class SecurityRequestInterceptor implements RequestInterceptor,AppListene
 		return preHandleRequest(request, response, context);
     }
 
+    /**
+     * Returns <code>true</code> if the request is ignored by the {@link SecurityConfig#getIgnores()}.
+     *
+     * <p>
+     * The ignores are compiled into a {@link RequestIgnoreMatcher}, which will be recompiled if the ignores changed.
+     */
+    protected boolean isIgnored(Request request) {
+        RequestIgnore[] ignores = config.getIgnores();
+        if(null == ignores || ignores.length == 0) {
+            return false;
+        }
+
+        RequestIgnoreMatcher matcher = ignoreMatcher;
+        if(null == matcher || !matcher.isCompiledFrom(ignores)) {
+            matcher = new RequestIgnoreMatcher(ignores);
+            ignoreMatcher = matcher;
+        }
+
+        return matcher.matches(request);
+    }
+
     protected State preHandleRequest(Request request, Response response, DefaultSecurityContextHolder context) throws Throwable {
         //Resolve authentication.
         State state = resolveAuthentication(request,response,context);
@@ -17,9 +17,6 @@ package leap.web.security.path;
 
 import leap.core.annotation.Inject;
 import leap.core.annotation.M;
-import leap.core.cache.Cache;
-import leap.core.cache.SimpleLRUCache;
-import leap.lang.Strings;
 import leap.lang.logging.Log;
 import leap.lang.logging.LogFactory;
 import leap.lang.path.PathPattern;
@@ -50,46 +47,23 @@ public class DefaultSecuredPathSource implements SecuredPathSource {
     };
 	
 	private static final SecuredPath ANY  = new DefaultSecuredPathBuilder().setPattern(ANY_PATTERN).build();
-	private static final SecuredPath NULL = new DefaultSecuredPathBuilder().setPattern(ANY_PATTERN).build();
 
 	protected @Inject @M SecurityConfig config;
 
-	protected Cache<String, SecuredPath> cachedPaths = new SimpleLRUCache<>(1024);
-	
 	@Override
 	public SecuredPath getSecuredPath(SecurityContextHolder context, Request request) {
-		String cacheKey = genCacheKey(request);
-	    SecuredPath securedPath = cachedPaths.get(cacheKey);
-	    if(null != securedPath) {
-	        return securedPath == NULL ? null : securedPath;
-	    }
-
-        log.debug("Matching request {} ...", request.getPath());
-	    
-		for(SecuredPath p : config.getSecuredPaths()){
-			if(matches(p,request)) {
-                log.debug("Matches -> {} {}", p.getRoute()==null?"*":p.getRoute().getMethod(), p.getPattern());
-			    cachedPaths.put(cacheKey, p);
-				return p;
+		SecuredPath p = config.getSecuredPaths().match(request);
+		if(null != p) {
+			if(log.isDebugEnabled()) {
+				log.debug("Request {} matches -> {} {}", request.getPath(), p.getRoute()==null?"*":p.getRoute().getMethod(), p.getPattern());
 			}
-            log.debug("Not matches -> {}", p.getPattern());
+			return p;
 		}
-		
+
 		if(config.isAuthenticateAnyRequests()) {
-		    cachedPaths.put(request.getPath(), ANY);
 		    return ANY;
 		}
-		
-		cachedPaths.put(request.getPath(), NULL);
+
 		return null;
 	}
-	private boolean matches(SecuredPath p,Request request){
-		return p.matches(request) &&
-				(p.getRoute() == null ||
-						Strings.equals(p.getRoute().getMethod(),"*") ||
-						Strings.equalsIgnoreCase(p.getRoute().getMethod(),request.getMethod()));
-	}
-	private String genCacheKey(Request request){
-		return request.getMethod()+"$"+request.getPath();
-	}
 }
@@ -15,7 +15,11 @@
  */
 package leap.web.security.path;
 
+import leap.core.cache.ConcurrentCache;
+import leap.core.web.path.PathPatternIndex;
 import leap.lang.Args;
+import leap.lang.logging.Log;
+import leap.lang.logging.LogFactory;
 import leap.lang.path.AntPathPattern;
 import leap.lang.path.PathPattern;
 import leap.web.Request;
@@ -24,13 +28,20 @@ import leap.web.security.SecurityFailureHandler;
 import leap.web.security.authc.AuthenticationContext;
 import leap.web.security.authz.AuthorizationContext;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.TreeMap;
 
 public class DefaultSecuredPaths implements SecuredPaths {
 
+    private static final Log log = LogFactory.get(DefaultSecuredPaths.class);
+
+    protected static final int CACHE_SIZE = 1024;
+
     protected final TreeMap<PathPattern,PathEntry> paths = new TreeMap<>(PathPattern.DEFAULT_COMPARATOR);
 
+    private volatile CompiledPaths compiled;
+
     @Override
     public boolean isEmpty() {
         return paths.isEmpty();
@@ -103,7 +114,10 @@ public class DefaultSecuredPaths implements SecuredPaths {
     @Override
     public SecuredPaths apply(SecuredPath p) {
         Args.notNull(p);
-        paths.put(p.getPattern(), new PathEntry(p));
+        synchronized (paths) {
+            paths.put(p.getPattern(), new PathEntry(p));
+            compiled = null;
+        }
         return this;
     }
 
@@ -116,11 +130,69 @@ public class DefaultSecuredPaths implements SecuredPaths {
     @Override
     public SecuredPath remove(String path) {
         Args.notEmpty(path, "path");
-        return paths.remove(new AntPathPattern(path));
+        synchronized (paths) {
+            SecuredPath removed = paths.remove(new AntPathPattern(path));
+            compiled = null;
+            return removed;
+        }
+    }
+
+    @Override
+    public SecuredPath match(Request request) {
+        return compiled().match(request);
     }
 
     public void apply(SecuredPathConfigurator c, SecuredPath p) {
-        paths.put(p.getPattern(), new PathEntry(p, c));
+        synchronized (paths) {
+            paths.put(p.getPattern(), new PathEntry(p, c));
+            compiled = null;
+        }
+    }
+
+    /**
+     * Returns the compiled paths, compiles it if the paths changed.
+     */
+    protected CompiledPaths compiled() {
+        CompiledPaths c = compiled;
+        if(null == c) {
+            synchronized (paths) {
+                c = compiled;
+                if(null == c) {
+                    log.debug("Compiling {} secured paths", paths.size());
+                    c = new CompiledPaths(new PathPatternIndex<>(new ArrayList<>(paths.values()), SecuredPath::getPattern));
+                    compiled = c;
+                }
+            }
+        }
+        return c;
+    }
+
+    /**
+     * The immutable snapshot of the secured paths, the matched results are cached by method and path.
+     */
+    protected static final class CompiledPaths {
+        private static final SecuredPath NULL = new DefaultSecuredPathBuilder().setPattern(new AntPathPattern("/**")).build();
+
+        private final PathPatternIndex<SecuredPath>       index;
+        private final ConcurrentCache<String,SecuredPath> cache = new ConcurrentCache<>(CACHE_SIZE);
+
+        CompiledPaths(PathPatternIndex<SecuredPath> index) {
+            this.index = index;
+        }
+
+        SecuredPath match(Request request) {
+            String method = request.getMethod();
+            String path   = request.getPath();
+            String key    = method + "$" + path;
+
+            SecuredPath p = cache.get(key);
+            if(null == p) {
+                p = index.match(path, (sp) -> sp.matchesMethod(method));
+                cache.put(key, null == p ? NULL : p);
+            }
+
+            return p == NULL ? null : p;
+        }
     }
 
     protected static final class PathEntry implements SecuredPath {
@@ -17,6 +17,7 @@ package leap.web.security.path;
 
 import leap.core.web.RequestBase;
 import leap.core.web.RequestMatcher;
+import leap.lang.Strings;
 import leap.lang.enums.Bool;
 import leap.lang.path.PathPattern;
 import leap.web.Request;
@@ -162,6 +163,16 @@ public interface SecuredPath extends RequestMatcher, Comparable<SecuredPath> {
         return getPattern().matches(path);
     }
 
+    /**
+     * Returns true if the http method of route matches the given method or no route.
+     */
+    default boolean matchesMethod(String method) {
+        Route route = getRoute();
+        return null == route ||
+               Strings.equals(route.getMethod(), "*") ||
+               Strings.equalsIgnoreCase(route.getMethod(), method);
+    }
+
     /**
      * Returns true if the path allows the authentication.
      */
@@ -17,6 +17,7 @@ package leap.web.security.path;
 
 import leap.lang.Emptiable;
 import leap.lang.path.PathPattern;
+import leap.web.Request;
 import leap.web.route.Route;
 
 public interface SecuredPaths extends Iterable<SecuredPath>,Emptiable {
@@ -59,4 +60,19 @@ public interface SecuredPaths extends Iterable<SecuredPath>,Emptiable {
      */
     SecuredPath remove(String path);
 
+    /**
+     * Returns the first {@link SecuredPath} matches the path and method of request.
+     *
+     * <p/>
+     * Returns null if no matched.
+     */
+    default SecuredPath match(Request request) {
+        for(SecuredPath p : this) {
+            if(p.matches(request) && p.matchesMethod(request.getMethod())) {
+                return p;
+            }
+        }
+        return null;
+    }
+
 }
\ No newline at end of file
@@ -19,12 +19,15 @@ import java.util.HashMap;
 import java.util.Map;
 
 import leap.core.BeanFactory;
+import leap.core.annotation.ConfigProperty;
+import leap.core.annotation.Configurable;
 import leap.core.annotation.Inject;
 import leap.core.ioc.PostCreateBean;
 import leap.core.security.Authentication;
 import leap.core.security.Credentials;
 import leap.core.security.UserPrincipal;
 import leap.core.security.token.TokenCredentials;
+import leap.core.security.token.jwt.CachingJwtVerifier;
 import leap.core.security.token.jwt.JwtSigner;
 import leap.core.security.token.jwt.JwtVerifier;
 import leap.core.security.token.jwt.MacSigner;
@@ -37,6 +40,7 @@ import leap.web.security.authc.AuthenticationException;
 import leap.web.security.authc.TokenAuthenticator;
 import leap.web.security.authc.credentials.CredentialsAuthenticationContext;
 
+@Configurable(prefix="websecurity.jwt")
 public class JwtTokenAuthenticator extends UsernameBasedTokenAuthenticator implements TokenAuthenticator, PostCreateBean {
 	
 	public static final String CLAIM_NAME = "name"; //username
@@ -45,6 +49,9 @@ public class JwtTokenAuthenticator extends UsernameBasedTokenAuthenticator imple
     protected SecurityConfig   config;
     protected JwtSigner        signer;
     protected JwtVerifier      verifier;
+    protected int              verifiedCacheSize = CachingJwtVerifier.DEFAULT_MAX_SIZE;
+
+    private volatile CachingJwtVerifier cachingVerifier;
 	
 	@Override
 	public String generateAuthenticationToken(Request request, Response response, Authentication authc) {
@@ -56,7 +63,7 @@ public class JwtTokenAuthenticator extends UsernameBasedTokenAuthenticator imple
 		if(credentials instanceof TokenCredentials) {
 			String token = ((TokenCredentials) credentials).getToken();
 			
-			Map<String, Object> claims = verifier.verify(token);
+			Map<String, Object> claims = getCachingVerifier().verify(token);
 			
 			String username = (String)claims.get(CLAIM_NAME);
 			
@@ -95,6 +102,22 @@ public class JwtTokenAuthenticator extends UsernameBasedTokenAuthenticator imple
 	    }
     }
 
+	/**
+	 * Returns the verifier wrapped by {@link CachingJwtVerifier} if cache enabled.
+	 */
+	protected JwtVerifier getCachingVerifier() {
+		if(verifiedCacheSize <= 0) {
+			return verifier;
+		}
+
+		CachingJwtVerifier cv = cachingVerifier;
+		if(null == cv || cv.getVerifier() != verifier) {
+			cv = new CachingJwtVerifier(verifier, verifiedCacheSize, CachingJwtVerifier.DEFAULT_MAX_AGE);
+			cachingVerifier = cv;
+		}
+		return cv;
+	}
+
 	public JwtSigner getSigner() {
 		return signer;
 	}
@@ -110,5 +133,18 @@ public class JwtTokenAuthenticator extends UsernameBasedTokenAuthenticator imple
 	public void setVerifier(JwtVerifier tokenVerifier) {
 		this.verifier = tokenVerifier;
 	}
+
+	public int getVerifiedCacheSize() {
+		return verifiedCacheSize;
+	}
+
+	/**
+	 * Sets the max number of cached verified tokens, zero disables the cache.
+	 */
+	@ConfigProperty
+	public void setVerifiedCacheSize(int size) {
+		this.verifiedCacheSize = size;
+		this.cachingVerifier   = null;
+	}
 	
 }
\ No newline at end of file
@@ -18,6 +18,9 @@ package leap.web.security.jwt;
 import java.util.HashMap;
 import java.util.Map;
 
+import leap.core.security.token.TokenExpiredException;
+import leap.core.security.token.TokenVerifyException;
+import leap.core.security.token.jwt.CachingJwtVerifier;
 import leap.core.security.token.jwt.MacSigner;
 import leap.core.security.token.jwt.RsaSigner;
 import leap.core.security.token.jwt.RsaVerifier;
@@ -100,4 +103,90 @@ public class JwtTokenTest extends TestBase {
         assertEquals(claims.get("aaa"),decodedClaims.get("aaa"));
         assertEquals(claims.get("exp"),decodedClaims.get("exp"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testRS256VerifyReusedSignature() {
+        RsaKeyPair kp = RSA.generateKeyPair();
+
+        RsaSigner   signer   = new RsaSigner(kp.getPrivateKey());
+        RsaVerifier verifier = new RsaVerifier(kp.getPublicKey());
+
+        Map<String, Object> claims = new HashMap<String, Object>();
+        claims.put("aaa", "bbb");
+        claims.put("exp", System.currentTimeMillis() + 1000L * 1000);
+
+        String token = signer.sign(claims);
+
+        for(int i=0;i<3;i++) {
+            assertEquals("bbb", verifier.verify(token).get("aaa"));
+        }
+
+        //invalid signature.
+        String invalid = token.substring(0, token.length() - 4) + (token.endsWith("AAAA") ? "BBBB" : "AAAA");
+        try {
+            verifier.verify(invalid);
+            fail("Should throw TokenVerifyException");
+        }catch(TokenVerifyException e) {
+            assertEquals(TokenVerifyException.ErrorCode.INVALID_SIGNATURE, e.getErrorCode());
+        }
+
+        assertEquals("bbb", verifier.verify(token).get("aaa"));
+    }
+
+    @Test
+    public void testCachingVerifier() {
+        RsaKeyPair kp = RSA.generateKeyPair();
+
+        RsaSigner          signer   = new RsaSigner(kp.getPrivateKey());
+        CachingJwtVerifier verifier = new CachingJwtVerifier(new RsaVerifier(kp.getPublicKey()));
+
+        Map<String, Object> claims = new HashMap<String, Object>();
+        claims.put("aaa", "bbb");
+        claims.put("exp", System.currentTimeMillis() + 1000L * 1000);
+
+        String token = signer.sign(claims);
+
+        Map<String, Object> decodedClaims = verifier.verify(token);
+        assertEquals("bbb", decodedClaims.get("aaa"));
+        assertEquals(0, verifier.stats().getHitCount());
+
+        //the returned claims is a copy.
+        decodedClaims.remove("aaa");
+        assertEquals("bbb", verifier.verify(token).get("aaa"));
+        assertEquals(1, verifier.stats().getHitCount());
+
+        //invalid token not cached.
+        String invalid = token.substring(0, token.length() - 4) + (token.endsWith("AAAA") ? "BBBB" : "AAAA");
+        for(int i=0;i<2;i++) {
+            try {
+                verifier.verify(invalid);
+                fail("Should throw TokenVerifyException");
+            }catch(TokenVerifyException e) {
+
+            }
+        }
+    }
+
+    @Test
+    public void testCachingVerifierExpired() throws Exception {
+        MacSigner          signer   = new MacSigner(Randoms.nextString(10));
+        CachingJwtVerifier verifier = new CachingJwtVerifier(signer);
+
+        Map<String, Object> claims = new HashMap<String, Object>();
+        claims.put("aaa", "bbb");
+        claims.put("exp", System.currentTimeMillis() + 100);
+
+        String token = signer.sign(claims);
+        assertEquals("bbb", verifier.verify(token).get("aaa"));
+        assertEquals("bbb", verifier.verify(token).get("aaa"));
+
+        Thread.sleep(150);
+
+        try {
+            verifier.verify(token);
+            fail("Should throw TokenExpiredException");
+        }catch(TokenExpiredException e) {
+
+        }
+    }
+}
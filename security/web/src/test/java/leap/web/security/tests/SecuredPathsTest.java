@@ -0,0 +1,47 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.web.security.tests;
+
+import leap.core.annotation.Inject;
+import leap.web.security.SecurityConfigurator;
+import leap.web.security.SecurityTestCase;
+import org.junit.Test;
+
+public class SecuredPathsTest extends SecurityTestCase {
+
+    protected @Inject SecurityConfigurator sc;
+
+    @Test
+    public void testApplyAndRemoveAtRuntime() {
+        logout();
+        get("/").assertContentContains("return_url");
+
+        sc.paths().apply("/", true);
+        get("/").assertContentContains("Hello");
+
+        sc.paths().remove("/");
+        get("/").assertContentContains("return_url");
+    }
+
+    @Test
+    public void testIgnoreAtRuntime() {
+        logout();
+        get("/runtime_ignored/test").assertContentContains("return_url");
+
+        sc.ignore("/runtime_ignored/**");
+        get("/runtime_ignored/test").assert404();
+    }
+}
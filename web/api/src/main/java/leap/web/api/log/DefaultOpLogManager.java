@@ -22,6 +22,7 @@ import leap.core.annotation.ConfigProperty;
 import leap.core.annotation.Configurable;
 import leap.core.annotation.Inject;
 import leap.core.el.EL;
+import leap.lang.Disposable;
 import leap.lang.New;
 import leap.lang.Strings;
 import leap.lang.http.HTTP;
@@ -38,6 +39,7 @@ import leap.web.api.meta.model.MApiOperation;
 import leap.web.api.meta.model.MApiPath;
 import leap.web.route.Route;
 
+import java.io.File;
 import java.lang.reflect.Modifier;
 import java.sql.Timestamp;
 import java.util.Map;
@@ -48,7 +50,7 @@ import java.util.UUID;
  * Created by kael on 2016/10/11.
  */
 @Configurable(prefix = "webapi.oplog")
-public class DefaultOpLogManager implements OpLogManager {
+public class DefaultOpLogManager implements OpLogManager, Disposable {
     @ConfigProperty
     protected String logClassName;
     @Inject
@@ -56,7 +58,26 @@ public class DefaultOpLogManager implements OpLogManager {
     @Inject
     protected Apis apis;
 
+    /**
+     * Writes the logs in background threads if enabled.
+     */
+    @ConfigProperty
+    protected boolean async;
+    @ConfigProperty
+    protected int     asyncQueueSize     = 10000;
+    @ConfigProperty
+    protected int     asyncBatchSize     = 100;
+    @ConfigProperty
+    protected long    asyncFlushInterval = 1000;
+    @ConfigProperty
+    protected int     asyncThreads       = 1;
+    @ConfigProperty
+    protected String  asyncOverflow      = "block";
+    @ConfigProperty
+    protected String  asyncSpillFile;
+
     protected Class<? extends OpLogModel> logClass;
+    protected OpLogWriter                 writer;
 
     public void init() throws ClassNotFoundException {
         if(!Strings.isEmpty(logClassName)){
@@ -79,6 +100,26 @@ public class DefaultOpLogManager implements OpLogManager {
             }
         });
 
+        if(async && logClass != null) {
+            writer = new OpLogWriter(dao, asyncQueueSize, asyncBatchSize, asyncFlushInterval, asyncThreads,
+                                     OpLogWriter.OverflowPolicy.of(asyncOverflow),
+                                     Strings.isEmpty(asyncSpillFile) ? null : new File(asyncSpillFile));
+            writer.start();
+        }
+    }
+
+    /**
+     * Returns the async writer, or <code>null</code> if the logs are written synchronously.
+     */
+    public OpLogWriter getWriter() {
+        return writer;
+    }
+
+    @Override
+    public void dispose() throws Throwable {
+        if(null != writer) {
+            writer.dispose();
+        }
     }
 
     protected String parseDescription(String description, Map<String, Object> vars){
@@ -142,7 +183,11 @@ public class DefaultOpLogManager implements OpLogManager {
         log.setTitle(parseTitle(annotation,operation,vars));
         log.setDescription(parseDescription(annotation,operation,vars));
 
-        log.create();
+        if(null != writer) {
+            writer.write(log);
+        }else{
+            log.create();
+        }
     }
 
     protected String parseTitle(OpLog annotation, MApiOperation operation, Map<String, Object> vars){
@@ -0,0 +1,378 @@
+/*
+ *
+ *  * Copyright 2013 the original author or authors.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package leap.web.api.log;
+
+import leap.core.transaction.TransactionStatus;
+import leap.lang.Args;
+import leap.lang.Disposable;
+import leap.lang.json.JSON;
+import leap.lang.logging.Log;
+import leap.lang.logging.LogFactory;
+import leap.orm.dao.Dao;
+import leap.orm.model.ModelRegistry;
+import leap.orm.model.ModelRegistry.ModelContext;
+import leap.web.api.log.model.OpLogModel;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes the {@link OpLogModel} in background threads.
+ *
+ * <p>
+ * The logs are put into a bounded queue and created in one transaction of the model's dao when the batch is full
+ * or the flush interval elapsed. The {@link OverflowPolicy} decides what to do when the queue is full.
+ *
+ * <p>
+ * Each log is created by {@link OpLogModel#create()} as the synchronous writing does, so the datasource, the default values
+ * and the validation of the model are the same.
+ *
+ * <p>
+ * The queued logs are drained when disposing the writer.
+ */
+public class OpLogWriter implements Disposable {
+
+    private static final Log log = LogFactory.get(OpLogWriter.class);
+
+    private static final long DROP_WARNING_INTERVAL = 10000L;
+
+    public enum OverflowPolicy {
+        /**
+         * Waits for the space of queue in the request thread.
+         */
+        BLOCK,
+
+        /**
+         * Discards the log.
+         */
+        DROP,
+
+        /**
+         * Appends the log as a json line to the spill file.
+         */
+        SPILL;
+
+        public static OverflowPolicy of(String name) {
+            return valueOf(name.trim().toUpperCase());
+        }
+    }
+
+    private final Dao                       dao;
+    private final BlockingQueue<OpLogModel> queue;
+    private final int                       batchSize;
+    private final long                      flushInterval;
+    private final OverflowPolicy            overflowPolicy;
+    private final File                      spillFile;
+    private final Thread[]                  threads;
+
+    private final LongAdder  written     = new LongAdder();
+    private final LongAdder  dropped     = new LongAdder();
+    private final LongAdder  spilled     = new LongAdder();
+    private final LongAdder  failed      = new LongAdder();
+    private final LongAdder  flushes     = new LongAdder();
+    private final LongAdder  flushTime   = new LongAdder();
+    private final AtomicLong lastFlushTime = new AtomicLong();
+    private final AtomicLong unwarnedDrops = new AtomicLong();
+    private final AtomicLong lastDropWarning = new AtomicLong();
+
+    private volatile boolean closed;
+
+    /**
+     * @param dao the dao to create the logs if the model is not registered with a dao.
+     * @param queueSize the max number of queued logs.
+     * @param batchSize the max number of logs in one batch insert.
+     * @param flushInterval the max milliseconds to wait for filling a batch.
+     * @param threads the number of writer threads.
+     * @param overflowPolicy the policy when the queue is full.
+     * @param spillFile the file to append the logs, required if the policy is {@link OverflowPolicy#SPILL}.
+     */
+    public OpLogWriter(Dao dao, int queueSize, int batchSize, long flushInterval, int threads,
+                       OverflowPolicy overflowPolicy, File spillFile) {
+        Args.notNull(dao, "dao");
+        Args.assertTrue(queueSize > 0, "The queue size must be positive");
+        Args.assertTrue(batchSize > 0, "The batch size must be positive");
+        Args.assertTrue(flushInterval > 0, "The flush interval must be positive");
+        Args.assertTrue(threads > 0, "The threads must be positive");
+        Args.notNull(overflowPolicy, "overflow policy");
+        if(overflowPolicy == OverflowPolicy.SPILL) {
+            Args.notNull(spillFile, "spill file");
+        }
+
+        this.dao            = dao;
+        this.queue          = new ArrayBlockingQueue<>(queueSize);
+        this.batchSize      = batchSize;
+        this.flushInterval  = flushInterval;
+        this.overflowPolicy = overflowPolicy;
+        this.spillFile      = spillFile;
+        this.threads        = new Thread[threads];
+
+        for(int i=0;i<threads;i++) {
+            Thread thread = new Thread(this::run, "oplog-writer-" + (i + 1));
+            thread.setDaemon(true);
+            this.threads[i] = thread;
+        }
+    }
+
+    public void start() {
+        for(Thread thread : threads) {
+            thread.start();
+        }
+    }
+
+    /**
+     * Queues the log, or applies the overflow policy if the queue is full.
+     *
+     * <p>
+     * Inserts the log directly if the writer has been disposed.
+     */
+    public void write(OpLogModel model) {
+        if(closed) {
+            insert(model);
+            return;
+        }
+
+        if(queue.offer(model)) {
+            enqueued(model);
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case BLOCK:
+                try {
+                    queue.put(model);
+                    enqueued(model);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    drop(model);
+                }
+                break;
+            case SPILL:
+                spill(model);
+                break;
+            default:
+                drop(model);
+        }
+    }
+
+    /**
+     * Returns the number of logs in the queue.
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Returns the number of logs inserted into database.
+     */
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    /**
+     * Returns the number of logs discarded.
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Returns the number of logs appended to the spill file.
+     */
+    public long getSpilledCount() {
+        return spilled.sum();
+    }
+
+    /**
+     * Returns the number of logs failed to insert.
+     */
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    /**
+     * Returns the number of batch inserts.
+     */
+    public long getFlushCount() {
+        return flushes.sum();
+    }
+
+    /**
+     * Returns the milliseconds of the last batch insert.
+     */
+    public long getLastFlushTime() {
+        return lastFlushTime.get();
+    }
+
+    /**
+     * Returns the average milliseconds of the batch inserts.
+     */
+    public double getAverageFlushTime() {
+        long count = flushes.sum();
+        return count == 0 ? 0d : (double)flushTime.sum() / count;
+    }
+
+    @Override
+    public void dispose() throws Throwable {
+        if(closed) {
+            return;
+        }
+        closed = true;
+
+        log.debug("Draining {} queued operation logs", queue.size());
+
+        for(Thread thread : threads) {
+            thread.join(flushInterval * 10);
+        }
+
+        //the writer threads were not stopped in time.
+        List<OpLogModel> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if(!remaining.isEmpty()) {
+            flush(remaining);
+        }
+    }
+
+    /**
+     * Takes back the queued log if the writer was disposed concurrently, the final drain may have missed it.
+     */
+    protected void enqueued(OpLogModel model) {
+        if(closed && queue.remove(model)) {
+            insert(model);
+        }
+    }
+
+    protected void run() {
+        List<OpLogModel> batch = new ArrayList<>(batchSize);
+
+        for(;;) {
+            try {
+                OpLogModel first = queue.poll(flushInterval, TimeUnit.MILLISECONDS);
+                if(null == first) {
+                    if(closed) {
+                        break;
+                    }
+                    continue;
+                }
+
+                batch.add(first);
+
+                long deadline = System.currentTimeMillis() + flushInterval;
+                while(batch.size() < batchSize && !closed) {
+                    long wait = deadline - System.currentTimeMillis();
+                    if(wait <= 0) {
+                        break;
+                    }
+
+                    OpLogModel next = queue.poll(wait, TimeUnit.MILLISECONDS);
+                    if(null == next) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                queue.drainTo(batch, batchSize - batch.size());
+
+                flush(batch);
+            } catch (InterruptedException e) {
+                log.info("Operation log writer interrupted");
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    protected void flush(List<OpLogModel> batch) {
+        long start = System.currentTimeMillis();
+        try {
+            dao(batch.get(0)).doTransaction((TransactionStatus s) -> {
+                for(OpLogModel model : batch) {
+                    model.create();
+                }
+            });
+            written.add(batch.size());
+        } catch (Throwable e) {
+            failed.add(batch.size());
+            log.error("Error inserting {} operation logs, {}", batch.size(), e.getMessage(), e);
+
+            if(null != spillFile) {
+                spill(batch);
+            }
+        } finally {
+            long time = System.currentTimeMillis() - start;
+            flushes.increment();
+            flushTime.add(time);
+            lastFlushTime.set(time);
+        }
+    }
+
+    /**
+     * Returns the dao of the model, the same as {@link OpLogModel#create()} uses.
+     */
+    protected Dao dao(OpLogModel model) {
+        ModelContext context = ModelRegistry.tryGetModelContext(model.getClass().getName());
+        return null == context ? dao : context.getDao();
+    }
+
+    protected void insert(OpLogModel model) {
+        model.create();
+        written.increment();
+    }
+
+    protected void drop(OpLogModel model) {
+        dropped.increment();
+        unwarnedDrops.incrementAndGet();
+
+        //warns at most once per interval.
+        long now  = System.currentTimeMillis();
+        long last = lastDropWarning.get();
+        if(now - last >= DROP_WARNING_INTERVAL && lastDropWarning.compareAndSet(last, now)) {
+            log.warn("Operation log queue is full, discarded {} logs since last warning", unwarnedDrops.getAndSet(0));
+        }
+    }
+
+    protected void spill(OpLogModel model) {
+        List<OpLogModel> list = new ArrayList<>(1);
+        list.add(model);
+        spill(list);
+    }
+
+    protected synchronized void spill(List<OpLogModel> models) {
+        try(Writer writer = new OutputStreamWriter(new FileOutputStream(spillFile, true), StandardCharsets.UTF_8)) {
+            for(OpLogModel model : models) {
+                writer.write(JSON.encode(model.fields()));
+                writer.write('\n');
+            }
+            spilled.add(models.size());
+        } catch (IOException e) {
+            dropped.add(models.size());
+            log.error("Error writing {} operation logs to spill file '{}'", models.size(), spillFile, e);
+        }
+    }
+}
@@ -179,11 +179,17 @@ public abstract class ModelController<T> extends ApiController implements ApiIni
 
         QueryListResult result = executor.queryList(options, filters,callback);
 
-        if (result.count == -1) {
-            return ApiResponse.of(result.list);
-        } else {
-            return ApiResponse.of(result.list).setHeader("X-Total-Count", String.valueOf(result.count));
+        ApiResponse<List<T>> response = ApiResponse.of(result.list);
+
+        if (result.count != -1) {
+            response.setHeader("X-Total-Count", String.valueOf(result.count));
         }
+
+        if (null != result.nextToken) {
+            response.setHeader("X-Next-Token", result.nextToken);
+        }
+
+        return response;
     }
 
     /**
@@ -29,6 +29,9 @@ public class QueryOptions extends QueryOptionsBase {
     protected @QueryParam("limit")       Integer limit;
     protected @QueryParam("offset")      Integer offset;  //0-based
     protected @QueryParam("total")       boolean total;
+    protected @QueryParam("total_estimated") boolean totalEstimated;
+    protected @QueryParam("keyset")      boolean keyset;
+    protected @QueryParam("after")       String  after;   //the continuation token of keyset page
     protected @QueryParam("orderby")     String  orderBy;
     protected @QueryParam("filters")     String  filters;
 
@@ -72,6 +75,39 @@ public class QueryOptions extends QueryOptionsBase {
         this.total = total;
     }
 
+    /**
+     * Returns true if the total count can be estimated by the statistics of db instead of executing a count query.
+     */
+    public boolean isTotalEstimated() {
+        return totalEstimated;
+    }
+
+    public void setTotalEstimated(boolean totalEstimated) {
+        this.totalEstimated = totalEstimated;
+    }
+
+    /**
+     * Returns true if query the records in keyset page mode.
+     */
+    public boolean isKeyset() {
+        return keyset || null != after;
+    }
+
+    public void setKeyset(boolean keyset) {
+        this.keyset = keyset;
+    }
+
+    /**
+     * Returns the continuation token of keyset page, the records after the token will be returned.
+     */
+    public String getAfter() {
+        return after;
+    }
+
+    public void setAfter(String after) {
+        this.after = after;
+    }
+
     public String getOrderBy() {
         return orderBy;
     }
@@ -24,6 +24,7 @@ import leap.lang.convert.Converts;
 import leap.orm.dao.Dao;
 import leap.orm.mapping.*;
 import leap.orm.query.CriteriaQuery;
+import leap.orm.query.KeysetResult;
 import leap.orm.query.PageResult;
 import leap.web.Params;
 import leap.web.api.config.ApiConfig;
@@ -35,9 +36,7 @@ import leap.web.api.query.*;
 import leap.web.exception.BadRequestException;
 
 import java.lang.reflect.Array;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.function.Consumer;
 
 public class DefaultModelQueryExecutor extends ModelExecutorBase implements ModelQueryExecutor {
@@ -88,7 +87,9 @@ public class DefaultModelQueryExecutor extends ModelExecutorBase implements Mode
         CriteriaQuery<Record> query = dao.createCriteriaQuery(em);
 
         long count = -1;
+        String nextToken = null;
         List<Record> list;
+        Set<String> keysetAdded = Collections.emptySet();
         if(null == options) {
             if(callback != null){
                 callback.accept(query);
@@ -100,7 +101,11 @@ public class DefaultModelQueryExecutor extends ModelExecutorBase implements Mode
             }
 
             if(!Strings.isEmpty(options.getSelect())) {
-                applySelect(query, options.getSelect());
+                if(options.isKeyset()) {
+                    keysetAdded = applyKeysetSelect(query, options.getSelect(), options.getOrderBy());
+                }else{
+                    applySelect(query, options.getSelect());
+                }
             }
 
             applyFilters(query, options.getParams(), options.getFilters(), filters);
@@ -109,48 +114,84 @@ public class DefaultModelQueryExecutor extends ModelExecutorBase implements Mode
                 callback.accept(query);
             }
 
-            PageResult result = query.pageResult(options.getPage(c.getDefaultPageSize()));
+            if(options.isKeyset()) {
+                KeysetResult<Record> result = keysetResult(query, options);
+
+                list      = result.list();
+                nextToken = result.getNextToken();
+
+                if(options.isTotal()) {
+                    count = options.isTotalEstimated() ? result.getEstimatedTotalCount() : result.getTotalCount();
+                }
+            }else{
+                PageResult result = query.pageResult(options.getPage(c.getDefaultPageSize()));
+
+                list = result.list();
 
-            list = result.list();
+                if(options.isTotal()) {
+                    count = options.isTotalEstimated() ? query.estimateCount() : query.count();
+                }
+            }
 
             if(!list.isEmpty()) {
                 Expand[] expands = ExpandParser.parse(options.getExpand());
                 if(expands.length > 0) {
 
-                    for(Record record : list) {
-
-                        Object id = Mappings.getId(em, record);
+                    if(list.size() > 1 && c.getExpandBatchSize() > 0) {
 
                         for(Expand expand : expands) {
-                            expand(record, id, expand);
+                            expand(list, expand);
                         }
 
+                    }else{
+
+                        for(Record record : list) {
+
+                            Object id = Mappings.getId(em, record);
+
+                            for(Expand expand : expands) {
+                                expand(record, id, expand);
+                            }
+
+                        }
                     }
                 }
             }
-        }
 
-        if(options.isTotal()){
-            count = query.count();
+            //the keyset fields not selected by the client.
+            if(!keysetAdded.isEmpty()) {
+                for(Record record : list) {
+                    for(String field : keysetAdded) {
+                        record.remove(field);
+                    }
+                }
+            }
         }
 
-        return new QueryListResult(list, count);
+        return new QueryListResult(list, count, nextToken);
     }
 
-    protected void expand(Record record, Object id, Expand expand) {
-        String name = expand.getName();
-
-        MApiProperty ap = am.tryGetProperty(name);
-        if(null == ap) {
-            throw new BadRequestException("The expand property '" + name + "' not exists!");
+    protected KeysetResult<Record> keysetResult(CriteriaQuery<Record> query, QueryOptions options) {
+        Integer size = null != options.getLimit() ? options.getLimit() : options.getPageSize();
+        if(null == size) {
+            size = c.getDefaultPageSize();
         }
 
-        //todo : check expandable?
+        if(size > c.getMaxPageSize()) {
+            throw new BadRequestException("The page size must not exceeds " + c.getMaxPageSize());
+        }
 
-        RelationProperty rp = em.tryGetRelationProperty(name);
-        if(null == rp) {
-            throw new BadRequestException("Property '" + name + "' cannot be expanded");
+        try {
+            return query.keysetResult(options.getAfter(), size);
+        }catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }catch (IllegalStateException e) {
+            throw new BadRequestException("Cannot query in keyset mode, " + e.getMessage());
         }
+    }
+
+    protected void expand(Record record, Object id, Expand expand) {
+        RelationProperty rp = getExpandProperty(expand);
 
         RelationMapping rm = em.getRelationMapping(rp.getRelationName());
 
@@ -171,6 +212,290 @@ public class DefaultModelQueryExecutor extends ModelExecutorBase implements Mode
         }
     }
 
+    /**
+     * Expands the relation property of all the records by one query (or two queries for many-to-many relation) of each
+     * chunk of the ids, instead of one query per record.
+     *
+     * <p>
+     * Falls back to expand the records one by one if the relation cannot be expanded in batch,
+     * such as a relation with composite join fields or the join field is not selected.
+     */
+    protected void expand(List<Record> records, Expand expand) {
+        RelationProperty rp     = getExpandProperty(expand);
+        RelationMapping  rm     = em.getRelationMapping(rp.getRelationName());
+        EntityMapping    target = md.getEntityMapping(rp.getTargetEntityName());
+
+        boolean expanded;
+        if(rm.isManyToOne()) {
+            expanded = expandManyToOne(records, expand, rp, rm, target);
+        }else if(rm.isOneToMany()) {
+            expanded = expandOneToMany(records, expand, rp, rm, target);
+        }else if(rm.isManyToMany()) {
+            expanded = expandManyToMany(records, expand, rp, rm, target);
+        }else{
+            expanded = false;
+        }
+
+        if(!expanded) {
+            for(Record record : records) {
+                expand(record, Mappings.getId(em, record), expand);
+            }
+        }
+    }
+
+    protected boolean expandManyToOne(List<Record> records, Expand expand,
+                                      RelationProperty rp, RelationMapping rm, EntityMapping target) {
+        if(rm.getJoinFields().length != 1) {
+            return false;
+        }
+
+        JoinFieldMapping jf = rm.getJoinFields()[0];
+
+        Set<Object> values = getFieldValues(records, jf.getLocalFieldName());
+        if(null == values) {
+            return false;
+        }
+
+        Map<String, List<Record>> targets =
+                queryIn(target, jf.getReferencedFieldName(), values, expand.getSelect());
+
+        for(Record record : records) {
+            setExpandValue(record, rp, targets.get(key(record.get(jf.getLocalFieldName()))));
+        }
+
+        return true;
+    }
+
+    protected boolean expandOneToMany(List<Record> records, Expand expand,
+                                      RelationProperty rp, RelationMapping rm, EntityMapping target) {
+        RelationMapping inverse = target.tryGetRelationMapping(rm.getInverseRelationName());
+        if(null == inverse || !inverse.isManyToOne() || inverse.getJoinFields().length != 1) {
+            return false;
+        }
+
+        JoinFieldMapping jf = inverse.getJoinFields()[0];
+
+        Set<Object> values = getFieldValues(records, jf.getReferencedFieldName());
+        if(null == values) {
+            return false;
+        }
+
+        Map<String, List<Record>> targets =
+                queryIn(target, jf.getLocalFieldName(), values, expand.getSelect());
+
+        for(Record record : records) {
+            setExpandValue(record, rp, targets.get(key(record.get(jf.getReferencedFieldName()))));
+        }
+
+        return true;
+    }
+
+    protected boolean expandManyToMany(List<Record> records, Expand expand,
+                                       RelationProperty rp, RelationMapping rm, EntityMapping target) {
+        if(em == target) {
+            return false;
+        }
+
+        EntityMapping joinEntity = md.getEntityMapping(rm.getJoinEntityName());
+
+        RelationMapping rjoin   = joinEntity.tryGetKeyRelationMappingOfTargetEntity(em.getEntityName());
+        RelationMapping rtarget = joinEntity.tryGetKeyRelationMappingOfTargetEntity(target.getEntityName());
+        if(null == rjoin || null == rtarget ||
+                rjoin.getJoinFields().length != 1 || rtarget.getJoinFields().length != 1) {
+            return false;
+        }
+
+        JoinFieldMapping sourceField = rjoin.getJoinFields()[0];
+        JoinFieldMapping targetField = rtarget.getJoinFields()[0];
+
+        Set<Object> values = getFieldValues(records, sourceField.getReferencedFieldName());
+        if(null == values) {
+            return false;
+        }
+
+        //source key -> target keys
+        String joinSelect = sourceField.getLocalFieldName() + "," + targetField.getLocalFieldName();
+        Map<String, List<Record>> joins = queryIn(joinEntity, sourceField.getLocalFieldName(), values, joinSelect);
+
+        Set<Object> targetValues = new LinkedHashSet<>();
+        for(List<Record> list : joins.values()) {
+            for(Record join : list) {
+                targetValues.add(join.get(targetField.getLocalFieldName()));
+            }
+        }
+
+        Map<String, List<Record>> targets =
+                queryIn(target, targetField.getReferencedFieldName(), targetValues, expand.getSelect());
+
+        for(Record record : records) {
+            List<Record> list = joins.get(key(record.get(sourceField.getReferencedFieldName())));
+
+            List<Record> expanded = new ArrayList<>();
+            if(null != list) {
+                for(Record join : list) {
+                    List<Record> found = targets.get(key(join.get(targetField.getLocalFieldName())));
+                    if(null != found) {
+                        expanded.addAll(found);
+                    }
+                }
+            }
+
+            setExpandValue(record, rp, expanded);
+        }
+
+        return true;
+    }
+
+    /**
+     * Queries the records of the given entity by the 'in' condition of the given field, returns the records grouped by the field.
+     *
+     * <p>
+     * The values are split into chunks by the expand batch size.
+     */
+    protected Map<String, List<Record>> queryIn(EntityMapping target, String field, Set<Object> values, String select) {
+        Map<String, List<Record>> result = new HashMap<>();
+        if(values.isEmpty()) {
+            return result;
+        }
+
+        FieldMapping fm        = target.getFieldMapping(field);
+        Class<?>     arrayType = Array.newInstance(fm.getJavaType(), 0).getClass();
+        Object[]     all       = values.toArray();
+        int          size      = c.getExpandBatchSize();
+
+        for(int i=0;i<all.length;i+=size) {
+            Object[] chunk = Arrays.copyOfRange(all, i, Math.min(all.length, i + size));
+
+            CriteriaQuery<Record> query = dao.createCriteriaQuery(target);
+
+            boolean added = applySelect(query, select, fm.getFieldName());
+
+            query.where(query.alias() + "." + fm.getFieldName() + " in ?", Converts.convert(chunk, arrayType));
+
+            for(Record record : query.list()) {
+                Object value = record.get(fm.getFieldName());
+
+                if(added) {
+                    record.remove(fm.getFieldName());
+                }
+
+                result.computeIfAbsent(key(value), (k) -> new ArrayList<>(1)).add(record);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Applies the select and returns <code>true</code> if the required field was not selected and has been added to the select.
+     */
+    protected boolean applySelect(CriteriaQuery query, String select, String requiredField) {
+        if(Strings.isEmpty(select) || Strings.equals("*", select)) {
+            return false;
+        }
+
+        EntityMapping em = query.getEntityMapping();
+
+        for(String name : Strings.split(select, ',')) {
+            FieldMapping p = em.tryGetFieldMapping(name);
+            if(null != p && p.getFieldName().equals(requiredField)) {
+                applySelect(query, select);
+                return false;
+            }
+        }
+
+        applySelect(query, select + "," + requiredField);
+        return true;
+    }
+
+    /**
+     * Applies the select with the order by and primary key fields required by the keyset query,
+     * returns the required fields which were not selected and have been added to the select.
+     */
+    protected Set<String> applyKeysetSelect(CriteriaQuery query, String select, String orderBy) {
+        EntityMapping em = query.getEntityMapping();
+
+        Set<String> required = new LinkedHashSet<>();
+        if(!Strings.isEmpty(orderBy)) {
+            for(OrderBy.Item item : OrderByParser.parse(orderBy).items()) {
+                FieldMapping fm = em.tryGetFieldMapping(item.name());
+                if(null != fm) {
+                    required.add(fm.getFieldName());
+                }
+            }
+        }
+        for(FieldMapping key : em.getKeyFieldMappings()) {
+            required.add(key.getFieldName());
+        }
+
+        if(required.isEmpty()) {
+            applySelect(query, select);
+            return Collections.emptySet();
+        }
+
+        Set<String> added = new LinkedHashSet<>();
+        for(String field : required) {
+            if(applySelect(query, select, field)) {
+                select = select + "," + field;
+                added.add(field);
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Returns the values of the field in the records, returns <code>null</code> if the field is not selected.
+     */
+    protected Set<Object> getFieldValues(List<Record> records, String field) {
+        Set<Object> values = new LinkedHashSet<>();
+
+        for(Record record : records) {
+            if(!record.containsKey(field)) {
+                return null;
+            }
+
+            Object value = record.get(field);
+            if(null != value) {
+                values.add(value);
+            }
+        }
+
+        return values;
+    }
+
+    protected void setExpandValue(Record record, RelationProperty rp, List<Record> found) {
+        if(rp.isMany()) {
+            record.put(rp.getName(), null == found ? new ArrayList<>() : found);
+        }else{
+            record.put(rp.getName(), null == found || found.isEmpty() ? null : found.get(0));
+        }
+    }
+
+    protected RelationProperty getExpandProperty(Expand expand) {
+        String name = expand.getName();
+
+        MApiProperty ap = am.tryGetProperty(name);
+        if(null == ap) {
+            throw new BadRequestException("The expand property '" + name + "' not exists!");
+        }
+
+        //todo : check expandable?
+
+        RelationProperty rp = em.tryGetRelationProperty(name);
+        if(null == rp) {
+            throw new BadRequestException("Property '" + name + "' cannot be expanded");
+        }
+
+        return rp;
+    }
+
+    /**
+     * The values of the join fields may be different types, i.e. Integer and Long.
+     */
+    private static String key(Object value) {
+        return null == value ? null : value.toString();
+    }
+
     protected void applyOrderBy(CriteriaQuery query, String expr) {
         OrderBy orderBy = OrderByParser.parse(expr);
 
@@ -18,6 +18,8 @@ package leap.web.api.orm;
 
 public interface ModelExecutorConfig {
 
+    int DEFAULT_EXPAND_BATCH_SIZE = 500;
+
     /**
      * Returns the max page size of pagination.
      */
@@ -28,4 +30,14 @@ public interface ModelExecutorConfig {
      */
     int getDefaultPageSize();
 
+    /**
+     * Returns the max number of ids in one query of the batched expanding, returns zero if disables the batched expanding.
+     *
+     * <p>
+     * The default value is small enough for the limit of parameters (or expressions in a 'in' list) of the common databases.
+     */
+    default int getExpandBatchSize() {
+        return DEFAULT_EXPAND_BATCH_SIZE;
+    }
+
 }
@@ -26,9 +26,15 @@ public final class QueryListResult {
 
     public final List<Record> list;
     public final long         count;
+    public final String       nextToken;
 
     public QueryListResult(List<Record> list, long count) {
+        this(list, count, null);
+    }
+
+    public QueryListResult(List<Record> list, long count, String nextToken) {
         this.list = list;
         this.count = count;
+        this.nextToken = nextToken;
     }
 }
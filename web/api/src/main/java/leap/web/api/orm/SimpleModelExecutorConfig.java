@@ -20,10 +20,16 @@ public class SimpleModelExecutorConfig implements ModelExecutorConfig {
 
     protected final int maxPageSize;
     protected final int defaultPageSize;
+    protected final int expandBatchSize;
 
     public SimpleModelExecutorConfig(int maxPageSize, int defaultPageSize) {
+        this(maxPageSize, defaultPageSize, DEFAULT_EXPAND_BATCH_SIZE);
+    }
+
+    public SimpleModelExecutorConfig(int maxPageSize, int defaultPageSize, int expandBatchSize) {
         this.maxPageSize = maxPageSize;
         this.defaultPageSize = defaultPageSize;
+        this.expandBatchSize = expandBatchSize;
     }
 
     @Override
@@ -36,4 +42,9 @@ public class SimpleModelExecutorConfig implements ModelExecutorConfig {
         return defaultPageSize;
     }
 
+    @Override
+    public int getExpandBatchSize() {
+        return expandBatchSize;
+    }
+
 }
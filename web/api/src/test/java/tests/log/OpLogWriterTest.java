@@ -0,0 +1,120 @@
+/*
+ *
+ *  * Copyright 2013 the original author or authors.
+ *  *
+ *  * Licensed under the Apache License, Version 2.0 (the "License");
+ *  * you may not use this file except in compliance with the License.
+ *  * You may obtain a copy of the License at
+ *  *
+ *  *      http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  * Unless required by applicable law or agreed to in writing, software
+ *  * distributed under the License is distributed on an "AS IS" BASIS,
+ *  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  * See the License for the specific language governing permissions and
+ *  * limitations under the License.
+ *
+ */
+
+package tests.log;
+
+import app.models.api.TestLogModel;
+import leap.lang.io.IO;
+import leap.orm.dao.Dao;
+import leap.web.api.log.OpLogWriter;
+import leap.web.api.log.OpLogWriter.OverflowPolicy;
+import leap.webunit.WebTestBase;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.UUID;
+
+public class OpLogWriterTest extends WebTestBase {
+
+    @Test
+    public void testBatchWrite() throws Throwable {
+        TestLogModel.deleteAll();
+
+        OpLogWriter writer = new OpLogWriter(Dao.get(), 100, 10, 100, 2, OverflowPolicy.BLOCK, null);
+        writer.start();
+
+        for(int i=0;i<25;i++) {
+            writer.write(newLog(i));
+        }
+        writer.dispose();
+
+        assertEquals(25, TestLogModel.count());
+        assertEquals(25, writer.getWrittenCount());
+        assertEquals(0,  writer.getQueueSize());
+        assertTrue(writer.getFlushCount() >= 3);
+    }
+
+    @Test
+    public void testDropOnOverflow() throws Throwable {
+        TestLogModel.deleteAll();
+
+        OpLogWriter writer = new OpLogWriter(Dao.get(), 2, 10, 100, 1, OverflowPolicy.DROP, null);
+
+        for(int i=0;i<3;i++) {
+            writer.write(newLog(i));
+        }
+        assertEquals(2, writer.getQueueSize());
+        assertEquals(1, writer.getDroppedCount());
+
+        writer.start();
+        writer.dispose();
+
+        assertEquals(2, TestLogModel.count());
+        assertEquals(2, writer.getWrittenCount());
+    }
+
+    @Test
+    public void testSpillOnOverflow() throws Throwable {
+        TestLogModel.deleteAll();
+
+        File file = File.createTempFile("oplog", ".json");
+        file.deleteOnExit();
+
+        OpLogWriter writer = new OpLogWriter(Dao.get(), 1, 10, 100, 1, OverflowPolicy.SPILL, file);
+
+        writer.write(newLog(0));
+        writer.write(newLog(1));
+        assertEquals(1, writer.getSpilledCount());
+        assertTrue(IO.readString(file, StandardCharsets.UTF_8).contains("log1"));
+
+        writer.start();
+        writer.dispose();
+
+        assertEquals(1, TestLogModel.count());
+    }
+
+    @Test
+    public void testBlockedWriteWhileDisposing() throws Throwable {
+        TestLogModel.deleteAll();
+
+        OpLogWriter writer = new OpLogWriter(Dao.get(), 1, 10, 100, 1, OverflowPolicy.BLOCK, null);
+        writer.write(newLog(0));
+
+        Thread blocked = new Thread(() -> writer.write(newLog(1)));
+        blocked.start();
+        while(blocked.getState() != Thread.State.WAITING) {
+            Thread.sleep(10);
+        }
+
+        writer.dispose();
+        blocked.join(5000);
+
+        assertEquals(2, TestLogModel.count());
+        assertEquals(0, writer.getQueueSize());
+    }
+
+    private static TestLogModel newLog(int i) {
+        TestLogModel log = new TestLogModel();
+        log.setId(UUID.randomUUID().toString());
+        log.setTitle("log" + i);
+        log.setCreatedAt(new Timestamp(System.currentTimeMillis()));
+        return log;
+    }
+}
@@ -107,6 +107,23 @@ public class RestApiControllerTest extends WebTestBase {
         get("/api/restapi?select=not_exists").assertBadRequest();
     }
 
+    @Test
+    public void testQueryListWithSelectInKeysetMode() {
+        THttpResponse first = get("/api/restapi?keyset=true&orderby=name&select=name&page_size=1");
+
+        List<Map<String,Object>> records = first.getJson().asList();
+        assertEquals(1, records.size());
+        assertEquals(1, records.get(0).size());
+        assertEquals("api1", records.get(0).get("name"));
+
+        String token = first.getHeader("X-Next-Token");
+        assertNotNull(token);
+
+        records = get("/api/restapi?keyset=true&orderby=name&select=name&page_size=1&after=" + Urls.encode(token)).getJson().asList();
+        assertEquals(1, records.size());
+        assertEquals("api2", records.get(0).get("name"));
+    }
+
     @Test
     public void testQueryListWithExpand() {
         List<Map<String,Object>> records =
@@ -123,6 +140,27 @@ public class RestApiControllerTest extends WebTestBase {
         get("/api/restapi?expand=categories(not_exists)").assertBadRequest();
     }
 
+    @Test
+    public void testQueryListWithBatchExpand() {
+        List<Map<String,Object>> records =
+                get("/api/restapi?orderby=name&expand=categories(title)").getJson().asList();
+
+        assertEquals(2, records.size());
+
+        List<Map<String,Object>> categories1 = (List<Map<String,Object>>)records.get(0).get("categories");
+        assertEquals(1, categories1.size());
+        assertEquals(1, categories1.get(0).size());
+        assertEquals(c1.getTitle(), categories1.get(0).get("title"));
+
+        List<Map<String,Object>> categories2 = (List<Map<String,Object>>)records.get(1).get("categories");
+        assertEquals(1, categories2.size());
+        assertEquals(c2.getTitle(), categories2.get(0).get("title"));
+
+        RestApi[] apis = get("/api/restapi?orderby=name&expand=categories").decodeJsonArray(RestApi.class);
+        assertEquals(c1.getId(), apis[0].getCategories().get(0).getId());
+        assertEquals(c2.getId(), apis[1].getCategories().get(0).getId());
+    }
+
     @Test
     public void testQueryListWithTotal() {
         THttpResponse resp;
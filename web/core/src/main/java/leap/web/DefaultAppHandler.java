@@ -15,7 +15,9 @@
  */
 package leap.web;
 
+import leap.core.AppContext;
 import leap.core.AppException;
+import leap.core.RequestContext;
 import leap.core.annotation.Inject;
 import leap.core.annotation.M;
 import leap.core.validation.SimpleErrors;
@@ -23,10 +25,12 @@ import leap.core.validation.Validation;
 import leap.core.validation.ValidationManager;
 import leap.lang.New;
 import leap.lang.Strings;
+import leap.lang.http.HTTP;
 import leap.lang.intercepting.State;
 import leap.lang.time.StopWatch;
 import leap.web.action.ActionContext;
 import leap.web.action.ActionManager;
+import leap.web.action.AsyncResultProcessor;
 import leap.web.action.DefaultActionContext;
 import leap.web.assets.AssetSource;
 import leap.web.config.WebConfig;
@@ -35,6 +39,7 @@ import leap.web.debug.DebugDetector;
 import leap.web.error.ErrorInfo;
 import leap.web.exception.BadRequestException;
 import leap.web.exception.ResponseException;
+import leap.web.exception.ServerErrorException;
 import leap.web.format.FormatManager;
 import leap.web.format.ResponseFormat;
 import leap.web.locale.LocaleResolver;
@@ -47,12 +52,24 @@ import leap.web.view.View;
 import leap.web.view.ViewSource;
 import leap.web.view.WrappedViewData;
 
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class DefaultAppHandler extends AppHandlerBase implements AppHandler {
 
@@ -147,6 +164,7 @@ public class DefaultAppHandler extends AppHandlerBase implements AppHandler {
 
         StopWatch sw = StopWatch.startNew();
         DefaultRequestExecution execution = new DefaultRequestExecution();
+        boolean async = false;
         try {
             boolean handled = false;
             try {
@@ -215,6 +233,11 @@ public class DefaultAppHandler extends AppHandlerBase implements AppHandler {
                 renderResponseException(request, response, e);
             }
 
+            if (handled && isAsyncStarted(request)) {
+                async = true;
+                return true;
+            }
+
             if (handled) {
                 execution.success();
                 interceptors.postHandleRequest(request, response, execution);
@@ -250,13 +273,16 @@ public class DefaultAppHandler extends AppHandlerBase implements AppHandler {
             if (_debug) {
                 log.debug("Request '" + request.getPath() + "' executed {}ms", sw.getElapsedMilliseconds());
             }
-            try {
-                interceptors.completeHandleRequest(request, response, execution);
-            } catch (Throwable e) {
-                if (_debug) {
-                    log.error("Error executing 'completeHandle' in interceptors, {}", e.getMessage(), e);
+            //the async request will be completed by the async execution.
+            if (!async) {
+                try {
+                    interceptors.completeHandleRequest(request, response, execution);
+                } catch (Throwable e) {
+                    if (_debug) {
+                        log.error("Error executing 'completeHandle' in interceptors, {}", e.getMessage(), e);
+                    }
+                    throwException(e);
                 }
-                throwException(e);
             }
         }
     }
@@ -565,6 +591,17 @@ public class DefaultAppHandler extends AppHandlerBase implements AppHandler {
         }
 
         if (null == result.getRenderable()) {
+            //async result
+            if (AsyncResultProcessor.isAsyncValue(returnValue)) {
+                if (request.getServletRequest().isAsyncSupported()) {
+                    startAsync(request, response, ac, validation, result, returnValue);
+                    return;
+                }
+
+                log.debug("Async not supported by current request, waiting for the result of action '{}'", ac.getAction());
+                returnValue = awaitAsync(request, ac, returnValue);
+            }
+
             //process the return value
             processResult(ac, validation, returnValue, result);
         }
@@ -573,6 +610,254 @@ public class DefaultAppHandler extends AppHandlerBase implements AppHandler {
         renderResult(request, response, ac, result);
     }
 
+    protected boolean isAsyncStarted(Request request) {
+        return request.getServletRequest().isAsyncStarted();
+    }
+
+    /**
+     * Starts async processing of the request, the result will be processed and rendered after the async result completed.
+     */
+    protected void startAsync(Request request, Response response, ActionContext ac, Validation validation,
+                              Result result, Object returnValue) throws Throwable {
+        long timeout = getAsyncTimeout(ac, returnValue);
+
+        AsyncContext async = request.getServletRequest().startAsync(request.getServletRequest(), response.getServletResponse());
+        async.setTimeout(timeout > 0 ? timeout : 0);
+
+        AsyncExecution execution = new AsyncExecution(async, request, response, ac, validation, result, returnValue);
+        async.addListener(execution);
+
+        if (_debug) {
+            log.debug("Start async processing of action '{}', timeout {}ms", ac.getAction(), timeout);
+        }
+
+        Executor executor = webConfig.getAsyncExecutor();
+        toCompletionStage(request, returnValue, executor).whenCompleteAsync(execution::complete, executor);
+    }
+
+    /**
+     * Waits for the async result if the request not supports async processing.
+     */
+    protected Object awaitAsync(Request request, ActionContext ac, Object returnValue) throws Throwable {
+        long timeout = getAsyncTimeout(ac, returnValue);
+
+        CompletableFuture<?> future =
+                toCompletionStage(request, returnValue, webConfig.getAsyncExecutor()).toCompletableFuture();
+        try {
+            return timeout > 0 ? future.get(timeout, TimeUnit.MILLISECONDS) : future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (TimeoutException e) {
+            return onAsyncTimeout(ac, returnValue);
+        }
+    }
+
+    protected long getAsyncTimeout(ActionContext ac, Object returnValue) {
+        if (returnValue instanceof DeferredResult) {
+            Long timeout = ((DeferredResult) returnValue).getTimeout();
+            if (null != timeout) {
+                return timeout;
+            }
+        }
+
+        Long timeout = ac.getRoute().getAsyncTimeout();
+        if (null != timeout) {
+            return timeout;
+        }
+
+        return webConfig.getAsyncTimeout();
+    }
+
+    /**
+     * Returns the result value if the async action timeout or throws a 503 error.
+     */
+    protected Object onAsyncTimeout(ActionContext ac, Object returnValue) throws Throwable {
+        if (returnValue instanceof DeferredResult && ((DeferredResult) returnValue).hasTimeoutResult()) {
+            return ((DeferredResult) returnValue).getTimeoutResult();
+        }
+        throw new ServerErrorException(HTTP.SC_SERVICE_UNAVAILABLE, "Timeout executing async action '" + ac.getAction() + "'");
+    }
+
+    protected CompletionStage<?> toCompletionStage(Request request, Object returnValue, Executor executor) {
+        if (returnValue instanceof CompletionStage) {
+            return (CompletionStage<?>) returnValue;
+        }
+
+        if (returnValue instanceof DeferredResult) {
+            return ((DeferredResult<?>) returnValue).toCompletionStage();
+        }
+
+        Callable<?> callable = (Callable<?>) returnValue;
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            AppContext.setCurrent(app.context());
+            RequestContext.setCurrent(request);
+            try {
+                future.complete(callable.call());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                RequestContext.removeCurrent();
+                AppContext.removeCurrent();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Processes and renders the completed async result.
+     */
+    protected void resumeAsync(Request request, Response response, ActionContext ac, Validation validation,
+                               Result result, Object value, Throwable error) {
+        AppContext.setCurrent(app.context());
+        RequestContext.setCurrent(request);
+
+        DefaultRequestExecution execution = new DefaultRequestExecution();
+        try {
+            try {
+                if (null != error) {
+                    throw error;
+                }
+
+                if (response.isHandled() || response.isCommitted()) {
+                    log.debug("Response was rendered or committed, do not render the result of async action");
+                } else {
+                    processResult(ac, validation, value, result);
+                    renderResult(request, response, ac, result);
+                }
+            } catch (RequestIntercepted e) {
+                log.debug("Caught a RequestIntercepted Exception, finish handling async request.", e);
+            } catch (ResponseException e) {
+                renderAsyncError(request, response, e);
+            }
+
+            execution.success();
+            interceptors.postHandleRequest(request, response, execution);
+        } catch (Throwable e) {
+            log.error("Error handling async request '{}', {}", request.getPath(), e.getMessage(), e);
+
+            try {
+                execution.failure(e);
+                if (!State.isIntercepted(interceptors.onRequestFailure(request, response, execution))) {
+                    renderAsyncError(request, response, e);
+                }
+            } catch (Throwable e1) {
+                log.error("Error executing 'onRequestFailure' in interceptors, {}", e1.getMessage(), e1);
+            }
+        } finally {
+            try {
+                interceptors.completeHandleRequest(request, response, execution);
+            } catch (Throwable e) {
+                log.error("Error executing 'completeHandle' in interceptors, {}", e.getMessage(), e);
+            }
+            RequestContext.removeCurrent();
+            AppContext.removeCurrent();
+        }
+    }
+
+    /**
+     * Renders the error of async request.
+     *
+     * <p>
+     * Sends the error status directly if the error cannot be rendered outside the container thread,
+     * such as forwarding to a jsp error view.
+     */
+    protected void renderAsyncError(Request request, Response response, Throwable e) {
+        int status = e instanceof ResponseException ?
+                ((ResponseException) e).getStatus() : HTTP.SC_INTERNAL_SERVER_ERROR;
+        try {
+            if (e instanceof ResponseException) {
+                renderResponseException(request, response, (ResponseException) e);
+                return;
+            }
+            if (handleError(request, response, e)) {
+                return;
+            }
+        } catch (Throwable e1) {
+            log.warn("Error rendering the error of async request '{}', {}", request.getPath(), e1.getMessage());
+        }
+
+        if (!response.isCommitted()) {
+            try {
+                response.getServletResponse().sendError(status, e.getMessage());
+            } catch (IOException e1) {
+                log.error("Error sending the error of async request '{}', {}", request.getPath(), e1.getMessage(), e1);
+            }
+        }
+    }
+
+    /**
+     * Completes the async request once, by the async result or the timeout of async context.
+     */
+    protected class AsyncExecution implements AsyncListener {
+        protected final AsyncContext  async;
+        protected final Request       request;
+        protected final Response      response;
+        protected final ActionContext ac;
+        protected final Validation    validation;
+        protected final Result        result;
+        protected final Object        returnValue;
+        protected final AtomicBoolean completed = new AtomicBoolean();
+
+        public AsyncExecution(AsyncContext async, Request request, Response response, ActionContext ac,
+                              Validation validation, Result result, Object returnValue) {
+            this.async       = async;
+            this.request     = request;
+            this.response    = response;
+            this.ac          = ac;
+            this.validation  = validation;
+            this.result      = result;
+            this.returnValue = returnValue;
+        }
+
+        public void complete(Object value, Throwable error) {
+            if (!completed.compareAndSet(false, true)) {
+                log.debug("Async request '{}' already completed, ignore the result", request.getPath());
+                return;
+            }
+
+            if (error instanceof CompletionException && null != error.getCause()) {
+                error = error.getCause();
+            }
+
+            try {
+                resumeAsync(request, response, ac, validation, result, value, error);
+            } finally {
+                async.complete();
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) throws IOException {
+            Object value = null;
+            Throwable error = null;
+            try {
+                value = onAsyncTimeout(ac, returnValue);
+            } catch (Throwable e) {
+                error = e;
+            }
+            complete(value, error);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) throws IOException {
+            if (completed.compareAndSet(false, true)) {
+                log.error("Error processing async request '{}'", request.getPath(), event.getThrowable());
+                async.complete();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) throws IOException {
+
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) throws IOException {
+
+        }
+    }
+
     protected Object executeAction(ActionContext ac, Validation validation) throws Throwable {
         return actionManager.executeAction(ac, validation);
     }
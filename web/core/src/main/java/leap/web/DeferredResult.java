@@ -0,0 +1,124 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.web;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * The return value of an async action, the result will be set later by another thread.
+ *
+ * <p>
+ * The request will be released from the container thread until the result was set or timeout.
+ *
+ * <pre>
+ *     public DeferredResult&lt;User&gt; find(String id) {
+ *         DeferredResult&lt;User&gt; result = new DeferredResult&lt;&gt;();
+ *
+ *         client.findUser(id, (user) -&gt; result.setResult(user));
+ *
+ *         return result;
+ *     }
+ * </pre>
+ */
+public class DeferredResult<T> {
+
+    private final CompletableFuture<T> future = new CompletableFuture<>();
+
+    private final Long    timeout;
+    private final boolean hasTimeoutResult;
+    private final Object  timeoutResult;
+
+    /**
+     * Creates a deferred result uses the timeout of route or web config.
+     */
+    public DeferredResult() {
+        this(null);
+    }
+
+    /**
+     * Creates a deferred result with the given timeout in milliseconds.
+     */
+    public DeferredResult(Long timeout) {
+        this.timeout          = timeout;
+        this.hasTimeoutResult = false;
+        this.timeoutResult    = null;
+    }
+
+    /**
+     * Creates a deferred result with the given timeout in milliseconds and the result for rendering if timeout.
+     */
+    public DeferredResult(Long timeout, Object timeoutResult) {
+        this.timeout          = timeout;
+        this.hasTimeoutResult = true;
+        this.timeoutResult    = timeoutResult;
+    }
+
+    /**
+     * Returns the timeout in milliseconds or <code>null</code> if not specified.
+     */
+    public Long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Returns <code>true</code> if a result was specified for rendering if timeout.
+     */
+    public boolean hasTimeoutResult() {
+        return hasTimeoutResult;
+    }
+
+    /**
+     * Returns the result for rendering if timeout.
+     */
+    public Object getTimeoutResult() {
+        return timeoutResult;
+    }
+
+    /**
+     * Sets the result value.
+     *
+     * <p>
+     * Returns <code>false</code> if the result was already set.
+     */
+    public boolean setResult(T result) {
+        return future.complete(result);
+    }
+
+    /**
+     * Sets the error of result.
+     *
+     * <p>
+     * Returns <code>false</code> if the result was already set.
+     */
+    public boolean setErrorResult(Throwable e) {
+        return future.completeExceptionally(e);
+    }
+
+    /**
+     * Returns <code>true</code> if the result or error was set.
+     */
+    public boolean isSetOrExpired() {
+        return future.isDone();
+    }
+
+    /**
+     * Returns the {@link CompletionStage} of the result.
+     */
+    public CompletionStage<T> toCompletionStage() {
+        return future;
+    }
+}
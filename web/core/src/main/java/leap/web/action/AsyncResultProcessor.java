@@ -0,0 +1,71 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.web.action;
+
+import leap.web.App;
+import leap.web.DeferredResult;
+import leap.web.Renderable;
+import leap.web.Result;
+import leap.web.route.RouteBuilder;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * The {@link ResultProcessor} of async action, processes the completed value of the async result.
+ *
+ * <p>
+ * The processor of the value is resolved by the type of value, the same as the declared return type of sync action.
+ */
+public class AsyncResultProcessor extends AbstractResultProcessor implements ResultProcessor {
+
+    /**
+     * Returns <code>true</code> if the given type is an async result type.
+     */
+    public static boolean isAsyncType(Class<?> type) {
+        return null != type && (CompletionStage.class.isAssignableFrom(type) ||
+                                Callable.class.isAssignableFrom(type) ||
+                                DeferredResult.class.isAssignableFrom(type));
+    }
+
+    /**
+     * Returns <code>true</code> if the given value is an async result.
+     */
+    public static boolean isAsyncValue(Object value) {
+        return value instanceof CompletionStage || value instanceof Callable || value instanceof DeferredResult;
+    }
+
+    protected final StringResultProcessor     stringProcessor;
+    protected final FormattingResultProcessor formattingProcessor;
+
+    public AsyncResultProcessor(App app, RouteBuilder route) {
+        this.stringProcessor     = new StringResultProcessor(app, route);
+        this.formattingProcessor = new FormattingResultProcessor(app, route);
+    }
+
+    @Override
+    public void processReturnValue(ActionContext context, Object returnValue, Result result) throws Throwable {
+        if(returnValue instanceof Result) {
+            ResultResultProcessor.INSTANCE.processReturnValue(context, returnValue, result);
+        }else if(returnValue instanceof Renderable) {
+            RenderableResultProcessor.INSTANCE.processReturnValue(context, returnValue, result);
+        }else if(returnValue instanceof String) {
+            stringProcessor.processReturnValue(context, returnValue, result);
+        }else{
+            formattingProcessor.processReturnValue(context, returnValue, result);
+        }
+    }
+}
@@ -368,6 +368,11 @@ public class DefaultActionManager implements ActionManager,AppListener {
 		if(action.hasReturnValue()){
 			Class<?> returnType = action.getReturnType();
 			
+			//The return type is an async result, processes the completed value.
+			if(AsyncResultProcessor.isAsyncType(returnType)) {
+				return new AsyncResultProcessor(app, route);
+			}
+			
 			//The return type is Result
 			if(Result.class.isAssignableFrom(returnType)){
 				return ResultResultProcessor.INSTANCE;
@@ -52,7 +52,7 @@ public class JsonArgumentResolver extends AbstractArgumentResolver {
             parsable.parseJson(json);
             return parsable;
         }
-        return JSON.decode(json,cls);
+        return JSON.decode(json, cls, genericType);
     }
     
 }
@@ -52,6 +52,10 @@ public class RequestBodyArgumentResolver implements ArgumentResolver {
 
         RequestFormat format = context.getRequestFormat();
         if(null != format && format.supportsRequestBody()){
+            if(null == argument.getBinder()) {
+                return format.readRequestBody(context.getRequest(), argument, argument.getType(), argument.getGenericType());
+            }
+
             Object body = format.readRequestBody(context.getRequest(),argument);
             if(null == body) {
                 return null;
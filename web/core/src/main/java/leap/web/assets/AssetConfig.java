@@ -50,6 +50,14 @@ public interface AssetConfig {
 	 */
 	int getGzipMinLength();
 	
+	/**
+	 * Returns the max bytes of the compressed asset contents cached in memory.
+	 * 
+	 * <p>
+	 * Returns zero if the compressed contents will not be cached.
+	 */
+	long getContentCacheSize();
+	
 	/**
 	 * Returns the charset to processing asset resources.
 	 * 
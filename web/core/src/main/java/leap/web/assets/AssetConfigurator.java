@@ -28,6 +28,7 @@ public interface AssetConfigurator {
     long   DEFAULT_RELOAD_INTERVAL   = 2000; //2 seconds
     int    DEFAULT_CACHE_MAX_AGE	 = 365 * 24 * 60 * 60 ; //1 year in seconds
     int    DEFAULT_GZIP_MIN_LENGTH   = 512;  //512 bytes
+    long   DEFAULT_CONTENT_CACHE_SIZE = 32 * 1024 * 1024; //32m bytes
 
     /**
      * Disable web assets.
@@ -55,6 +56,14 @@ public interface AssetConfigurator {
      */
     AssetConfigurator setGzipMinLength(int length);
 
+    /**
+     * Sets the max bytes of the compressed asset contents cached in memory, zero disables the cache.
+     *
+     * <p/>
+     * Default is {@link #DEFAULT_CONTENT_CACHE_SIZE}.
+     */
+    AssetConfigurator setContentCacheSize(long size);
+
     /**
      * Adds an asset folder.
      *
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.web.assets;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A memory cache of the encoded (such as gzip) contents of {@link AssetResource}, bounded by the total bytes.
+ * 
+ * <p>
+ * The entries are keyed by the client url and fingerprint of resource, so the contents of a changed resource
+ * will not be returned and will be evicted as the least recently used.
+ * 
+ * <p>
+ * The reads are lock free, they only stamp the entry with an access sequence. The writes are synchronized and
+ * evict the entries with the oldest access sequences when the total bytes exceed the max size.
+ */
+public class AssetContentCache {
+	
+	/**
+	 * The content indicates the encoding of the resource is not available.
+	 */
+	public static final byte[] NONE = new byte[0];
+	
+	private final long              maxSize;
+	private final Map<String,Entry> contents = new ConcurrentHashMap<>();
+	private final AtomicLong        clock    = new AtomicLong();
+	private final LongAdder         hits     = new LongAdder();
+	private final LongAdder         misses   = new LongAdder();
+	
+	private volatile long size;
+	
+	public AssetContentCache(long maxSize) {
+		this.maxSize = maxSize;
+	}
+	
+	/**
+	 * Returns the max bytes of this cache.
+	 */
+	public long getMaxSize() {
+		return maxSize;
+	}
+	
+	/**
+	 * Returns the total bytes of the cached contents.
+	 */
+	public long getSize() {
+		return size;
+	}
+	
+	/**
+	 * Returns the number of the cached contents.
+	 */
+	public int getCount() {
+		return contents.size();
+	}
+	
+	public long getHitCount() {
+		return hits.sum();
+	}
+	
+	public long getMissCount() {
+		return misses.sum();
+	}
+	
+	/**
+	 * Returns the cached content or <code>null</code>.
+	 * 
+	 * <p>
+	 * Returns {@link #NONE} if the encoding of the resource is not available.
+	 */
+	public byte[] get(AssetResource resource, String encoding) {
+		if(maxSize <= 0) {
+			return null;
+		}
+		
+		Entry entry = contents.get(key(resource, encoding));
+		if(null == entry) {
+			misses.increment();
+			return null;
+		}
+		
+		hits.increment();
+		entry.accessed = clock.incrementAndGet();
+		return entry.content;
+	}
+	
+	/**
+	 * Caches the encoded content, returns <code>false</code> if the cache is disabled or the content is larger than the max size.
+	 */
+	public boolean put(AssetResource resource, String encoding, byte[] content) {
+		if(maxSize <= 0 || content.length > maxSize) {
+			return false;
+		}
+		
+		String key   = key(resource, encoding);
+		Entry  entry = new Entry(content, clock.incrementAndGet());
+		
+		synchronized (this) {
+			Entry old = contents.put(key, entry);
+			long  total = size + content.length - (null == old ? 0 : old.content.length);
+			
+			if(total > maxSize) {
+				List<Map.Entry<String,Entry>> eldest = new ArrayList<>(contents.entrySet());
+				eldest.sort((e1, e2) -> Long.compare(e1.getValue().accessed, e2.getValue().accessed));
+				
+				for(Map.Entry<String,Entry> e : eldest) {
+					if(total <= maxSize) {
+						break;
+					}
+					if(e.getValue() == entry) {
+						continue;
+					}
+					if(contents.remove(e.getKey(), e.getValue())) {
+						total -= e.getValue().content.length;
+					}
+				}
+			}
+			
+			size = total;
+		}
+		return true;
+	}
+	
+	/**
+	 * Removes all the cached contents.
+	 */
+	public synchronized void clear() {
+		contents.clear();
+		size = 0;
+	}
+	
+	protected String key(AssetResource resource, String encoding) {
+		return encoding + ":" + resource.getClientUrl() + "#" + resource.getFingerprint();
+	}
+	
+	private static final class Entry {
+		final byte[]  content;
+		volatile long accessed;
+		
+		Entry(byte[] content, long accessed) {
+			this.content  = content;
+			this.accessed = accessed;
+		}
+	}
+}
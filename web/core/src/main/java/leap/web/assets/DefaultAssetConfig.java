@@ -46,6 +46,7 @@ public class DefaultAssetConfig implements AssetConfig, AssetConfigurator, AppCo
     protected Charset charset;
     protected boolean gzipEnabled      = true;
     protected int     gzipMinLength    = DEFAULT_GZIP_MIN_LENGTH;
+    protected long    contentCacheSize = DEFAULT_CONTENT_CACHE_SIZE;
     protected String  pathPrefix       = DEFAULT_PATH_PREFIX;
     protected String  sourceDirectory  = DEFAULT_SOURCE_DIRECTORY;
     protected String  publicDirectory  = DEFAULT_PUBLIC_DIRECTORY;
@@ -108,6 +109,18 @@ public class DefaultAssetConfig implements AssetConfig, AssetConfigurator, AppCo
         return this;
 	}
 
+	@Override
+	public long getContentCacheSize() {
+		return contentCacheSize;
+	}
+
+	@ConfigProperty
+	public AssetConfigurator setContentCacheSize(long size) {
+		Args.assertTrue(size >= 0, "The content cache size must not be negative");
+		this.contentCacheSize = size;
+        return this;
+	}
+
 	@Override
     public Charset getCharset() {
 	    return charset;
@@ -15,7 +15,6 @@
  */
 package leap.web.assets;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -36,6 +35,7 @@ import leap.lang.exception.NestedIOException;
 import leap.lang.http.HTTP;
 import leap.lang.http.Headers;
 import leap.lang.io.IO;
+import leap.lang.resource.Resource;
 import leap.lang.logging.Log;
 import leap.lang.logging.LogFactory;
 import leap.web.AppHandler;
@@ -46,10 +46,17 @@ public class DefaultAssetHandler implements AssetHandler,LoadableBean {
 	
 	private static final Log log = LogFactory.get(DefaultAssetHandler.class);
 	
+	protected static final String GZIP             = "gzip";
+	protected static final String GZIP_EXTENSION   = ".gz";
+	protected static final String BROTLI           = "br";
+	protected static final String BROTLI_EXTENSION = ".br";
+	
     protected @Inject @M AssetConfig   config;
     protected @Inject @M AssetSource   source;
     protected @Inject @M AppHandler    appHandler;
     protected @Inject @M AssetStrategy strategy;
+    
+    protected AssetContentCache contentCache;
 	
 	@Override
     public boolean matches(RequestBase request) {
@@ -116,7 +123,7 @@ public class DefaultAssetHandler implements AssetHandler,LoadableBean {
 		//check etag
 		String ifNoneMatch = request.getHeader(Headers.IF_NONE_MATCH);
 		if(!Strings.isEmpty(ifNoneMatch)){
-			return ifNoneMatch.equals("\"" + resource.getFingerprint() + "\"");
+			return matchesETag(ifNoneMatch, resource);
 		}
 
 		//check lastModified
@@ -128,6 +135,48 @@ public class DefaultAssetHandler implements AssetHandler,LoadableBean {
 		return false;
 	}	
 	
+	/**
+	 * Returns <code>true</code> if one of the entity tags in the header value matches the fingerprint of resource.
+	 * 
+	 * <p>
+	 * The tag of an encoded content is the fingerprint with the encoding as suffix, i.e. <code>"{fingerprint}-gzip"</code>.
+	 */
+	protected boolean matchesETag(String header, AssetResource resource) {
+		String fingerprint = resource.getFingerprint();
+		
+		for(String tag : Strings.split(header, ',')) {
+			if(tag.equals("*")) {
+				return true;
+			}
+			
+			if(tag.startsWith("W/")) {
+				tag = tag.substring(2);
+			}
+			
+			if(tag.length() < 2 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+				continue;
+			}
+			tag = tag.substring(1, tag.length() - 1);
+			
+			if(Strings.isEmpty(fingerprint)) {
+				continue;
+			}
+			
+			if(tag.equals(fingerprint)) {
+				return true;
+			}
+			
+			if(tag.startsWith(fingerprint) && tag.length() > fingerprint.length() && tag.charAt(fingerprint.length()) == '-') {
+				String encoding = tag.substring(fingerprint.length() + 1);
+				if(encoding.equals(GZIP) || encoding.equals(BROTLI)) {
+					return true;
+				}
+			}
+		}
+		
+		return false;
+	}
+	
 	protected void handleNotModified(RequestBase request,
 									 ResponseBase response,
 									 AssetResource resource,
@@ -163,11 +212,15 @@ public class DefaultAssetHandler implements AssetHandler,LoadableBean {
 		
 		if(null != fingerprint && fingerprint.length() > 0){
 			response.setHeader(Headers.CACHE_CONTROL, "public, max-age=" + config.getCacheMaxAge());
-			response.setHeader(Headers.ETAG, "\"" + resource.getFingerprint() + "\"");
 		}else{
 			response.setHeader(Headers.CACHE_CONTROL, "public, must-revalidate");
 		}
 		
+		//The fingerprint is the hash of content, so it is a strong entity tag.
+		if(!Strings.isEmpty(resource.getFingerprint())) {
+			response.setHeader(Headers.ETAG, "\"" + resource.getFingerprint() + "\"");
+		}
+		
 		if(resource.getLastModified() > 0){
 			response.setDateHeader(Headers.LAST_MODIFIED, resource.getLastModified());
 		}
@@ -179,6 +232,11 @@ public class DefaultAssetHandler implements AssetHandler,LoadableBean {
 							  String[] pathAndFingerprint) throws ServletException,IOException {
 		//Set content-type
 		response.setContentType(resource.getAsset().getContentType());
+		
+		response.setHeader(Headers.ACCEPT_RANGES, "bytes");
+		if(config.isGzipEnabled()) {
+			response.setHeader(Headers.VARY, Headers.ACCEPT_ENCODING);
+		}
 	}
 	
 	protected void writeContent(RequestBase request, 
@@ -192,14 +250,35 @@ public class DefaultAssetHandler implements AssetHandler,LoadableBean {
 			throw new IOException("Resource content too long (beyond Integer.MAX_VALUE): " + resource.getServerPath());
 		}
 		
-		//Only zip text files
-		if(config.isGzipEnabled() && resource.getAsset().isText() && 
-		   resource.getContentLength() >= config.getGzipMinLength() &&
-		   request.isGzipSupport() ) {
-			writeGzipContent(request, response, resource);
-		}else{
-			writeRawContent(request, response, resource);
+		//Range requests are served by the raw content.
+		String range = request.getHeader(Headers.RANGE);
+		if(!Strings.isEmpty(range) && writeRangeContent(request, response, resource, range)) {
+			return;
+		}
+		
+		if(config.isGzipEnabled() && Strings.isEmpty(range)) {
+			//The pre-compressed brotli content.
+			if(acceptsEncoding(request, BROTLI)) {
+				byte[] content = getEncodedContent(resource, BROTLI, BROTLI_EXTENSION, false);
+				if(null != content) {
+					writeEncodedContent(request, response, resource, BROTLI, content);
+					return;
+				}
+			}
+			
+			//Only zip text files if no pre-compressed gzip content.
+			if(request.isGzipSupport()) {
+				boolean compress = resource.getAsset().isText() && resource.getContentLength() >= config.getGzipMinLength();
+				
+				byte[] content = getEncodedContent(resource, GZIP, GZIP_EXTENSION, compress);
+				if(null != content) {
+					writeEncodedContent(request, response, resource, GZIP, content);
+					return;
+				}
+			}
 		}
+		
+		writeRawContent(request, response, resource);
 	}
 	
 	protected void writeRawContent(RequestBase request, 
@@ -220,38 +299,233 @@ public class DefaultAssetHandler implements AssetHandler,LoadableBean {
 		}
 	}
 	
-	protected void writeGzipContent(RequestBase request, 
-									ResponseBase response,
-									AssetResource resource) throws ServletException, IOException {
-
+	/**
+	 * Writes the single byte range of the raw content.
+	 * 
+	 * <p>
+	 * Returns <code>false</code> if the range should be ignored and the full content should be written.
+	 */
+	protected boolean writeRangeContent(RequestBase request,
+										ResponseBase response,
+										AssetResource resource,
+										String range) throws ServletException, IOException {
+		
+		String ifRange = request.getHeader(Headers.IF_RANGE);
+		if(!Strings.isEmpty(ifRange)) {
+			if(ifRange.startsWith("\"")) {
+				if(!ifRange.equals("\"" + resource.getFingerprint() + "\"")) {
+					return false;
+				}
+			}else if(request.getDateHeader(Headers.IF_RANGE) != resource.getLastModified()){
+				return false;
+			}
+		}
+		
+		long length = resource.getContentLength();
+		
+		long[] startAndEnd = parseRange(range, length);
+		if(null == startAndEnd) {
+			return false;
+		}
+		
+		if(startAndEnd.length == 0) {
+			response.setHeader(Headers.CONTENT_RANGE, "bytes */" + length);
+			response.sendError(HTTP.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+			return true;
+		}
+		
+		long start = startAndEnd[0];
+		long end   = startAndEnd[1];
+		
+		response.setStatus(HTTP.SC_PARTIAL_CONTENT);
+		response.setHeader(Headers.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+		response.setContentLength((int)(end - start + 1));
+		
 		try(InputStream is = resource.getInputStream()) {
-			try {
-				//Compress
-	            byte[] compressed = gzip(is,resource.getContentLength());
-	            
-	            if(log.isDebugEnabled()) {
-	            	log.debug("Gzip assets '{}' : {} -> {}",resource.getServerPath(), resource.getContentLength(), compressed.length);
-	            }
-				
-	            //Set headers
-	            response.setHeader(Headers.CONTENT_ENCODING, "gzip");
-	            response.setContentLength(compressed.length);
-	            
-	            //Response
-	            try(ByteArrayInputStream gzipInputStream = new ByteArrayInputStream(compressed)) {
-	            	IO.copy(gzipInputStream, response.getOutputStream());
-	            }
+			long skipped = 0;
+			while(skipped < start) {
+				long n = is.skip(start - skipped);
+				if(n <= 0) {
+					throw new IOException("Cannot skip to the start of range in asset '" + resource.getServerPath() + "'");
+				}
+				skipped += n;
+			}
+			
+			OutputStream out = response.getOutputStream();
+			byte[] buf = new byte[8192];
+			long remaining = end - start + 1;
+			while(remaining > 0) {
+				int len = is.read(buf, 0, (int)Math.min(buf.length, remaining));
+				if(len < 0) {
+					break;
+				}
+				out.write(buf, 0, len);
+				remaining -= len;
+			}
+		}
+		
+		return true;
+	}
+	
+	protected void writeEncodedContent(RequestBase request, 
+									   ResponseBase response,
+									   AssetResource resource,
+									   String encoding,
+									   byte[] content) throws ServletException, IOException {
+		
+        if(log.isDebugEnabled()) {
+        	log.debug("Write {} asset '{}' : {} -> {}",encoding, resource.getServerPath(), resource.getContentLength(), content.length);
+        }
+		
+        //Set headers
+        response.setHeader(Headers.CONTENT_ENCODING, encoding);
+        response.setContentLength(content.length);
+        if(!Strings.isEmpty(resource.getFingerprint())) {
+        	response.setHeader(Headers.ETAG, "\"" + resource.getFingerprint() + "-" + encoding + "\"");
+        }
+        
+        //Response
+        response.getOutputStream().write(content);
+	}
+	
+	/**
+	 * Returns the encoded content of the resource from the cache.
+	 * 
+	 * <p>
+	 * If not cached, reads the pre-encoded file <code>{file}{extension}</code> of the resource,
+	 * or compresses the content by gzip if the <code>compress</code> is <code>true</code>.
+	 * 
+	 * <p>
+	 * Returns <code>null</code> if the encoded content is not available.
+	 */
+	protected byte[] getEncodedContent(AssetResource resource, String encoding, String extension, boolean compress) throws IOException {
+		byte[] content = contentCache.get(resource, encoding);
+		
+		if(null == content) {
+			content = readPreEncodedContent(resource, extension);
+			
+			if(null == content && compress) {
+				try(InputStream is = resource.getInputStream()) {
+					content = gzip(is, resource.getContentLength());
+				}
+			}
+			
+			if(null == content) {
+				content = AssetContentCache.NONE;
+			}
+			
+			contentCache.put(resource, encoding, content);
+		}
+		
+		return content == AssetContentCache.NONE ? null : content;
+	}
+	
+	/**
+	 * Returns the content of the pre-encoded file (i.e. 'app.js.gz' of 'app.js') of the resource, or <code>null</code> if not exists.
+	 * 
+	 * <p>
+	 * The pre-encoded file is ignored if it is older than the resource.
+	 */
+	protected byte[] readPreEncodedContent(AssetResource resource, String extension) throws IOException {
+		Resource file;
+		if(resource instanceof SimpleAssetResource) {
+			file = ((SimpleAssetResource) resource).getResource();
+		}else if(resource instanceof ServletAssetResource) {
+			file = ((ServletAssetResource) resource).getServletResource();
+		}else{
+			return null;
+		}
+		
+		Resource encoded = file.createRelative(file.getFilename() + extension);
+		if(null == encoded || !encoded.exists() || encoded.lastModified() < file.lastModified()) {
+			return null;
+		}
+		
+		log.debug("Found pre-encoded asset '{}'", encoded.getDescription());
+		
+		try(InputStream is = encoded.getInputStream()) {
+			return IO.readByteArray(is);
+		}
+	}
+
+	/**
+	 * Returns the cache of the compressed contents.
+	 */
+	public AssetContentCache getContentCache() {
+		return contentCache;
+	}
+	
+	protected boolean acceptsEncoding(RequestBase request, String encoding) {
+		String header = request.getHeader(Headers.ACCEPT_ENCODING);
+		if(Strings.isEmpty(header)) {
+			return false;
+		}
+		
+		for(String item : Strings.split(header, ',')) {
+			int index = item.indexOf(';');
+			String name = index > 0 ? item.substring(0, index).trim() : item;
+			
+			if(name.equalsIgnoreCase(encoding)) {
+				//q=0 means not acceptable
+				return index < 0 || !item.substring(index + 1).replace(" ", "").matches("q=0(\\.0*)?");
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Returns <code>[start,end]</code> of the single byte range, or empty array if not satisfiable.
+	 * 
+	 * <p>
+	 * Returns <code>null</code> if the range is invalid or multiple ranges.
+	 */
+	protected static long[] parseRange(String range, long length) {
+		if(!range.startsWith("bytes=") || range.indexOf(',') > 0) {
+			return null;
+		}
+		
+		String spec = range.substring(6).trim();
+		int    dash = spec.indexOf('-');
+		if(dash < 0) {
+			return null;
+		}
+		
+		long start, end;
+		try {
+			if(dash == 0) {
+				//suffix range : the last n bytes.
+				long suffix = Long.parseLong(spec.substring(1));
+				if(suffix <= 0) {
+					return new long[0];
+				}
+				start = Math.max(0, length - suffix);
+				end   = length - 1;
+			}else{
+				start = Long.parseLong(spec.substring(0, dash));
+				if(start >= length) {
+					return new long[0];
+				}
 				
-            } catch (NestedIOException e) {
-            	log.error("Error writing asset content,{}", e.getMessage(), e);
-            	throw e;
-            }
+				end = dash == spec.length() - 1 ? length - 1 : Long.parseLong(spec.substring(dash + 1));
+				if(end < start) {
+					return null;
+				}
+				end = Math.min(end, length - 1);
+			}
+		}catch(NumberFormatException e) {
+			return null;
 		}
+		
+		return new long[]{start, end};
 	}
 
 	@Override
     public boolean load(BeanFactory factory) throws Exception {
-	    return config.isEnabled();
+		if(config.isEnabled()) {
+			contentCache = new AssetContentCache(config.getContentCacheSize());
+			return true;
+		}
+	    return false;
     }
 	
 	private final static byte[] gzip(InputStream is, long length) throws IOException {
@@ -18,7 +18,7 @@ package leap.web.assets;
 import java.util.Locale;
 
 import leap.core.cache.Cache;
-import leap.core.cache.SimpleLRUCache;
+import leap.core.cache.ConcurrentCache;
 import leap.core.validation.annotations.NotNull;
 
 public class SimpleCachingAssetSource extends AbstractCachingAssetSource {
@@ -29,7 +29,7 @@ public class SimpleCachingAssetSource extends AbstractCachingAssetSource {
 	@Override
     protected Cache<Object, Asset> getAssetCache() {
 		if(null == assetCache){
-			assetCache = new SimpleLRUCache<>();
+			assetCache = new ConcurrentCache<>();
 		}
 	    return assetCache;
     }
@@ -16,12 +16,17 @@
 package leap.web.config;
 
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import leap.core.AppConfig;
 import leap.core.BeanFactory;
 import leap.core.annotation.*;
 import leap.core.ioc.PostCreateBean;
 import leap.lang.Args;
+import leap.lang.Disposable;
 import leap.lang.Strings;
 import leap.lang.collection.ImvCopyOnWriteArraySet;
 import leap.lang.collection.ImvSet;
@@ -42,7 +47,7 @@ import leap.web.route.Routes;
 import leap.web.theme.ThemeManager;
 
 @Configurable(prefix="webmvc")
-public class DefaultWebConfig implements WebConfig,WebConfigurator,PostCreateBean {
+public class DefaultWebConfig implements WebConfig,WebConfigurator,PostCreateBean,Disposable {
 
     private static final Log log = LogFactory.get(DefaultWebConfig.class);
 	
@@ -60,6 +65,9 @@ public class DefaultWebConfig implements WebConfig,WebConfigurator,PostCreateBea
 	protected @R boolean actionExtensionEnabled = true;
 	protected @R boolean corsEnabled            = false;
 	protected @N String  cookieDomain           = null;
+	protected @R long    asyncTimeout           = DEFAULT_ASYNC_TIMEOUT;
+	protected @R int     asyncThreads           = DEFAULT_ASYNC_THREADS;
+	protected @N Executor asyncExecutor         = null;
 
     protected @Inject @M AppConfig       config;
 	protected @Inject @M Routes          routes;
@@ -77,6 +85,8 @@ public class DefaultWebConfig implements WebConfig,WebConfigurator,PostCreateBea
     protected final Set<ModuleConfig> modules          = new ImvCopyOnWriteArraySet<>();
     protected final Set<String>       actionExtensions = new ImvCopyOnWriteArraySet<>();
 
+    private ExecutorService defaultAsyncExecutor;
+
 	@Override
     public WebConfig config() {
 	    return this;
@@ -172,6 +182,24 @@ public class DefaultWebConfig implements WebConfig,WebConfigurator,PostCreateBea
 	    return ((ImvSet)actionExtensions).getImmutableView();
     }
 	
+    @Override
+    public long getAsyncTimeout() {
+        return asyncTimeout;
+    }
+
+    @Override
+    public Executor getAsyncExecutor() {
+        if(null == asyncExecutor) {
+            synchronized (this) {
+                if(null == asyncExecutor) {
+                    defaultAsyncExecutor = createDefaultAsyncExecutor();
+                    asyncExecutor = defaultAsyncExecutor;
+                }
+            }
+        }
+        return asyncExecutor;
+    }
+
 	@Override
     public ThemeManager getThemeManager() {
 	    return themeManager;
@@ -276,6 +304,25 @@ public class DefaultWebConfig implements WebConfig,WebConfigurator,PostCreateBea
 		return this;
 	}
 
+	@ConfigProperty
+	public WebConfigurator setAsyncTimeout(long timeout) {
+		this.asyncTimeout = timeout;
+		return this;
+	}
+
+	@ConfigProperty
+	public void setAsyncThreads(int threads) {
+		Args.assertTrue(threads > 0, "The async threads must be positive");
+		this.asyncThreads = threads;
+	}
+
+	@Override
+	public WebConfigurator setAsyncExecutor(Executor executor) {
+		Args.notNull(executor, "async executor");
+		this.asyncExecutor = executor;
+		return this;
+	}
+
     @ConfigProperty
 	public WebConfigurator setActionExtensions(Set<String> extensions) {
 		this.actionExtensions.clear();
@@ -321,6 +368,25 @@ public class DefaultWebConfig implements WebConfig,WebConfigurator,PostCreateBea
 		return this;
 	}
 
+	@Override
+	public void dispose() throws Throwable {
+		if(null != defaultAsyncExecutor) {
+			defaultAsyncExecutor.shutdownNow();
+			defaultAsyncExecutor = null;
+		}
+	}
+
+	protected ExecutorService createDefaultAsyncExecutor() {
+		log.info("Create async executor with {} threads", asyncThreads);
+
+		AtomicInteger counter = new AtomicInteger();
+		return Executors.newFixedThreadPool(asyncThreads, (r) -> {
+			Thread thread = new Thread(r, "webmvc-async-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
 	@Override
     public void postCreate(BeanFactory factory) throws Throwable {
         //filters.
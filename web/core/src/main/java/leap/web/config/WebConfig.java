@@ -16,6 +16,7 @@
 package leap.web.config;
 
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 import leap.web.ajax.AjaxDetector;
 import leap.web.ajax.AjaxHandler;
@@ -173,6 +174,27 @@ public interface WebConfig {
      */
     boolean isCorsEnabled();
 
+    /**
+     * Returns the default timeout in milliseconds of async action, zero or negative means no timeout.
+     *
+     * <p/>
+     * Default is {@link WebConfigurator#DEFAULT_ASYNC_TIMEOUT}.
+     *
+     * @see leap.web.annotation.AsyncTimeout
+     */
+    long getAsyncTimeout();
+
+    /**
+     * Required.
+     *
+     * Returns the {@link Executor} for executing the {@link java.util.concurrent.Callable} returned by async action
+     * and resuming the request after the async result completed.
+     *
+     * <p/>
+     * Default is a fixed thread pool of {@link WebConfigurator#DEFAULT_ASYNC_THREADS} threads.
+     */
+    Executor getAsyncExecutor();
+
     /**
      * Returns all the configured {@link ModuleConfig}.
      */
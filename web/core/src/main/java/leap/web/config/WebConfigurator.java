@@ -21,6 +21,7 @@ import leap.web.error.ErrorViews;
 import leap.web.route.Routes;
 
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  * The configurator of {@link WebConfig}.
@@ -36,6 +37,8 @@ public interface WebConfigurator {
     String DEFAULT_HOME_CONTROLLER_NAME  = "Home";
     String DEFAULT_FORMAT_PARAMETER_NAME = "$format";
     String DEFAULT_JSESSIONID_PREFIX     = ";jsessionid";
+    long   DEFAULT_ASYNC_TIMEOUT         = 30000; //30s
+    int    DEFAULT_ASYNC_THREADS         = 20;
 
     /**
      * Returns the configuration.
@@ -170,6 +173,26 @@ public interface WebConfigurator {
      */
 	WebConfigurator setCookieDomain(String domain);
 
+    /**
+     * Optional.
+     *
+     * Sets the default timeout in milliseconds of async action, zero or negative means no timeout.
+     *
+     * <p/>
+     * Default is {@link #DEFAULT_ASYNC_TIMEOUT}.
+     */
+	WebConfigurator setAsyncTimeout(long timeout);
+
+    /**
+     * Optional.
+     *
+     * Sets the {@link Executor} of async actions.
+     *
+     * <p/>
+     * Default is a fixed thread pool of {@link #DEFAULT_ASYNC_THREADS} threads.
+     */
+	WebConfigurator setAsyncExecutor(Executor executor);
+
     /**
      * Optional.
      *
@@ -21,6 +21,7 @@ import leap.core.validation.annotations.Required;
 import leap.lang.Classes;
 import leap.lang.Exceptions;
 import leap.lang.Strings;
+import leap.lang.convert.ConvertException;
 import leap.lang.convert.Converts;
 import leap.lang.http.MimeTypes;
 import leap.lang.io.IO;
@@ -92,6 +93,33 @@ public class JsonFormat extends AbstractRequestFormat implements ResponseFormat,
         return jsonObject.raw();
 	}
 
+	@Override
+	public Object readRequestBody(Request request, Argument argument, Class<?> type, Type genericType) throws IOException, IllegalStateException {
+		if(JsonParsable.class.isAssignableFrom(type)) {
+			return RequestFormat.super.readRequestBody(request, argument, type, genericType);
+		}
+
+		try {
+			if(log.isTraceEnabled()) {
+				String json = IO.readString(request.getReader());
+
+				log.trace("Json request body : \n{}", json);
+
+				if(Strings.isEmpty(json)){
+					return null;
+				}
+
+				return leap.lang.json.JSON.decode(json, type, genericType);
+			}else{
+				return leap.lang.json.JSON.decode(request.getReader(), type, genericType);
+			}
+		} catch (ConvertException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new InvalidFormatContentException("Error reading 'json' request body, " + e.getMessage(), e);
+		}
+	}
+
     @Override
     public Content getContent(ActionContext context, Object value) throws Exception {
 		return new Contents.AbstractTextContent() {
@@ -17,6 +17,7 @@ package leap.web.format;
 
 import com.sun.org.apache.xpath.internal.Arg;
 import leap.lang.Named;
+import leap.lang.convert.Converts;
 import leap.lang.http.MimeType;
 import leap.web.Request;
 import leap.web.action.Action;
@@ -49,4 +50,17 @@ public interface RequestFormat extends Named {
 	 * @throws IllegalStateException if this format does not supports request body.
 	 */
 	Object readRequestBody(Request request, Argument argument) throws IOException, IllegalStateException;
+
+	/**
+	 * Reads the body content of the given {@link Request} and converts it to the given type.
+	 *
+	 * <p>
+	 * The format can override this method to bind the body content to the type without reading the raw content.
+	 *
+	 * @throws IllegalStateException if this format does not supports request body.
+	 */
+	default Object readRequestBody(Request request, Argument argument, Class<?> type, Type genericType) throws IOException, IllegalStateException {
+		Object body = readRequestBody(request, argument);
+		return null == body ? null : Converts.convert(body, type, genericType);
+	}
 }
\ No newline at end of file
@@ -49,6 +49,7 @@ class DefaultRoute extends ExtensibleBase implements Sourced, Route {
     protected Boolean  supportsMultipart;
     protected boolean  acceptValidationError;
     protected boolean  httpsOnly;
+    protected Long     asyncTimeout;
     protected Boolean  allowAnonymous;
     protected Boolean  allowRememberMe;
     protected Boolean  allowClientOnly;
@@ -292,6 +293,16 @@ class DefaultRoute extends ExtensibleBase implements Sourced, Route {
         this.httpsOnly = httpsOnly;
     }
 
+    @Override
+    public Long getAsyncTimeout() {
+        return asyncTimeout;
+    }
+
+    @Override
+    public void setAsyncTimeout(Long timeout) {
+        this.asyncTimeout = timeout;
+    }
+
     @Override
     public String[] getPermissions() {
         return permissions;
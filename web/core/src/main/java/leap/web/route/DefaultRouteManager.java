@@ -242,6 +242,12 @@ public class DefaultRouteManager implements RouteManager {
             route.setHttpsOnly(httpsOnly.value());
         }
 
+        //async timeout
+        AsyncTimeout asyncTimeout = act.searchAnnotation(AsyncTimeout.class);
+        if (null != asyncTimeout) {
+            route.setAsyncTimeout(asyncTimeout.value());
+        }
+
         //resolve failure handlers
         Failures failures = act.searchAnnotation(Failures.class);
         if (null != failures) {
@@ -35,6 +35,23 @@ public class DefaultRoutes implements Routes {
 	
 	private Route[]    array = new Route[]{};
 	private Set<Route> set   = new TreeSet<Route>(Route.COMPARATOR);
+
+	private boolean              indexEnabled = true;
+	private volatile RoutesIndex index;
+
+	/**
+	 * Returns <code>true</code> if matching the routes by the compiled {@link RoutesIndex}.
+	 *
+	 * <p>
+	 * Returns <code>false</code> if matching the routes one by one.
+	 */
+	public boolean isIndexEnabled() {
+		return indexEnabled;
+	}
+
+	public void setIndexEnabled(boolean indexEnabled) {
+		this.indexEnabled = indexEnabled;
+	}
 	
 	@Override
     public int size() {
@@ -150,6 +167,15 @@ public class DefaultRoutes implements Routes {
     @Override
     public Route match(String method, String path, Map<String,Object> inParameters,  Map<String, String> outVariables) {
 		Route[] routes = this.array;
+
+		if(indexEnabled) {
+			RoutesIndex index = this.index;
+			if(null == index || index.routes() != routes) {
+				index = new RoutesIndex(routes);
+				this.index = index;
+			}
+			return index.match(method, path, (r) -> matchRequiredParameters(r.getRequiredParameters(), inParameters), outVariables);
+		}
 		
 		for(int i=0;i<routes.length;i++){
 			Route route = routes[i];
@@ -246,4 +246,16 @@ public interface Route extends RouteBase, Sourced, Extensible {
 	 */
 	void setHttpsOnly(boolean httpsOnly);
 
+	/**
+	 * Returns the timeout in milliseconds of async action or <code>null</code> if use the default timeout.
+	 *
+	 * @see leap.web.config.WebConfig#getAsyncTimeout()
+	 */
+	Long getAsyncTimeout();
+
+	/**
+	 * Sets the timeout in milliseconds of async action.
+	 */
+	void setAsyncTimeout(Long timeout);
+
 }
\ No newline at end of file
@@ -53,6 +53,7 @@ public class RouteBuilder extends ExtensibleBase implements RouteBase, Buildable
 	protected List<FailureHandler> failureHandlers = new ArrayList<>();
 
     protected Boolean              httpsOnly;
+    protected Long                 asyncTimeout;
     protected Boolean              allowAnonymous;
     protected Boolean              allowClientOnly;
     protected Boolean              allowRememberMe;
@@ -230,6 +231,15 @@ public class RouteBuilder extends ExtensibleBase implements RouteBase, Buildable
         return this;
     }
 
+    public Long getAsyncTimeout() {
+        return asyncTimeout;
+    }
+
+    public RouteBuilder setAsyncTimeout(Long asyncTimeout) {
+        this.asyncTimeout = asyncTimeout;
+        return this;
+    }
+
     public Boolean getAllowAnonymous() {
         return allowAnonymous;
     }
@@ -310,6 +320,9 @@ public class RouteBuilder extends ExtensibleBase implements RouteBase, Buildable
 		    route.setHttpsOnly(httpsOnly);
 		}
 
+        //async timeout
+        route.setAsyncTimeout(asyncTimeout);
+
         //remember-me
         route.setAllowRememberMe(allowRememberMe);
 
@@ -0,0 +1,426 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.web.route;
+
+import leap.core.web.path.PathTemplate;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * A compiled index of the sorted routes, used by {@link DefaultRoutes} for matching a request path.
+ *
+ * <p>
+ * The index is a tree keyed by the path segments. A segment of the path template is either a literal,
+ * or a variable like <code>{id}</code> which matches any non empty segment.
+ *
+ * <p>
+ * The path templates contain other segments (such as explicit regex <code>{path:.*}</code> or <code>file.{ext}</code>)
+ * are attached to the node of their leading simple segments, and matched by the path template itself.
+ *
+ * <p>
+ * The matched route is the first one in the sorted routes, the same as matching the routes one by one.
+ */
+final class RoutesIndex {
+
+    private static final String ANY_METHOD = "*";
+
+    private final Route[] routes;
+    private final Node    root = new Node();
+
+    RoutesIndex(Route[] routes) {
+        this.routes = routes;
+
+        for(int i=0;i<routes.length;i++) {
+            add(new Entry(i, routes[i]));
+        }
+
+        root.compile();
+    }
+
+    /**
+     * Returns the routes used to build this index.
+     */
+    Route[] routes() {
+        return routes;
+    }
+
+    /**
+     * Returns the matched route or <code>null</code>.
+     *
+     * @param method the http method, <code>null</code> means any method.
+     * @param path the path to match.
+     * @param params the predicate to check the required parameters of the route.
+     * @param outVariables the map to put the path variables of the matched route.
+     */
+    Route match(String method, String path, Predicate<Route> params, Map<String, String> outVariables) {
+        if(null == path || path.isEmpty() || path.charAt(0) != '/') {
+            return null;
+        }
+
+        Segments segments = new Segments(path);
+
+        Matching m = new Matching(method, path, segments, params);
+
+        m.match(root, 0);
+
+        if(null == m.best) {
+            return null;
+        }
+
+        Entry e = m.best;
+        if(e.simple) {
+            outVariables.clear();
+            for(int i=0;i<e.varNames.length;i++) {
+                outVariables.put(e.varNames[i], segments.get(e.varIndexes[i]));
+            }
+        }else{
+            e.template.match(path, outVariables);
+        }
+
+        return e.route;
+    }
+
+    private void add(Entry e) {
+        Node node = root;
+
+        int last = e.simple ? e.segments.length : e.prefixLength;
+        for(int i=0;i<last;i++) {
+            String segment = e.segments[i];
+
+            if(null == segment) {
+                if(null == node.variable) {
+                    node.variable = new Node();
+                }
+                node = node.variable;
+            }else{
+                Node child = node.literals.get(segment);
+                if(null == child) {
+                    child = new Node();
+                    node.literals.put(segment, child);
+                }
+                node = child;
+            }
+        }
+
+        if(e.simple) {
+            node.addRoute(e);
+        }else{
+            node.addTemplate(e);
+        }
+    }
+
+    private static final class Entry {
+        final int          ordinal;
+        final Route        route;
+        final String       method;
+        final PathTemplate template;
+        final boolean      simple;
+
+        //null segment means a variable.
+        String[] segments;
+        String[] varNames;
+        int[]    varIndexes;
+
+        //the number of leading simple segments if not a simple template.
+        int prefixLength;
+
+        Entry(int ordinal, Route route) {
+            this.ordinal  = ordinal;
+            this.route    = route;
+            this.method   = route.getMethod();
+            this.template = route.getPathTemplate();
+            this.simple   = parse(template.getTemplate());
+        }
+
+        boolean isAnyMethod() {
+            return ANY_METHOD.equals(method);
+        }
+
+        private boolean parse(String template) {
+            if(template.isEmpty() || template.charAt(0) != '/') {
+                segments     = new String[0];
+                prefixLength = 0;
+                return false;
+            }
+
+            String[]     parts    = Segments.split(template);
+            List<String> names    = new ArrayList<>();
+            List<Integer> indexes = new ArrayList<>();
+
+            segments = new String[parts.length];
+
+            for(int i=0;i<parts.length;i++) {
+                String part = parts[i];
+
+                if(isLiteral(part)) {
+                    segments[i] = part;
+                    continue;
+                }
+
+                String name = variableName(part);
+                if(null != name && !names.contains(name)) {
+                    segments[i] = null;
+                    names.add(name);
+                    indexes.add(i);
+                    continue;
+                }
+
+                prefixLength = i;
+                return false;
+            }
+
+            varNames   = names.toArray(new String[names.size()]);
+            varIndexes = new int[indexes.size()];
+            for(int i=0;i<varIndexes.length;i++) {
+                varIndexes[i] = indexes.get(i);
+            }
+            return true;
+        }
+
+        private static boolean isLiteral(String part) {
+            for(int i=0;i<part.length();i++) {
+                char c = part.charAt(i);
+
+                if(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9') {
+                    continue;
+                }
+
+                //The unreserved and sub-delims chars except '%' which is escaped in the template.
+                if("-._~!$&'()*+,;=:@".indexOf(c) >= 0) {
+                    continue;
+                }
+
+                return false;
+            }
+            return true;
+        }
+
+        private static String variableName(String part) {
+            if(part.length() < 3 || part.charAt(0) != '{' || part.charAt(part.length() - 1) != '}') {
+                return null;
+            }
+
+            String name = part.substring(1, part.length() - 1);
+
+            char first = name.charAt(0);
+            if(!Character.isLetterOrDigit(first) && first != '_') {
+                return null;
+            }
+
+            for(int i=1;i<name.length();i++) {
+                char c = name.charAt(i);
+                if(!Character.isLetterOrDigit(c) && c != '_' && c != '-' && c != '.') {
+                    return null;
+                }
+            }
+
+            return name;
+        }
+    }
+
+    private static final class Node {
+        final Map<String, Node> literals = new HashMap<>(4);
+        Node                    variable;
+
+        //the routes ends at this node, grouped by method.
+        final Map<String, List<Entry>> methodRoutes = new HashMap<>(4);
+        final List<Entry>              anyMethodRoutes = new ArrayList<>(1);
+        final List<Entry>              allRoutes       = new ArrayList<>(1);
+
+        //the routes must be matched by the path template at this node.
+        final List<Entry> templates = new ArrayList<>(1);
+
+        //the min ordinal of all routes in this node and it's children.
+        int minOrdinal = Integer.MAX_VALUE;
+
+        Entry[]              all       = new Entry[0];
+        Entry[]              anyMethod = new Entry[0];
+        Map<String, Entry[]> methods   = Collections.emptyMap();
+        Entry[]              regexes   = new Entry[0];
+
+        void addRoute(Entry e) {
+            allRoutes.add(e);
+            if(e.isAnyMethod()) {
+                anyMethodRoutes.add(e);
+            }else{
+                methodRoutes.computeIfAbsent(e.method, (k) -> new ArrayList<>(1)).add(e);
+            }
+        }
+
+        void addTemplate(Entry e) {
+            templates.add(e);
+        }
+
+        int compile() {
+            //the entries are added in the order of ordinal.
+            all       = allRoutes.toArray(new Entry[allRoutes.size()]);
+            anyMethod = anyMethodRoutes.toArray(new Entry[anyMethodRoutes.size()]);
+            regexes   = templates.toArray(new Entry[templates.size()]);
+
+            if(!methodRoutes.isEmpty()) {
+                methods = new HashMap<>(methodRoutes.size());
+                methodRoutes.forEach((m, list) -> methods.put(m, list.toArray(new Entry[list.size()])));
+            }
+
+            if(all.length > 0) {
+                minOrdinal = all[0].ordinal;
+            }
+            if(regexes.length > 0) {
+                minOrdinal = Math.min(minOrdinal, regexes[0].ordinal);
+            }
+            for(Node child : literals.values()) {
+                minOrdinal = Math.min(minOrdinal, child.compile());
+            }
+            if(null != variable) {
+                minOrdinal = Math.min(minOrdinal, variable.compile());
+            }
+
+            return minOrdinal;
+        }
+    }
+
+    private static final class Matching {
+        final String                     method;
+        final String                     path;
+        final Segments                   segments;
+        final Predicate<Route> params;
+
+        Entry best;
+
+        Matching(String method, String path, Segments segments, Predicate<Route> params) {
+            this.method   = method;
+            this.path     = path;
+            this.segments = segments;
+            this.params   = params;
+        }
+
+        void match(Node node, int depth) {
+            if(null != best && node.minOrdinal >= best.ordinal) {
+                return;
+            }
+
+            for(Entry e : node.regexes) {
+                if(null != best && e.ordinal >= best.ordinal) {
+                    break;
+                }
+                if(matchMethodAndParams(e) && e.template.matches(path)) {
+                    best = e;
+                    break;
+                }
+            }
+
+            if(depth == segments.size()) {
+                if(null == method) {
+                    matchRoutes(node.all);
+                }else{
+                    matchRoutes(node.methods.get(method));
+                    matchRoutes(node.anyMethod);
+                }
+                return;
+            }
+
+            String segment = segments.get(depth);
+
+            Node literal = node.literals.get(segment);
+            if(null != literal) {
+                match(literal, depth + 1);
+            }
+
+            if(null != node.variable && !segment.isEmpty()) {
+                match(node.variable, depth + 1);
+            }
+        }
+
+        private void matchRoutes(Entry[] entries) {
+            if(null == entries) {
+                return;
+            }
+            for(Entry e : entries) {
+                if(null != best && e.ordinal >= best.ordinal) {
+                    return;
+                }
+                if(params.test(e.route)) {
+                    best = e;
+                    return;
+                }
+            }
+        }
+
+        private boolean matchMethodAndParams(Entry e) {
+            if(null != method && !e.isAnyMethod() && !e.method.equals(method)) {
+                return false;
+            }
+            return params.test(e.route);
+        }
+    }
+
+    /**
+     * The segments of a path starts with '/', i.e. '/a/b' -> [a,b], '/' -> [''], '/a/' -> [a,''].
+     */
+    private static final class Segments {
+
+        static String[] split(String path) {
+            Segments s = new Segments(path);
+            String[] parts = new String[s.size()];
+            for(int i=0;i<parts.length;i++) {
+                parts[i] = s.get(i);
+            }
+            return parts;
+        }
+
+        private final String path;
+        private final int[]  starts;
+        private final int    size;
+        private final String[] values;
+
+        Segments(String path) {
+            this.path = path;
+
+            int count = 0;
+            for(int i=0;i<path.length();i++) {
+                if(path.charAt(i) == '/') {
+                    count++;
+                }
+            }
+
+            this.size   = count;
+            this.starts = new int[count + 1];
+            this.values = new String[count];
+
+            int n = 0;
+            for(int i=0;i<path.length();i++) {
+                if(path.charAt(i) == '/') {
+                    starts[n++] = i + 1;
+                }
+            }
+            starts[count] = path.length() + 1;
+        }
+
+        int size() {
+            return size;
+        }
+
+        String get(int i) {
+            String v = values[i];
+            if(null == v) {
+                v = path.substring(starts[i], starts[i+1] - 1);
+                values[i] = v;
+            }
+            return v;
+        }
+    }
+}
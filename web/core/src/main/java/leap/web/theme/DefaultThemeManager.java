@@ -163,7 +163,7 @@ public class DefaultThemeManager implements ThemeManager,PostCreateBean {
 			resolver.setPrefix(Paths.prefixAndSuffixWithSlash(location));
 			
 			SimpleCachingAssetSource themeAssetSource = new SimpleCachingAssetSource();
-			themeAssetSource.setAssetCache(cacheManager.<Object,Asset>createSimpleLRUCache(Theme.class.getName() + "$assets." + themeName));
+			themeAssetSource.setAssetCache(cacheManager.<Object,Asset>createConcurrentCache(Theme.class.getName() + "$assets." + themeName));
 			themeAssetSource.setResolver(resolver);
 			app.factory().inject(themeAssetSource);
 			
@@ -181,7 +181,7 @@ public class DefaultThemeManager implements ThemeManager,PostCreateBean {
 			
 			ServletResourceViewSource themeViewSource = new ServletResourceViewSource();
 			themeViewSource.setLocation(location);
-			themeViewSource.setViewCache(cacheManager.<Object,View>createSimpleLRUCache(Theme.class.getName() + "$views." + themeName));
+			themeViewSource.setViewCache(cacheManager.<Object,View>createConcurrentCache(Theme.class.getName() + "$views." + themeName));
 			app.factory().inject(themeViewSource);
 			
 			return new ThemeOrDefaultViewSource(themeViewSource, viewSource);
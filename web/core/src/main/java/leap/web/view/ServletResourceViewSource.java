@@ -21,7 +21,7 @@ import leap.core.annotation.Inject;
 import leap.core.annotation.M;
 import leap.core.annotation.R;
 import leap.core.cache.Cache;
-import leap.core.cache.SimpleLRUCache;
+import leap.core.cache.ConcurrentCache;
 
 public class ServletResourceViewSource extends AbstractCachingViewSource {
 	
@@ -40,7 +40,7 @@ public class ServletResourceViewSource extends AbstractCachingViewSource {
 	@Override
 	protected Cache<Object, View> getViewCache() {
 		if(null == viewCache){
-			viewCache = new SimpleLRUCache<>();
+			viewCache = new ConcurrentCache<>();
 		}
 		return viewCache;
 	}
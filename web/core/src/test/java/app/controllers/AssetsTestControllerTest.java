@@ -16,15 +16,20 @@
 package app.controllers;
 
 import leap.core.AppContext;
+import leap.lang.http.HTTP;
+import leap.lang.http.Headers;
 import leap.lang.io.IO;
 import leap.lang.net.Urls;
 import leap.lang.resource.FileResource;
 import leap.web.WebTestCase;
 import leap.web.assets.AssetStrategy;
+import leap.webunit.client.THttpResponse;
 import org.junit.BeforeClass;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import java.io.File;
+
 public class AssetsTestControllerTest extends WebTestCase {
 	
 	protected static AssetStrategy fingerprintStrategy;
@@ -57,6 +62,55 @@ public class AssetsTestControllerTest extends WebTestCase {
 		get("/assets/webjars/bootstrap/2.3.0/less/accordion.less").assertContentContains("Accordion");
 	}
 	
+	@Test
+	public void testAssetETag() {
+		THttpResponse resp = get("/assets/public/test.js").assertOk();
+		
+		String etag = resp.getHeader(Headers.ETAG);
+		assertNotEmpty(etag);
+		
+		forGet("/assets/public/test.js").addHeader(Headers.IF_NONE_MATCH, etag).send().assertStatusEquals(HTTP.SC_NOT_MODIFIED);
+		forGet("/assets/public/test.js").addHeader(Headers.IF_NONE_MATCH, "\"x\", " + etag).send().assertStatusEquals(HTTP.SC_NOT_MODIFIED);
+		forGet("/assets/public/test.js").addHeader(Headers.IF_NONE_MATCH, "\"x\"").send().assertOk();
+	}
+	
+	@Test
+	public void testAssetRange() {
+		THttpResponse resp = forGet("/assets/public/test.js").addHeader(Headers.RANGE, "bytes=0-2").send();
+		resp.assertStatusEquals(HTTP.SC_PARTIAL_CONTENT);
+		assertEquals("bytes 0-2/8", resp.getHeader(Headers.CONTENT_RANGE));
+		assertEquals("var", resp.getContent());
+		
+		resp = forGet("/assets/public/test.js").addHeader(Headers.RANGE, "bytes=-4").send();
+		resp.assertStatusEquals(HTTP.SC_PARTIAL_CONTENT);
+		assertEquals("bytes 4-7/8", resp.getHeader(Headers.CONTENT_RANGE));
+		
+		forGet("/assets/public/test.js").addHeader(Headers.RANGE, "bytes=100-").send()
+			.assertStatusEquals(HTTP.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+		
+		forGet("/assets/public/test.js").addHeader(Headers.RANGE, "bytes=0-1,3-4").send().assertContentEquals("var i=0;");
+	}
+	
+	@Test
+	public void testGzipAsset() {
+		String content = get("/assets/public/bundle.js").assertOk().getContent();
+		
+		//compressed and cached
+		assertEquals(content, forGet("/assets/public/bundle.js").addHeader(Headers.ACCEPT_ENCODING, "gzip").send().getContent());
+		assertEquals(content, forGet("/assets/public/bundle.js").addHeader(Headers.ACCEPT_ENCODING, "gzip").send().getContent());
+	}
+	
+	@Test
+	public void testPreEncodedAsset() {
+		new File("src/test/webapps/root/public/pre.js.gz").setLastModified(System.currentTimeMillis());
+		
+		THttpResponse resp = forGet("/assets/public/pre.js").addHeader(Headers.ACCEPT_ENCODING, "gzip").send().assertOk();
+		assertEquals("var s='precompressed';", resp.getContent());
+		
+		resp = forGet("/assets/public/pre.js").addHeader(Headers.ACCEPT_ENCODING, "identity").send().assertOk();
+		assertEquals("var s='original';", resp.getContent());
+	}
+	
 	@Test
 	public void testWebjars() {
 		get("/assets/bootstrap/2.3.0/less/accordion.less").assertContentContains("Accordion");
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package app.controllers;
+
+import app.models.products.Product;
+import leap.web.DeferredResult;
+import leap.web.Request;
+import leap.web.action.ControllerBase;
+import leap.web.annotation.AsyncTimeout;
+import leap.web.exception.NotFoundException;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+public class AsyncController extends ControllerBase {
+
+    public CompletionStage<String> completionStage() {
+        return CompletableFuture.supplyAsync(() -> "hello");
+    }
+
+    public CompletionStage<Product> getProduct() {
+        return CompletableFuture.supplyAsync(() -> {
+            Product product = new Product();
+            product.setId(100);
+            product.setTitle("Iphone6");
+            return product;
+        });
+    }
+
+    public Callable<String> callable() {
+        return () -> Thread.currentThread().getName();
+    }
+
+    public DeferredResult<String> deferred(Request request) {
+        DeferredResult<String> result = new DeferredResult<>();
+
+        new Thread(() -> {
+            sleep(50);
+            result.setResult(String.valueOf(request.getServletRequest().isAsyncStarted()));
+        }).start();
+
+        return result;
+    }
+
+    public CompletionStage<String> asyncError() {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        new Thread(() -> future.completeExceptionally(new NotFoundException("not found"))).start();
+        return future;
+    }
+
+    @AsyncTimeout(100)
+    public DeferredResult<String> timeout() {
+        return new DeferredResult<>();
+    }
+
+    public DeferredResult<String> timeoutResult() {
+        return new DeferredResult<>(100L, "timeout");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
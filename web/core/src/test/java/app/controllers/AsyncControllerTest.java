@@ -0,0 +1,55 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package app.controllers;
+
+import app.models.products.Product;
+import leap.lang.json.JSON;
+import leap.web.WebTestCase;
+import org.junit.Test;
+
+public class AsyncControllerTest extends WebTestCase {
+
+    @Test
+    public void testCompletionStage() {
+        get("/async/completion_stage").assertOk().assertContentEquals("hello");
+
+        Product product = JSON.decode(get("/async/get_product").assertOk().getContent(), Product.class);
+        assertEquals(new Integer(100), product.getId());
+        assertEquals("Iphone6", product.getTitle());
+    }
+
+    @Test
+    public void testCallable() {
+        String thread = get("/async/callable").assertOk().getContent();
+        assertTrue(thread, thread.startsWith("webmvc-async-"));
+    }
+
+    @Test
+    public void testDeferredResult() {
+        get("/async/deferred").assertOk().assertContentEquals("true");
+    }
+
+    @Test
+    public void testAsyncError() {
+        get("/async/async_error").assert404();
+    }
+
+    @Test
+    public void testAsyncTimeout() {
+        get("/async/timeout").assertStatusEquals(503);
+        get("/async/timeout_result").assertOk().assertContentEquals("timeout");
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.web.assets;
+
+import leap.web.WebTestCase;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.io.Reader;
+
+public class AssetContentCacheTest extends WebTestCase {
+
+    @Test
+    public void testGetAndPut() {
+        AssetContentCache cache = new AssetContentCache(100);
+
+        AssetResource r1 = new TestResource("/a.js", "1");
+
+        assertNull(cache.get(r1, "gzip"));
+        assertTrue(cache.put(r1, "gzip", new byte[10]));
+        assertEquals(10, cache.get(r1, "gzip").length);
+        assertNull(cache.get(r1, "br"));
+
+        //changed fingerprint
+        assertNull(cache.get(new TestResource("/a.js", "2"), "gzip"));
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+    }
+
+    @Test
+    public void testMaxSize() {
+        AssetContentCache cache = new AssetContentCache(100);
+
+        AssetResource r1 = new TestResource("/1.js", "1");
+        AssetResource r2 = new TestResource("/2.js", "1");
+        AssetResource r3 = new TestResource("/3.js", "1");
+
+        assertFalse(cache.put(r1, "gzip", new byte[101]));
+        assertEquals(0, cache.getSize());
+
+        cache.put(r1, "gzip", new byte[40]);
+        cache.put(r2, "gzip", new byte[40]);
+        cache.get(r1, "gzip");
+        cache.put(r3, "gzip", new byte[40]);
+
+        //r2 is the least recently used.
+        assertEquals(80, cache.getSize());
+        assertNotNull(cache.get(r1, "gzip"));
+        assertNull(cache.get(r2, "gzip"));
+        assertNotNull(cache.get(r3, "gzip"));
+
+        cache.put(r1, "br", AssetContentCache.NONE);
+        assertSame(AssetContentCache.NONE, cache.get(r1, "br"));
+        assertEquals(80, cache.getSize());
+    }
+
+    @Test
+    public void testDisabled() {
+        AssetContentCache cache = new AssetContentCache(0);
+
+        AssetResource r1 = new TestResource("/1.js", "1");
+
+        assertFalse(cache.put(r1, "gzip", AssetContentCache.NONE));
+        assertNull(cache.get(r1, "gzip"));
+        assertEquals(0, cache.getCount());
+    }
+
+    private static final class TestResource extends AbstractAssetResource {
+
+        TestResource(String clientUrl, String fingerprint) {
+            this.clientUrl   = clientUrl;
+            this.fingerprint = fingerprint;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return null;
+        }
+
+        @Override
+        public Reader getReader() {
+            return null;
+        }
+    }
+}
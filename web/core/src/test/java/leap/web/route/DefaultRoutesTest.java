@@ -0,0 +1,127 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.web.route;
+
+import leap.core.web.path.PathTemplateFactory;
+import leap.lang.New;
+import leap.web.WebTestCase;
+import leap.web.action.RunnableAction;
+import org.junit.Test;
+
+import java.util.Map;
+
+public class DefaultRoutesTest extends WebTestCase {
+
+    private static final String[] TEMPLATES = new String[]{
+        "/",
+        "/users",
+        "/users/",
+        "/users/{id}",
+        "/users/me",
+        "/users/{id}/roles",
+        "/users/{id}/roles/{roleId}",
+        "/users/{userId}/{action}",
+        "/users/{id:[0-9]+}/profile",
+        "/files/{path:.*}",
+        "/files/readme.txt",
+        "/files/{name}.{ext}",
+        "/{controller}/{action}",
+        "/{controller}",
+        "/a(b)/c*d",
+        "/orders/{id}/items/{itemId}/{rest:.+}",
+    };
+
+    private static final String[] PATHS = new String[]{
+        "/", "", "users", "/users", "/users/", "/users/1", "/users/me", "/users/me/", "/users/1/roles",
+        "/users/1/roles/2", "/users/1/roles/2/3", "/users/1/edit", "/users/1/profile", "/users/x/profile",
+        "/files", "/files/", "/files/a/b/c", "/files/readme.txt", "/files/a.js", "/files/a", "/a(b)/c*d",
+        "/a%28b%29/c*d", "/x", "/x/y", "/x/y/z", "//", "/users//roles", "/orders/1/items/2/a/b", "/orders/1/items/2/",
+    };
+
+    @Test
+    public void testIndexMatchesSameAsLinear() {
+        DefaultRoutes indexed = createRoutes(true);
+        DefaultRoutes linear  = createRoutes(false);
+
+        for(String method : new String[]{null, "GET", "POST", "DELETE"}) {
+            for(String path : PATHS) {
+                Map<String, String> indexedVars = New.hashMap();
+                Map<String, String> linearVars  = New.hashMap();
+
+                Map<String, Object> params = New.hashMap("type", "admin");
+
+                Route r1 = indexed.match(method, path, params, indexedVars);
+                Route r2 = linear.match(method, path, params, linearVars);
+
+                String msg = method + " " + path;
+                if(null == r2) {
+                    assertNull(msg, r1);
+                }else{
+                    assertNotNull(msg, r1);
+                    assertEquals(msg, r2.getPathTemplate().getTemplate(), r1.getPathTemplate().getTemplate());
+                    assertEquals(msg, r2.getMethod(), r1.getMethod());
+                    assertEquals(msg, r2.getRequiredParameters(), r1.getRequiredParameters());
+                    assertEquals(msg, linearVars, indexedVars);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testIndexUpdatedAfterAdd() {
+        DefaultRoutes routes = createRoutes(true);
+
+        assertEquals("/{controller}/{action}", routes.match("GET", "/new/path").getPathTemplate().getTemplate());
+
+        routes.add(createRoute("GET", "/new/path"));
+
+        assertEquals("/new/path", routes.match("GET", "/new/path").getPathTemplate().getTemplate());
+    }
+
+    private DefaultRoutes createRoutes(boolean indexEnabled) {
+        DefaultRoutes routes = app.factory().createBean(DefaultRoutes.class);
+        routes.setIndexEnabled(indexEnabled);
+
+        for(String template : TEMPLATES) {
+            routes.add(createRoute("GET", template));
+            routes.add(createRoute("POST", template));
+        }
+        routes.add(createRoute("*", "/users/{id}"));
+        routes.add(createRoute("*", "/any/{id}"));
+
+        RouteBuilder rb = createRouteBuilder("GET", "/users/{id}");
+        rb.setRequiredParameters(New.hashMap("type", "admin"));
+        routes.add(rb.build());
+
+        rb = createRouteBuilder("*", "/files/{path:.*}");
+        rb.setRequiredParameters(New.hashMap("type", "user"));
+        routes.add(rb.build());
+
+        return routes;
+    }
+
+    private Route createRoute(String method, String path) {
+        return createRouteBuilder(method, path).build();
+    }
+
+    private RouteBuilder createRouteBuilder(String method, String path) {
+        RouteBuilder rb = new RouteBuilder();
+        rb.setMethod(method);
+        rb.setPathTemplate(app.factory().getBean(PathTemplateFactory.class).createPathTemplate(path));
+        rb.setAction(new RunnableAction(() -> {}));
+        return rb;
+    }
+}
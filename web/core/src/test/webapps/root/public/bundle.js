@@ -0,0 +1,20 @@
+var line0 = 'The content of bundle.js for the compressed assets test';
+var line1 = 'The content of bundle.js for the compressed assets test';
+var line2 = 'The content of bundle.js for the compressed assets test';
+var line3 = 'The content of bundle.js for the compressed assets test';
+var line4 = 'The content of bundle.js for the compressed assets test';
+var line5 = 'The content of bundle.js for the compressed assets test';
+var line6 = 'The content of bundle.js for the compressed assets test';
+var line7 = 'The content of bundle.js for the compressed assets test';
+var line8 = 'The content of bundle.js for the compressed assets test';
+var line9 = 'The content of bundle.js for the compressed assets test';
+var line10 = 'The content of bundle.js for the compressed assets test';
+var line11 = 'The content of bundle.js for the compressed assets test';
+var line12 = 'The content of bundle.js for the compressed assets test';
+var line13 = 'The content of bundle.js for the compressed assets test';
+var line14 = 'The content of bundle.js for the compressed assets test';
+var line15 = 'The content of bundle.js for the compressed assets test';
+var line16 = 'The content of bundle.js for the compressed assets test';
+var line17 = 'The content of bundle.js for the compressed assets test';
+var line18 = 'The content of bundle.js for the compressed assets test';
+var line19 = 'The content of bundle.js for the compressed assets test';
@@ -0,0 +1 @@
+var s='original';
\ No newline at end of file
@@ -153,7 +153,8 @@ public abstract class AbstractHtplContext implements HtplContext {
 
 	@Override
 	public String evalString(Expression expr) {
-		return Converts.toString(eval(expr));
+		Object v = eval(expr);
+		return v instanceof String ? (String)v : Converts.toString(v);
 	}
 
 	@Override
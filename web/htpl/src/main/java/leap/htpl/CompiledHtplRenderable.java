@@ -0,0 +1,176 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.htpl;
+
+import static leap.lang.asm.Opcodes.AALOAD;
+import static leap.lang.asm.Opcodes.ACC_FINAL;
+import static leap.lang.asm.Opcodes.ACC_PUBLIC;
+import static leap.lang.asm.Opcodes.ALOAD;
+import static leap.lang.asm.Opcodes.BIPUSH;
+import static leap.lang.asm.Opcodes.GETFIELD;
+import static leap.lang.asm.Opcodes.ICONST_0;
+import static leap.lang.asm.Opcodes.INVOKEINTERFACE;
+import static leap.lang.asm.Opcodes.INVOKESPECIAL;
+import static leap.lang.asm.Opcodes.POP;
+import static leap.lang.asm.Opcodes.RETURN;
+import static leap.lang.asm.Opcodes.SIPUSH;
+import static leap.lang.asm.Opcodes.V1_6;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import leap.htpl.exception.HtplCompileException;
+import leap.lang.asm.ClassWriter;
+import leap.lang.asm.MethodVisitor;
+import leap.lang.asm.Type;
+
+/**
+ * The base class of the generated {@link HtplRenderable} classes.
+ *
+ * <p>
+ * A generated class renders all the child nodes by a straight-line method,
+ * the static text are written as the pre-encoded utf-8 bytes by {@link HtplWriter#write(CharSequence, byte[])}.
+ */
+public abstract class CompiledHtplRenderable implements HtplRenderable {
+
+	/**
+	 * The max number of nodes can be compiled into one class, limited by the max size of a method.
+	 */
+	public static final int MAX_NODES = 2000;
+
+	private static final String        CLASS_NAME_PREFIX = "leap/htpl/CompiledHtplRenderable$";
+	private static final String        SUPER_NAME        = Type.getInternalName(CompiledHtplRenderable.class);
+	private static final String        WRITER_NAME       = Type.getInternalName(HtplWriter.class);
+	private static final String        RENDERABLE_NAME   = Type.getInternalName(HtplRenderable.class);
+	private static final String        CONSTRUCTOR_DESC  = "([Lleap/htpl/HtplRenderable;[Ljava/lang/CharSequence;[[B)V";
+	private static final AtomicInteger counter           = new AtomicInteger();
+
+	/**
+	 * Generates a class renders the nodes.
+	 *
+	 * <p>
+	 * The node at index <code>i</code> is a static text if <code>texts[i]</code> is not null,
+	 * the <code>bytes[i]</code> must be the text encoded in utf-8 charset.
+	 */
+	public static CompiledHtplRenderable compile(HtplRenderable[] nodes, CharSequence[] texts, byte[][] bytes) throws HtplCompileException {
+		if(nodes.length > MAX_NODES) {
+			throw new HtplCompileException("Too many nodes " + nodes.length + ", max " + MAX_NODES);
+		}
+
+		String className = CLASS_NAME_PREFIX + counter.incrementAndGet();
+
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		cw.visit(V1_6, ACC_PUBLIC | ACC_FINAL, className, null, SUPER_NAME, null);
+
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", CONSTRUCTOR_DESC, null, null);
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitVarInsn(ALOAD, 1);
+		mv.visitVarInsn(ALOAD, 2);
+		mv.visitVarInsn(ALOAD, 3);
+		mv.visitMethodInsn(INVOKESPECIAL, SUPER_NAME, "<init>", CONSTRUCTOR_DESC, false);
+		mv.visitInsn(RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		mv = cw.visitMethod(ACC_PUBLIC, "render", "(Lleap/htpl/HtplTemplate;Lleap/htpl/HtplContext;Lleap/htpl/HtplWriter;)V",
+							null, new String[]{Type.getInternalName(IOException.class)});
+		mv.visitCode();
+		for(int i=0;i<nodes.length;i++) {
+			if(null != texts[i]) {
+				//writer.write(texts[i], bytes[i])
+				mv.visitVarInsn(ALOAD, 3);
+				mv.visitVarInsn(ALOAD, 0);
+				mv.visitFieldInsn(GETFIELD, SUPER_NAME, "texts", "[Ljava/lang/CharSequence;");
+				pushInt(mv, i);
+				mv.visitInsn(AALOAD);
+				mv.visitVarInsn(ALOAD, 0);
+				mv.visitFieldInsn(GETFIELD, SUPER_NAME, "bytes", "[[B");
+				pushInt(mv, i);
+				mv.visitInsn(AALOAD);
+				mv.visitMethodInsn(INVOKEINTERFACE, WRITER_NAME, "write", "(Ljava/lang/CharSequence;[B)Lleap/htpl/HtplWriter;", true);
+				mv.visitInsn(POP);
+			}else{
+				//nodes[i].render(tpl, context, writer)
+				mv.visitVarInsn(ALOAD, 0);
+				mv.visitFieldInsn(GETFIELD, SUPER_NAME, "nodes", "[Lleap/htpl/HtplRenderable;");
+				pushInt(mv, i);
+				mv.visitInsn(AALOAD);
+				mv.visitVarInsn(ALOAD, 1);
+				mv.visitVarInsn(ALOAD, 2);
+				mv.visitVarInsn(ALOAD, 3);
+				mv.visitMethodInsn(INVOKEINTERFACE, RENDERABLE_NAME, "render", "(Lleap/htpl/HtplTemplate;Lleap/htpl/HtplContext;Lleap/htpl/HtplWriter;)V", true);
+			}
+		}
+		mv.visitInsn(RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		cw.visitEnd();
+
+		byte[] data = cw.toByteArray();
+
+		try {
+			Class<?> c = new RenderableLoader().defineClass(className.replace('/', '.'), data);
+			return (CompiledHtplRenderable)c.getConstructor(HtplRenderable[].class, CharSequence[].class, byte[][].class)
+											.newInstance(nodes, texts, bytes);
+		} catch (Exception e) {
+			throw new HtplCompileException("Error creating the compiled renderable, " + e.getMessage(), e);
+		}
+	}
+
+	private static void pushInt(MethodVisitor mv, int i) {
+		if(i <= 5) {
+			mv.visitInsn(ICONST_0 + i);
+		}else if(i <= Byte.MAX_VALUE) {
+			mv.visitIntInsn(BIPUSH, i);
+		}else{
+			mv.visitIntInsn(SIPUSH, i);
+		}
+	}
+
+	protected final HtplRenderable[] nodes;
+	protected final CharSequence[]   texts;
+	protected final byte[][]         bytes;
+
+	protected CompiledHtplRenderable(HtplRenderable[] nodes, CharSequence[] texts, byte[][] bytes) {
+		this.nodes = nodes;
+		this.texts = texts;
+		this.bytes = bytes;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+
+		for(int i=0;i<nodes.length;i++){
+			sb.append(null != texts[i] ? texts[i] : nodes[i].toString());
+		}
+
+		return sb.toString();
+	}
+
+	private static final class RenderableLoader extends ClassLoader {
+
+		RenderableLoader() {
+			super(CompiledHtplRenderable.class.getClassLoader());
+		}
+
+		Class<?> defineClass(String name, byte[] bytes) throws ClassFormatError {
+			return defineClass(name, bytes, 0, bytes.length);
+		}
+	}
+}
@@ -23,6 +23,7 @@ import leap.htpl.escaping.EscapableExpression;
 import leap.htpl.escaping.EscapeType;
 import leap.htpl.escaping.HtplEscaper;
 import leap.lang.Args;
+import leap.lang.Charsets;
 import leap.lang.Strings;
 import leap.lang.expression.Expression;
 
@@ -197,9 +198,33 @@ public class DefaultHtplCompiler implements HtplCompiler {
 
 	@Override
     public HtplRenderable compile() {
+		if(engine.getConfig().isCompiled() && nodes.size() <= CompiledHtplRenderable.MAX_NODES) {
+			return compileToClass();
+		}
 	    return new HtplRenderableContainer(nodes);
     }
 	
+	/**
+	 * Compiles the nodes to a generated class, the static text are pre-encoded to utf-8 bytes.
+	 */
+	protected HtplRenderable compileToClass() {
+		int size = nodes.size();
+		
+		HtplRenderable[] renderables = nodes.toArray(new HtplRenderable[size]);
+		CharSequence[]   texts       = new CharSequence[size];
+		byte[][]	     bytes       = new byte[size][];
+		
+		for(int i=0;i<size;i++){
+			if(renderables[i] instanceof RenderableText){
+				String text = renderables[i].toString();
+				texts[i] = text;
+				bytes[i] = text.getBytes(Charsets.UTF_8);
+			}
+		}
+		
+		return CompiledHtplRenderable.compile(renderables, texts, bytes);
+	}
+	
 	protected String qname(String prefix,String name){
 		return Strings.isEmpty(prefix) ? name : prefix + ":" + name;
 	}
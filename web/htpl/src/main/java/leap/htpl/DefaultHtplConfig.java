@@ -23,6 +23,7 @@ import leap.core.validation.annotations.NotEmpty;
 public class DefaultHtplConfig implements HtplConfig {
 
 	protected @NotEmpty String prefix;
+	protected boolean          compiled;
 	
 	@Override
 	public String getPrefix() {
@@ -34,4 +35,14 @@ public class DefaultHtplConfig implements HtplConfig {
 		this.prefix = prefix;
 	}
 
+	@Override
+	public boolean isCompiled() {
+		return compiled;
+	}
+
+	@ConfigProperty
+	public void setCompiled(boolean compiled) {
+		this.compiled = compiled;
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.htpl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import leap.core.BeanFactory;
+import leap.core.annotation.Inject;
+import leap.core.annotation.M;
+import leap.core.annotation.N;
+import leap.core.cache.Cache;
+import leap.core.cache.CacheStats;
+import leap.core.event.Event;
+import leap.core.event.EventListener;
+import leap.core.event.EventManager;
+import leap.core.ioc.PostCreateBean;
+import leap.lang.Args;
+import leap.lang.Charsets;
+import leap.lang.logging.Log;
+import leap.lang.logging.LogFactory;
+
+public class DefaultHtplFragmentCache implements HtplFragmentCache, EventListener, PostCreateBean {
+
+	private static final Log log = LogFactory.get(DefaultHtplFragmentCache.class);
+
+	private static final char KEY_SEPARATOR = '\n';
+
+	@Inject(name = "htpl-fragments")
+	protected @M Cache<String, HtplFragmentCache.Entry> cache;
+
+	protected @Inject @N EventManager eventManager;
+
+	protected final ConcurrentMap<String, Stats> statsMap = new ConcurrentHashMap<>();
+
+	public void setCache(Cache<String, HtplFragmentCache.Entry> cache) {
+		this.cache = cache;
+	}
+
+	@Override
+	public HtplFragmentCache.Entry get(String name, String template, String key) {
+		Stats  stats    = stats(name);
+		String cacheKey = cacheKey(name, template, key);
+
+		HtplFragmentCache.Entry entry = cache.get(cacheKey);
+		if(null != entry) {
+			if(entry.getGeneration() != stats.generation.get()) {
+				cache.remove(cacheKey);
+				entry = null;
+			}else if(entry.isExpired(System.currentTimeMillis())) {
+				cache.remove(cacheKey);
+				stats.expirations.increment();
+				entry = null;
+			}
+		}
+
+		if(null == entry) {
+			stats.misses.increment();
+		}else{
+			stats.hits.increment();
+		}
+
+		return entry;
+	}
+
+	@Override
+	public HtplFragmentCache.Entry put(String name, String template, String key, String content, int ttl) {
+		Args.notNull(content, "content");
+
+		Stats stats = stats(name);
+
+		long expires = ttl > 0 ? System.currentTimeMillis() + ttl * 1000L : 0L;
+
+		HtplFragmentCache.Entry entry =
+				new HtplFragmentCache.Entry(content, content.getBytes(Charsets.UTF_8), expires, stats.generation.get());
+
+		cache.put(cacheKey(name, template, key), entry);
+		stats.puts.increment();
+
+		return entry;
+	}
+
+	@Override
+	public void invalidate(String name) {
+		Args.notNull(name, "name");
+
+		//the entries of the old generation put by the concurrent renderings will be removed when getting.
+		Stats stats = statsMap.get(name);
+		if(null != stats) {
+			stats.generation.incrementAndGet();
+		}
+
+		String prefix = name + KEY_SEPARATOR;
+		for(String cacheKey : cache.getAll().keySet()) {
+			if(cacheKey.startsWith(prefix)) {
+				cache.remove(cacheKey);
+			}
+		}
+	}
+
+	@Override
+	public void invalidate(String name, String key) {
+		Args.notNull(name, "name");
+
+		String prefix = name + KEY_SEPARATOR;
+		for(String cacheKey : cache.getAll().keySet()) {
+			if(cacheKey.startsWith(prefix)) {
+				int index = cacheKey.indexOf(KEY_SEPARATOR, prefix.length());
+				if(index > 0 && cacheKey.substring(index + 1).equals(key)) {
+					cache.remove(cacheKey);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void invalidateAll() {
+		cache.clear();
+	}
+
+	@Override
+	public CacheStats getStats(String name) {
+		Stats stats = statsMap.get(name);
+		return null == stats ? null : stats.snapshot();
+	}
+
+	@Override
+	public Map<String, CacheStats> getStats() {
+		Map<String, CacheStats> map = new LinkedHashMap<>();
+		for(Map.Entry<String, Stats> entry : statsMap.entrySet()) {
+			map.put(entry.getKey(), entry.getValue().snapshot());
+		}
+		return map;
+	}
+
+	@Override
+	public void onEvent(Event event) throws Exception {
+		Object context = event.getContext();
+		if(null == context) {
+			log.debug("Invalidate all the cached fragments");
+			invalidateAll();
+		}else{
+			log.debug("Invalidate the cached fragments '{}'", context);
+			invalidate(context.toString());
+		}
+	}
+
+	@Override
+	public void postCreate(BeanFactory factory) throws Exception {
+		if(null != eventManager) {
+			if(!eventManager.isEventNameRegistered(EVENT_INVALIDATE)) {
+				eventManager.registerEventName(EVENT_CATEGORY, EVENT_INVALIDATE);
+			}
+			eventManager.addEventNameListener(EVENT_INVALIDATE, this);
+		}
+	}
+
+	protected Stats stats(String name) {
+		Stats stats = statsMap.get(name);
+		if(null == stats) {
+			stats = new Stats();
+			Stats exists = statsMap.putIfAbsent(name, stats);
+			if(null != exists) {
+				stats = exists;
+			}
+		}
+		return stats;
+	}
+
+	protected static String cacheKey(String name, String template, String key) {
+		return name + KEY_SEPARATOR + (null == template ? "" : template) + KEY_SEPARATOR + key;
+	}
+
+	protected static final class Stats {
+		final LongAdder hits        = new LongAdder();
+		final LongAdder misses      = new LongAdder();
+		final LongAdder puts        = new LongAdder();
+		final LongAdder expirations = new LongAdder();
+
+		final AtomicInteger generation = new AtomicInteger();
+
+		CacheStats snapshot() {
+			return new CacheStats(hits.sum(), misses.sum(), puts.sum(), 0, expirations.sum());
+		}
+	}
+}
@@ -18,5 +18,11 @@ package leap.htpl;
 public interface HtplConfig {
 	
 	String getPrefix();
+	
+	/**
+	 * Returns <code>true</code> if the templates are compiled to the generated classes,
+	 * and the static text are pre-encoded in utf-8 charset.
+	 */
+	boolean isCompiled();
 
 }
\ No newline at end of file
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.htpl;
+
+import java.util.Map;
+
+import leap.core.cache.CacheStats;
+
+/**
+ * Caches the rendered output of the cacheable fragments, i.e. <code>&lt;div ht-fragment="menu" ht-cache="${user.id}"&gt;</code>.
+ *
+ * <p>
+ * The cached output is identified by the cache name (the fragment name by default), the template defines the fragment
+ * and the key evaluated from the template.
+ *
+ * <p>
+ * The cached fragments can be invalidated by firing an event named {@link #EVENT_INVALIDATE},
+ * the context of the event is the cache name, or <code>null</code> for invalidating all.
+ */
+public interface HtplFragmentCache {
+
+	String EVENT_CATEGORY   = "htpl";
+	String EVENT_INVALIDATE = "htpl.fragment.invalidate";
+
+	/**
+	 * Returns the cached fragment or <code>null</code> if not cached or expired.
+	 *
+	 * <p>
+	 * The template is the source of the template compiles the fragment.
+	 */
+	Entry get(String name, String template, String key);
+
+	/**
+	 * Caches the rendered output of the fragment and returns the cached entry.
+	 *
+	 * <p>
+	 * The cached entry never expires if the given ttl seconds less than or equals to zero.
+	 */
+	Entry put(String name, String template, String key, String content, int ttl);
+
+	/**
+	 * Invalidates all the cached output of the given name.
+	 */
+	void invalidate(String name);
+
+	/**
+	 * Invalidates the cached output of the given name and key in all the templates.
+	 */
+	void invalidate(String name, String key);
+
+	/**
+	 * Invalidates all the cached output.
+	 */
+	void invalidateAll();
+
+	/**
+	 * Returns the statistics of the given name or <code>null</code> if the cache name not used.
+	 */
+	CacheStats getStats(String name);
+
+	/**
+	 * Returns the statistics of all the cache names.
+	 */
+	Map<String, CacheStats> getStats();
+
+	/**
+	 * The cached output of a fragment.
+	 */
+	final class Entry {
+
+		private final String content;
+		private final byte[] utf8;
+		private final long   expires;
+		private final int    generation;
+
+		public Entry(String content, byte[] utf8, long expires, int generation) {
+			this.content    = content;
+			this.utf8       = utf8;
+			this.expires    = expires;
+			this.generation = generation;
+		}
+
+		/**
+		 * Returns the rendered content.
+		 */
+		public String getContent() {
+			return content;
+		}
+
+		/**
+		 * Returns the rendered content encoded in utf-8 charset.
+		 */
+		public byte[] getUtf8() {
+			return utf8;
+		}
+
+		/**
+		 * Returns the expiration time in milliseconds, or zero if never expires.
+		 */
+		public long getExpires() {
+			return expires;
+		}
+
+		/**
+		 * Returns the generation of the cache name when this entry created.
+		 */
+		public int getGeneration() {
+			return generation;
+		}
+
+		public boolean isExpired(long now) {
+			return expires > 0 && expires <= now;
+		}
+	}
+}
@@ -17,6 +17,7 @@ package leap.htpl;
 
 import leap.lang.Sourced;
 
+import java.io.OutputStream;
 import java.io.Writer;
 import java.util.Locale;
 
@@ -67,6 +68,15 @@ public interface HtplTemplate extends Sourced {
 	 */
 	void render(HtplContext context,HtplWriter writer);
 	
+	/**
+	 * Renders this template and writes the content encoded in utf-8 charset to the given output stream.
+	 */
+	default void render(HtplContext context,OutputStream out) {
+		Utf8HtplWriter writer = new Utf8HtplWriter(out);
+		render(context, writer);
+		writer.flush();
+	}
+	
 	/**
 	 * Renders this template as a child included by the parent template.
 	 */
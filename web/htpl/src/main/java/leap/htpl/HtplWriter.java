@@ -19,6 +19,16 @@ public interface HtplWriter extends Appendable{
 	
 	HtplWriter write(CharSequence s);
 	
+	/**
+	 * Writes the static text, the given bytes is the text encoded in utf-8 charset.
+	 * 
+	 * <p>
+	 * The writer writes to a byte stream can write the bytes directly, the default implementation writes the text.
+	 */
+	default HtplWriter write(CharSequence s, byte[] utf8) {
+		return write(s);
+	}
+	
 	HtplWriter write(char c);
 	
 	HtplWriter startElement(String prefix,String localName);
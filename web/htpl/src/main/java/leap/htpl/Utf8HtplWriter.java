@@ -0,0 +1,251 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.htpl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import leap.lang.Args;
+import leap.lang.Strings;
+import leap.lang.exception.NestedIOException;
+import leap.lang.html.HTML;
+
+/**
+ * A {@link HtplWriter} writes the content encoded in utf-8 charset to an {@link OutputStream}.
+ *
+ * <p>
+ * The pre-encoded static text is copied to the output directly, see {@link #write(CharSequence, byte[])}.
+ *
+ * <p>
+ * The content is buffered, {@link #flush()} must be invoked after rendering.
+ */
+public class Utf8HtplWriter implements HtplWriter {
+
+	private static final int    DEFAULT_BUFFER_SIZE = 8192;
+	private static final String ATTR_EQQUOTE        = "=\"";
+	private static final char   ATTR_QUOTE          = '"';
+	private static final byte   REPLACEMENT         = '?';
+
+	protected final OutputStream out;
+	protected final byte[]       buf;
+
+	private int  pos;
+	private char highSurrogate;
+
+	public Utf8HtplWriter(OutputStream out) {
+		this(out, DEFAULT_BUFFER_SIZE);
+	}
+
+	public Utf8HtplWriter(OutputStream out, int bufferSize) {
+		Args.notNull(out, "output stream");
+		Args.assertTrue(bufferSize >= 16, "The buffer size must be 16 at least");
+		this.out = out;
+		this.buf = new byte[bufferSize];
+	}
+
+	@Override
+	public HtplWriter write(CharSequence s, byte[] utf8) throws NestedIOException {
+		if(null == utf8) {
+			return write(s);
+		}
+
+		try {
+			endSurrogate();
+
+			int len = utf8.length;
+			if(len > buf.length - pos) {
+				flushBuffer();
+				if(len >= buf.length) {
+					out.write(utf8, 0, len);
+					return this;
+				}
+			}
+
+			System.arraycopy(utf8, 0, buf, pos, len);
+			pos += len;
+		} catch (IOException e) {
+			throw new NestedIOException("Error writing bytes : " + e.getMessage(), e);
+		}
+		return this;
+	}
+
+	@Override
+	public HtplWriter write(CharSequence s) throws NestedIOException {
+		if(null != s){
+			try {
+				encode(s, 0, s.length());
+			} catch (IOException e) {
+				throw new NestedIOException("Error writing string '" + s + "' : " + e.getMessage(),e);
+			}
+		}
+		return this;
+	}
+
+	@Override
+	public HtplWriter write(char c) throws NestedIOException {
+		try {
+			encode(c);
+		} catch (IOException e) {
+			throw new NestedIOException("Error writing char '" + c + "' : " + e.getMessage(),e);
+		}
+		return this;
+	}
+
+	@Override
+	public Appendable append(CharSequence csq) throws IOException {
+		encode(null == csq ? "null" : csq, 0, null == csq ? 4 : csq.length());
+		return this;
+	}
+
+	@Override
+	public Appendable append(CharSequence csq, int start, int end) throws IOException {
+		if(null == csq) {
+			csq = "null";
+		}
+		encode(csq, start, end);
+		return this;
+	}
+
+	@Override
+	public Appendable append(char c) throws IOException {
+		encode(c);
+		return this;
+	}
+
+	@Override
+	public HtplWriter attribute(String localName, String value) {
+		write(localName).write(ATTR_EQQUOTE);
+
+		try {
+			HTML.escapeAndAppend(value, this);
+		} catch (IOException e) {
+			throw new NestedIOException(e);
+		}
+
+		write(ATTR_QUOTE);
+		return this;
+	}
+
+	@Override
+	public HtplWriter startElement(String prefix, String localName) {
+		write('<');
+		if(!Strings.isEmpty(prefix)){
+			write(prefix).write(':');
+		}
+		write(localName);
+		return this;
+	}
+
+	@Override
+	public HtplWriter closeElement() {
+		write("/>");
+		return this;
+	}
+
+	@Override
+	public HtplWriter closeElement(String prefix, String localName) {
+		write("</");
+		if(!Strings.isEmpty(prefix)){
+			write(prefix).write(':');
+		}
+		write(localName).write('>');
+		return this;
+	}
+
+	/**
+	 * Writes the buffered content to the output stream and flushes the output stream.
+	 */
+	public void flush() throws NestedIOException {
+		try {
+			endSurrogate();
+			flushBuffer();
+			out.flush();
+		} catch (IOException e) {
+			throw new NestedIOException("Error flushing the output : " + e.getMessage(), e);
+		}
+	}
+
+	protected void encode(CharSequence s, int start, int end) throws IOException {
+		for(int i=start;i<end;i++) {
+			char c = s.charAt(i);
+			if(c < 0x80 && highSurrogate == 0) {
+				if(pos == buf.length) {
+					flushBuffer();
+				}
+				buf[pos++] = (byte)c;
+			}else{
+				encode(c);
+			}
+		}
+	}
+
+	protected void encode(char c) throws IOException {
+		if(buf.length - pos < 4) {
+			flushBuffer();
+		}
+
+		if(highSurrogate != 0) {
+			char high = highSurrogate;
+			highSurrogate = 0;
+
+			if(Character.isLowSurrogate(c)) {
+				int cp = Character.toCodePoint(high, c);
+				buf[pos++] = (byte)(0xF0 | (cp >> 18));
+				buf[pos++] = (byte)(0x80 | ((cp >> 12) & 0x3F));
+				buf[pos++] = (byte)(0x80 | ((cp >> 6) & 0x3F));
+				buf[pos++] = (byte)(0x80 | (cp & 0x3F));
+				return;
+			}
+
+			buf[pos++] = REPLACEMENT;
+			if(buf.length - pos < 4) {
+				flushBuffer();
+			}
+		}
+
+		if(c < 0x80) {
+			buf[pos++] = (byte)c;
+		}else if(c < 0x800) {
+			buf[pos++] = (byte)(0xC0 | (c >> 6));
+			buf[pos++] = (byte)(0x80 | (c & 0x3F));
+		}else if(Character.isHighSurrogate(c)) {
+			highSurrogate = c;
+		}else if(Character.isLowSurrogate(c)) {
+			buf[pos++] = REPLACEMENT;
+		}else{
+			buf[pos++] = (byte)(0xE0 | (c >> 12));
+			buf[pos++] = (byte)(0x80 | ((c >> 6) & 0x3F));
+			buf[pos++] = (byte)(0x80 | (c & 0x3F));
+		}
+	}
+
+	private void endSurrogate() throws IOException {
+		if(highSurrogate != 0) {
+			highSurrogate = 0;
+			if(pos == buf.length) {
+				flushBuffer();
+			}
+			buf[pos++] = REPLACEMENT;
+		}
+	}
+
+	private void flushBuffer() throws IOException {
+		if(pos > 0) {
+			out.write(buf, 0, pos);
+			pos = 0;
+		}
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.htpl.ast;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+import leap.htpl.DefaultHtplWriter;
+import leap.htpl.HtplCompiler;
+import leap.htpl.HtplContext;
+import leap.htpl.HtplDocument;
+import leap.htpl.HtplEngine;
+import leap.htpl.HtplFragmentCache;
+import leap.htpl.HtplRenderable;
+import leap.htpl.HtplResource;
+import leap.htpl.HtplTemplate;
+import leap.htpl.HtplWriter;
+import leap.lang.Args;
+import leap.lang.expression.Expression;
+
+/**
+ * Caches the rendered output of the child nodes in {@link HtplFragmentCache}.
+ */
+public class CachedContent extends NodeContainer implements HtplRenderable {
+
+	protected final HtplFragmentCache cache;
+	protected final String            name;
+	protected final Expression        key;
+	protected final int               ttl;
+
+	private String         template;
+	private HtplRenderable compiledChildNodes;
+
+	public CachedContent(HtplFragmentCache cache, String name, Expression key, int ttl, Node body) {
+		super();
+
+		Args.notNull(cache, "fragment cache");
+		Args.notEmpty(name, "cache name");
+		Args.notNull(key, "key expression");
+
+		this.cache = cache;
+		this.name  = name;
+		this.key   = key;
+		this.ttl   = ttl;
+
+		if(null != body) {
+			this.addChildNode(body);
+		}
+	}
+
+	protected CachedContent(HtplFragmentCache cache, String name, Expression key, int ttl, List<Node> childNodes) {
+		super(childNodes);
+		this.cache = cache;
+		this.name  = name;
+		this.key   = key;
+		this.ttl   = ttl;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Expression getKey() {
+		return key;
+	}
+
+	/**
+	 * Returns the time to live in seconds, never expires if less than or equals to zero.
+	 */
+	public int getTtl() {
+		return ttl;
+	}
+
+	@Override
+	public void compile(HtplEngine engine, HtplDocument doc, HtplCompiler compiler) {
+		HtplResource resource = doc.getResource();
+		this.template = null == resource ? null : String.valueOf(resource.getSource());
+
+		HtplCompiler childNodesCompiler = compiler.newCompiler();
+		compileChildNodes(engine, doc, childNodesCompiler);
+		this.compiledChildNodes = childNodesCompiler.compile();
+
+		compiler.renderable(this);
+		this.compiled = this;
+	}
+
+	@Override
+	public void render(HtplTemplate tpl, HtplContext context, HtplWriter writer) throws IOException, IllegalStateException {
+		String k = context.evalString(key);
+
+		HtplFragmentCache.Entry entry = cache.get(name, template, k);
+		if(null == entry) {
+			StringWriter out = new StringWriter();
+			compiledChildNodes.render(tpl, context, new DefaultHtplWriter(context.getEngine(), out));
+			entry = cache.put(name, template, k, out.toString(), ttl);
+		}
+
+		writer.write(entry.getContent(), entry.getUtf8());
+	}
+
+	@Override
+	protected Node doDeepClone(Node parent) {
+		return new CachedContent(cache, name, key, ttl, deepCloneChildNodes());
+	}
+}
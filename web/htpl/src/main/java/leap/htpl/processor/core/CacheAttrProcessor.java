@@ -0,0 +1,122 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.htpl.processor.core;
+
+import leap.core.el.EL;
+import leap.htpl.HtplDocument;
+import leap.htpl.HtplEngine;
+import leap.htpl.HtplFragmentCache;
+import leap.htpl.ast.Attr;
+import leap.htpl.ast.CachedContent;
+import leap.htpl.ast.Element;
+import leap.htpl.ast.Node;
+import leap.htpl.exception.HtplParseException;
+import leap.htpl.processor.AbstractAttrProcessor;
+import leap.lang.Strings;
+import leap.lang.expression.Expression;
+
+/**
+ * Caches the rendered output of an element.
+ *
+ * <pre>
+ *  &lt;div ht-fragment="menu" ht-cache="${user.id}" ht-cache-ttl="300"&gt;...&lt;/div&gt;
+ *  &lt;div ht-include="layout#menu" ht-cache="${user.id}" ht-cache-name="menu"&gt;&lt;/div&gt;
+ * </pre>
+ *
+ * <p>
+ * The cache name is the fragment name if the element is a fragment, otherwise must be specified by 'cache-name'.
+ *
+ * <p>
+ * The ttl is in seconds, the cached output never expires (until invalidated) if not specified.
+ */
+public class CacheAttrProcessor extends AbstractAttrProcessor {
+
+	public static final String ATTR_NAME      = "cache";
+	public static final String TTL_ATTR_NAME  = "cache-ttl";
+	public static final String NAME_ATTR_NAME = "cache-name";
+
+	@Override
+	public boolean supports(Element e, Attr a) {
+		String name = a.getLocalName();
+		return ATTR_NAME.equalsIgnoreCase(name) || TTL_ATTR_NAME.equalsIgnoreCase(name) || NAME_ATTR_NAME.equalsIgnoreCase(name);
+	}
+
+	@Override
+	public Node processStartElement(HtplEngine engine, HtplDocument doc, Element e, Attr attr) {
+		if(!ATTR_NAME.equalsIgnoreCase(attr.getLocalName())) {
+			if(null == getAttr(e, ATTR_NAME)) {
+				throw new HtplParseException("Attribute '" + attr.getQualifiedName() +
+											 "' must be used together with '" + ATTR_NAME + "' in element '" + e.getQualifiedName() + "'");
+			}
+			//processed by the 'cache' attribute.
+			return e;
+		}
+
+		//the fragment processor creates the cached content inside the fragment.
+		for(Attr a : e.attributes()) {
+			if(a.getProcessor() instanceof FragmentAttrProcessor) {
+				return e;
+			}
+		}
+
+		return processCachedElement(engine, e, attr, null);
+	}
+
+	/**
+	 * Removes the cache attributes and returns a {@link CachedContent} wraps the given element.
+	 */
+	public Node processCachedElement(HtplEngine engine, Element e, Attr attr, String fragmentName) {
+		Attr ttlAttr  = getAttr(e, TTL_ATTR_NAME);
+		Attr nameAttr = getAttr(e, NAME_ATTR_NAME);
+
+		String name = null != nameAttr ? nameAttr.getString() : fragmentName;
+		if(Strings.isEmpty(name)) {
+			throw new HtplParseException("Attribute '" + NAME_ATTR_NAME + "' must be specified in element '" +
+										 e.getQualifiedName() + "', because the element is not a fragment");
+		}
+
+		int ttl = 0;
+		if(null != ttlAttr) {
+			try {
+				ttl = Integer.parseInt(ttlAttr.getString().trim());
+			} catch (NumberFormatException ex) {
+				throw new HtplParseException("Invalid ttl seconds '" + ttlAttr.getString() + "' in element '" + e.getQualifiedName() + "'");
+			}
+			e.removeAttribute(ttlAttr);
+		}
+
+		if(null != nameAttr) {
+			e.removeAttribute(nameAttr);
+		}
+		e.removeAttribute(attr);
+
+		//cache="${expression}" cache="expression"
+		Expression key = engine.getExpressionManager()
+							   .getExpressionLanguage()
+							   .createExpression(EL.removePrefixAndSuffix(attr.getString()));
+
+		return new CachedContent(engine.factory().getBean(HtplFragmentCache.class), name, key, ttl, e);
+	}
+
+	protected Attr getAttr(Element e, String name) {
+		for(Attr a : e.attributes()) {
+			if(a.getProcessor() == this && name.equalsIgnoreCase(a.getLocalName())) {
+				return a;
+			}
+		}
+		return null;
+	}
+}
@@ -35,6 +35,14 @@ public class FragmentAttrProcessor extends AbstractNamedAttrProcessor {
 	public Node processStartElement(HtplEngine engine, HtplDocument doc, Element e, Attr attr) {
 		String name = attr.getString();
 		e.removeAttribute(attr);
+		
+		//cacheable fragment : ht-fragment="name" ht-cache="key"
+		for(Attr a : e.attributes()) {
+			if(a.getProcessor() instanceof CacheAttrProcessor && CacheAttrProcessor.ATTR_NAME.equalsIgnoreCase(a.getLocalName())) {
+				return new Fragment(name,true,((CacheAttrProcessor)a.getProcessor()).processCachedElement(engine, e, a, name));
+			}
+		}
+		
 		return new Fragment(name,true,e);
 	}
 
@@ -15,9 +15,12 @@
  */
 package leap.htpl.web;
 
+import java.io.OutputStream;
+
 import leap.htpl.HtplTemplate;
 import leap.htpl.HtplTemplateLazyCreator;
 import leap.lang.Args;
+import leap.lang.Charsets;
 import leap.lang.logging.Log;
 import leap.lang.logging.LogFactory;
 import leap.web.App;
@@ -63,9 +66,35 @@ public class WebHtplView extends AbstractView {
 			context.setRenderLayout(false);
 		}
 		
-		template.render(context, response.getWriter());
+		OutputStream out = getUtf8OutputStream(response);
+		if(null != out) {
+			template.render(context, out);
+		}else{
+			template.render(context, response.getWriter());
+		}
     }
 	
+	/**
+	 * Returns the output stream for writing the pre-encoded content of compiled template directly,
+	 * or returns <code>null</code> if the content must be written to the writer of response.
+	 */
+	protected OutputStream getUtf8OutputStream(Response response) {
+		if(!template.getEngine().getConfig().isCompiled()) {
+			return null;
+		}
+		
+		if(!Charsets.UTF_8_NAME.equalsIgnoreCase(response.getServletResponse().getCharacterEncoding())) {
+			return null;
+		}
+		
+		try {
+			return response.getOutputStream();
+		} catch (IllegalStateException e) {
+			//the writer already obtained.
+			return null;
+		}
+	}
+	
 	/*
 	protected void includeJsp(Request request,Response response, ServletResource jsp) throws Exception {
 		javax.servlet.http.HttpServletRequest  req  = request.getServletRequest();
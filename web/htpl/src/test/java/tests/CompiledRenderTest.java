@@ -0,0 +1,103 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tests;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+
+import leap.htpl.CompiledHtplRenderable;
+import leap.htpl.DefaultHtplConfig;
+import leap.htpl.HtplTemplate;
+import leap.htpl.Utf8HtplWriter;
+import leap.lang.Charsets;
+import leap.lang.New;
+import org.junit.Test;
+
+public class CompiledRenderTest extends HtplTestCase {
+
+	private static final String[] TEMPLATES = new String[]{
+		"<div>hello</div>",
+		"<div class=\"a\">${name}</div>",
+		"<p>中文 😀 ${name} &lt;</p>",
+		"<ul><li ht-for=\"i : items\">${i}</li></ul>",
+		"<div class=\"a\" ht-class-if=\"i > 0\">${i}</div>",
+		"<input ht-disabled=\"${false}\"/><span ht-if=\"i > 0\">x</span>"
+	};
+
+	@Override
+	protected void tearDown() throws Exception {
+		config().setCompiled(false);
+	}
+
+	@Test
+	public void testCompiledRender() {
+		context.setLocalVariable("name",  "<中文>");
+		context.setLocalVariable("items", New.arrayList(1, 2, 3));
+		context.setLocalVariable("i",     1);
+
+		for(String html : TEMPLATES) {
+			config().setCompiled(false);
+			String expected = render(parseTemplate(html));
+
+			config().setCompiled(true);
+			HtplTemplate compiled = parseTemplate(html);
+
+			assertEquals(html, expected, render(compiled));
+
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			compiled.render(context, out);
+			assertEquals(html, expected, new String(out.toByteArray(), Charsets.UTF_8));
+		}
+	}
+
+	@Test
+	public void testCompiledRenderable() {
+		config().setCompiled(true);
+		assertTrue(engine.createCompiler().html("<div>${i}</div>", true).compile() instanceof CompiledHtplRenderable);
+	}
+
+	@Test
+	public void testUtf8Writer() throws Exception {
+		String s = "a中😀b\uD83D";
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		Utf8HtplWriter writer = new Utf8HtplWriter(out, 16);
+		for(int i=0;i<10;i++) {
+			writer.write(s);
+			writer.write("x", "x".getBytes(Charsets.UTF_8));
+			for(char c : s.toCharArray()) {
+				writer.append(c);
+			}
+		}
+		writer.flush();
+
+		StringBuilder expected = new StringBuilder();
+		for(int i=0;i<10;i++) {
+			expected.append("a中😀b?").append("x").append("a中😀b?");
+		}
+		assertEquals(expected.toString(), new String(out.toByteArray(), Charsets.UTF_8));
+	}
+
+	protected String render(HtplTemplate template) {
+		StringWriter writer = new StringWriter();
+		template.render(context, writer);
+		return writer.toString();
+	}
+
+	protected static DefaultHtplConfig config() {
+		return (DefaultHtplConfig)engine.getConfig();
+	}
+}
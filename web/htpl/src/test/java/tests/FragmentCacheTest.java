@@ -0,0 +1,162 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tests;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+
+import leap.core.AppContext;
+import leap.core.cache.Cache;
+import leap.core.cache.CacheStats;
+import leap.core.event.DefaultEvent;
+import leap.core.event.EventManager;
+import leap.htpl.HtplFragmentCache;
+import leap.htpl.HtplTemplate;
+import leap.htpl.exception.HtplParseException;
+import leap.htpl.resolver.StringHtplResource;
+import leap.lang.Charsets;
+import org.junit.Test;
+
+public class FragmentCacheTest extends HtplTestCase {
+
+	private static final HtplFragmentCache cache = AppContext.factory().getBean(HtplFragmentCache.class);
+
+	@Override
+	protected void doSetUp() throws Exception {
+		super.doSetUp();
+		context.setLocalVariable("c", new Counter());
+	}
+
+	@Test
+	public void testCachedFragment() {
+		HtplTemplate t = parseTemplate("<div ht-fragment=\"f1\" ht-cache=\"${k}\">${c.next()}</div><!--#render-fragment f1-->");
+
+		context.setLocalVariable("k", "a");
+		assertEquals("<div>1</div><div>1</div>", render(t));
+		assertEquals("<div>1</div><div>1</div>", render(t));
+
+		context.setLocalVariable("k", "b");
+		assertEquals("<div>2</div><div>2</div>", render(t));
+
+		CacheStats stats = cache.getStats("f1");
+		assertEquals(4, stats.getHitCount());
+		assertEquals(2, stats.getMissCount());
+	}
+
+	@Test
+	public void testCacheAttrBeforeFragment() {
+		HtplTemplate t = parseTemplate("<div ht-cache-ttl=\"60\" ht-cache=\"'k'\" ht-fragment=\"f2\">${c.next()}</div><!--#render-fragment f2-->");
+
+		assertEquals("<div>1</div><div>1</div>", render(t));
+		assertEquals(1, cache.getStats("f2").getMissCount());
+		assertEquals(1, cache.getStats("f2").getHitCount());
+	}
+
+	@Test
+	public void testCacheName() {
+		HtplTemplate t = parseTemplate("<span ht-cache=\"'k'\" ht-cache-name=\"n1\">${c.next()}</span>");
+
+		assertEquals("<span>1</span>", render(t));
+		assertEquals("<span>1</span>", render(t));
+		assertEquals(1, cache.getStats("n1").getHitCount());
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		t.render(context, out);
+		assertEquals("<span>1</span>", new String(out.toByteArray(), Charsets.UTF_8));
+
+		try {
+			parseTemplate("<span ht-cache=\"'k'\">1</span>");
+			fail("Should throw HtplParseException");
+		}catch(HtplParseException e) {
+
+		}
+	}
+
+	@Test
+	public void testInvalidate() {
+		HtplTemplate t = parseTemplate("<span ht-cache=\"'k'\" ht-cache-name=\"n2\">${c.next()}</span>");
+
+		assertEquals("<span>1</span>", render(t));
+		cache.invalidate("n2");
+		assertEquals("<span>2</span>", render(t));
+		cache.invalidate("n2", "k");
+		assertEquals("<span>3</span>", render(t));
+
+		EventManager em = AppContext.factory().getBean(EventManager.class);
+		em.fireEvent(new DefaultEvent(HtplFragmentCache.EVENT_INVALIDATE, HtplFragmentCache.EVENT_CATEGORY, "n2", this));
+		assertEquals("<span>4</span>", render(t));
+		assertEquals("<span>4</span>", render(t));
+
+		em.fireEvent(new DefaultEvent(HtplFragmentCache.EVENT_INVALIDATE, HtplFragmentCache.EVENT_CATEGORY, null, this));
+		assertEquals("<span>5</span>", render(t));
+	}
+
+	@Test
+	public void testSameNameInTemplates() {
+		String html = "<span ht-cache=\"'k'\" ht-cache-name=\"n3\">${c.next()}</span>";
+
+		HtplTemplate t1 = engine.createTemplate(new StringHtplResource("t1.html", html));
+		HtplTemplate t2 = engine.createTemplate(new StringHtplResource("t2.html", html));
+
+		assertEquals("<span>1</span>", render(t1));
+		assertEquals("<span>2</span>", render(t2));
+		assertEquals("<span>1</span>", render(t1));
+		assertEquals("<span>2</span>", render(t2));
+
+		cache.invalidate("n3", "k");
+		assertEquals("<span>3</span>", render(t1));
+		assertEquals("<span>4</span>", render(t2));
+	}
+
+	@Test
+	public void testInvalidateRemovesEntries() {
+		Cache<String, ?> entries = AppContext.factory().getBean(Cache.class, "htpl-fragments");
+
+		HtplTemplate t = parseTemplate("<span ht-cache=\"${k}\" ht-cache-name=\"n4\">${c.next()}</span>");
+		for(int i=0;i<3;i++) {
+			context.setLocalVariable("k", "k" + i);
+			render(t);
+		}
+		assertEquals(3, count(entries, "n4"));
+
+		cache.invalidate("n4");
+		assertEquals(0, count(entries, "n4"));
+	}
+
+	private static int count(Cache<String, ?> entries, String name) {
+		int count = 0;
+		for(String key : entries.getAll().keySet()) {
+			if(key.startsWith(name + "\n")) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	protected String render(HtplTemplate template) {
+		StringWriter writer = new StringWriter();
+		template.render(context, writer);
+		return writer.toString();
+	}
+
+	public static final class Counter {
+		private int count;
+
+		public int next() {
+			return ++count;
+		}
+	}
+}